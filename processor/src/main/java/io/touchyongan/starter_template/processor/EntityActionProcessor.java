@@ -0,0 +1,275 @@
+package io.touchyongan.starter_template.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Generate at compile time the registry of controller methods annotated with CustomPreAuthorize or LogActionAnonymous:
+ * - EntityActionIndex, list of ActionDescriptor loaded by EntityActionRegistry instead of scanning beans at startup
+ * - Flyway repeatable migration seeding the permission code of every CustomPreAuthorize into permissions table
+ * Annotations are matched by name because the processor is compiled before the application.
+ */
+@SupportedAnnotationTypes("*")
+public class EntityActionProcessor extends AbstractProcessor {
+    static final String CUSTOM_PRE_AUTHORIZE = "io.touchyongan.starter_template.infrastructure.permission.CustomPreAuthorize";
+    static final String LOG_ACTION_ANONYMOUS = "io.touchyongan.starter_template.feature.audit.aop.LogActionAnonymous";
+    static final String INDEX_PACKAGE = "io.touchyongan.starter_template.infrastructure.permission";
+    static final String INDEX_CLASS = "EntityActionIndex";
+    static final String PERMISSION_MIGRATION = "db/migration/R__entity_action_permissions.sql";
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+    private static final Map<String, String> MAPPING_HTTP_METHODS = Map.of(
+            "org.springframework.web.bind.annotation.GetMapping", "GET",
+            "org.springframework.web.bind.annotation.PostMapping", "POST",
+            "org.springframework.web.bind.annotation.PutMapping", "PUT",
+            "org.springframework.web.bind.annotation.PatchMapping", "PATCH",
+            "org.springframework.web.bind.annotation.DeleteMapping", "DELETE");
+    private static final String ANY_HTTP_METHOD = "*";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Controllers are hand-written, so everything is known in the first round. The index is generated even when nothing
+     * is annotated, EntityActionRegistry depends on it.
+     */
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+                           final RoundEnvironment roundEnv) {
+        if (generated || roundEnv.processingOver()) {
+            return false;
+        }
+        generated = true;
+        // Sorted by method key, so output is the same on every build and the migration checksum only changes with content
+        final var descriptors = new TreeMap<String, Descriptor>();
+        collect(roundEnv, LOG_ACTION_ANONYMOUS, descriptors);
+        // CustomPreAuthorize wins when a method has both, same as AuditLogAspect did
+        collect(roundEnv, CUSTOM_PRE_AUTHORIZE, descriptors);
+        try {
+            writeIndex(descriptors.values());
+            writePermissionMigration(descriptors.values());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Error generating entity action registry", e);
+        }
+        return false;
+    }
+
+    private void collect(final RoundEnvironment roundEnv,
+                         final String annotationName,
+                         final Map<String, Descriptor> descriptors) {
+        final var annotationType = processingEnv.getElementUtils().getTypeElement(annotationName);
+        if (annotationType == null) {
+            return;
+        }
+        final var anonymous = LOG_ACTION_ANONYMOUS.equals(annotationName);
+        for (final var element : roundEnv.getElementsAnnotatedWith(annotationType)) {
+            final var method = (ExecutableElement) element;
+            final var values = annotationValues(method, annotationName);
+            final var entity = upper((String) values.get("entity").getValue());
+            final var action = upper((String) values.get("action").getValue());
+            final var permissionCodes = new TreeSet<String>();
+            if (!anonymous) {
+                final var actions = new ArrayList<String>();
+                actions.add(action);
+                for (final var value : listValue(values.get("actions"))) {
+                    actions.add(upper((String) value.getValue()));
+                }
+                actions.stream()
+                        .filter(a -> !a.isBlank())
+                        .forEach(a -> permissionCodes.add(entity + ":" + a));
+                if (permissionCodes.isEmpty()) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "CustomPreAuthorize requires action or actions", method);
+                }
+            }
+            final var declaringClass = (TypeElement) method.getEnclosingElement();
+            final var parameterTypes = method.getParameters()
+                    .stream()
+                    .map(parameter -> binaryName(parameter.asType()))
+                    .toList();
+            final var descriptor = new Descriptor(declaringClass, processingEnv.getElementUtils().getBinaryName(declaringClass).toString(),
+                    method.getSimpleName().toString(), parameterTypes, httpMethod(method), entity, action, permissionCodes, anonymous);
+            descriptors.put(descriptor.key(), descriptor);
+        }
+    }
+
+    private void writeIndex(final Collection<Descriptor> descriptors) throws IOException {
+        final var file = processingEnv.getFiler().createSourceFile(INDEX_PACKAGE + "." + INDEX_CLASS, originatingElements(descriptors));
+        try (final var out = new PrintWriter(file.openWriter())) {
+            out.println("package " + INDEX_PACKAGE + ";");
+            out.println();
+            out.println("import javax.annotation.processing.Generated;");
+            out.println("import java.util.List;");
+            out.println("import java.util.Set;");
+            out.println();
+            out.println("@Generated(\"" + EntityActionProcessor.class.getName() + "\")");
+            out.println("final class " + INDEX_CLASS + " {");
+            out.println("    static final List<ActionDescriptor> DESCRIPTORS = List.of(");
+            out.println(descriptors.stream()
+                    .map(d -> "            new ActionDescriptor(%s, %s, %s, %s, %s, %s, %s, %s)".formatted(
+                            literal(d.declaringClassName()), literal(d.methodName()), literals("List", d.parameterTypes()),
+                            literal(d.httpMethod()), literal(d.entity()), literal(d.action()), literals("Set", d.permissionCodes()),
+                            d.anonymous()))
+                    .collect(Collectors.joining(",\n")));
+            out.println("    );");
+            out.println();
+            out.println("    private " + INDEX_CLASS + "() {");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void writePermissionMigration(final Collection<Descriptor> descriptors) throws IOException {
+        // entity -> actions, from every permission code of CustomPreAuthorize
+        final var permissions = new TreeMap<String, String[]>();
+        for (final var descriptor : descriptors) {
+            for (final var code : descriptor.permissionCodes()) {
+                permissions.put(code, code.split(":", 2));
+            }
+        }
+        if (permissions.isEmpty()) {
+            return;
+        }
+        final var file = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", PERMISSION_MIGRATION, originatingElements(descriptors));
+        try (final var out = new PrintWriter(file.openWriter())) {
+            out.println("-- Generated by " + EntityActionProcessor.class.getSimpleName() + " from CustomPreAuthorize of controller methods.");
+            out.println("-- Repeatable migration, it runs again whenever the set of permissions changes. Existing codes are kept as is.");
+            out.println("INSERT INTO \"permissions\"(code, description, entity_name, action_name, \"group\")");
+            out.println("VALUES " + permissions.entrySet()
+                    .stream()
+                    .map(p -> "(%s, %s, %s, %s, %s)".formatted(sql(p.getKey()),
+                            sql("%s - Permission for action %s of %s".formatted(p.getKey(), p.getValue()[1], p.getValue()[0])),
+                            sql(p.getValue()[0]), sql(p.getValue()[1]), sql(p.getValue()[0])))
+                    .collect(Collectors.joining(",\n       ")));
+            out.println("ON CONFLICT ((lower(code))) DO NOTHING;");
+        }
+    }
+
+    private Map<String, AnnotationValue> annotationValues(final ExecutableElement method,
+                                                          final String annotationName) {
+        for (final var mirror : method.getAnnotationMirrors()) {
+            if (annotationName.equals(qualifiedName(mirror))) {
+                return processingEnv.getElementUtils()
+                        .getElementValuesWithDefaults(mirror)
+                        .entrySet()
+                        .stream()
+                        .collect(Collectors.toMap(e -> e.getKey().getSimpleName().toString(), Map.Entry::getValue));
+            }
+        }
+        throw new IllegalStateException(annotationName + " not found on " + method);
+    }
+
+    /**
+     * GET, POST, ... of the mapping annotation, comma separated for RequestMapping with several methods, * when any.
+     */
+    private String httpMethod(final ExecutableElement method) {
+        for (final var mirror : method.getAnnotationMirrors()) {
+            final var name = qualifiedName(mirror);
+            if (MAPPING_HTTP_METHODS.containsKey(name)) {
+                return MAPPING_HTTP_METHODS.get(name);
+            }
+            if (REQUEST_MAPPING.equals(name)) {
+                final var methods = mirror.getElementValues()
+                        .entrySet()
+                        .stream()
+                        .filter(e -> "method".contentEquals(e.getKey().getSimpleName()))
+                        .flatMap(e -> listValue(e.getValue()).stream())
+                        .map(v -> ((VariableElement) v.getValue()).getSimpleName().toString())
+                        .collect(Collectors.joining(","));
+                return methods.isEmpty() ? ANY_HTTP_METHOD : methods;
+            }
+        }
+        return ANY_HTTP_METHOD;
+    }
+
+    /**
+     * Name accepted by Class.forName of erased type, array as component name with [] suffix.
+     */
+    private String binaryName(final TypeMirror type) {
+        final var erasure = processingEnv.getTypeUtils().erasure(type);
+        return switch (erasure.getKind()) {
+            case ARRAY -> binaryName(((ArrayType) erasure).getComponentType()) + "[]";
+            case DECLARED -> processingEnv.getElementUtils()
+                    .getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(erasure))
+                    .toString();
+            default -> erasure.toString();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> listValue(final AnnotationValue value) {
+        return value == null ? List.of() : (List<? extends AnnotationValue>) value.getValue();
+    }
+
+    private static String qualifiedName(final AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static Element[] originatingElements(final Collection<Descriptor> descriptors) {
+        return descriptors.stream()
+                .map(Descriptor::declaringClass)
+                .distinct()
+                .toArray(Element[]::new);
+    }
+
+    private static String upper(final String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    private static String literal(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String literals(final String collectionType,
+                                   final Collection<String> values) {
+        return values.stream()
+                .map(EntityActionProcessor::literal)
+                .collect(Collectors.joining(", ", collectionType + ".of(", ")"));
+    }
+
+    private static String sql(final String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private record Descriptor(TypeElement declaringClass,
+                              String declaringClassName,
+                              String methodName,
+                              List<String> parameterTypes,
+                              String httpMethod,
+                              String entity,
+                              String action,
+                              Set<String> permissionCodes,
+                              boolean anonymous) {
+
+        String key() {
+            return declaringClassName + "#" + methodName + parameterTypes;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.common.util.AuditContext;
+import io.touchyongan.starter_template.common.util.AuditUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wide dto (48 fields) with a nested object. Each call alternates between two dtos, so every field changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditUtilBenchmark {
+    private WideEntity entity;
+    private WideEntity unchanged;
+    private WideDto dtoA;
+    private WideDto dtoB;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        entity = new WideEntity();
+        unchanged = new WideEntity();
+        dtoA = newDto(1);
+        dtoB = newDto(2);
+        AuditUtil.auditAndUpdate(unchanged, dtoA);
+    }
+
+    @Benchmark
+    public AuditContext allFieldsChanged() {
+        flip = !flip;
+        return AuditUtil.auditAndUpdate(entity, flip ? dtoA : dtoB);
+    }
+
+    @Benchmark
+    public AuditContext noFieldChanged() {
+        return AuditUtil.auditAndUpdate(unchanged, dtoA);
+    }
+
+    private static WideDto newDto(final int seed) {
+        final var dto = new WideDto();
+        ReflectionUtils.doWithFields(WideDto.class, field -> {
+            ReflectionUtils.makeAccessible(field);
+            final var type = field.getType();
+            if (type == String.class) {
+                field.set(dto, field.getName() + seed);
+            } else if (type == Integer.class || type == int.class) {
+                field.set(dto, seed);
+            } else if (type == long.class) {
+                field.set(dto, (long) seed);
+            } else if (type == boolean.class) {
+                field.set(dto, seed % 2 == 0);
+            } else if (type == LocalDateTime.class) {
+                field.set(dto, LocalDateTime.of(2024, 1, seed, 0, 0));
+            }
+        });
+        final var nested = new Nested();
+        nested.setCity("City " + seed);
+        nested.setZip(seed);
+        dto.setAddress(nested);
+        return dto;
+    }
+
+    @Getter
+    @Setter
+    public static class WideEntity {
+        private String name0;
+        private Integer count0;
+        private int level0;
+        private long total0;
+        private boolean flag0;
+        private LocalDateTime at0;
+        private String name1;
+        private Integer count1;
+        private int level1;
+        private long total1;
+        private boolean flag1;
+        private LocalDateTime at1;
+        private String name2;
+        private Integer count2;
+        private int level2;
+        private long total2;
+        private boolean flag2;
+        private LocalDateTime at2;
+        private String name3;
+        private Integer count3;
+        private int level3;
+        private long total3;
+        private boolean flag3;
+        private LocalDateTime at3;
+        private String name4;
+        private Integer count4;
+        private int level4;
+        private long total4;
+        private boolean flag4;
+        private LocalDateTime at4;
+        private String name5;
+        private Integer count5;
+        private int level5;
+        private long total5;
+        private boolean flag5;
+        private LocalDateTime at5;
+        private String name6;
+        private Integer count6;
+        private int level6;
+        private long total6;
+        private boolean flag6;
+        private LocalDateTime at6;
+        private String name7;
+        private Integer count7;
+        private int level7;
+        private long total7;
+        private boolean flag7;
+        private LocalDateTime at7;
+        private Nested address = new Nested();
+    }
+
+    @Getter
+    @Setter
+    public static class WideDto {
+        private String name0;
+        private Integer count0;
+        private int level0;
+        private long total0;
+        private boolean flag0;
+        private LocalDateTime at0;
+        private String name1;
+        private Integer count1;
+        private int level1;
+        private long total1;
+        private boolean flag1;
+        private LocalDateTime at1;
+        private String name2;
+        private Integer count2;
+        private int level2;
+        private long total2;
+        private boolean flag2;
+        private LocalDateTime at2;
+        private String name3;
+        private Integer count3;
+        private int level3;
+        private long total3;
+        private boolean flag3;
+        private LocalDateTime at3;
+        private String name4;
+        private Integer count4;
+        private int level4;
+        private long total4;
+        private boolean flag4;
+        private LocalDateTime at4;
+        private String name5;
+        private Integer count5;
+        private int level5;
+        private long total5;
+        private boolean flag5;
+        private LocalDateTime at5;
+        private String name6;
+        private Integer count6;
+        private int level6;
+        private long total6;
+        private boolean flag6;
+        private LocalDateTime at6;
+        private String name7;
+        private Integer count7;
+        private int level7;
+        private long total7;
+        private boolean flag7;
+        private LocalDateTime at7;
+        private Nested address;
+    }
+
+    @Getter
+    @Setter
+    public static class Nested {
+        private String city;
+        private int zip;
+    }
+}
@@ -0,0 +1,76 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.feature.audit.converter.ActionStatusConverter;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.feature.user.entity.Permission;
+import io.touchyongan.starter_template.feature.user.entity.Role;
+import io.touchyongan.starter_template.feature.user.entity.UserInfo;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures of benchmarks. Hibernate is booted without database, it is enough to build criteria queries.
+ */
+public final class BenchmarkFixtures {
+    public static final List<String> MASK_FIELDS = List.of("password", "currentPassword", "newPassword", "confirmPassword",
+            "token", "refreshToken", "mfaToken", "code", "recoveryCode");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static SessionFactory newSessionFactory() {
+        // Entity listener of AppUser need constructor injection, so provide minimal bean container
+        final var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerResolvableDependency(ApplicationEventPublisher.class, (ApplicationEventPublisher) event -> {
+        });
+        final var registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+                .applySetting("hibernate.resource.beans.container", new SpringBeanContainer(beanFactory))
+                .build();
+        return new MetadataSources(registry)
+                .addAnnotatedClass(ActionStatusConverter.class)
+                .addAnnotatedClass(AuditTrail.class)
+                .addAnnotatedClass(AppUser.class)
+                .addAnnotatedClass(UserInfo.class)
+                .addAnnotatedClass(Role.class)
+                .addAnnotatedClass(Permission.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    public static List<String> permissionCodes(final int size) {
+        final var codes = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            codes.add("ENTITY_%d:%s".formatted(i / 4, List.of("CREATE", "READ", "UPDATE", "DELETE").get(i % 4)));
+        }
+        return codes;
+    }
+
+    /**
+     * JSON object with given number of top level fields, each field has small nested object and array.
+     */
+    public static String jsonBody(final int fields,
+                                  final boolean withMaskField) {
+        final var sb = new StringBuilder("{");
+        for (int i = 0; i < fields; i++) {
+            sb.append("\"field").append(i).append("\":{\"name\":\"value ").append(i)
+                    .append("\",\"amount\":").append(i * 1.5)
+                    .append(",\"tags\":[\"a\",\"b\",\"c\"]},");
+        }
+        if (withMaskField) {
+            sb.append("\"password\":\"secret\",");
+        }
+        sb.append("\"id\":1}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.common.util.DigestUtil;
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtKeyRing;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtSigningKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SHA-256 of an access token by concurrent threads: shared synchronized instance, new instance per call, thread-local
+ * instance and the pool of DigestUtil, digesting the token text or bytes already encoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class DigestBenchmark {
+    private static final ThreadLocal<MessageDigest> THREAD_LOCAL = ThreadLocal.withInitial(DigestBenchmark::newDigest);
+
+    private final MessageDigest shared = newDigest();
+    private String token;
+    private byte[] tokenBytes;
+
+    @Setup
+    public void setup() {
+        final var jwtUtil = new JwtUtil(new JwtKeyRing(List.of(JwtSigningKey.hmac(JwtUtilBenchmark.SECRET_KEY)), Duration.ofDays(1)));
+        JwtUtilBenchmark.setField(jwtUtil, JwtUtil.class, "expiration", 3_600_000L);
+        token = jwtUtil.generateToken(42L, "benchmark-user");
+        tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] sharedSynchronized() {
+        synchronized (shared) {
+            return shared.digest(token.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public byte[] newInstance() {
+        return newDigest().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] threadLocal() {
+        return THREAD_LOCAL.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] pooledText() {
+        return DigestUtil.sha256(token);
+    }
+
+    @Benchmark
+    public byte[] pooledBytes() {
+        return DigestUtil.sha256(tokenBytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.common.specification.GenericResultTransformer;
+import lombok.Getter;
+import lombok.Setter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of users joined with their roles, the same row shape as findAllWithSpecificationWithRelationshipProjection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericResultTransformerBenchmark {
+    private static final String[] ALIASES = {"id", "username", "email", "enabled", "roles.id", "roles.name", "roles.description"};
+
+    @Param({"50"})
+    private int users;
+
+    @Param({"10"})
+    private int rolesPerUser;
+
+    private List<Object[]> tuples;
+
+    @Setup
+    public void setup() {
+        tuples = new ArrayList<>();
+        for (long u = 1; u <= users; u++) {
+            for (long r = 1; r <= rolesPerUser; r++) {
+                tuples.add(new Object[] {u, "user" + u, "user" + u + "@mail.com", true, r, "ROLE_" + r, "Description of role " + r});
+            }
+        }
+    }
+
+    @Benchmark
+    public List<UserRow> transformPage() {
+        final var transformer = new GenericResultTransformer<>(UserRow.class);
+        for (final var tuple : tuples) {
+            transformer.transformTuple(tuple, ALIASES);
+        }
+        return transformer.transformList(new ArrayList<>());
+    }
+
+    @Getter
+    @Setter
+    public static class UserRow {
+        private Long id;
+        private String username;
+        private String email;
+        private Boolean enabled;
+        private List<RoleRow> roles;
+    }
+
+    @Getter
+    @Setter
+    public static class RoleRow {
+        private Long id;
+        private String name;
+        private String description;
+    }
+}
@@ -0,0 +1,84 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.common.specification.GenericSpecification;
+import io.touchyongan.starter_template.common.specification.SearchCriteria;
+import io.touchyongan.starter_template.common.specification.SearchOperator;
+import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilter;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericSpecificationBenchmark {
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder builder;
+    private Specification<AuditTrail> auditTrailSpec;
+    private Specification<AppUser> nestedJoinSpec;
+
+    @Setup
+    public void setup() {
+        sessionFactory = BenchmarkFixtures.newSessionFactory();
+        builder = sessionFactory.getCriteriaBuilder();
+
+        // All filters of audit trail list endpoint
+        final var filter = new AuditTrailFilter();
+        filter.setResourceIds(LongStream.range(0, 50).boxed().toList());
+        filter.setAction("UPDATE");
+        filter.setEntity("APP_USER");
+        filter.setUsername("admin");
+        filter.setStatus("Success");
+        filter.setStartDate(LocalDateTime.now().minusDays(30));
+        filter.setEndDate(LocalDateTime.now());
+        auditTrailSpec = filter.getSpecification();
+
+        nestedJoinSpec = new GenericSpecification<>(List.of(
+                SearchCriteria.multiFieldsSearch("admin", "username", "email", "roles.name", "roles.permissions.code"),
+                SearchCriteria.newSearchCriteria("roles.permissions.code", SearchOperator.EQUAL, "USER:READ"),
+                SearchCriteria.newSearchCriteria("userInfo.firstname", SearchOperator.LIKE, "john"),
+                SearchCriteria.newSearchCriteriaIn("id", SearchOperator.NOT_IN, List.of(1L, 2L, 3L))
+        ));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate auditTrailFilter() {
+        final var query = builder.createQuery(AuditTrail.class);
+        final var root = query.from(AuditTrail.class);
+        return auditTrailSpec.toPredicate(root, query, builder);
+    }
+
+    @Benchmark
+    public Predicate nestedJoinSearch() {
+        final var query = builder.createQuery(AppUser.class);
+        final var root = query.from(AppUser.class);
+        return nestedJoinSpec.toPredicate(root, query, builder);
+    }
+}
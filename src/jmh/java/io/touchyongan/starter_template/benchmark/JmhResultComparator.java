@@ -0,0 +1,113 @@
+package io.touchyongan.starter_template.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Compare JMH JSON result with stored baseline.
+ * Usage: JmhResultComparator baseline.json results.json [thresholdPercent]
+ * Exit with status 1 when score or allocation per operation regress more than threshold,
+ * or when baseline or results file is missing, so a comparison never passes without running.
+ */
+@Slf4j
+public final class JmhResultComparator {
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private JmhResultComparator() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: JmhResultComparator <baseline.json> <results.json> [thresholdPercent]");
+        }
+        final var baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            log.error("Baseline {} not found, run make jmh-baseline on the reference machine and commit it", baselineFile);
+            System.exit(1);
+        }
+        final var resultsFile = new File(args[1]);
+        if (!resultsFile.exists()) {
+            log.error("Results {} not found, run make jmh first", resultsFile);
+            System.exit(1);
+        }
+        final var threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        final var objectMapper = new ObjectMapper();
+        final var baseline = index(objectMapper.readTree(baselineFile));
+        final var current = index(objectMapper.readTree(resultsFile));
+
+        var regressions = 0;
+        for (final var entry : current.entrySet()) {
+            final var before = baseline.get(entry.getKey());
+            if (Objects.isNull(before)) {
+                log.info("NEW   {}", entry.getKey());
+                continue;
+            }
+            final var after = entry.getValue();
+            final var lowerIsBetter = !"thrpt".equals(after.path("mode").asText());
+            final var scoreChange = change(score(before), score(after), lowerIsBetter);
+            final var allocChange = change(alloc(before), alloc(after), true);
+            final var regressed = scoreChange > threshold || allocChange > threshold;
+            if (regressed) {
+                regressions = regressions + 1;
+            }
+            log.info("{} {} score {} -> {} {} ({}%), alloc {} -> {} B/op ({}%)",
+                    regressed ? "WORSE" : "OK   ", entry.getKey(),
+                    format(score(before)), format(score(after)), after.path("primaryMetric").path("scoreUnit").asText(), format(scoreChange),
+                    format(alloc(before)), format(alloc(after)), format(allocChange));
+        }
+        if (regressions > 0) {
+            log.error("{} benchmark(s) regressed more than {}%", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(final JsonNode results) {
+        final var map = new LinkedHashMap<String, JsonNode>();
+        for (final var result : results) {
+            final var params = new TreeMap<String, String>();
+            result.path("params").properties().forEach(e -> params.put(e.getKey(), e.getValue().asText()));
+            final var key = params.isEmpty() ? result.path("benchmark").asText() : result.path("benchmark").asText() + params;
+            map.put(key, result);
+        }
+        return map;
+    }
+
+    private static double score(final JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double alloc(final JsonNode result) {
+        final var secondary = result.path("secondaryMetrics");
+        for (final var name : new String[] {ALLOC_METRIC, "·" + ALLOC_METRIC}) {
+            if (secondary.has(name)) {
+                return secondary.path(name).path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Positive value means worse, in percent.
+     */
+    private static double change(final double before,
+                                 final double after,
+                                 final boolean lowerIsBetter) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        final var percent = (after - before) / before * 100;
+        return lowerIsBetter ? percent : -percent;
+    }
+
+    private static String format(final double value) {
+        return "%.2f".formatted(value);
+    }
+}
@@ -0,0 +1,62 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtKeyRing;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtSigningKey;
+import io.touchyongan.starter_template.infrastructure.jwt.SigningAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify an access token per algorithm of auth.jwt.signing.algorithm, the key ring holding a retiring key
+ * besides the signing one as during a rotation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+    @Param({"HS256", "ES256", "EDDSA"})
+    private SigningAlgorithm algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        final var now = Instant.now();
+        final var keys = algorithm == SigningAlgorithm.HS256
+                ? List.of(JwtSigningKey.hmac(JwtUtilBenchmark.SECRET_KEY))
+                : List.of(JwtSigningKey.generate(algorithm, now.minus(Duration.ofHours(2))), JwtSigningKey.generate(algorithm, now));
+        jwtUtil = new JwtUtil(new JwtKeyRing(keys, Duration.ofDays(1)));
+        JwtUtilBenchmark.setField(jwtUtil, JwtUtil.class, "expiration", 3_600_000L);
+        token = jwtUtil.generateToken(42L, "benchmark-user");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken(42L, "benchmark-user");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtil.extractAllClaims(token, "Bearer");
+    }
+}
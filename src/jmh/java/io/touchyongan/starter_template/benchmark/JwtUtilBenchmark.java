@@ -0,0 +1,78 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.touchyongan.starter_template.common.base.CustomPersistable;
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtKeyRing;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtSigningKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    static final String SECRET_KEY = "wLkD8Pq3XyV7zR9tB2mN6cF1gH4jK8pQsT5vWxYzA0bU3eS7rM";
+
+    private JwtUtil jwtUtil;
+    private AppUser appUser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(new JwtKeyRing(List.of(JwtSigningKey.hmac(SECRET_KEY)), Duration.ofDays(1)));
+        setField(jwtUtil, JwtUtil.class, "expiration", 3_600_000L);
+        setField(jwtUtil, JwtUtil.class, "refreshExpiration", 86_400_000L);
+        appUser = new AppUser();
+        appUser.setUsername("benchmark-user");
+        setField(appUser, CustomPersistable.class, "id", 42L);
+        token = jwtUtil.generateToken(appUser);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken(appUser);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtil.extractAllClaims(token, "Bearer");
+    }
+
+    @Benchmark
+    public boolean isTokenExpired() {
+        return jwtUtil.isTokenExpired(token);
+    }
+
+    @Benchmark
+    public String tokenDigest() {
+        return jwtUtil.tokenDigest(token);
+    }
+
+    static void setField(final Object target,
+                         final Class<?> declaringClass,
+                         final String name,
+                         final Object value) {
+        final var field = Objects.requireNonNull(ReflectionUtils.findField(declaringClass, name));
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,65 @@
+package io.touchyongan.starter_template.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.common.util.MaskUtil;
+import io.touchyongan.starter_template.config.properties.MaskPIIInfoProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PII masking used by RequestLoggingFilter and AuditLogAspect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskingBenchmark {
+
+    @Param({"10", "1000"})
+    private int bodyFields;
+
+    private ObjectMapper objectMapper;
+    private MaskPIIInfoProperties properties;
+    private String bodyWithSecret;
+    private String bodyWithoutSecret;
+    private String requestMessage;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        properties = new MaskPIIInfoProperties(List.of("authorization", "x-api-key"), BenchmarkFixtures.MASK_FIELDS);
+        bodyWithSecret = BenchmarkFixtures.jsonBody(bodyFields, true);
+        bodyWithoutSecret = BenchmarkFixtures.jsonBody(bodyFields, false);
+        requestMessage = "After request [GET /auth/verify?token=eyJhbGciOiJIUzI1NiJ9.abc&page=1&code=123456&size=20, client=127.0.0.1]";
+    }
+
+    @Benchmark
+    public String maskBodyWithSecret() throws JsonProcessingException {
+        return MaskUtil.maskJsonBody(objectMapper, bodyWithSecret, properties.getRequestBodyFields());
+    }
+
+    @Benchmark
+    public String maskBodyWithoutSecret() throws JsonProcessingException {
+        return MaskUtil.maskJsonBody(objectMapper, bodyWithoutSecret, properties.getRequestBodyFields());
+    }
+
+    @Benchmark
+    public String maskQueryParams() {
+        return MaskUtil.maskQueryParams(requestMessage, properties.getMaskParamsPattern(), properties.getRequestBodyFields());
+    }
+}
@@ -0,0 +1,63 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.feature.audit.controller.AuditTrailController;
+import io.touchyongan.starter_template.infrastructure.permission.CustomSecurityExpressionRoot;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Required permission is placed at the end of authorities, which is the worst case of linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    @Param({"20", "500"})
+    private int permissions;
+
+    private Authentication authentication;
+    private Method method;
+    private EntityActionRegistry entityActionRegistry;
+
+    @Setup
+    public void setup() {
+        final var authorities = BenchmarkFixtures.permissionCodes(permissions).stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        final var withRequired = new ArrayList<>(authorities);
+        withRequired.add(new SimpleGrantedAuthority("AUDIT_TRAILS:READ"));
+        authentication = UsernamePasswordAuthenticationToken.authenticated("benchmark-user", null, withRequired);
+        entityActionRegistry = new EntityActionRegistry();
+        method = Objects.requireNonNull(ReflectionUtils.findMethod(AuditTrailController.class, "getAuditTrailByDetails", Long.class));
+    }
+
+    @Benchmark
+    public boolean customCheckPermission() {
+        final var invocation = new SimpleMethodInvocation(null, method);
+        return new CustomSecurityExpressionRoot(authentication, invocation, entityActionRegistry).customCheckPermission();
+    }
+}
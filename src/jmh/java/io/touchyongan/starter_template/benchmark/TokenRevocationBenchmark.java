@@ -0,0 +1,63 @@
+package io.touchyongan.starter_template.benchmark;
+
+import io.touchyongan.starter_template.infrastructure.bloom.ExpiringBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocation check of JwtRequestFilter for a valid token, the common case, and a revoked one: Bloom filters of
+ * 4 expiry buckets holding 200000 revoked digests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+    private static final int REVOKED = 200_000;
+
+    private ExpiringBloomFilter filter;
+    private byte[] validDigest;
+    private byte[] revokedDigest;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        final var now = Instant.now();
+        filter = new ExpiringBloomFilter(Duration.ofMinutes(15), 50_000, 0.001);
+        for (var i = 0; i < REVOKED; i++) {
+            filter.put(digest("revoked-" + i), now.plusSeconds(60 + i % 3540));
+        }
+        validDigest = digest("valid");
+        revokedDigest = digest("revoked-42");
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return filter.mightContain(validDigest, Instant.now());
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return filter.mightContain(revokedDigest, Instant.now());
+    }
+
+    private static byte[] digest(final String token) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
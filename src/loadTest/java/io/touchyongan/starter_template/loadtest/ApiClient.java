@@ -0,0 +1,215 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thin HTTP client of the API under test, keep access/refresh token per seeded user.
+ */
+public class ApiClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Map<Integer, Tokens> tokens = new ConcurrentHashMap<>();
+    private final Map<Integer, ReentrantLock> refreshLocks = new ConcurrentHashMap<>();
+
+    public ApiClient(final String baseUrl,
+                     final ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public int login(final int userNo) throws IOException, InterruptedException {
+        final var body = objectMapper.writeValueAsString(Map.of(
+                "username", DataSeeder.USERNAME_PREFIX + userNo,
+                "password", DataSeeder.PASSWORD));
+        final var response = post("/auth/token", body);
+        storeTokens(userNo, response);
+        return response.statusCode();
+    }
+
+    /**
+     * Refreshes of a user are serialized as a real client would do it, a refresh token is accepted once only.
+     */
+    public int refresh(final int userNo) throws IOException, InterruptedException {
+        final var lock = refreshLocks.computeIfAbsent(userNo, ignored -> new ReentrantLock());
+        lock.lock();
+        try {
+            final var response = post("/auth/refresh", refreshBody(userNo));
+            storeTokens(userNo, response);
+            return response.statusCode();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Body of refresh and logout requests, with the current refresh token of userNo.
+     */
+    public String refreshBody(final int userNo) throws IOException, InterruptedException {
+        return objectMapper.writeValueAsString(Map.of("refreshToken", tokensOf(userNo).refreshToken()));
+    }
+
+    public int get(final int userNo,
+                   final String path) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + tokensOf(userNo).accessToken())
+                .header("Accept-Encoding", "identity")
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Response with body, authorization header is sent as given, or not at all when null.
+     */
+    public HttpResponse<String> send(final String method,
+                                     final String path,
+                                     final String authorization,
+                                     final String body) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept-Encoding", "identity")
+                .header("Content-Type", "application/json")
+                .method(method, Objects.isNull(body) ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (Objects.nonNull(authorization)) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * GET revalidating a cached response by its ETag.
+     */
+    public HttpResponse<String> getIfNoneMatch(final String path,
+                                               final String authorization,
+                                               final String etag) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept-Encoding", "identity")
+                .header("Authorization", authorization)
+                .header("If-None-Match", etag)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * OAuth2 login as a browser would do it, authorization redirect then provider callback, and exchange of the handoff token.
+     *
+     * @return 200 when tokens were issued, status of the failed step otherwise
+     */
+    public int oauth2Login(final String registrationId,
+                           final String code) throws IOException, InterruptedException {
+        final var handoffToken = oauth2Handoff(registrationId, code);
+        if (handoffToken.isEmpty()) {
+            return 401;
+        }
+        final var response = send("GET", "/oauth2/exchange?token=" + handoffToken.get(), null, null);
+        return response.statusCode() == 200 && response.body().contains("\"accessToken\"") ? 200 : 401;
+    }
+
+    /**
+     * Handoff token of the redirect to the UI after OAuth2 login, the session cookie of the authorization request is sent
+     * with the callback.
+     */
+    public Optional<String> oauth2Handoff(final String registrationId,
+                                          final String code) throws IOException, InterruptedException {
+        final var authorize = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/oauth2/authorization/" + registrationId))
+                .timeout(TIMEOUT)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        final var state = authorize.headers().firstValue("Location").map(location -> queryParameter(location, "state"));
+        final var cookie = authorize.headers().firstValue("Set-Cookie").map(setCookie -> setCookie.split(";", 2)[0]);
+        if (state.isEmpty() || cookie.isEmpty()) {
+            return Optional.empty();
+        }
+        final var callback = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login/oauth2/code/%s?code=%s&state=%s"
+                        .formatted(registrationId, code, URLEncoder.encode(state.get(), StandardCharsets.UTF_8))))
+                .timeout(TIMEOUT)
+                .header("Cookie", cookie.get())
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        return callback.headers().firstValue("Location").map(location -> queryParameter(location, "token"));
+    }
+
+    public String bearer(final int userNo) throws IOException, InterruptedException {
+        return "Bearer " + tokensOf(userNo).accessToken();
+    }
+
+    public boolean hasTokens(final int userNo) {
+        return tokens.containsKey(userNo);
+    }
+
+    private Tokens tokensOf(final int userNo) throws IOException, InterruptedException {
+        var current = tokens.get(userNo);
+        if (Objects.isNull(current)) {
+            login(userNo);
+            current = tokens.get(userNo);
+        }
+        if (Objects.isNull(current)) {
+            throw new IllegalStateException("Cannot login user " + userNo);
+        }
+        return current;
+    }
+
+    private HttpResponse<byte[]> post(final String path,
+                                      final String body) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void storeTokens(final int userNo,
+                             final HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return;
+        }
+        final JsonNode json = objectMapper.readTree(response.body());
+        tokens.put(userNo, new Tokens(json.path("accessToken").asText(), json.path("refreshToken").asText()));
+    }
+
+    private static String queryParameter(final String url,
+                                         final String name) {
+        final var query = URI.create(url).getRawQuery();
+        if (Objects.isNull(query)) {
+            return null;
+        }
+        for (final var pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private record Tokens(String accessToken, String refreshToken) {
+    }
+}
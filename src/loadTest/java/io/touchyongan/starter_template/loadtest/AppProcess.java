@@ -0,0 +1,133 @@
+package io.touchyongan.starter_template.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application started as a separate process, java -jar or native executable, ready once GET /health returns 200.
+ * Output goes to {workDir}/{name}.log.
+ */
+@Slf4j
+public final class AppProcess implements AutoCloseable {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Process process;
+    private final String baseUrl;
+    private final long startMs;
+
+    private AppProcess(final Process process,
+                       final String baseUrl,
+                       final long startMs) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.startMs = startMs;
+    }
+
+    /**
+     * @param command java or native executable with its arguments, server port and ssl arguments are appended
+     */
+    public static AppProcess start(final String name,
+                                   final List<String> command,
+                                   final Path workDir) throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        final var port = freePort();
+        final var fullCommand = new ArrayList<>(command);
+        fullCommand.addAll(List.of("--server.port=" + port, "--server.ssl.enabled=false"));
+
+        // LoopbackIpRedirectFilter redirects localhost to 127.0.0.1
+        final var baseUrl = "http://127.0.0.1:" + port;
+        final var client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(100))
+                .build();
+        final var health = HttpRequest.newBuilder(URI.create(baseUrl + "/health")).build();
+        final var launchedAt = System.nanoTime();
+        final var process = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(name + ".log").toFile())
+                .start();
+        try {
+            while (System.nanoTime() - launchedAt < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("%s exited with %d, see %s.log".formatted(name, process.exitValue(), name));
+                }
+                if (isHealthy(client, health)) {
+                    final var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchedAt);
+                    log.info("{} healthy after {} ms", name, elapsed);
+                    return new AppProcess(process, baseUrl, elapsed);
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException("%s not healthy within %s".formatted(name, START_TIMEOUT));
+        } catch (final InterruptedException | RuntimeException e) {
+            stop(process);
+            throw e;
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return milliseconds from process launch to first healthy response
+     */
+    public long getStartMs() {
+        return startMs;
+    }
+
+    /**
+     * @return resident set size of the process in KB, -1 when /proc is not available
+     */
+    public long rssKb() throws IOException {
+        final var status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        try (final var lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop(process);
+    }
+
+    private static void stop(final Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static boolean isHealthy(final HttpClient client,
+                                     final HttpRequest health) throws InterruptedException {
+        try {
+            return client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (final var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.sink.AuditTrailBulkTable;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows/sec of audit_trail bulk load by binary COPY and by JDBC batch insert, the two paths of BulkIngester,
+ * against embedded Postgres with the real schema and indexes.
+ * Usage: gradle bulkIngestBenchmark -Pbulk.rows=200000 -Pbulk.batchSize=1000 -Pbulk.runs=3
+ */
+@Slf4j
+public final class BulkIngestBenchmark {
+
+    private BulkIngestBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var rows = Integer.getInteger("bulk.rows", 100_000);
+        final var batchSize = Integer.getInteger("bulk.batchSize", 1000);
+        final var runs = Integer.getInteger("bulk.runs", 3);
+        final var reportDir = Path.of(System.getProperty("bulk.reportDir", "build/reports/bulk"));
+
+        try (final var postgres = EmbeddedPostgres.builder().start()) {
+            final var dataSource = postgres.getPostgresDatabase();
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+            final var jdbcTemplate = new JdbcTemplate(dataSource);
+            final var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            final var stageMetrics = new StageMetrics(new SimpleMeterRegistry());
+            final var auditTrails = auditTrails(rows);
+
+            final var results = new ArrayList<Result>();
+            for (final var copy : List.of(true, false)) {
+                final var ingester = new BulkIngester(jdbcTemplate, transactionTemplate, stageMetrics, copy, 64 * 1024);
+                final var mode = copy ? "copy" : "batch-insert";
+                final var rowsPerSecond = new ArrayList<Long>();
+                // First run warms up JIT and server caches and is not reported
+                for (var run = 0; run <= runs; run++) {
+                    jdbcTemplate.execute("TRUNCATE audit_trail");
+                    final var start = System.nanoTime();
+                    for (var from = 0; from < rows; from += batchSize) {
+                        ingester.ingest(AuditTrailBulkTable.INSTANCE, auditTrails.subList(from, Math.min(rows, from + batchSize)));
+                    }
+                    final var elapsed = System.nanoTime() - start;
+                    if (run > 0) {
+                        rowsPerSecond.add(Math.round(rows * 1e9 / elapsed));
+                    }
+                }
+                results.add(new Result(mode, rows, batchSize, rowsPerSecond.stream().sorted().toList()));
+            }
+            report(reportDir, results);
+        }
+    }
+
+    private static List<AuditTrail> auditTrails(final int rows) {
+        final var now = LocalDateTime.now();
+        final var auditTrails = new ArrayList<AuditTrail>(rows);
+        for (var i = 0; i < rows; i++) {
+            final var auditTrail = new AuditTrail();
+            auditTrail.setCreatedAt(now.minusNanos(i * 1_000L));
+            auditTrail.setStatus(i % 10 == 0 ? ActionStatus.FAILURE : ActionStatus.SUCCESS);
+            auditTrail.setEntity("USER");
+            auditTrail.setAction(i % 3 == 0 ? "CREATE" : "UPDATE");
+            auditTrail.setResourceId((long) i);
+            auditTrail.setHttpMethod("PUT");
+            auditTrail.setRequestUrl("/users/" + i);
+            auditTrail.setIp("10.0.%d.%d".formatted(i / 256 % 256, i % 256));
+            auditTrail.setUserId((long) (i % 500));
+            auditTrail.setUsername("loadtest_user_" + i % 500);
+            auditTrail.setRequestBody(RawJson.of("{\"username\":\"user%d\",\"email\":\"user%d@example.com\",\"roles\":[1,2,3]}".formatted(i, i)));
+            auditTrail.setNewValue(RawJson.of("{\"id\":%d,\"username\":\"user%d\",\"enabled\":true}".formatted(i, i)));
+            auditTrail.setOldValue(RawJson.of("{\"id\":%d,\"username\":\"old%d\",\"enabled\":false}".formatted(i, i)));
+            auditTrail.setTraceId("trace-" + i);
+            auditTrails.add(auditTrail);
+        }
+        return auditTrails;
+    }
+
+    private static void report(final Path reportDir,
+                               final List<Result> results) throws Exception {
+        Files.createDirectories(reportDir);
+        final var summary = new StringBuilder("%n%-14s %9s %7s %12s %12s%n".formatted("mode", "rows", "batch", "min rows/s", "median rows/s"));
+        for (final var result : results) {
+            summary.append("%-14s %9d %7d %12d %12d%n".formatted(result.mode(), result.rows(), result.batchSize(),
+                    result.rowsPerSecond().getFirst(), result.medianRowsPerSecond()));
+        }
+        log.info("{}", summary);
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportDir.resolve("summary.json").toFile(), results);
+        log.info("Report written to {}", reportDir.toAbsolutePath());
+    }
+
+    record Result(String mode, int rows, int batchSize, List<Long> rowsPerSecond) {
+
+        public long medianRowsPerSecond() {
+            return rowsPerSecond.get(rowsPerSecond.size() / 2);
+        }
+    }
+}
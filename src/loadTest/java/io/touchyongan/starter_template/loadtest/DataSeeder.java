@@ -0,0 +1,103 @@
+package io.touchyongan.starter_template.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Seed users, roles, permissions and audit rows with set-based SQL, so millions of rows take seconds.
+ * Every seeded user is loadtest_user_{n} with the same password.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DataSeeder {
+    public static final String USERNAME_PREFIX = "loadtest_user_";
+    public static final String PASSWORD = "LoadTest@123";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public void seed(final LoadTestConfig config) {
+        final var start = System.currentTimeMillis();
+        seedPermissionsAndRoles(config);
+        seedUsers(config);
+        seedAuditRows(config);
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Seeded {} users, {} roles, {} audit rows in {} ms",
+                config.users(), config.roles(), config.auditRows(), System.currentTimeMillis() - start);
+    }
+
+    private void seedPermissionsAndRoles(final LoadTestConfig config) {
+        final var permissions = config.roles() * config.permissionsPerRole();
+        jdbcTemplate.update("""
+                INSERT INTO permissions(code, description, entity_name, action_name, "group")
+                SELECT 'LOAD_ENTITY_' || (n / 4) || ':' || (ARRAY['CREATE','READ','UPDATE','DELETE'])[n % 4 + 1],
+                       'Load test permission', 'LOAD_ENTITY_' || (n / 4), (ARRAY['CREATE','READ','UPDATE','DELETE'])[n % 4 + 1], 'LOAD'
+                FROM generate_series(0, ? - 1) n
+                """, permissions);
+        jdbcTemplate.update("""
+                INSERT INTO permissions(code, entity_name, action_name, "group")
+                VALUES ('AUDIT_TRAILS:READ', 'AUDIT_TRAILS', 'READ', 'AUDIT'), ('FAILED_LOGINS:READ', 'FAILED_LOGINS', 'READ', 'AUDIT'),
+                       ('APP_USER:READ', 'APP_USER', 'READ', 'USER')
+                ON CONFLICT DO NOTHING
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO roles(name, description, is_disabled, is_not_allowed_update, is_system)
+                SELECT 'Load Role ' || n, 'Load test role', false, false, false FROM generate_series(1, ?) n
+                """, config.roles());
+        // Each role get its own slice of permissions, the required permission is the last one of the last role
+        jdbcTemplate.update("""
+                INSERT INTO role_permissions(role_id, permission_id)
+                SELECT r.id, p.id
+                FROM (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM roles WHERE name LIKE 'Load Role %') r
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM permissions WHERE "group" = 'LOAD') p
+                  ON p.rn / ? = r.rn
+                """, config.permissionsPerRole());
+        jdbcTemplate.update("""
+                INSERT INTO role_permissions(role_id, permission_id)
+                SELECT (SELECT id FROM roles WHERE name = ?), id FROM permissions
+                WHERE code IN ('AUDIT_TRAILS:READ', 'FAILED_LOGINS:READ', 'APP_USER:READ')
+                """, "Load Role " + config.roles());
+    }
+
+    private void seedUsers(final LoadTestConfig config) {
+        // BCrypt is intentionally slow, hash once and share it
+        final var hash = passwordEncoder.encode(PASSWORD);
+        jdbcTemplate.update("""
+                INSERT INTO app_users(username, email, password, is_enabled, last_time_password_updated, is_credentials_non_expired,
+                                      is_account_non_expired, is_account_non_locked, is_deleted)
+                SELECT ? || n, ? || n || '@loadtest.local', ?, true, now(), true, true, true, false
+                FROM generate_series(1, ?) n
+                """, USERNAME_PREFIX, USERNAME_PREFIX, hash, config.users());
+        jdbcTemplate.update("""
+                INSERT INTO user_info(firstname, lastname, app_user_id)
+                SELECT 'First ' || id, 'Last ' || id, id FROM app_users WHERE username LIKE ?
+                """, USERNAME_PREFIX + "%");
+        // Every user has all load roles, so permission check scans realistic number of authorities
+        jdbcTemplate.update("""
+                INSERT INTO app_user_roles(user_id, role_id)
+                SELECT u.id, r.id FROM app_users u CROSS JOIN roles r
+                WHERE u.username LIKE ? AND r.name LIKE 'Load Role %'
+                """, USERNAME_PREFIX + "%");
+    }
+
+    private void seedAuditRows(final LoadTestConfig config) {
+        jdbcTemplate.update("""
+                INSERT INTO audit_trail(entity, action, resource_id, ip, status, http_method, request_url, request_params,
+                                        request_body, user_id, username, new_value, old_value, created_at, trace_id)
+                SELECT (ARRAY['APP_USER','ROLE','PERMISSION'])[n % 3 + 1],
+                       (ARRAY['CREATE','UPDATE','DELETE','LOGIN'])[n % 4 + 1],
+                       n % 5000, '127.0.0.1',
+                       CASE WHEN n % 20 = 0 THEN 'Failure' ELSE 'Success' END,
+                       'POST', '/resource/' || (n % 5000), '',
+                       jsonb_build_object('name', 'value ' || n, 'tags', jsonb_build_array('a', 'b', 'c'), 'amount', n),
+                       n % ? + 1, ? || (n % ? + 1),
+                       jsonb_build_object('name', 'new ' || n, 'enabled', true),
+                       jsonb_build_object('name', 'old ' || n, 'enabled', false),
+                       now() - (n || ' seconds')::interval,
+                       md5(n::text)
+                FROM generate_series(1, ?) n
+                """, config.users(), USERNAME_PREFIX, config.users(), config.auditRows());
+    }
+}
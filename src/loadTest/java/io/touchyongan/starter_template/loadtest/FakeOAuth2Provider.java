@@ -0,0 +1,95 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * OAuth2 provider of token and user info endpoints, registered as client fake-idp so the application runs its real
+ * OAuth2 login without a browser or external identity provider. Stateless: the authorization code encodes the email,
+ * the access token is the code, user info decodes it back. The authorization endpoint is never called,
+ * callers read the state from the redirect and call the application callback themselves.
+ */
+public final class FakeOAuth2Provider implements AutoCloseable {
+    public static final String REGISTRATION_ID = "fake-idp";
+
+    private final HttpServer server;
+
+    private FakeOAuth2Provider(final HttpServer server) {
+        this.server = server;
+    }
+
+    public static FakeOAuth2Provider start() throws IOException {
+        // Without TCP_NODELAY responses wait for delayed ACK of the client, about 40 ms per call, more than the login itself
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        final var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/token", FakeOAuth2Provider::token);
+        server.createContext("/userinfo", FakeOAuth2Provider::userInfo);
+        server.start();
+        return new FakeOAuth2Provider(server);
+    }
+
+    public static String codeOf(final String email) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(email.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Application arguments registering this provider.
+     */
+    public List<String> appArgs() {
+        final var url = "http://127.0.0.1:" + server.getAddress().getPort();
+        final var registration = "--spring.security.oauth2.client.registration." + REGISTRATION_ID;
+        final var provider = "--spring.security.oauth2.client.provider." + REGISTRATION_ID;
+        return List.of(
+                registration + ".client-id=fake-idp",
+                registration + ".client-secret=fake-idp-secret",
+                registration + ".client-authentication-method=client_secret_basic",
+                registration + ".authorization-grant-type=authorization_code",
+                registration + ".redirect-uri={baseUrl}/login/oauth2/code/{registrationId}",
+                registration + ".scope=email,profile",
+                provider + ".authorization-uri=" + url + "/authorize",
+                provider + ".token-uri=" + url + "/token",
+                provider + ".user-info-uri=" + url + "/userinfo",
+                provider + ".user-name-attribute=email");
+    }
+
+    private static void token(final HttpExchange exchange) throws IOException {
+        final var form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        var code = "";
+        for (final var pair : form.split("&")) {
+            if (pair.startsWith("code=")) {
+                code = URLDecoder.decode(pair.substring("code=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        respond(exchange, "{\"access_token\":\"%s\",\"token_type\":\"Bearer\",\"expires_in\":300}".formatted(code));
+    }
+
+    private static void userInfo(final HttpExchange exchange) throws IOException {
+        final var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        final var email = new String(Base64.getUrlDecoder().decode(authorization.substring("Bearer ".length())), StandardCharsets.UTF_8);
+        respond(exchange, "{\"email\":\"%s\",\"given_name\":\"Sso\",\"family_name\":\"User\"}".formatted(email));
+    }
+
+    private static void respond(final HttpExchange exchange,
+                                final String json) throws IOException {
+        final var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (final var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,106 @@
+package io.touchyongan.starter_template.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drive one scenario against the API.
+ * - closed loop: concurrency virtual users send the next request once the previous one completes.
+ * - open loop: requests are sent at fixed rate regardless of response time, latency is measured from the
+ * intended send time so a stalled server is not hidden (coordinated omission).
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final ApiClient client;
+    private final LoadTestConfig config;
+    private final ResourceSampler sampler;
+
+    public ScenarioResult run(final Scenario scenario) {
+        log.info("Warmup scenario {} for {}", scenario.name(), config.warmup());
+        drive(scenario, config.warmup(), new Recorder(HIGHEST_TRACKABLE_MICROS, 3), new LongAdder(), new LongAdder());
+
+        log.info("Measure scenario {} for {}", scenario.name(), config.duration());
+        final var recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final var errors = new LongAdder();
+        final var dropped = new LongAdder();
+        sampler.start();
+        final var start = System.nanoTime();
+        drive(scenario, config.duration(), recorder, errors, dropped);
+        final var elapsed = System.nanoTime() - start;
+        final var resources = sampler.stop();
+        final Histogram histogram = recorder.getIntervalHistogram();
+        return ScenarioResult.of(scenario.name(), config.mode(), errors.sum(), dropped.sum(), elapsed, histogram, resources);
+    }
+
+    private void drive(final Scenario scenario,
+                       final Duration duration,
+                       final Recorder recorder,
+                       final LongAdder errors,
+                       final LongAdder dropped) {
+        final var deadline = System.nanoTime() + duration.toNanos();
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (config.isOpenLoop()) {
+                final var interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.rate());
+                final var inFlight = new Semaphore(config.concurrency());
+                var intended = System.nanoTime();
+                while (intended < deadline) {
+                    LockSupport.parkNanos(intended - System.nanoTime());
+                    if (!inFlight.tryAcquire()) {
+                        dropped.increment();
+                    } else {
+                        final var intendedStart = intended;
+                        executor.execute(() -> {
+                            try {
+                                call(scenario, intendedStart, recorder, errors);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    }
+                    intended += interval;
+                }
+            } else {
+                for (var i = 0; i < config.concurrency(); i++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() < deadline) {
+                            call(scenario, System.nanoTime(), recorder, errors);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private void call(final Scenario scenario,
+                      final long startNanos,
+                      final Recorder recorder,
+                      final LongAdder errors) {
+        try {
+            final var status = scenario.call().execute(client, ThreadLocalRandom.current());
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.increment();
+        } catch (final Exception e) {
+            log.debug("Error execute scenario {}", scenario.name(), e);
+            errors.increment();
+        }
+        final var micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+}
@@ -0,0 +1,50 @@
+package io.touchyongan.starter_template.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All settings are read from system properties with prefix loadtest., e.g. -Dloadtest.concurrency=64
+ *
+ * @param scenarios   scenario names, see Scenarios
+ * @param mode        closed: fixed number of virtual users, open: fixed arrival rate
+ * @param concurrency virtual users of closed loop, max in-flight requests of open loop
+ * @param rate        requests per second of open loop
+ */
+public record LoadTestConfig(List<String> scenarios,
+                             String mode,
+                             int concurrency,
+                             int rate,
+                             Duration warmup,
+                             Duration duration,
+                             int users,
+                             int roles,
+                             int permissionsPerRole,
+                             int auditRows,
+                             String reportDir) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Arrays.asList(get("scenarios", "login,readAuditList,readAuditDetail,refresh,mixed").split(",")),
+                get("mode", "closed"),
+                Integer.parseInt(get("concurrency", "32")),
+                Integer.parseInt(get("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(get("warmupSeconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(get("durationSeconds", "30"))),
+                Integer.parseInt(get("users", "10000")),
+                Integer.parseInt(get("roles", "20")),
+                Integer.parseInt(get("permissionsPerRole", "50")),
+                Integer.parseInt(get("auditRows", "1000000")),
+                get("reportDir", "build/reports/loadtest"));
+    }
+
+    public boolean isOpenLoop() {
+        return "open".equalsIgnoreCase(mode);
+    }
+
+    private static String get(final String key,
+                              final String defaultValue) {
+        return System.getProperty("loadtest." + key, defaultValue);
+    }
+}
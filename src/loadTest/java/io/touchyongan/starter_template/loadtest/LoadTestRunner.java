@@ -0,0 +1,121 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import io.touchyongan.starter_template.StarterTemplateApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Boot the application against an embedded Postgres, seed realistic data, run each scenario and write
+ * latency percentiles, pool saturation and GC activity to loadtest.reportDir.
+ * Usage: gradle loadTest -Ploadtest.mode=open -Ploadtest.rate=500
+ * Login storm of SSO users through FakeOAuth2Provider: gradle loadTest -Ploadtest.scenarios=oauth2LoginStorm -Ploadtest.users=2000
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var config = LoadTestConfig.fromSystemProperties();
+        try (final var postgres = EmbeddedPostgres.builder().start();
+             final var oauth2Provider = FakeOAuth2Provider.start()) {
+            // Passed as command line args, default properties have lower precedence than application.properties
+            final var appArgs = Stream.of(Stream.of(
+                            "--server.port=0",
+                            "--server.ssl.enabled=false",
+                            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=",
+                            "--logging.level.root=WARN",
+                            "--logging.level.io.touchyongan.starter_template.loadtest=INFO"), oauth2Provider.appArgs().stream(), Arrays.stream(args))
+                    .flatMap(Function.identity())
+                    .toArray(String[]::new);
+            try (final var context = new SpringApplicationBuilder(StarterTemplateApplication.class).run(appArgs)) {
+                new DataSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class)).seed(config);
+
+                final var port = context.getEnvironment().getRequiredProperty("local.server.port");
+                final var objectMapper = context.getBean(ObjectMapper.class);
+                // LoopbackIpRedirectFilter redirects localhost to 127.0.0.1
+                final var client = new ApiClient("http://127.0.0.1:" + port, objectMapper);
+                final var tokenUsers = Math.min(config.users(), config.concurrency() * 4);
+                loginUsers(client, tokenUsers);
+
+                final var pool = context.getBean(DataSource.class).unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                final var results = new ArrayList<ScenarioResult>();
+                try (final var sampler = new ResourceSampler(pool)) {
+                    final var generator = new LoadGenerator(client, config, sampler);
+                    for (final var name : config.scenarios()) {
+                        final var result = generator.run(Scenario.of(name.trim(), config, tokenUsers));
+                        results.add(result);
+                    }
+                }
+                report(config, objectMapper, results);
+            }
+        }
+    }
+
+    private static void loginUsers(final ApiClient client,
+                                   final int tokenUsers) {
+        log.info("Login {} users for read scenarios", tokenUsers);
+        // Few at a time, login holds two pooled connections (outer transaction + REQUIRES_NEW of login attempt)
+        final var permits = new Semaphore(4);
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.rangeClosed(1, tokenUsers).forEach(userNo -> executor.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    client.login(userNo);
+                } catch (final Exception e) {
+                    log.warn("Error login user {}", userNo, e);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+    }
+
+    private static void report(final LoadTestConfig config,
+                               final ObjectMapper objectMapper,
+                               final List<ScenarioResult> results) throws IOException {
+        final var dir = Files.createDirectories(Path.of(config.reportDir()));
+        final var summary = new StringBuilder("%n%-16s %-6s %9s %7s %7s %9s %9s %9s %9s %9s %9s %6s %7s %7s %6s %8s%n".formatted(
+                "scenario", "mode", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "pool", "active", "pending", "gc", "gc ms"));
+        for (final var result : results) {
+            final var resources = result.resources();
+            summary.append("%-16s %-6s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %6d %7d %7d %6d %8d%n".formatted(
+                    result.scenario(), result.mode(), result.requests(), result.errors(), result.dropped(), result.throughput(),
+                    result.p50Ms(), result.p90Ms(), result.p99Ms(), result.p999Ms(), result.maxMs(),
+                    resources.poolSize(), resources.maxActiveConnections(), resources.maxPendingThreads(),
+                    resources.gcCount(), resources.gcTimeMs()));
+            try (final var out = new PrintStream(Files.newOutputStream(dir.resolve(result.scenario() + ".hgrm")))) {
+                result.histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        log.info("{}", summary);
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("summary.json").toFile(), results);
+        log.info("Report written to {}", dir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,531 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.touchyongan.starter_template.feature.audit.rollup.AuditRollupFolder;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end checks of the application process, meant for the native executable where missing reflection or resource
+ * hints only fail at runtime. Each check goes through one part that relies on hints: security filter chain, JwtRequestFilter,
+ * OAuth2 login and OAuth2TempTokenFilter, ES256 signing by JwtKeyRing, AuditLogAspect, projections, jsonb columns, Flyway migrations and i18n messages.
+ * Runs against the boot jar instead when nativeIt.jar is set.
+ * Usage: gradle nativeIntegrationTest [-PnativeIt.jar=build/libs/api-app.jar]
+ */
+@Slf4j
+public final class NativeIntegrationTest {
+    private static final List<String> SIGNING_KIDS = List.of("e2e-current", "e2e-next");
+    private static final byte[] JWT_SECRET = "native-integration-test-secret-key-0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final Duration AUDIT_WRITE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration INDEX_ADVISOR_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ApiClient client;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path draftDirectory;
+
+    private NativeIntegrationTest(final ApiClient client,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final Path draftDirectory) {
+        this.client = client;
+        this.jdbcTemplate = jdbcTemplate;
+        this.draftDirectory = draftDirectory;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var jar = System.getProperty("nativeIt.jar");
+        final var executable = Path.of(System.getProperty("nativeIt.executable", "build/native/nativeCompile/api-app"));
+        final var workDir = Path.of(System.getProperty("nativeIt.workDir", "build/native-it"));
+        FileSystemUtils.deleteRecursively(draftDirectory(workDir));
+        try (final var postgres = EmbeddedPostgres.builder().start();
+             final var oauth2Provider = FakeOAuth2Provider.start()) {
+            final var command = new ArrayList<String>();
+            if (jar == null) {
+                command.add(executable.toAbsolutePath().toString());
+            } else {
+                command.addAll(StartupBenchmark.javaJar(Path.of(jar), List.of()));
+            }
+            command.addAll(List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=",
+                    "--auth.jwt.secret_key=" + Encoders.BASE64URL.encode(JWT_SECRET),
+                    "--audit.rollup.interval=500ms",
+                    // Lookup of few ids still spans several chunks fetched in parallel
+                    "--repository.batch-fetch.chunk-size=2",
+                    "--index.advisor.enabled=true",
+                    "--index.advisor.analyze-interval=1s",
+                    "--index.advisor.min-executions=1",
+                    "--index.advisor.min-execution-time=0ms",
+                    "--index.advisor.draft-directory=" + draftDirectory(workDir),
+                    // Replaced refresh token presented again revokes its family at once
+                    "--auth.refresh.reuse-interval=0s"));
+            command.addAll(oauth2Provider.appArgs());
+            command.addAll(signingKeyArgs(workDir.resolve("jwt-keys")));
+            try (final var app = AppProcess.start(jar == null ? "native" : "jvm", command, workDir)) {
+                final var jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+                new DataSeeder(jdbcTemplate, new BCryptPasswordEncoder())
+                        .seed(new LoadTestConfig(List.of(), "closed", 1, 1, Duration.ZERO, Duration.ZERO, 3, 2, 4, 50, workDir.toString()));
+                final var failures = new NativeIntegrationTest(new ApiClient(app.getBaseUrl(), new ObjectMapper()), jdbcTemplate,
+                        draftDirectory(workDir)).run();
+                log.info("Started in {} ms, RSS after checks {} MB", app.getStartMs(), app.rssKb() / 1024);
+                if (failures > 0) {
+                    throw new IllegalStateException(failures + " check(s) failed, application output is in " + workDir);
+                }
+            }
+        }
+    }
+
+    private int run() {
+        final var checks = new LinkedHashMap<String, Check>();
+        checks.put("Flyway migrations applied", this::migrationsApplied);
+        checks.put("login: security filter chain, bcrypt, JJWT signing", () -> expectStatus(client.login(1), 200));
+        checks.put("login audited: AuditLogAspect, async audit pool, jsonb insert", this::loginAudited);
+        checks.put("refresh: JJWT parsing", () -> expectStatus(client.refresh(1), 200));
+        checks.put("audit list: JwtRequestFilter, CustomPreAuthorize, projection, streamed page", this::auditList);
+        checks.put("audit detail: projection with jsonb columns", this::auditDetail);
+        checks.put("audit detail: ETag bound to caller and row version", this::auditDetailRevalidated);
+        checks.put("anonymous request rejected", () -> expectProblem(client.send("GET", "/audit-trails", null, null), 401));
+        checks.put("anonymous metrics scrape rejected", () -> expectProblem(client.send("GET", "/actuator/prometheus", null, null), 401));
+        checks.put("token of other key rejected", this::foreignTokenRejected);
+        checks.put("OAuth2 clients listed", () -> expectStatus(client.send("GET", "/auth/oauth2-clients", null, null).statusCode(), 200));
+        checks.put("OAuth2 login: upsert provisioning, single use handoff token of OAuth2TempTokenFilter", this::oauth2LoginExchanged);
+        checks.put("validation message resolved from i18n bundle", this::validationMessageResolved);
+        checks.put("username typeahead: create, rename and delete of other replica applied", this::usernameTypeaheadFollowsDatabase);
+        checks.put("audit stats: rollup fold, stats query from rollups", this::auditStats);
+        checks.put("audit rollups rebuilt by backfill match audit_trail", this::auditRollupBackfill);
+        checks.put("audit rollups wait for an insert still open below the ceiling", this::auditRollupWaitsForOpenInsert);
+        checks.put("audit stats: invalid interval rejected", () -> expectProblem(
+                client.send("GET", "/audit-trails/stats?interval=week", client.bearer(1), null), 422));
+        checks.put("failed login stats: multi-aggregate group by query", this::failedLoginStats);
+        checks.put("audit lookup: chunked id = any(array) batch fetch in order of ids", this::auditLookup);
+        checks.put("user list: fetch plan loads user info and roles with constant statements", this::userListFetchPlan);
+        checks.put("audit list: partial index serves filter and order of AuditTrailFilter", this::auditListingIndexUsed);
+        checks.put("index advisor: draft migration for sampled query shape", this::indexAdvisorDraft);
+        checks.put("refresh token reuse revokes its family, revocation checked by Bloom filter", this::refreshReuseRevokesFamily);
+        checks.put("logout revokes access token", this::logoutRevokesAccessToken);
+        checks.put("JWKS: PEM keys loaded, next key published ahead, token verified locally by kid", this::tokenVerifiedByJwks);
+
+        var failures = 0;
+        for (final var check : checks.entrySet()) {
+            try {
+                check.getValue().run();
+                log.info("PASS {}", check.getKey());
+            } catch (final Exception | AssertionError e) {
+                failures++;
+                log.error("FAIL {}: {}", check.getKey(), e.getMessage());
+            }
+        }
+        log.info("{} of {} checks passed", checks.size() - failures, checks.size());
+        return failures;
+    }
+
+    private void migrationsApplied() {
+        final var applied = jdbcTemplate.queryForObject("SELECT count(*) FROM flyway_schema_history WHERE success", Long.class);
+        expect(applied != null && applied > 0, "no successful migration in flyway_schema_history");
+    }
+
+    private void loginAudited() throws InterruptedException {
+        final var deadline = System.nanoTime() + AUDIT_WRITE_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            final var count = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM audit_trail WHERE action = 'LOGIN' AND request_url = '/auth/token'", Long.class);
+            if (count != null && count > 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("no audit trail of login within " + AUDIT_WRITE_TIMEOUT);
+    }
+
+    private void auditList() throws Exception {
+        final var response = client.send("GET", "/audit-trails?page=0&size=5", client.bearer(1), null);
+        expectStatus(response.statusCode(), 200);
+        expect(response.body().contains("\"content\"") && response.body().contains("\"requestBody\""), "unexpected body " + response.body());
+        // No cheap version moves with every committed insert or update, so the polled list is never answered with 304
+        expect(response.headers().firstValue("ETag").isEmpty(), "audit list must not be revalidated by ETag");
+    }
+
+    private void auditDetail() throws Exception {
+        final var response = client.send("GET", "/audit-trails/1", client.bearer(1), null);
+        expectStatus(response.statusCode(), 200);
+        expect(response.body().contains("\"newValue\""), "unexpected body " + response.body());
+    }
+
+    private void auditDetailRevalidated() throws Exception {
+        final var path = "/audit-trails/1";
+        final var etag = client.send("GET", path, client.bearer(1), null).headers().firstValue("ETag").orElseThrow();
+        expectStatus(client.getIfNoneMatch(path, client.bearer(1), etag).statusCode(), 304);
+        expectStatus(client.getIfNoneMatch(path, client.bearer(2), etag).statusCode(), 200);
+        jdbcTemplate.update("UPDATE audit_trail SET error_message = error_message WHERE id = 1");
+        expectStatus(client.getIfNoneMatch(path, client.bearer(1), etag).statusCode(), 200);
+    }
+
+    private void auditStats() throws Exception {
+        final var deadline = System.nanoTime() + AUDIT_WRITE_TIMEOUT.toNanos();
+        var body = "";
+        while (System.nanoTime() < deadline) {
+            final var response = client.send("GET", "/audit-trails/stats?interval=total&groupBy=action&action=LOGIN", client.bearer(1), null);
+            expectStatus(response.statusCode(), 200);
+            body = response.body();
+            if (body.contains("\"action\":\"LOGIN\"")) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("login not in audit stats within %s: %s".formatted(AUDIT_WRITE_TIMEOUT, body));
+    }
+
+    private void auditRollupBackfill() {
+        final var folder = new AuditRollupFolder(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(Objects.requireNonNull(jdbcTemplate.getDataSource()))), 7);
+        folder.reset();
+        while (!folder.isCaughtUp()) {
+            folder.foldAll();
+        }
+        final var mismatches = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM (
+                    SELECT date_trunc('day', created_at) AS bucket, coalesce(username, '') AS username, count(*) AS total
+                    FROM audit_trail
+                    WHERE id <= (SELECT last_id FROM audit_trail_rollup_state)
+                    GROUP BY 1, 2
+                ) a
+                FULL JOIN (SELECT bucket, username, sum(total) AS total FROM audit_trail_rollup_daily GROUP BY 1, 2) r
+                  ON r.bucket = a.bucket AND r.username = a.username
+                WHERE a.total IS DISTINCT FROM r.total
+                """, Long.class);
+        expect(mismatches != null && mismatches == 0, mismatches + " daily buckets differ from audit_trail");
+    }
+
+    /**
+     * The open insert takes a lower id than the committed one, the ceiling moves past it while it is still invisible.
+     */
+    private void auditRollupWaitsForOpenInsert() throws Exception {
+        final var dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        final var folder = new AuditRollupFolder(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 1000);
+        final var insert = "INSERT INTO audit_trail(entity, \"action\", status, username) VALUES ('ROLLUP', 'LATE', 'SUCCESS', ?)";
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (var statement = connection.prepareStatement(insert)) {
+                statement.setString(1, "rollup-open-insert");
+                statement.executeUpdate();
+            }
+            jdbcTemplate.update(insert, "rollup-committed-insert");
+            for (var i = 0; i < 3; i++) {
+                folder.foldAll();
+            }
+            expect(!folder.isCaughtUp(), "ceiling passed an open insert and was folded");
+            connection.commit();
+        }
+        while (!folder.isCaughtUp()) {
+            folder.foldAll();
+        }
+        final var folded = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(total), 0) FROM audit_trail_rollup_daily WHERE username = 'rollup-open-insert'", Long.class);
+        expect(folded != null && folded == 1, "open insert folded %s times".formatted(folded));
+    }
+
+    private void failedLoginStats() throws Exception {
+        final var username = DataSeeder.USERNAME_PREFIX + 3;
+        final var wrongPassword = new ObjectMapper().writeValueAsString(Map.of("username", username, "password", "wrong-password"));
+        for (var i = 0; i < 2; i++) {
+            expectProblem(client.send("POST", "/auth/token", null, wrongPassword), 401);
+        }
+        final var response = client.send("GET", "/failed-logins/stats?interval=hour&groupBy=username&minAttempts=2", client.bearer(1), null);
+        expectStatus(response.statusCode(), 200);
+        final var body = response.body();
+        expect(body.contains("\"username\":\"%s\"".formatted(username)) && body.contains("\"attempts\":2")
+                && body.contains("\"bucket\"") && body.contains("\"lastFailedAt\""), "unexpected body " + body);
+    }
+
+    private void auditLookup() throws Exception {
+        final var mapper = new ObjectMapper();
+        final var body = mapper.writeValueAsString(Map.of("ids", List.of(3, 1, 2, 1, 999_999_999)));
+        final var response = client.send("POST", "/audit-trails/lookup", client.bearer(1), body);
+        expectStatus(response.statusCode(), 200);
+        final var ids = new ArrayList<Long>();
+        mapper.readTree(response.body()).path("data").forEach(row -> ids.add(row.path("id").asLong()));
+        expect(ids.equals(List.of(3L, 1L, 2L)), "expected ids [3, 1, 2] but was %s in %s".formatted(ids, response.body()));
+    }
+
+    /**
+     * Statements of a page of 2 users must equal those of a page of 1, read from the per-route statement metric.
+     * Both pages fit one batch fetch chunk, a larger page is fetched in several chunks.
+     */
+    private void userListFetchPlan() throws Exception {
+        final var statementsOfOne = statementsOf("/users?size=1");
+        final var response = client.send("GET", "/users?size=2&query=" + DataSeeder.USERNAME_PREFIX, client.bearer(1), null);
+        expectStatus(response.statusCode(), 200);
+        final var users = new ObjectMapper().readTree(response.body()).path("data").path("content");
+        expect(users.size() == 2 && users.get(0).path("roles").size() == 2 && users.get(0).path("firstname").isTextual(),
+                "unexpected body " + response.body());
+        final var statementsOfTwo = routeStatements("/users") - statementsOfOne.total();
+        expect(statementsOfTwo == statementsOfOne.delta(), "page of 1 executed %.0f statements, page of 2 executed %.0f"
+                .formatted(statementsOfOne.delta(), statementsOfTwo));
+    }
+
+    private Statements statementsOf(final String path) throws Exception {
+        final var before = routeStatements("/users");
+        expectStatus(client.send("GET", path, client.bearer(1), null).statusCode(), 200);
+        final var after = routeStatements("/users");
+        return new Statements(after, after - before);
+    }
+
+    private double routeStatements(final String route) throws Exception {
+        final var body = client.send("GET", "/actuator/prometheus", client.bearer(1), null).body();
+        final var matcher = Pattern.compile("app_query_statements_sum\\{[^}]*route=\"%s\"[^}]*} (\\S+)"
+                .formatted(Pattern.quote(route))).matcher(body);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    private record Statements(double total, double delta) {
+    }
+
+    /**
+     * Sequential and bitmap scans are disabled so the plan shows whether the index can serve filter and order of the shape,
+     * not what is cheapest for few rows.
+     */
+    private void auditListingIndexUsed() {
+        final var plan = new TransactionTemplate(new DataSourceTransactionManager(Objects.requireNonNull(jdbcTemplate.getDataSource())))
+                .execute(status -> {
+                    status.setRollbackOnly();
+                    jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+                    jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+                    return String.join(" | ", jdbcTemplate.queryForList("""
+                            EXPLAIN SELECT id FROM audit_trail
+                            WHERE username = ? AND entity <> 'AUDIT_TRAILS' ORDER BY id DESC LIMIT 10
+                            """, String.class, DataSeeder.USERNAME_PREFIX + 1));
+                });
+        expect(Objects.requireNonNull(plan).contains("using idx_audit_trail_listing") && !plan.contains("Sort"), "unexpected plan " + plan);
+    }
+
+    private void indexAdvisorDraft() throws Exception {
+        expectStatus(client.send("GET", "/users?enabled=true", client.bearer(1), null).statusCode(), 200);
+        final var deadline = System.nanoTime() + INDEX_ADVISOR_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (Files.isDirectory(draftDirectory)) {
+                try (final var drafts = Files.list(draftDirectory)) {
+                    for (final var draft : drafts.toList()) {
+                        final var content = Files.readString(draft);
+                        if (content.contains("CREATE INDEX CONCURRENTLY") && content.contains("ON \"app_users\" USING btree (\"is_enabled\", \"id\")")) {
+                            return;
+                        }
+                    }
+                }
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("no draft with index of app_users in " + draftDirectory);
+    }
+
+    private static Path draftDirectory(final Path workDir) {
+        return workDir.resolve("index-advisor").toAbsolutePath();
+    }
+
+    private void foreignTokenRejected() throws Exception {
+        final var otherKey = "another-secret-key-of-at-least-256-bits-length".getBytes(StandardCharsets.UTF_8);
+        final var response = client.send("GET", "/audit-trails", "Bearer " + token(otherKey), null);
+        expectProblem(response, 400);
+    }
+
+    /**
+     * Two logins of a new SSO user, the second one finds the user created by the first one.
+     */
+    private void oauth2LoginExchanged() throws Exception {
+        final var email = "Sso.User@example.com";
+        final var handoffTokens = new ArrayList<String>();
+        for (var i = 0; i < 2; i++) {
+            final var handoffToken = client.oauth2Handoff(FakeOAuth2Provider.REGISTRATION_ID, FakeOAuth2Provider.codeOf(email));
+            expect(handoffToken.isPresent(), "no handoff token in redirect of OAuth2 login");
+            handoffTokens.add(handoffToken.get());
+        }
+        for (final var handoffToken : handoffTokens) {
+            final var response = client.send("GET", "/oauth2/exchange?token=" + handoffToken, null, null);
+            expectStatus(response.statusCode(), 200);
+            expect(response.body().contains("accessToken"), "unexpected body " + response.body());
+        }
+        expectProblem(client.send("GET", "/oauth2/exchange?token=" + handoffTokens.getFirst(), null, null), 401);
+        final var users = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM app_users u JOIN user_info i ON i.app_user_id = u.id
+                WHERE lower(u.email) = lower(?) AND i.firstname = 'Sso'
+                """, Long.class, email);
+        expect(users != null && users == 1, "expected one provisioned user with user info but was " + users);
+    }
+
+    private void refreshReuseRevokesFamily() throws Exception {
+        expectStatus(client.login(2), 200);
+        final var replaced = client.refreshBody(2);
+        expectStatus(client.refresh(2), 200);
+        final var current = client.refreshBody(2);
+        expectStatus(client.send("GET", "/audit-trails?page=0&size=1", client.bearer(2), null).statusCode(), 200);
+
+        expectProblem(client.send("POST", "/auth/refresh", null, replaced), 401);
+        expectProblem(client.send("GET", "/audit-trails?page=0&size=1", client.bearer(2), null), 401);
+        expectProblem(client.send("POST", "/auth/refresh", null, current), 401);
+        final var revoked = jdbcTemplate.queryForObject("SELECT count(*) FROM revoked_tokens WHERE reason = 'REUSED'", Long.class);
+        expect(revoked != null && revoked == 2, "expected both access tokens of the family revoked but was " + revoked);
+    }
+
+    private void logoutRevokesAccessToken() throws Exception {
+        expectStatus(client.login(2), 200);
+        final var refreshBody = client.refreshBody(2);
+        expectStatus(client.send("GET", "/audit-trails?page=0&size=1", client.bearer(2), null).statusCode(), 200);
+
+        expectStatus(client.send("POST", "/auth/logout", null, refreshBody).statusCode(), 204);
+        expectProblem(client.send("GET", "/audit-trails?page=0&size=1", client.bearer(2), null), 401);
+        expectProblem(client.send("POST", "/auth/refresh", null, refreshBody), 401);
+    }
+
+    /**
+     * ES256 key ring of the current key and the next one, which activates tomorrow.
+     */
+    private static List<String> signingKeyArgs(final Path directory) throws Exception {
+        Files.createDirectories(directory);
+        final var args = new ArrayList<>(List.of("--auth.jwt.signing.algorithm=ES256"));
+        final var activateAt = List.of(Instant.now().minus(Duration.ofHours(1)), Instant.now().plus(Duration.ofDays(1)));
+        for (var i = 0; i < activateAt.size(); i++) {
+            final var generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(256);
+            final var keyPair = generator.generateKeyPair();
+            final var privateKey = directory.resolve("key-%d.pem".formatted(i));
+            final var publicKey = directory.resolve("key-%d.pub.pem".formatted(i));
+            Files.writeString(privateKey, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+            Files.writeString(publicKey, pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+            final var key = "--auth.jwt.signing.keys[%d].".formatted(i);
+            args.addAll(List.of(
+                    key + "kid=" + SIGNING_KIDS.get(i),
+                    key + "private-key=file:" + privateKey.toAbsolutePath(),
+                    key + "public-key=file:" + publicKey.toAbsolutePath(),
+                    key + "activate-at=" + activateAt.get(i)));
+        }
+        return args;
+    }
+
+    private static String pem(final String type,
+                              final byte[] der) {
+        return "-----BEGIN %s-----%n%s%n-----END %s-----%n".formatted(type, Base64.getMimeEncoder().encodeToString(der), type);
+    }
+
+    /**
+     * User inserted straight into database stands for a user created on another replica, no event reaches this one.
+     */
+    private void usernameTypeaheadFollowsDatabase() throws Exception {
+        final var path = "/audit-trails/template/usernames?query=replica&size=5";
+        final var before = client.send("GET", path, client.bearer(1), null);
+        expectStatus(before.statusCode(), 200);
+        jdbcTemplate.update("""
+                INSERT INTO app_users(username, email, password, is_enabled, is_deleted, is_account_non_expired, is_account_non_locked,
+                                      is_credentials_non_expired, is_not_allowed_update, is_system)
+                VALUES ('Replica-User', 'replica-user@example.com', 'x', true, false, true, true, true, false, false)
+                """);
+        final var after = client.send("GET", path, client.bearer(1), null);
+        expectStatus(after.statusCode(), 200);
+        expect(!before.headers().firstValue("ETag").equals(after.headers().firstValue("ETag")), "ETag of usernames did not change");
+        expect(after.body().contains("Replica-User"), "user of other replica not listed: " + after.body());
+
+        jdbcTemplate.update("UPDATE app_users SET username = 'Replica-Renamed', updated_at = now() WHERE username = 'Replica-User'");
+        final var renamed = client.send("GET", path, client.bearer(1), null);
+        expect(renamed.body().contains("Replica-Renamed") && !renamed.body().contains("Replica-User"), "rename not applied: " + renamed.body());
+        jdbcTemplate.update("UPDATE app_users SET is_deleted = true, deleted_at = now() WHERE username = 'Replica-Renamed'");
+        final var deleted = client.send("GET", path, client.bearer(1), null);
+        expect(!deleted.body().contains("Replica-Renamed"), "soft deleted user still listed: " + deleted.body());
+        expect(!deleted.headers().firstValue("ETag").equals(renamed.headers().firstValue("ETag")), "ETag did not change on delete");
+    }
+
+    private void tokenVerifiedByJwks() throws Exception {
+        final var response = client.send("GET", "/.well-known/jwks.json", null, null);
+        expectStatus(response.statusCode(), 200);
+        expect(response.headers().firstValue("ETag").isPresent(), "no ETag of JWKS");
+        expect(response.headers().firstValue("Cache-Control").orElse("").contains("max-age"), "JWKS not cacheable");
+        final var etag = response.headers().firstValue("ETag").orElseThrow();
+        expectStatus(client.getIfNoneMatch("/.well-known/jwks.json", client.bearer(1), "W/" + etag).statusCode(), 304);
+        expectStatus(client.getIfNoneMatch("/.well-known/jwks.json", client.bearer(1), "\"stale\", " + etag).statusCode(), 304);
+        final var keys = new HashMap<String, PublicKey>();
+        for (final var jwk : Jwks.setParser().build().parse(response.body()).getKeys()) {
+            keys.put(jwk.getId(), (PublicKey) jwk.toKey());
+        }
+        expect(keys.keySet().equals(Set.copyOf(SIGNING_KIDS)), "expected keys %s in JWKS but were %s".formatted(SIGNING_KIDS, keys.keySet()));
+
+        final var accessToken = client.bearer(1).substring("Bearer ".length());
+        final var kid = new String[1];
+        final var claims = Jwts.parser()
+                .keyLocator(header -> {
+                    kid[0] = ((ProtectedHeader) header).getKeyId();
+                    return keys.get(kid[0]);
+                })
+                .build()
+                .parseSignedClaims(accessToken)
+                .getPayload();
+        expect(SIGNING_KIDS.getFirst().equals(kid[0]), "expected token signed by current key but was " + kid[0]);
+        expect((DataSeeder.USERNAME_PREFIX + 1).equals(claims.getSubject()), "unexpected subject " + claims.getSubject());
+    }
+
+    private void validationMessageResolved() throws Exception {
+        final var response = client.send("POST", "/auth/token", null, new ObjectMapper().writeValueAsString(Map.of("username", "")));
+        expectProblem(response, 400);
+        expect(response.body().contains("cannot be blank"), "message not resolved: " + response.body());
+    }
+
+    private static String token(final byte[] secret) {
+        return Jwts.builder()
+                .claim("typ", "Bearer")
+                .subject(DataSeeder.USERNAME_PREFIX + 2)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret))
+                .compact();
+    }
+
+    private static void expectStatus(final int actual,
+                                     final int expected) {
+        expect(actual == expected, "expected status %d but was %d".formatted(expected, actual));
+    }
+
+    /**
+     * Errors are returned with HTTP 200 and the actual status in the problem body, see GlobalExceptionController.
+     */
+    private static void expectProblem(final HttpResponse<String> response,
+                                      final int expected) {
+        expectStatus(response.statusCode(), 200);
+        expect(response.body().contains("\"status\":" + expected), "expected problem status %d in %s".formatted(expected, response.body()));
+    }
+
+    private static void expect(final boolean condition,
+                               final String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sample connection pool saturation every 50 ms and GC activity between start and stop.
+ */
+public class ResourceSampler implements AutoCloseable {
+    private static final long SAMPLE_INTERVAL_MS = 50;
+
+    private final HikariPoolMXBean pool;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("loadtest-sampler").factory());
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger maxPending = new AtomicInteger();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder saturatedSamples = new LongAdder();
+    private ScheduledFuture<?> task;
+    private long gcCountAtStart;
+    private long gcTimeAtStart;
+
+    public ResourceSampler(final HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    public void start() {
+        maxActive.set(0);
+        maxPending.set(0);
+        samples.reset();
+        saturatedSamples.reset();
+        gcCountAtStart = gcCount();
+        gcTimeAtStart = gcTimeMs();
+        task = scheduler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public Snapshot stop() {
+        task.cancel(false);
+        final var total = samples.sum();
+        final var saturatedPercent = total == 0 ? 0 : saturatedSamples.sum() * 100.0 / total;
+        return new Snapshot(
+                pool.getTotalConnections(),
+                maxActive.get(),
+                maxPending.get(),
+                saturatedPercent,
+                gcCount() - gcCountAtStart,
+                gcTimeMs() - gcTimeAtStart);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sample() {
+        final var active = pool.getActiveConnections();
+        final var pending = pool.getThreadsAwaitingConnection();
+        maxActive.accumulateAndGet(active, Math::max);
+        maxPending.accumulateAndGet(pending, Math::max);
+        samples.increment();
+        if (pending > 0) {
+            saturatedSamples.increment();
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(c -> c > 0)
+                .sum();
+    }
+
+    private static long gcTimeMs() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(c -> c > 0)
+                .sum();
+    }
+
+    /**
+     * @param saturatedPercent percentage of samples where at least one thread was waiting for a connection
+     */
+    public record Snapshot(int poolSize,
+                           int maxActiveConnections,
+                           int maxPendingThreads,
+                           double saturatedPercent,
+                           long gcCount,
+                           long gcTimeMs) {
+    }
+}
@@ -0,0 +1,52 @@
+package io.touchyongan.starter_template.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One request of a scenario, return HTTP status code.
+ */
+public record Scenario(String name, Call call) {
+
+    @FunctionalInterface
+    public interface Call {
+        int execute(ApiClient client, ThreadLocalRandom random) throws Exception;
+    }
+
+    /**
+     * @param tokenUsers number of users which already have token, read scenarios pick from them to avoid measuring login
+     */
+    public static Scenario of(final String name,
+                              final LoadTestConfig config,
+                              final int tokenUsers) {
+        final var pageCount = Math.max(1, config.auditRows() / 20);
+        final Call login = (client, random) -> client.login(random.nextInt(1, config.users() + 1));
+        final Call refresh = (client, random) -> client.refresh(random.nextInt(1, tokenUsers + 1));
+        final Call readAuditList = (client, random) -> client.get(random.nextInt(1, tokenUsers + 1),
+                "/audit-trails?page=%d&size=20".formatted(random.nextInt(Math.min(pageCount, 50))));
+        final Call readAuditDetail = (client, random) -> client.get(random.nextInt(1, tokenUsers + 1),
+                "/audit-trails/" + random.nextInt(1, config.auditRows() + 1));
+        // SSO users, not seeded: the first login of each one provisions it, often while other logins of the same user run
+        final Call oauth2LoginStorm = (client, random) -> client.oauth2Login(FakeOAuth2Provider.REGISTRATION_ID,
+                FakeOAuth2Provider.codeOf("sso_user_%d@example.com".formatted(random.nextInt(1, config.users() + 1))));
+        return switch (name) {
+            case "login" -> new Scenario(name, login);
+            case "refresh" -> new Scenario(name, refresh);
+            case "readAuditList" -> new Scenario(name, readAuditList);
+            case "readAuditDetail" -> new Scenario(name, readAuditDetail);
+            case "oauth2LoginStorm" -> new Scenario(name, oauth2LoginStorm);
+            // 10% login, 60% list, 20% detail, 10% refresh
+            case "mixed" -> new Scenario(name, (client, random) -> {
+                final var dice = random.nextInt(100);
+                if (dice < 10) {
+                    return login.execute(client, random);
+                } else if (dice < 70) {
+                    return readAuditList.execute(client, random);
+                } else if (dice < 90) {
+                    return readAuditDetail.execute(client, random);
+                }
+                return refresh.execute(client, random);
+            });
+            default -> throw new IllegalArgumentException("Unknown scenario " + name);
+        };
+    }
+}
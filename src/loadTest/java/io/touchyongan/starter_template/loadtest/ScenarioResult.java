@@ -0,0 +1,54 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency is recorded in microseconds and reported in milliseconds.
+ *
+ * @param dropped open loop only, requests not sent because max in-flight was reached
+ */
+public record ScenarioResult(String scenario,
+                             String mode,
+                             long requests,
+                             long errors,
+                             long dropped,
+                             double throughput,
+                             double p50Ms,
+                             double p90Ms,
+                             double p99Ms,
+                             double p999Ms,
+                             double maxMs,
+                             ResourceSampler.Snapshot resources,
+                             @JsonIgnore Histogram histogram) {
+
+    public static ScenarioResult of(final String scenario,
+                                    final String mode,
+                                    final long errors,
+                                    final long dropped,
+                                    final long elapsedNanos,
+                                    final Histogram histogram,
+                                    final ResourceSampler.Snapshot resources) {
+        final var requests = histogram.getTotalCount();
+        return new ScenarioResult(
+                scenario,
+                mode,
+                requests,
+                errors,
+                dropped,
+                requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos,
+                toMs(histogram.getValueAtPercentile(50)),
+                toMs(histogram.getValueAtPercentile(90)),
+                toMs(histogram.getValueAtPercentile(99)),
+                toMs(histogram.getValueAtPercentile(99.9)),
+                toMs(histogram.getMaxValue()),
+                resources,
+                histogram);
+    }
+
+    private static double toMs(final long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,183 @@
+package io.touchyongan.starter_template.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measure cold start as time from process launch to the first 200 of GET /health, and resident memory once healthy,
+ * for each startup variant. The jar is extracted and the CDS archive is trained the same way as the Dockerfile does.
+ * Variant native runs the executable of gradle nativeCompile, see startup.nativeExecutable.
+ * Usage: gradle startupBenchmark -Pstartup.runs=5 -Pstartup.variants=default,aot-cds,fast-startup,native
+ */
+@Slf4j
+public final class StartupBenchmark {
+    static final List<String> BASE_JVM_ARGS = List.of(
+            "--add-opens=java.base/java.time=ALL-UNNAMED",
+            "--add-opens=java.base/java.time.format=ALL-UNNAMED");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var jar = Path.of(System.getProperty("startup.jar", "build/libs/api-app.jar"));
+        final var nativeExecutable = Path.of(System.getProperty("startup.nativeExecutable", "build/native/nativeCompile/api-app"));
+        final var workDir = Path.of(System.getProperty("startup.workDir", "build/startup"));
+        final var reportDir = Path.of(System.getProperty("startup.reportDir", "build/reports/startup"));
+        final var runs = Integer.getInteger("startup.runs", 3);
+        final var variantNames = System.getProperty("startup.variants", "default,cds,aot,aot-cds,fast-startup").split(",");
+
+        final var appJar = extract(jar, workDir);
+        final var archive = workDir.resolve("api-app.jsa");
+        train(appJar, archive, workDir);
+        try (final var postgres = EmbeddedPostgres.builder().start()) {
+            final var dbArgs = List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=");
+            // Untimed start applies migrations, so every measured start sees the same schema
+            try (final var ignored = AppProcess.start("migrate", concat(javaJar(appJar, List.of()), dbArgs), workDir)) {
+                log.info("Migration applied");
+            }
+
+            final var results = new ArrayList<Result>();
+            for (final var name : variantNames) {
+                final var command = concat(command(name.trim(), appJar, archive, nativeExecutable), dbArgs);
+                final var startMs = new ArrayList<Long>();
+                final var rssKb = new ArrayList<Long>();
+                for (var run = 0; run < runs; run++) {
+                    try (final var app = AppProcess.start(name.trim(), command, workDir)) {
+                        startMs.add(app.getStartMs());
+                        rssKb.add(app.rssKb());
+                    }
+                }
+                results.add(Result.of(name.trim(), startMs, rssKb));
+            }
+            report(reportDir, results);
+        }
+    }
+
+    /**
+     * default: plain java -jar as before, cds/aot/aot-cds: one optimization each, fast-startup: what the Docker image runs,
+     * fast-startup-lazy: the same with LAZY_INITIALIZATION=true, native: what Dockerfile.native runs.
+     */
+    private static List<String> command(final String name,
+                                        final Path appJar,
+                                        final Path archive,
+                                        final Path nativeExecutable) {
+        final var cds = "-XX:SharedArchiveFile=" + archive;
+        final var aot = "-Dspring.aot.enabled=true";
+        return switch (name) {
+            case "default" -> javaJar(appJar, List.of());
+            case "cds" -> javaJar(appJar, List.of(cds));
+            case "aot" -> javaJar(appJar, List.of(aot));
+            case "aot-cds" -> javaJar(appJar, List.of(cds, aot));
+            case "fast-startup" -> concat(javaJar(appJar, List.of(cds, aot)), List.of("--spring.profiles.active=fast-startup"));
+            case "fast-startup-lazy" -> concat(javaJar(appJar, List.of(cds, aot)),
+                    List.of("--spring.profiles.active=fast-startup", "--spring.main.lazy-initialization=true"));
+            case "native" -> List.of(nativeExecutable.toAbsolutePath().toString());
+            default -> throw new IllegalArgumentException("Unknown startup variant: " + name);
+        };
+    }
+
+    static List<String> javaJar(final Path appJar,
+                                final List<String> jvmArgs) {
+        final var command = new ArrayList<>(List.of(java()));
+        command.addAll(BASE_JVM_ARGS);
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", appJar.toString()));
+        return command;
+    }
+
+    private static List<String> concat(final List<String> first,
+                                       final List<String> second) {
+        final var command = new ArrayList<>(first);
+        command.addAll(second);
+        return command;
+    }
+
+    private static Path extract(final Path jar,
+                                final Path workDir) throws IOException, InterruptedException {
+        final var destination = workDir.resolve("app");
+        exec(workDir, "extract", List.of(java(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--force", "--destination", destination.toString()));
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static void train(final Path appJar,
+                              final Path archive,
+                              final Path workDir) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        final var command = concat(javaJar(appJar, List.of("-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh")), List.of("--spring.profiles.active=cds-training"));
+        exec(workDir, "train", command);
+        log.info("CDS archive {} written, {} KB", archive, Files.size(archive) / 1024);
+    }
+
+    private static void exec(final Path workDir,
+                             final String name,
+                             final List<String> command) throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        final var output = workDir.resolve(name + ".log");
+        final var exitCode = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start()
+                .waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("%s exited with %d, see %s".formatted(name, exitCode, output));
+        }
+    }
+
+    private static void report(final Path reportDir,
+                               final List<Result> results) throws IOException {
+        Files.createDirectories(reportDir);
+        final var summary = new StringBuilder("%n%-16s %6s %9s %9s %9s %9s%n".formatted(
+                "variant", "runs", "min ms", "median ms", "max ms", "rss MB"));
+        for (final var result : results) {
+            summary.append("%-16s %6d %9d %9d %9d %9d%n".formatted(
+                    result.variant(), result.startMs().size(), result.minMs(), result.medianMs(), result.maxMs(), result.medianRssKb() / 1024));
+        }
+        log.info("{}", summary);
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportDir.resolve("summary.json").toFile(), results);
+        log.info("Report written to {}", reportDir.toAbsolutePath());
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    record Result(String variant, List<Long> startMs, List<Long> rssKb) {
+
+        static Result of(final String variant,
+                         final List<Long> startMs,
+                         final List<Long> rssKb) {
+            return new Result(variant, startMs.stream().sorted().toList(), rssKb.stream().sorted().toList());
+        }
+
+        public long minMs() {
+            return startMs.getFirst();
+        }
+
+        public long medianMs() {
+            return startMs.get(startMs.size() / 2);
+        }
+
+        public long maxMs() {
+            return startMs.getLast();
+        }
+
+        public long medianRssKb() {
+            return rssKb.get(rssKb.size() / 2);
+        }
+    }
+}
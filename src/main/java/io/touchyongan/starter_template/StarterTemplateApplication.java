@@ -3,9 +3,13 @@ package io.touchyongan.starter_template;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAspectJAutoProxy
+@EnableAsync
+@EnableScheduling
 public class StarterTemplateApplication {
 
 	public static void main(final String[] args) {
@@ -5,6 +5,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Getter
 public class CustomPage<T> {
@@ -22,4 +23,14 @@ public class CustomPage<T> {
                 pageImpl.getTotalElements(),
                 pageImpl.getTotalPages());
     }
+
+    private CustomPage(final PageData page,
+                       final List<T> content) {
+        this.page = page;
+        this.content = content;
+    }
+
+    public <R> CustomPage<R> map(final Function<? super T, ? extends R> mapper) {
+        return new CustomPage<>(page, content.stream().<R>map(mapper).toList());
+    }
 }
@@ -0,0 +1,112 @@
+package io.touchyongan.starter_template.common.data;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * JSON document kept as text, so jsonb column can be stored and returned without parse then re-serialize.
+ * Call parse only when server code really needs the fields.
+ */
+@JsonDeserialize(using = RawJson.RawJsonDeserializer.class)
+public final class RawJson implements JsonSerializable, Serializable {
+    public static final RawJson EMPTY_OBJECT = new RawJson("{}");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String json;
+
+    private RawJson(final String json) {
+        this.json = json;
+    }
+
+    public static RawJson of(final String json) {
+        return Objects.isNull(json) ? null : new RawJson(json);
+    }
+
+    /**
+     * Text from outside, e.g. request body, is kept as it is only when it is one well-formed JSON value,
+     * otherwise it is kept as JSON string, so the jsonb insert cannot fail on it.
+     * The check only tokenizes the text, nothing is built from it.
+     */
+    public static RawJson ofUntrusted(final String text) {
+        if (Objects.isNull(text)) {
+            return null;
+        }
+        if (isWellFormed(text)) {
+            return new RawJson(text);
+        }
+        // jsonb rejects NUL character, even escaped
+        final var quoted = JsonStringEncoder.getInstance().quoteAsString(text.replace('\0', '\uFFFD'));
+        return new RawJson("\"" + new String(quoted) + "\"");
+    }
+
+    private static boolean isWellFormed(final String text) {
+        if (text.contains("\\u0000")) {
+            return false;
+        }
+        try (var parser = JSON_FACTORY.createParser(text)) {
+            if (Objects.isNull(parser.nextToken())) {
+                return false;
+            }
+            parser.skipChildren();
+            return Objects.isNull(parser.nextToken());
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    public <T> T parse(final ObjectMapper objectMapper,
+                       final TypeReference<T> type) throws IOException {
+        return objectMapper.readValue(json, type);
+    }
+
+    @Override
+    public void serialize(final JsonGenerator gen,
+                          final SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator gen,
+                                  final SerializerProvider serializers,
+                                  final TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof RawJson other && json.equals(other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    static class RawJsonDeserializer extends JsonDeserializer<RawJson> {
+
+        @Override
+        public RawJson deserialize(final JsonParser p,
+                                   final DeserializationContext ctxt) throws IOException {
+            return RawJson.of(p.readValueAsTree().toString());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.touchyongan.starter_template.common.data;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Write the same JSON as ApiResponse of CustomPage, but rows are fetched by id a chunk at a time and written
+ * before the next chunk is fetched, so the whole page is never buffered in memory.
+ * Ids of the page are read up front by the caller, each chunk is fetched on its own short transaction,
+ * so no connection is held while a slow client reads.
+ * A chunk failing once the response is committed cannot change its status anymore: content written so far is closed
+ * and followed by an error field, e.g. {"status":200,"data":{...},"error":{"status":500,...}}.
+ */
+@Slf4j
+public class StreamingCustomPage<T> implements StreamingResponseBody {
+    public static final int CHUNK_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+    private final PageData page;
+    private final List<Long> ids;
+    private final Function<List<Long>, List<T>> chunkFetcher;
+
+    public StreamingCustomPage(final ObjectMapper objectMapper,
+                               final Pageable pageable,
+                               final long total,
+                               final List<Long> ids,
+                               final Function<List<Long>, List<T>> chunkFetcher) {
+        final var pageImpl = new PageImpl<>(List.of(), pageable, total);
+        this.objectMapper = objectMapper;
+        this.ids = ids;
+        this.chunkFetcher = chunkFetcher;
+        this.page = new PageData(
+                pageImpl.getSize(),
+                pageImpl.getNumber(),
+                pageImpl.getTotalElements(),
+                pageImpl.getTotalPages());
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        try (final var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("status", 200);
+            generator.writeObjectFieldStart("data");
+            generator.writePOJOField("page", page);
+            generator.writeArrayFieldStart("content");
+            final var complete = writeContent(generator);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            if (!complete) {
+                generator.writeObjectFieldStart("error");
+                generator.writeNumberField("status", 500);
+                generator.writeStringField("title", "Internal Server Error");
+                generator.writeStringField("detail", "Response is incomplete, rows after the last one could not be read");
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * @return false when a chunk could not be fetched, errors writing to the client are thrown
+     */
+    private boolean writeContent(final JsonGenerator generator) throws IOException {
+        for (var from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            final List<T> rows;
+            try {
+                rows = chunkFetcher.apply(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)));
+            } catch (final RuntimeException e) {
+                log.error("Error fetch rows of streamed page after {} of {} rows", from, ids.size(), e);
+                return false;
+            }
+            for (final var row : rows) {
+                generator.writePOJO(row);
+            }
+            generator.flush();
+        }
+        return true;
+    }
+}
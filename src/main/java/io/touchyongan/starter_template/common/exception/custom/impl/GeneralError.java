@@ -3,7 +3,8 @@ package io.touchyongan.starter_template.common.exception.custom.impl;
 import io.touchyongan.starter_template.common.exception.custom.ApiError;
 
 public enum GeneralError implements ApiError {
-    INVALID_ENUM("GENERAL_VALIDATION_INVALID_ENUM", "error.general.invalid_enum");
+    INVALID_ENUM("GENERAL_VALIDATION_INVALID_ENUM", "error.general.invalid_enum"),
+    INVALID_PARAMETER("GENERAL_VALIDATION_INVALID_PARAMETER", "error.general.invalid_parameter");
 
     private final ApiError apiError;
 
@@ -0,0 +1,141 @@
+package io.touchyongan.starter_template.common.specification;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Several aggregates grouped by fields or date buckets, executed as one statement by BaseProjectionRepository.aggregate.
+ * Every group and aggregate has an alias, which is the name of the record component or DTO field it is projected into,
+ * and the name used by having and orderBy. Example, failed logins per user and day with at least 5 attempts:
+ * <pre>
+ * AggregateQuery.from(FailedLogin.class)
+ *         .where(spec)
+ *         .groupByBucket("failedAt", DateBucket.DAY, "bucket")
+ *         .groupBy("username")
+ *         .aggregate(AggregateFunction.COUNT, "id", "attempts")
+ *         .aggregate(AggregateFunction.MAX, "failedAt", "lastFailedAt")
+ *         .having("attempts", SearchOperator.GREATER_THAN_OR_EQUAL, 5L)
+ *         .orderBy("attempts", Sort.Direction.DESC)
+ *         .limit(20);
+ * </pre>
+ * Result types follow JPA: Long for COUNT, COUNT_DISTINCT and SUM of integral fields, Double for AVG, the field type
+ * otherwise.
+ */
+@Getter(AccessLevel.PACKAGE)
+public final class AggregateQuery<ET> {
+    static final Set<SearchOperator> HAVING_OPERATORS = Set.of(SearchOperator.EQUAL, SearchOperator.NOT_EQUAL,
+            SearchOperator.GREATER_THAN, SearchOperator.GREATER_THAN_OR_EQUAL, SearchOperator.LESS_THAN, SearchOperator.LESS_THAN_OR_EQUAL);
+
+    private final Class<ET> clsEntity;
+    private final List<Group> groups = new ArrayList<>();
+    private final List<Aggregate> aggregates = new ArrayList<>();
+    private final List<Having> havings = new ArrayList<>();
+    private final List<AliasOrder> orders = new ArrayList<>();
+    private final Set<String> aliases = new HashSet<>();
+    private Specification<ET> specification;
+    private Integer limit;
+
+    private AggregateQuery(final Class<ET> clsEntity) {
+        this.clsEntity = clsEntity;
+    }
+
+    public static <ET> AggregateQuery<ET> from(final Class<ET> clsEntity) {
+        return new AggregateQuery<>(Objects.requireNonNull(clsEntity));
+    }
+
+    public AggregateQuery<ET> where(final Specification<ET> specification) {
+        this.specification = specification;
+        return this;
+    }
+
+    /**
+     * Group by field, alias is the last segment of fieldName, e.g. role.name is projected as name.
+     */
+    public AggregateQuery<ET> groupBy(final String fieldName) {
+        return groupBy(fieldName, fieldName.substring(fieldName.lastIndexOf('.') + 1));
+    }
+
+    public AggregateQuery<ET> groupBy(final String fieldName,
+                                      final String alias) {
+        groups.add(new Group(fieldName, null, addAlias(alias)));
+        return this;
+    }
+
+    /**
+     * Group by date_trunc(bucket, fieldName), the bucket has the type of the field.
+     */
+    public AggregateQuery<ET> groupByBucket(final String fieldName,
+                                            final DateBucket bucket,
+                                            final String alias) {
+        groups.add(new Group(fieldName, Objects.requireNonNull(bucket), addAlias(alias)));
+        return this;
+    }
+
+    public AggregateQuery<ET> aggregate(final AggregateFunction function,
+                                        final String fieldName,
+                                        final String alias) {
+        aggregates.add(new Aggregate(Objects.requireNonNull(function), fieldName, addAlias(alias)));
+        return this;
+    }
+
+    /**
+     * Condition on a group or aggregate, several are combined with and.
+     */
+    public AggregateQuery<ET> having(final String alias,
+                                     final SearchOperator operator,
+                                     final Comparable<?> value) {
+        if (!HAVING_OPERATORS.contains(operator)) {
+            throw new IllegalArgumentException("Unsupported having operator " + operator);
+        }
+        havings.add(new Having(requireAlias(alias), operator, Objects.requireNonNull(value)));
+        return this;
+    }
+
+    public AggregateQuery<ET> orderBy(final String alias,
+                                      final Sort.Direction direction) {
+        orders.add(new AliasOrder(requireAlias(alias), Objects.requireNonNull(direction)));
+        return this;
+    }
+
+    public AggregateQuery<ET> limit(final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    private String addAlias(final String alias) {
+        if (Objects.isNull(alias) || alias.isBlank() || !aliases.add(alias)) {
+            throw new IllegalArgumentException("Alias must be unique and not blank: " + alias);
+        }
+        return alias;
+    }
+
+    private String requireAlias(final String alias) {
+        if (!aliases.contains(alias)) {
+            throw new IllegalArgumentException("Unknown alias " + alias + ", groups and aggregates are declared first");
+        }
+        return alias;
+    }
+
+    record Group(String fieldName, DateBucket bucket, String alias) {
+    }
+
+    record Aggregate(AggregateFunction function, String fieldName, String alias) {
+    }
+
+    record Having(String alias, SearchOperator operator, Comparable<?> value) {
+    }
+
+    record AliasOrder(String alias, Sort.Direction direction) {
+    }
+}
@@ -0,0 +1,91 @@
+package io.touchyongan.starter_template.common.specification;
+
+import org.hibernate.property.access.internal.PropertyAccessStrategyBasicImpl;
+import org.hibernate.property.access.internal.PropertyAccessStrategyChainedImpl;
+import org.hibernate.property.access.internal.PropertyAccessStrategyFieldImpl;
+import org.hibernate.property.access.spi.Setter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Map a row of AggregateQuery by alias: record components through the canonical constructor, components without alias
+ * are null. DTO through its no-arg constructor and a setter (or field) per alias, every alias needs one.
+ * Constructor and setters are resolved once per query, not per row.
+ */
+final class AggregateResultMapper<DT> {
+    private static final PropertyAccessStrategyChainedImpl BEAN_ACCESS = new PropertyAccessStrategyChainedImpl(
+            PropertyAccessStrategyBasicImpl.INSTANCE, PropertyAccessStrategyFieldImpl.INSTANCE);
+
+    private final Class<DT> clsResult;
+    private final List<String> aliases;
+    private final Constructor<DT> constructor;
+    // Position in row of each record component, -1 when the row has no such alias
+    private final int[] componentIndexes;
+    // Setter of each alias of a DTO row
+    private final Setter[] setters;
+
+    AggregateResultMapper(final Class<DT> clsResult,
+                          final List<String> aliases) {
+        this.clsResult = clsResult;
+        this.aliases = aliases;
+        if (clsResult.isRecord()) {
+            final var components = clsResult.getRecordComponents();
+            final var types = Arrays.stream(components)
+                    .map(RecordComponent::getType)
+                    .toArray(Class<?>[]::new);
+            constructor = getConstructor(clsResult, types);
+            final var positions = new HashMap<String, Integer>();
+            for (var i = 0; i < aliases.size(); i++) {
+                positions.put(aliases.get(i), i);
+            }
+            componentIndexes = Arrays.stream(components)
+                    .mapToInt(component -> positions.getOrDefault(component.getName(), -1))
+                    .toArray();
+            setters = null;
+        } else {
+            constructor = getConstructor(clsResult);
+            componentIndexes = null;
+            setters = aliases.stream()
+                    .map(alias -> BEAN_ACCESS.buildPropertyAccess(clsResult, alias, true).getSetter())
+                    .toArray(Setter[]::new);
+        }
+    }
+
+    DT map(final Object[] row) {
+        try {
+            if (Objects.isNull(setters)) {
+                final var args = new Object[componentIndexes.length];
+                for (var i = 0; i < componentIndexes.length; i++) {
+                    args[i] = componentIndexes[i] < 0 ? null : row[componentIndexes[i]];
+                }
+                return constructor.newInstance(args);
+            }
+            final var bean = constructor.newInstance();
+            for (var i = 0; i < setters.length; i++) {
+                setters[i].set(bean, row[i]);
+            }
+            return bean;
+        } catch (final InstantiationException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            throw new IllegalStateException("Could not create %s from %s = %s".formatted(
+                    clsResult.getSimpleName(), aliases, Arrays.toString(row)), e);
+        }
+    }
+
+    private static <DT> Constructor<DT> getConstructor(final Class<DT> clsResult,
+                                                       final Class<?>... types) {
+        try {
+            final var constructor = clsResult.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException("No %s constructor of %s".formatted(types.length == 0 ? "no-arg" : "canonical",
+                    clsResult.getName()), e);
+        }
+    }
+}
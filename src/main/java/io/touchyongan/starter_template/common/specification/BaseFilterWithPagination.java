@@ -27,6 +27,13 @@ public abstract class BaseFilterWithPagination<T> {
 
     public abstract void initialSearchCriteriaList();
 
+    /**
+     * Associations loaded with entities of the page, see BaseProjectionRepository.findAllWithFetchPlan.
+     */
+    public FetchPlan getFetchPlan() {
+        return FetchPlan.none();
+    }
+
     public SearchCriteria searchBetweenDate(final String dateFieldName,
                                             final LocalDate fromDate,
                                             final LocalDate toDate) {
@@ -5,7 +5,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface BaseProjectionRepository<ET> {
 
@@ -42,14 +46,52 @@ public interface BaseProjectionRepository<ET> {
                                             final String fieldName,
                                             final AggregateFunction aggregateFunction);
 
+    /**
+     * Groups and aggregates of the query in one statement, each row projected by alias into a record or DTO,
+     * see AggregateQuery.
+     */
+    <DT> List<DT> aggregate(final AggregateQuery<ET> aggregateQuery,
+                            final Class<DT> clsResult);
+
     <DT> DT findByIdWithProjection(Long id,
                                    Class<DT> clsDTO,
                                    Class<ET> clsEntity);
 
+    /**
+     * Fetched in chunks of repository.batch-fetch.chunk-size, each bound as one array (id = any(?)), so any number of
+     * ids is fine. Result is in no particular order, duplicated and unknown ids are skipped.
+     */
     <DT> List<DT> findAllByIdWithProjection(List<Long> ids,
                                             Class<DT> clsDTO,
                                             Class<ET> clsEntity);
 
+    /**
+     * Same as findAllByIdWithProjection, result in order of ids. Parallel chunks run on their own connections
+     * outside of the caller's transaction, so they do not see its uncommitted changes.
+     */
+    <DT> List<DT> findAllByIdWithProjection(Collection<Long> ids,
+                                            Class<DT> clsDTO,
+                                            Class<ET> clsEntity,
+                                            Function<DT, Long> idOf,
+                                            boolean parallel);
+
+    /**
+     * Same as findAllByIdWithProjection, keyed by id in order of ids.
+     */
+    <DT> Map<Long, DT> findMapByIdWithProjection(Collection<Long> ids,
+                                                 Class<DT> clsDTO,
+                                                 Class<ET> clsEntity,
+                                                 Function<DT, Long> idOf,
+                                                 boolean parallel);
+
+    /**
+     * Chunks are fetched one at a time as the stream is consumed, in order of ids, so only one chunk is in memory.
+     */
+    <DT> Stream<DT> streamAllByIdWithProjection(Collection<Long> ids,
+                                                Class<DT> clsDTO,
+                                                Class<ET> clsEntity,
+                                                Function<DT, Long> idOf);
+
     <DT> List<DT> findAllWithSpecification(Specification<ET> specification,
                                            Class<DT> clsDTO,
                                            Class<ET> clsEntity);
@@ -64,6 +106,26 @@ public interface BaseProjectionRepository<ET> {
                                                  Class<DT> clsDTO,
                                                  Class<ET> clsEntity);
 
+    /**
+     * Entities of the page with associations of fetchPlan loaded, in a number of statements independent of page size:
+     * count, page with to-one fetch joins, then one per other path. Must run in a transaction, associations are
+     * loaded into the entities of its persistence context.
+     */
+    CustomPage<ET> findAllWithFetchPlan(final Specification<ET> specification,
+                                        final Pageable pageable,
+                                        final FetchPlan fetchPlan,
+                                        final Class<ET> clsEntity);
+
+    /**
+     * Ids of one page in order of the pageable, rows of the page can then be fetched by id in chunks.
+     */
+    List<Long> findIdsWithSpecification(final Specification<ET> specification,
+                                        final Pageable pageable,
+                                        final Class<ET> clsEntity);
+
+    long countWithSpecification(final Specification<ET> specification,
+                                final Class<ET> clsEntity);
+
     <DT> CustomPage<DT> findAllWithSpecificationWithRelationshipProjection(final Specification<ET> specification,
                                                                            final Pageable pageable,
                                                                            final List<JoinConfig> joinConfigs,
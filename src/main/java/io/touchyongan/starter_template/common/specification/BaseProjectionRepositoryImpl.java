@@ -2,26 +2,56 @@ package io.touchyongan.starter_template.common.specification;
 
 import io.touchyongan.starter_template.common.data.CustomPage;
 import io.touchyongan.starter_template.common.exception.custom.ResourceNotFoundException;
+import io.touchyongan.starter_template.infrastructure.jpa.ArrayFunctionContributor;
+import io.touchyongan.starter_template.infrastructure.index.IndexAdvisor;
+import io.touchyongan.starter_template.infrastructure.index.QueryShape;
+import io.touchyongan.starter_template.infrastructure.jpa.BatchFetchExecutor;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
+@RequiredArgsConstructor
 public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepository<ET> {
+    // Tag of query metrics, data and count of paged queries are timed separately
+    private static final String QUERY_DATA = "data";
+    private static final String QUERY_COUNT = "count";
+    private static final String QUERY_IDS = "ids";
+    private static final String QUERY_AGGREGATE = "aggregate";
+    private static final String QUERY_BATCH = "batch";
+    private static final String QUERY_FETCH = "fetch";
+
+    private final StageMetrics stageMetrics;
+    private final BatchFetchExecutor batchFetchExecutor;
+    private final ObjectProvider<IndexAdvisor> indexAdvisor;
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
     @Override
     public <DT> DT findByIdWithSingleFieldProjection(final Long id,
                                                      final Class<DT> clsResult,
@@ -142,6 +172,107 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
         return typedQuery.getSingleResult();
     }
 
+    @Override
+    public <DT> List<DT> aggregate(final AggregateQuery<ET> aggregateQuery,
+                                   final Class<DT> clsResult) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createTupleQuery();
+        final var root = query.from(aggregateQuery.getClsEntity());
+
+        // Group and aggregate expressions by alias, having and order by refer to them
+        final var expressions = new LinkedHashMap<String, Expression<?>>();
+        final var groupBy = new ArrayList<Expression<?>>();
+        for (final var group : aggregateQuery.getGroups()) {
+            final Path<?> path = getPath(root, group.fieldName());
+            final Expression<?> expression;
+            if (Objects.isNull(group.bucket())) {
+                expression = path;
+            } else {
+                // Literal unit is rendered inline, a bind parameter would make select and group by different expressions
+                expression = builder.function("date_trunc", path.getJavaType(), builder.literal(group.bucket().getUnit()), path);
+            }
+            expressions.put(group.alias(), expression);
+            groupBy.add(expression);
+        }
+        for (final var aggregate : aggregateQuery.getAggregates()) {
+            expressions.put(aggregate.alias(), getAggregateExpression(builder, getPath(root, aggregate.fieldName()), aggregate.function()));
+        }
+        query.multiselect(expressions.entrySet()
+                .stream()
+                .map(e -> e.getValue().alias(e.getKey()))
+                .toArray(Selection<?>[]::new));
+
+        final var spec = Optional.ofNullable(aggregateQuery.getSpecification()).orElse(getDefualtSpecification());
+        query.where(spec.toPredicate(root, query, builder));
+        query.groupBy(groupBy);
+        query.having(aggregateQuery.getHavings()
+                .stream()
+                .map(having -> getHavingPredicate(builder, expressions.get(having.alias()), having))
+                .toArray(Predicate[]::new));
+        query.orderBy(aggregateQuery.getOrders()
+                .stream()
+                .map(order -> order.direction().isAscending()
+                        ? builder.asc(expressions.get(order.alias()))
+                        : builder.desc(expressions.get(order.alias())))
+                .toList());
+
+        final var typedQuery = entityManager.createQuery(query);
+        if (Objects.nonNull(aggregateQuery.getLimit())) {
+            typedQuery.setMaxResults(aggregateQuery.getLimit());
+        }
+        final var tuples = timed(QUERY_AGGREGATE, aggregateQuery.getClsEntity(), typedQuery::getResultList);
+        final var mapper = new AggregateResultMapper<>(clsResult, List.copyOf(expressions.keySet()));
+        return tuples.stream()
+                .map(tuple -> mapper.map(tuple.toArray()))
+                .toList();
+    }
+
+    /**
+     * MIN and MAX use least and greatest, they render the same SQL and also accept dates and strings.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Expression<?> getAggregateExpression(final CriteriaBuilder builder,
+                                                 final Path<?> path,
+                                                 final AggregateFunction function) {
+        return switch (function) {
+            case SUM -> builder.sum((Expression<Number>) path);
+            case AVG -> builder.avg((Expression<Number>) path);
+            case MAX -> builder.greatest((Expression<Comparable>) path);
+            case MIN -> builder.least((Expression<Comparable>) path);
+            case COUNT -> builder.count(path);
+            case COUNT_DISTINCT -> builder.countDistinct(path);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate getHavingPredicate(final CriteriaBuilder builder,
+                                         final Expression<?> expression,
+                                         final AggregateQuery.Having having) {
+        final var comparable = (Expression<Comparable>) expression;
+        final var value = (Comparable) having.value();
+        return switch (having.operator()) {
+            case EQUAL -> builder.equal(comparable, value);
+            case NOT_EQUAL -> builder.notEqual(comparable, value);
+            case GREATER_THAN -> builder.greaterThan(comparable, value);
+            case GREATER_THAN_OR_EQUAL -> builder.greaterThanOrEqualTo(comparable, value);
+            case LESS_THAN -> builder.lessThan(comparable, value);
+            case LESS_THAN_OR_EQUAL -> builder.lessThanOrEqualTo(comparable, value);
+            default -> throw new IllegalArgumentException("Unsupported having operator " + having.operator());
+        };
+    }
+
+    /**
+     * Dotted field name goes through associations as inner join, e.g. role.name.
+     */
+    private Path<?> getPath(final Root<?> root,
+                            final String fieldName) {
+        Path<?> path = root;
+        for (final var part : fieldName.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
     @Override
     public <DT> DT findByIdWithProjection(final Long id,
                                           final Class<DT> clsDTO,
@@ -170,14 +301,88 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
     public <DT> List<DT> findAllByIdWithProjection(final List<Long> ids,
                                                    final Class<DT> clsDTO,
                                                    final Class<ET> clsEntity) {
-        final var builder = entityManager.getCriteriaBuilder();
+        return batchFetchExecutor.chunks(ids)
+                .stream()
+                .flatMap(chunk -> findChunkByIdWithProjection(entityManager, chunk, clsDTO, clsEntity).stream())
+                .toList();
+    }
+
+    @Override
+    public <DT> List<DT> findAllByIdWithProjection(final Collection<Long> ids,
+                                                   final Class<DT> clsDTO,
+                                                   final Class<ET> clsEntity,
+                                                   final Function<DT, Long> idOf,
+                                                   final boolean parallel) {
+        return List.copyOf(findMapByIdWithProjection(ids, clsDTO, clsEntity, idOf, parallel).values());
+    }
+
+    @Override
+    public <DT> Map<Long, DT> findMapByIdWithProjection(final Collection<Long> ids,
+                                                        final Class<DT> clsDTO,
+                                                        final Class<ET> clsEntity,
+                                                        final Function<DT, Long> idOf,
+                                                        final boolean parallel) {
+        final var chunks = batchFetchExecutor.chunks(ids);
+        final var results = batchFetchExecutor.fetch(chunks, chunk -> parallel
+                ? findChunkWithOwnEntityManager(chunk, clsDTO, clsEntity)
+                : findChunkByIdWithProjection(entityManager, chunk, clsDTO, clsEntity), parallel);
+        final var byId = new LinkedHashMap<Long, DT>();
+        for (var i = 0; i < chunks.size(); i++) {
+            putInOrderOfIds(byId, chunks.get(i), results.get(i), idOf);
+        }
+        return byId;
+    }
+
+    @Override
+    public <DT> Stream<DT> streamAllByIdWithProjection(final Collection<Long> ids,
+                                                       final Class<DT> clsDTO,
+                                                       final Class<ET> clsEntity,
+                                                       final Function<DT, Long> idOf) {
+        return batchFetchExecutor.chunks(ids)
+                .stream()
+                .flatMap(chunk -> {
+                    final var byId = new LinkedHashMap<Long, DT>();
+                    putInOrderOfIds(byId, chunk, findChunkByIdWithProjection(entityManager, chunk, clsDTO, clsEntity), idOf);
+                    return byId.values().stream();
+                });
+    }
+
+    private <DT> List<DT> findChunkWithOwnEntityManager(final List<Long> ids,
+                                                        final Class<DT> clsDTO,
+                                                        final Class<ET> clsEntity) {
+        try (final var chunkEntityManager = entityManagerFactory.createEntityManager()) {
+            return findChunkByIdWithProjection(chunkEntityManager, ids, clsDTO, clsEntity);
+        }
+    }
+
+    private <DT> List<DT> findChunkByIdWithProjection(final EntityManager chunkEntityManager,
+                                                      final List<Long> ids,
+                                                      final Class<DT> clsDTO,
+                                                      final Class<ET> clsEntity) {
+        final var builder = chunkEntityManager.getCriteriaBuilder();
         final var query = builder.createQuery(clsDTO);
         final var root = query.from(clsEntity);
         final var selectPaths = getSelectPaths(root, clsDTO);
         query.select(builder.construct(clsDTO, selectPaths.toArray(new Selection[0])));
-        query.where(root.get("id").in(ids));
-        final var typedQuery = entityManager.createQuery(query);
-        return typedQuery.getResultList();
+        final var idsParameter = builder.parameter(Long[].class);
+        query.where(builder.isTrue(builder.function(ArrayFunctionContributor.EQ_ANY, Boolean.class, root.get("id"), idsParameter)));
+        final var typedQuery = chunkEntityManager.createQuery(query)
+                .setParameter(idsParameter, ids.toArray(new Long[0]));
+        return timed(QUERY_BATCH, clsEntity, typedQuery::getResultList);
+    }
+
+    private static <DT> void putInOrderOfIds(final Map<Long, DT> byId,
+                                             final List<Long> ids,
+                                             final List<DT> rows,
+                                             final Function<DT, Long> idOf) {
+        final var rowById = new HashMap<Long, DT>(rows.size() * 2);
+        rows.forEach(row -> rowById.put(idOf.apply(row), row));
+        for (final var id : ids) {
+            final var row = rowById.get(id);
+            if (Objects.nonNull(row)) {
+                byId.put(id, row);
+            }
+        }
     }
 
     @Override
@@ -256,12 +461,208 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
         countQuery.select(builder.count(countRoot));
         countQuery.where(countPredicate);
 
-        final var total = entityManager.createQuery(countQuery).getSingleResult();
-        final var content = typedQuery.getResultList();
+        final var total = timed(QUERY_COUNT, clsEntity, () -> entityManager.createQuery(countQuery).getSingleResult());
+        final var content = observed(QUERY_DATA, specification, pageable, clsEntity, typedQuery::getResultList);
 
         return new CustomPage<>(content, pageable, total);
     }
 
+    @Override
+    public CustomPage<ET> findAllWithFetchPlan(final Specification<ET> specification,
+                                               final Pageable pageable,
+                                               final FetchPlan fetchPlan,
+                                               final Class<ET> clsEntity) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createQuery(clsEntity);
+        final var root = query.from(clsEntity);
+        query.select(root);
+
+        final var spec = Optional.ofNullable(specification).orElse(getDefualtSpecification());
+        query.where(spec.toPredicate(root, query, builder));
+        if (Objects.equals(pageable.getSort(), Sort.unsorted())) {
+            query.orderBy(builder.asc(root.get("id")));
+        } else {
+            query.orderBy(getOrderFromPageable(root, builder, pageable));
+        }
+
+        // To-one paths keep one row per entity, so they are fetch joined and pagination stays in SQL.
+        // Collections would multiply rows, they are loaded after the page instead.
+        final var fetches = new HashMap<String, Fetch<?, ?>>();
+        final var loadAfterPage = new ArrayList<String>();
+        for (final var path : fetchPlan.getPaths()) {
+            if (isToOnePath(clsEntity, path)) {
+                fetchJoin(root, path, fetches);
+            } else {
+                loadAfterPage.add(path);
+            }
+        }
+
+        final var typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        final var total = countWithSpecification(specification, clsEntity);
+        final var content = observed(QUERY_DATA, specification, pageable, clsEntity, typedQuery::getResultList);
+        for (final var path : loadAfterPage) {
+            loadPath(content, clsEntity, path);
+        }
+        return new CustomPage<>(content, pageable, total);
+    }
+
+    private boolean isToOnePath(final Class<?> clsEntity,
+                                final String path) {
+        Class<?> type = clsEntity;
+        for (final var part : path.split("\\.")) {
+            final var attribute = entityManager.getMetamodel().managedType(type).getAttribute(part);
+            if (attribute.isCollection()) {
+                return false;
+            }
+            type = attribute.getJavaType();
+        }
+        return true;
+    }
+
+    private void fetchJoin(final Root<ET> root,
+                           final String path,
+                           final Map<String, Fetch<?, ?>> fetches) {
+        final var parts = path.split("\\.");
+        FetchParent<?, ?> parent = root;
+        for (var i = 0; i < parts.length; i++) {
+            final var part = parts[i];
+            final var fetchParent = parent;
+            parent = fetches.computeIfAbsent(String.join(".", Arrays.copyOfRange(parts, 0, i + 1)),
+                    ignored -> fetchParent.fetch(part, JoinType.LEFT));
+        }
+    }
+
+    /**
+     * Load the last association of path for every owner reached by the previous ones, already loaded by earlier paths
+     * of the plan, with one query per chunk of owners: select o from Owner o left join fetch o.association where o.id = any(?).
+     */
+    @SuppressWarnings("unchecked")
+    private void loadPath(final List<ET> content,
+                          final Class<ET> clsEntity,
+                          final String path) {
+        final var parts = path.split("\\.");
+        final var metamodel = entityManager.getMetamodel();
+        Collection<Object> owners = new ArrayList<>(content);
+        Class<?> ownerType = clsEntity;
+        for (var i = 0; i < parts.length - 1; i++) {
+            final var attribute = metamodel.managedType(ownerType).getAttribute(parts[i]);
+            final var next = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (final var owner : owners) {
+                final var value = getAttributeValue(Hibernate.unproxy(owner), attribute);
+                if (value instanceof Collection<?> values) {
+                    next.addAll(values);
+                } else if (Objects.nonNull(value)) {
+                    next.add(Hibernate.unproxy(value));
+                }
+            }
+            owners = next;
+            ownerType = attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType().getJavaType() : attribute.getJavaType();
+        }
+        if (owners.isEmpty()) {
+            return;
+        }
+        final var persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        final var ownerIds = owners.stream()
+                .map(owner -> (Long) persistenceUnitUtil.getIdentifier(owner))
+                .toList();
+        final var builder = entityManager.getCriteriaBuilder();
+        final var clsOwner = (Class<Object>) ownerType;
+        for (final var chunk : batchFetchExecutor.chunks(ownerIds)) {
+            final var query = builder.createQuery(clsOwner);
+            final var root = query.from(clsOwner);
+            root.fetch(parts[parts.length - 1], JoinType.LEFT);
+            final var idsParameter = builder.parameter(Long[].class);
+            query.select(root)
+                    .where(builder.isTrue(builder.function(ArrayFunctionContributor.EQ_ANY, Boolean.class, root.get("id"), idsParameter)));
+            final var typedQuery = entityManager.createQuery(query)
+                    .setParameter(idsParameter, chunk.toArray(new Long[0]));
+            timed(QUERY_FETCH, clsEntity, typedQuery::getResultList);
+        }
+    }
+
+    private static Object getAttributeValue(final Object owner,
+                                            final Attribute<?, ?> attribute) {
+        try {
+            final var member = attribute.getJavaMember();
+            if (member instanceof Field field) {
+                field.setAccessible(true);
+                return field.get(owner);
+            }
+            return ((Method) member).invoke(owner);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not read %s of %s".formatted(attribute.getName(), owner.getClass().getName()), e);
+        }
+    }
+
+    @Override
+    public List<Long> findIdsWithSpecification(final Specification<ET> specification,
+                                               final Pageable pageable,
+                                               final Class<ET> clsEntity) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createQuery(Long.class);
+        final var root = query.from(clsEntity);
+        query.select(root.get("id"));
+
+        final var spec = Optional.ofNullable(specification).orElse(getDefualtSpecification());
+        final var predicate = spec.toPredicate(root, query, builder);
+        query.where(predicate);
+
+        if (Objects.equals(pageable.getSort(), Sort.unsorted())) {
+            query.orderBy(builder.asc(root.get("id")));
+        } else {
+            query.orderBy(getOrderFromPageable(root, builder, pageable));
+        }
+
+        final var typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public long countWithSpecification(final Specification<ET> specification,
+                                       final Class<ET> clsEntity) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var countQuery = builder.createQuery(Long.class);
+        final var countRoot = countQuery.from(clsEntity);
+        final var spec = Optional.ofNullable(specification).orElse(getDefualtSpecification());
+        countQuery.select(builder.count(countRoot));
+        countQuery.where(spec.toPredicate(countRoot, countQuery, builder));
+        return timed(QUERY_COUNT, clsEntity, () -> entityManager.createQuery(countQuery).getSingleResult());
+    }
+
+    /**
+     * Time the query of a page, and record its shape to the index advisor when it is enabled.
+     */
+    private <R> R observed(final String query,
+                           final Specification<ET> specification,
+                           final Pageable pageable,
+                           final Class<ET> clsEntity,
+                           final Supplier<R> execution) {
+        final var advisor = indexAdvisor.getIfAvailable();
+        if (Objects.isNull(advisor) || !advisor.isEnabled() || !(specification instanceof GenericSpecification<ET> genericSpecification)) {
+            return timed(query, clsEntity, execution);
+        }
+        final var sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        final var shape = QueryShape.of(clsEntity, genericSpecification.getListCriteria(), sort);
+        return advisor.observe(shape, () -> timed(query, clsEntity, execution));
+    }
+
+    private <R> R timed(final String query,
+                        final Class<ET> clsEntity,
+                        final Supplier<R> execution) {
+        final var start = System.nanoTime();
+        try {
+            return execution.get();
+        } finally {
+            stageMetrics.record(StageMetrics.REPOSITORY_QUERY, System.nanoTime() - start,
+                    "entity", clsEntity.getSimpleName(), "query", query);
+        }
+    }
+
     private <DT> List<Selection<Object>> getSelectPaths(final Root<ET> root,
                                                         final Class<DT> clsDTO) {
         final var fieldNames = getSelectFieldName(clsDTO);
@@ -398,7 +799,7 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
         subQueryTyped.setFirstResult((int) pageable.getOffset());
         subQueryTyped.setMaxResults(pageable.getPageSize());
 
-        final var ids = subQueryTyped.getResultList();
+        final var ids = observed(QUERY_IDS, specification, pageable, clsEntity, subQueryTyped::getResultList);
         if (ids.isEmpty()) {
             return new CustomPage<>(Collections.emptyList(), pageable, 0);
         }
@@ -415,7 +816,7 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
         final var typedQuery = entityManager.createQuery(query);
 
         final var transformer = new GenericResultTransformer<>(clsDTO);
-        final var tuples = typedQuery.getResultList();
+        final var tuples = timed(QUERY_DATA, clsEntity, typedQuery::getResultList);
         tuples.forEach(tuple -> transformer.transformTuple(tuple.toArray(),
                 tuple.getElements().stream().map(TupleElement::getAlias).toArray(String[]::new)));
         final var content = transformer.transformList(new ArrayList<>());
@@ -427,7 +828,7 @@ public class BaseProjectionRepositoryImpl<ET> implements BaseProjectionRepositor
         countQuery.select(builder.countDistinct(countRoot));
         countQuery.where(countPredicate);
 
-        final var total = entityManager.createQuery(countQuery).getSingleResult();
+        final var total = timed(QUERY_COUNT, clsEntity, () -> entityManager.createQuery(countQuery).getSingleResult());
 
         return new CustomPage<>(content, pageable, total);
     }
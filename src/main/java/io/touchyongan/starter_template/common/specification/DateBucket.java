@@ -0,0 +1,20 @@
+package io.touchyongan.starter_template.common.specification;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Unit of date_trunc used by AggregateQuery.groupByBucket.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DateBucket {
+    MINUTE("minute"),
+    HOUR("hour"),
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month"),
+    YEAR("year");
+
+    private final String unit;
+}
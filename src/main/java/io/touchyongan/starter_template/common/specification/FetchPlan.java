@@ -0,0 +1,49 @@
+package io.touchyongan.starter_template.common.specification;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Associations loaded together with the entities of a page, as dotted paths from the root entity, e.g. userInfo, roles,
+ * roles.permissions. Paths of to-one associations only are fetch joined in the page query, every other path is loaded
+ * after it with one query per path for the whole page, so the number of statements does not depend on page size and
+ * pagination stays in SQL.
+ */
+@Getter
+public final class FetchPlan {
+    private static final FetchPlan NONE = new FetchPlan(List.of());
+
+    private final List<String> paths;
+
+    private FetchPlan(final List<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FetchPlan none() {
+        return NONE;
+    }
+
+    /**
+     * Parent paths must come before their children, e.g. roles before roles.permissions.
+     */
+    public static FetchPlan of(final String... paths) {
+        final var declared = new HashSet<String>();
+        for (final var path : paths) {
+            if (Objects.isNull(path) || path.isBlank() || !declared.add(path)) {
+                throw new IllegalArgumentException("Fetch path must be unique and not blank: " + path);
+            }
+            final var lastDot = path.lastIndexOf('.');
+            if (lastDot > 0 && !declared.contains(path.substring(0, lastDot))) {
+                throw new IllegalArgumentException("Parent of fetch path " + path + " must be declared before it");
+            }
+        }
+        return new FetchPlan(List.of(paths));
+    }
+
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+}
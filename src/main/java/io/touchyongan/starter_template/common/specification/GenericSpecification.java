@@ -73,10 +73,14 @@ public class GenericSpecification<T> implements Specification<T> {
                 final var searchTerm = "%" + criteria.getValue().toString().toLowerCase() + "%";
 
                 switch (operator) {
-                    case EQUAL -> predicates.add(builder.equal(path, criteria.getValue()));
+                    case EQUAL -> predicates.add(criteria.isFixed()
+                            ? builder.equal(path, builder.literal(criteria.getValue()))
+                            : builder.equal(path, criteria.getValue()));
                     case STR_EQUAL_IGNORE_CASE -> predicates.add(builder.equal(builder.lower(path.as(String.class)),
                             criteria.getValue().toString().toLowerCase()));
-                    case NOT_EQUAL -> predicates.add(builder.notEqual(path, criteria.getValue()));
+                    case NOT_EQUAL -> predicates.add(criteria.isFixed()
+                            ? builder.notEqual(path, builder.literal(criteria.getValue()))
+                            : builder.notEqual(path, criteria.getValue()));
                     case GREATER_THAN -> addGreaterThanPredicate(builder, path, attributeType, criteria, predicates);
                     case GREATER_THAN_OR_EQUAL -> addGreaterOrEqualsPredicate(builder, path, attributeType, criteria, predicates);
                     case LESS_THAN -> addLessThanPredicate(builder, path, attributeType, criteria, predicates);
@@ -117,6 +121,10 @@ public class GenericSpecification<T> implements Specification<T> {
         return builder.and(predicates.toArray(new Predicate[0]));
     }
 
+    public List<SearchCriteria> getListCriteria() {
+        return listCriteria;
+    }
+
     @Serial
     private void readObject(final ObjectInputStream ois) throws IOException, ClassNotFoundException {
         this.listCriteria = new ArrayList<>();
@@ -14,10 +14,19 @@ public class SearchCriteria {
     private final List<Object> values;
     private final SearchOperator operator;
     private final List<String> keys;
+    // Value is part of the query shape, rendered as SQL literal instead of bind parameter
+    private final boolean fixed;
 
     private SearchCriteria(final String key,
                            final SearchOperator operator,
                            final Object value) {
+        this(key, operator, value, false);
+    }
+
+    private SearchCriteria(final String key,
+                           final SearchOperator operator,
+                           final Object value,
+                           final boolean fixed) {
         Objects.requireNonNull(key);
         Objects.requireNonNull(operator);
         this.operator = operator;
@@ -25,6 +34,7 @@ public class SearchCriteria {
         this.key = key;
         this.values = new ArrayList<>();
         this.keys = null;
+        this.fixed = fixed;
     }
 
     /**
@@ -44,6 +54,7 @@ public class SearchCriteria {
         this.key = key;
         this.values = values;
         this.keys = null;
+        this.fixed = false;
     }
 
     private SearchCriteria(final Object value,
@@ -53,6 +64,7 @@ public class SearchCriteria {
         this.key = "";
         this.values = new ArrayList<>();
         this.keys = Arrays.asList(fields);
+        this.fixed = false;
     }
 
     public static SearchCriteria newSearchCriteria(final String key,
@@ -61,6 +73,22 @@ public class SearchCriteria {
         return new SearchCriteria(key, operator, value);
     }
 
+    /**
+     * Criteria with a constant value, e.g. a default exclusion applied to every query of a filter. The value is inlined
+     * in SQL, so a partial index with the same condition can be used by generic plans of prepared statements.
+     * Only EQUAL and NOT_EQUAL with String, Number or Boolean value are supported.
+     */
+    public static SearchCriteria newFixedSearchCriteria(final String key,
+                                                        final SearchOperator operator,
+                                                        final Object value) {
+        final var supportedOperator = operator == SearchOperator.EQUAL || operator == SearchOperator.NOT_EQUAL;
+        final var supportedValue = value instanceof String || value instanceof Number || value instanceof Boolean;
+        if (!supportedOperator || !supportedValue) {
+            throw new IllegalArgumentException("Unsupported fixed criteria %s %s %s".formatted(key, operator, value));
+        }
+        return new SearchCriteria(key, operator, value, true);
+    }
+
     public static <T> SearchCriteria newSearchCriteriaIn(final String key,
                                                          final SearchOperator operator,
                                                          final List<T> values) {
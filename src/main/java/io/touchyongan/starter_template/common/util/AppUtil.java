@@ -1,9 +1,13 @@
 package io.touchyongan.starter_template.common.util;
 
+import io.touchyongan.starter_template.common.exception.custom.BaseApiException;
+import io.touchyongan.starter_template.common.exception.custom.impl.GeneralError;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Objects;
 
 public final class AppUtil {
@@ -29,4 +33,20 @@ public final class AppUtil {
 
         return CollectionUtils.isEqualCollection(o1, o2);
     }
+
+    /**
+     * Enum constant of request parameter, case-insensitive, INVALID_PARAMETER listing allowed values otherwise.
+     */
+    public static <E extends Enum<E>> E parseEnumParameter(final Class<E> type,
+                                                           final String name,
+                                                           final String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            final var allowed = Arrays.stream(type.getEnumConstants())
+                    .map(constant -> constant.name().toLowerCase(Locale.ROOT))
+                    .toList();
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, name, value, "Allowed values: [%s].".formatted(String.join(",", allowed)));
+        }
+    }
 }
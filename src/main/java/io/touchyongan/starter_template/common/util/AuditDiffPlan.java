@@ -0,0 +1,315 @@
+package io.touchyongan.starter_template.common.util;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Diff-and-apply plan of one (entity class, dto class) pair.
+ * Fields, @AuditChange config and accessors are resolved once, then each call is only a loop of field comparisons.
+ * Primitive field with the same type on both sides is compared without boxing, it is boxed only when changed.
+ * Plans are kept in a ClassValue, so they are dropped with their classes instead of pinning a reloaded class loader.
+ */
+final class AuditDiffPlan {
+    private static final ClassValue<ClassValue<AuditDiffPlan>> PLANS = new ClassValue<>() {
+        @Override
+        protected ClassValue<AuditDiffPlan> computeValue(final Class<?> entityClz) {
+            return new ClassValue<>() {
+                @Override
+                protected AuditDiffPlan computeValue(final Class<?> dtoClz) {
+                    return compile(entityClz, dtoClz);
+                }
+            };
+        }
+    };
+    private static final Map<Class<?>, MethodHandle> SAME = Map.of(
+            int.class, same(int.class),
+            long.class, same(long.class),
+            double.class, same(double.class),
+            boolean.class, same(boolean.class));
+
+    private final Step[] steps;
+
+    private AuditDiffPlan(final Step[] steps) {
+        this.steps = steps;
+    }
+
+    static AuditDiffPlan of(final Class<?> entityClz,
+                            final Class<?> dtoClz) {
+        return PLANS.get(entityClz).get(dtoClz);
+    }
+
+    void apply(final Object entity,
+               final Object dto,
+               final Map<String, Object> oldValueMap,
+               final Map<String, Object> newValueMap,
+               final String pathPrefix) {
+        for (final var step : steps) {
+            try {
+                step.apply(entity, dto, oldValueMap, newValueMap, pathPrefix);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new IllegalStateException("Error audit field " + step.path, e);
+            }
+        }
+    }
+
+    private static AuditDiffPlan compile(final Class<?> entityClz,
+                                         final Class<?> dtoClz) {
+        final var steps = new ArrayList<Step>();
+        for (final var dtoField : dtoClz.getDeclaredFields()) {
+            if (Modifier.isStatic(dtoField.getModifiers()) || dtoField.isSynthetic()) {
+                continue;
+            }
+            final var auditChange = dtoField.getDeclaredAnnotation(AuditChange.class);
+            if (Objects.nonNull(auditChange) && auditChange.ignoreField()) {
+                continue;
+            }
+            final var entityFieldName = getEntityFieldNameFromDto(dtoField, auditChange);
+            final var entityField = ReflectionUtils.findField(entityClz, entityFieldName);
+            if (Objects.isNull(entityField)) {
+                continue;
+            }
+            final var ignoreNull = Objects.nonNull(auditChange) && auditChange.ignoreUpdateNullValue();
+            steps.add(compileStep(dtoField, entityField, ignoreNull));
+        }
+        return new AuditDiffPlan(steps.toArray(new Step[0]));
+    }
+
+    private static Step compileStep(final Field dtoField,
+                                    final Field entityField,
+                                    final boolean ignoreNull) {
+        final var type = dtoField.getType();
+        final var path = dtoField.getName();
+        if (!isSimpleType(type)) {
+            return new NestedStep(path, entityField.getName() + ".", getter(dtoField, Object.class), getter(entityField, Object.class));
+        }
+        final var objectGetter = getter(entityField, Object.class);
+        final var objectSetter = setter(entityField, Object.class);
+        if (type.isPrimitive() && type == entityField.getType()) {
+            final var comparedType = comparedType(type);
+            final var same = MethodHandles.filterArguments(SAME.get(comparedType), 0,
+                    getter(entityField, comparedType), getter(dtoField, comparedType));
+            return new PrimitiveStep(path, same, getter(dtoField, Object.class), objectGetter, objectSetter);
+        }
+        return new ObjectStep(path, ignoreNull, getter(dtoField, Object.class), objectGetter, objectSetter);
+    }
+
+    private static MethodHandle getter(final Field field,
+                                       final Class<?> type) {
+        try {
+            final var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field, e);
+        }
+    }
+
+    private static MethodHandle setter(final Field field,
+                                       final Class<?> type) {
+        try {
+            final var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, type));
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field, e);
+        }
+    }
+
+    /**
+     * byte, short and char are widened to int, float to double, equality of widened value is the same as of boxed value.
+     */
+    private static Class<?> comparedType(final Class<?> type) {
+        if (type == long.class || type == boolean.class) {
+            return type;
+        }
+        return type == double.class || type == float.class ? double.class : int.class;
+    }
+
+    private static MethodHandle same(final Class<?> type) {
+        try {
+            return MethodHandles.lookup().findStatic(AuditDiffPlan.class, "same", MethodType.methodType(boolean.class, type, type));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean same(final int o1,
+                                final int o2) {
+        return o1 == o2;
+    }
+
+    private static boolean same(final long o1,
+                                final long o2) {
+        return o1 == o2;
+    }
+
+    private static boolean same(final boolean o1,
+                                final boolean o2) {
+        return o1 == o2;
+    }
+
+    /**
+     * Same semantic as Objects.equals of boxed Double: NaN equals NaN, 0.0 differs from -0.0
+     */
+    private static boolean same(final double o1,
+                                final double o2) {
+        return Double.doubleToLongBits(o1) == Double.doubleToLongBits(o2);
+    }
+
+    private static String getEntityFieldNameFromDto(final Field dtoField,
+                                                    final AuditChange auditChange) {
+        if (Objects.isNull(auditChange)) {
+            return dtoField.getName();
+        }
+        final var fieldName = auditChange.entityField();
+        return AppUtil.isNotBlank(fieldName) ? fieldName : dtoField.getName();
+    }
+
+    private static boolean isSimpleType(final Class<?> type) {
+        return type.isPrimitive() ||
+                type.equals(String.class) ||
+                Number.class.isAssignableFrom(type) ||
+                Boolean.class.equals(type) ||
+                type.isEnum() ||
+                Temporal.class.isAssignableFrom(type) ||
+                Collection.class.isAssignableFrom(type);
+    }
+
+    private abstract static class Step {
+        final String path;
+
+        Step(final String path) {
+            this.path = path;
+        }
+
+        abstract void apply(Object entity, Object dto, Map<String, Object> oldValueMap, Map<String, Object> newValueMap, String pathPrefix)
+                throws Throwable;
+
+        String fullPath(final String pathPrefix) {
+            return pathPrefix.isEmpty() ? path : pathPrefix + path;
+        }
+    }
+
+    private static final class PrimitiveStep extends Step {
+        private final MethodHandle same;
+        private final MethodHandle dtoGetter;
+        private final MethodHandle entityGetter;
+        private final MethodHandle entitySetter;
+
+        PrimitiveStep(final String path,
+                      final MethodHandle same,
+                      final MethodHandle dtoGetter,
+                      final MethodHandle entityGetter,
+                      final MethodHandle entitySetter) {
+            super(path);
+            this.same = same;
+            this.dtoGetter = dtoGetter;
+            this.entityGetter = entityGetter;
+            this.entitySetter = entitySetter;
+        }
+
+        @Override
+        void apply(final Object entity,
+                   final Object dto,
+                   final Map<String, Object> oldValueMap,
+                   final Map<String, Object> newValueMap,
+                   final String pathPrefix) throws Throwable {
+            if ((boolean) same.invokeExact(entity, dto)) {
+                return;
+            }
+            final var newValue = (Object) dtoGetter.invokeExact(dto);
+            final var oldValue = (Object) entityGetter.invokeExact(entity);
+            final var pathField = fullPath(pathPrefix);
+            oldValueMap.put(pathField, oldValue);
+            newValueMap.put(pathField, newValue);
+            entitySetter.invokeExact(entity, newValue);
+        }
+    }
+
+    private static final class ObjectStep extends Step {
+        private final boolean ignoreNull;
+        private final MethodHandle dtoGetter;
+        private final MethodHandle entityGetter;
+        private final MethodHandle entitySetter;
+
+        ObjectStep(final String path,
+                   final boolean ignoreNull,
+                   final MethodHandle dtoGetter,
+                   final MethodHandle entityGetter,
+                   final MethodHandle entitySetter) {
+            super(path);
+            this.ignoreNull = ignoreNull;
+            this.dtoGetter = dtoGetter;
+            this.entityGetter = entityGetter;
+            this.entitySetter = entitySetter;
+        }
+
+        @Override
+        void apply(final Object entity,
+                   final Object dto,
+                   final Map<String, Object> oldValueMap,
+                   final Map<String, Object> newValueMap,
+                   final String pathPrefix) throws Throwable {
+            final var newValue = (Object) dtoGetter.invokeExact(dto);
+            if (ignoreNull && isNullOrBlank(newValue)) {
+                return;
+            }
+            final var oldValue = (Object) entityGetter.invokeExact(entity);
+            if (AppUtil.hasChanged(oldValue, newValue)) {
+                final var pathField = fullPath(pathPrefix);
+                oldValueMap.put(pathField, oldValue);
+                newValueMap.put(pathField, newValue);
+                entitySetter.invokeExact(entity, newValue);
+            }
+        }
+
+        private static boolean isNullOrBlank(final Object value) {
+            if (value instanceof String str) {
+                return AppUtil.isBlank(str);
+            }
+            return Objects.isNull(value);
+        }
+    }
+
+    private static final class NestedStep extends Step {
+        private final String nestedPrefix;
+        private final MethodHandle dtoGetter;
+        private final MethodHandle entityGetter;
+
+        NestedStep(final String path,
+                   final String nestedPrefix,
+                   final MethodHandle dtoGetter,
+                   final MethodHandle entityGetter) {
+            super(path);
+            this.nestedPrefix = nestedPrefix;
+            this.dtoGetter = dtoGetter;
+            this.entityGetter = entityGetter;
+        }
+
+        @Override
+        void apply(final Object entity,
+                   final Object dto,
+                   final Map<String, Object> oldValueMap,
+                   final Map<String, Object> newValueMap,
+                   final String pathPrefix) throws Throwable {
+            final var newValue = (Object) dtoGetter.invokeExact(dto);
+            final var oldValue = (Object) entityGetter.invokeExact(entity);
+            if (Objects.isNull(newValue) || Objects.isNull(oldValue)) {
+                return;
+            }
+            // Nested value may be a subclass of declared type, so plan is resolved from runtime class
+            AuditDiffPlan.of(oldValue.getClass(), newValue.getClass())
+                    .apply(oldValue, newValue, oldValueMap, newValueMap, pathPrefix + nestedPrefix);
+        }
+    }
+}
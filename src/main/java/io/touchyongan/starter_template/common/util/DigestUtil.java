@@ -0,0 +1,74 @@
+package io.touchyongan.starter_template.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * SHA-256 safe to call from any thread. MessageDigest is not thread-safe and synchronizing a shared one serializes callers,
+ * instances are instead borrowed from a small lock-free pool, slot chosen by thread id so concurrent callers rarely meet.
+ * Pooled rather than thread-local: with virtual threads a thread-local digest would be created for every request.
+ */
+public final class DigestUtil {
+    private static final int SLOTS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+    private static final int PROBES = 4;
+    private static final AtomicReferenceArray<MessageDigest> POOL = new AtomicReferenceArray<>(SLOTS);
+
+    private DigestUtil() {
+    }
+
+    public static byte[] sha256(final byte[] input) {
+        final var digest = acquire();
+        final var result = digest.digest(input);
+        release(digest);
+        return result;
+    }
+
+    /**
+     * Digest remaining bytes of input, its position is moved to its limit.
+     */
+    public static byte[] sha256(final ByteBuffer input) {
+        final var digest = acquire();
+        digest.update(input);
+        final var result = digest.digest();
+        release(digest);
+        return result;
+    }
+
+    /**
+     * Digest of text encoded as UTF-8. Encoding ASCII text such as a JWT with String.getBytes is a vectorized copy,
+     * twice as fast as writing it char by char to a pooled buffer, see DigestBenchmark.
+     */
+    public static byte[] sha256(final String text) {
+        return sha256(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest acquire() {
+        final var start = (int) Thread.currentThread().threadId();
+        for (var i = 0; i < PROBES; i++) {
+            final var slot = (start + i) & (SLOTS - 1);
+            final var pooled = POOL.get(slot);
+            if (pooled != null && POOL.compareAndSet(slot, pooled, null)) {
+                return pooled;
+            }
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Released only after digest() which resets it, an instance left in an unknown state by an exception is dropped
+    private static void release(final MessageDigest digest) {
+        final var start = (int) Thread.currentThread().threadId();
+        for (var i = 0; i < PROBES; i++) {
+            final var slot = (start + i) & (SLOTS - 1);
+            if (POOL.get(slot) == null && POOL.compareAndSet(slot, null, digest)) {
+                return;
+            }
+        }
+    }
+}
@@ -1,19 +1,16 @@
 package io.touchyongan.starter_template.common.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtKeyRing;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Date;
@@ -23,63 +20,54 @@ import java.util.function.Function;
 @Component
 @RequiredArgsConstructor
 public class JwtUtil {
-    private static final MessageDigest MESSAGE_DIGEST;
     private static final Base64.Encoder ENCODER = Base64.getUrlEncoder();
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
-    //private final RevokedJwtTokenRepository revokedJwtTokenRepository;
+    private final JwtKeyRing keyRing;
 
-    static {
-        try {
-            MESSAGE_DIGEST = MessageDigest.getInstance("SHA-256");
-        } catch (final NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    @Value("${auth.jwt.secret_key}")
-    private String secretKey;
+    // In milliseconds
+    @Getter
     @Value("${auth.jwt.expiration}")
     private long expiration;
+    @Getter
     @Value("${auth.jwt.refresh_expiration}")
     private long refreshExpiration;
 
-    public SecretKey getSecretKey() {
-        final var keyBytes = Decoders.BASE64URL.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Builder signing with the current key of the key ring, its kid in the header.
+     */
+    private JwtBuilder signedBuilder() {
+        final var signingKey = keyRing.signingKey();
+        return Jwts
+                .builder()
+                .header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.signingKey());
     }
 
     public String generateToken(final AppUser users) {
-        return Jwts
-                .builder()
-                .claim("userId", users.getId())
-                .claim("typ", "Bearer")
-                .subject(users.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSecretKey()).compact();
+        return generateToken(users.getId(), users.getUsername());
     }
 
-    public String generateTempToken(final String username,
-                                    final long expiration) {
-        return Jwts
-                .builder()
+    public String generateToken(final Long userId,
+                                final String username) {
+        return signedBuilder()
+                .claim("userId", userId)
                 .claim("typ", "Bearer")
-                .claim("tokenType", "OAuth2User")
+                // Unique id, so tokens issued within the same second differ, see RevokedTokenRegistry
+                .id(generateToken())
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSecretKey()).compact();
+                .compact();
     }
 
     public String generateMFAToken(final AppUser users) {
-        return Jwts
-                .builder()
+        return signedBuilder()
                 .claim("mfa", true)
                 .subject(users.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + (2 * 60 * 100L))) // 2 minutes
-                .signWith(getSecretKey()).compact();
+                .compact();
     }
 
 //    public boolean isValidMFAToken(final String token,
@@ -91,7 +79,7 @@ public class JwtUtil {
 //                    .parser()
 //                    .require("mfa", true)
 //                    .requireSubject(username)
-//                    .verifyWith(getSecretKey())
+//                    .keyLocator(keyRing)
 //                    .build()
 //                    .isSigned(token);
 //        } catch (final Exception e) {
@@ -101,20 +89,24 @@ public class JwtUtil {
 
     public String generateRefreshToken(final Map<String, Object> claims,
                                        final AppUser users) {
-        return Jwts
-                .builder()
+        return generateRefreshToken(claims, users.getUsername());
+    }
+
+    public String generateRefreshToken(final Map<String, Object> claims,
+                                       final String username) {
+        return signedBuilder()
                 .claims(claims)
-                .subject(users.getUsername())
+                .id(generateToken())
+                .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + refreshExpiration))
-                .signWith(getSecretKey())
                 .compact();
     }
 
     public Claims extractAllClaims(final String token) {
         return Jwts
                 .parser()
-                .verifyWith(getSecretKey())
+                .keyLocator(keyRing)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
@@ -125,7 +117,7 @@ public class JwtUtil {
         return Jwts
                 .parser()
                 .require("typ", tokenType)
-                .verifyWith(getSecretKey())
+                .keyLocator(keyRing)
                 .build()
                 .parseSignedClaims(token)
                 .getPayload();
@@ -159,22 +151,29 @@ public class JwtUtil {
     }
 
     public boolean isTokenExpired(final String token) {
-        final var tokenDigest = tokenDigest(token);
-        //final var isRevokedToken = revokedJwtTokenRepository.isRevokedToken(tokenDigest);
-        //return extractSpecificClaim(token, Claims::getExpiration).before(new Date()) || isRevokedToken;
         return extractSpecificClaim(token, Claims::getExpiration).before(new Date());
     }
 
     public String tokenDigest(final String token) {
-        final var digestBytes = MESSAGE_DIGEST.digest(token.getBytes(StandardCharsets.UTF_8));
-        return ENCODER.encodeToString(digestBytes);
+        return encodeDigest(tokenDigestBytes(token));
+    }
+
+    /**
+     * SHA-256 of token, encoded by encodeDigest it is tokenDigest.
+     */
+    public byte[] tokenDigestBytes(final String token) {
+        return DigestUtil.sha256(token);
+    }
+
+    public static String encodeDigest(final byte[] digest) {
+        return ENCODER.encodeToString(digest);
     }
 
     public Claims extractAllClaimsWithNoCheckExpirationData(final String token) {
         try {
             return Jwts
                     .parser()
-                    .verifyWith(getSecretKey())
+                    .keyLocator(keyRing)
                     .clockSkewSeconds(30 * 24 * 60) // skew clock 1 month
                     .build()
                     .parseSignedClaims(token)
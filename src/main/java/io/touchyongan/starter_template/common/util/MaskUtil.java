@@ -0,0 +1,58 @@
+package io.touchyongan.starter_template.common.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Mask PII fields of request body and query string before it goes to log or audit trail.
+ */
+public final class MaskUtil {
+    public static final String MASKED_BODY_VALUE = "******";
+    public static final String MASKED_PARAM_VALUE = "masked";
+
+    private MaskUtil() {
+    }
+
+    /**
+     * Only parse body when it may contain a masked field, otherwise return the body as it is.
+     * Escaped unicode can hide a field name from the text check, so such body is always parsed.
+     */
+    public static String maskJsonBody(final ObjectMapper objectMapper,
+                                      final String body,
+                                      final List<String> maskFields) throws JsonProcessingException {
+        final var mayContainMaskField = body.contains("\\u") ||
+                maskFields.stream().anyMatch(f -> body.contains("\"" + f + "\""));
+        if (!mayContainMaskField) {
+            return body;
+        }
+        final var map = objectMapper.readValue(body, new TypeReference<Map<String, Object>>() {
+        });
+        for (final var maskField : maskFields) {
+            if (map.containsKey(maskField)) {
+                map.put(maskField, MASKED_BODY_VALUE);
+            }
+        }
+        return objectMapper.writeValueAsString(map);
+    }
+
+    /**
+     * patterns and maskFields are in the same order, see MaskPIIInfoProperties
+     */
+    public static String maskQueryParams(final String message,
+                                         final List<Pattern> patterns,
+                                         final List<String> maskFields) {
+        var result = message;
+        int index = 0;
+        for (final var maskParamPattern : patterns) {
+            final var matcher = maskParamPattern.matcher(result);
+            result = matcher.replaceAll(maskFields.get(index) + "=" + MASKED_PARAM_VALUE);
+            index = index + 1;
+        }
+        return result;
+    }
+}
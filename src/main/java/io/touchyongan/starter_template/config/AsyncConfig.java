@@ -0,0 +1,20 @@
+package io.touchyongan.starter_template.config;
+
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Executor of @Async is bounded by spring.task.execution.pool.*, a task rejected by the full queue runs on the caller thread.
+     * Caller slows down instead of losing an audit write or failing an OAuth2 login, which is the back pressure we want.
+     */
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer asyncRejectionPolicyCustomizer() {
+        return executor -> executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
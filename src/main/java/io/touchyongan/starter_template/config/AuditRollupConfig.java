@@ -0,0 +1,19 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.feature.audit.rollup.AuditRollupFolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class AuditRollupConfig {
+
+    @Bean
+    public AuditRollupFolder auditRollupFolder(final JdbcTemplate jdbcTemplate,
+                                               final TransactionTemplate transactionTemplate,
+                                               @Value("${audit.rollup.chunk-size:50000}") final long chunkSize) {
+        return new AuditRollupFolder(jdbcTemplate, transactionTemplate, chunkSize);
+    }
+}
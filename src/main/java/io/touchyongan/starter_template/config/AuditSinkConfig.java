@@ -0,0 +1,55 @@
+package io.touchyongan.starter_template.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.config.properties.AuditSinkProperties;
+import io.touchyongan.starter_template.feature.audit.repository.AuditTrailRepository;
+import io.touchyongan.starter_template.feature.audit.sink.AuditSegmentShipper;
+import io.touchyongan.starter_template.feature.audit.sink.AuditSink;
+import io.touchyongan.starter_template.feature.audit.sink.BatchAuditSink;
+import io.touchyongan.starter_template.feature.audit.sink.FileAuditSink;
+import io.touchyongan.starter_template.feature.audit.sink.JpaAuditSink;
+import io.touchyongan.starter_template.feature.audit.sink.segment.SegmentWriter;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+
+/**
+ * Audit sink is selected at runtime by audit.sink.type instead of ConditionalOnProperty, which is fixed at build time
+ * when Spring AOT is used.
+ */
+@Slf4j
+@Configuration
+public class AuditSinkConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditSink auditSink(final AuditSinkProperties properties,
+                               final AuditTrailRepository auditTrailRepository,
+                               final BulkIngester bulkIngester,
+                               final ObjectMapper objectMapper) throws IOException {
+        log.info("Audit sink: {}", properties.getType());
+        return switch (properties.getType()) {
+            case JPA -> new JpaAuditSink(auditTrailRepository, objectMapper);
+            case BATCH -> new BatchAuditSink(bulkIngester, objectMapper, properties.getBatch().getQueueCapacity(), properties.getBatch().getBatchSize());
+            case FILE -> {
+                final var file = properties.getFile();
+                final var writer = SegmentWriter.open(file.getDirectory(), file.getMaxSegmentSize().toBytes(),
+                        file.getMaxSegmentAge(), file.getFsync());
+                yield new FileAuditSink(writer, objectMapper);
+            }
+        };
+    }
+
+    @Bean
+    public AuditSegmentShipper auditSegmentShipper(final AuditSinkProperties properties,
+                                                   final BulkIngester bulkIngester,
+                                                   final PlatformTransactionManager transactionManager,
+                                                   final ObjectMapper objectMapper) {
+        return new AuditSegmentShipper(properties.getFile().getDirectory(), bulkIngester, new TransactionTemplate(transactionManager),
+                objectMapper, properties.getFile().getShipBatchSize());
+    }
+}
@@ -0,0 +1,21 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.infrastructure.jpa.BatchFetchExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchFetchConfig {
+
+    /**
+     * Ids per statement of BaseProjectionRepository batch fetch, chunks fetched at the same time when parallel,
+     * and chunks waiting for a thread before the caller fetches them itself.
+     */
+    @Bean(destroyMethod = "close")
+    public BatchFetchExecutor batchFetchExecutor(@Value("${repository.batch-fetch.chunk-size:5000}") final int chunkSize,
+                                                 @Value("${repository.batch-fetch.parallelism:2}") final int parallelism,
+                                                 @Value("${repository.batch-fetch.queue-capacity:64}") final int queueCapacity) {
+        return new BatchFetchExecutor(chunkSize, parallelism, queueCapacity);
+    }
+}
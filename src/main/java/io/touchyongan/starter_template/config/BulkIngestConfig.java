@@ -0,0 +1,26 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class BulkIngestConfig {
+
+    /**
+     * bulk.copy.enabled=false writes with batch insert only, e.g. behind a pooler or proxy without COPY support.
+     */
+    @Bean
+    public BulkIngester bulkIngester(final JdbcTemplate jdbcTemplate,
+                                     final TransactionTemplate transactionTemplate,
+                                     final StageMetrics stageMetrics,
+                                     @Value("${bulk.copy.enabled:true}") final boolean copyEnabled,
+                                     @Value("${bulk.copy.buffer-size:64KB}") final DataSize bufferSize) {
+        return new BulkIngester(jdbcTemplate, transactionTemplate, stageMetrics, copyEnabled, (int) bufferSize.toBytes());
+    }
+}
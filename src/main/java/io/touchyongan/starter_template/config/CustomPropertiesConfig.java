@@ -1,14 +1,28 @@
 package io.touchyongan.starter_template.config;
 
+import io.touchyongan.starter_template.config.properties.AuditSinkProperties;
+import io.touchyongan.starter_template.config.properties.ConnectionHoldProperties;
 import io.touchyongan.starter_template.config.properties.CrossOriginProperties;
+import io.touchyongan.starter_template.config.properties.IndexAdvisorProperties;
+import io.touchyongan.starter_template.config.properties.JwtSigningProperties;
 import io.touchyongan.starter_template.config.properties.MaskPIIInfoProperties;
+import io.touchyongan.starter_template.config.properties.MetricsScrapeProperties;
+import io.touchyongan.starter_template.config.properties.QueryInspectionProperties;
+import io.touchyongan.starter_template.config.properties.TokenRevocationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @EnableConfigurationProperties(value = {
         MaskPIIInfoProperties.class,
-        CrossOriginProperties.class
+        CrossOriginProperties.class,
+        QueryInspectionProperties.class,
+        ConnectionHoldProperties.class,
+        AuditSinkProperties.class,
+        IndexAdvisorProperties.class,
+        TokenRevocationProperties.class,
+        JwtSigningProperties.class,
+        MetricsScrapeProperties.class
 })
 public class CustomPropertiesConfig {
 }
@@ -0,0 +1,60 @@
+package io.touchyongan.starter_template.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.touchyongan.starter_template.config.properties.QueryInspectionProperties;
+import io.touchyongan.starter_template.infrastructure.datasource.ConnectionHoldTracker;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolRoutingDataSource;
+import io.touchyongan.starter_template.infrastructure.query.QueryInspectionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+
+/**
+ * One Hikari pool per PoolName, all sharing spring.datasource.url/username/password and tuned by datasource.pools.{key}.*.
+ * The routing data source is wrapped by JDBC proxy for connection hold tracking and statement inspection.
+ */
+@Configuration
+public class DataSourceConfig {
+    private static final String POOL_PROPERTIES_PREFIX = "datasource.pools.";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final DataSourceProperties dataSourceProperties,
+                                 final Environment environment,
+                                 final MeterRegistry meterRegistry,
+                                 final ConnectionHoldTracker connectionHoldTracker,
+                                 final QueryInspectionProperties queryInspectionProperties,
+                                 final ObjectProvider<QueryInspectionListener> queryInspectionListener) {
+        final var binder = Binder.get(environment);
+        final var metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        final var pools = new EnumMap<PoolName, HikariDataSource>(PoolName.class);
+        for (final var poolName : PoolName.values()) {
+            final var pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            binder.bind(POOL_PROPERTIES_PREFIX + poolName.getKey(), Bindable.ofInstance(pool));
+            pool.setPoolName(poolName.getKey());
+            pool.setMetricsTrackerFactory(metricsTrackerFactory);
+            pools.put(poolName, pool);
+        }
+        final var builder = ProxyDataSourceBuilder.create(new PoolRoutingDataSource(pools))
+                .name("dataSource")
+                .methodListener(connectionHoldTracker);
+        if (queryInspectionProperties.isEnabled()) {
+            queryInspectionListener.ifAvailable(builder::listener);
+        }
+        return builder.build();
+    }
+}
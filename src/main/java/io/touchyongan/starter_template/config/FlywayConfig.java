@@ -0,0 +1,27 @@
+package io.touchyongan.starter_template.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runtime switch of startup migration. spring.flyway.enabled is fixed at build time when Spring AOT is used,
+ * this one still applies, e.g. CDS training run without database or replicas migrated by a deploy step.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${flyway.migrate-on-startup:true}") final boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("Skip migration on startup, flyway.migrate-on-startup is false");
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package io.touchyongan.starter_template.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.config.properties.IndexAdvisorProperties;
+import io.touchyongan.starter_template.infrastructure.index.IndexAdvisor;
+import io.touchyongan.starter_template.infrastructure.index.IndexAdvisorScheduler;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Index advisor needs statement inspection, samples are captured by QueryInspectionListener.
+ * Always registered and switched by index.advisor.enabled at runtime instead of ConditionalOnProperty,
+ * which is fixed at build time when Spring AOT is used, so INDEX_ADVISOR_ENABLED still applies to the container image.
+ */
+@Slf4j
+@Configuration
+public class IndexAdvisorConfig {
+
+    @Bean
+    public IndexAdvisor indexAdvisor(final IndexAdvisorProperties properties,
+                                     final JdbcTemplate jdbcTemplate,
+                                     final PlatformTransactionManager transactionManager,
+                                     final EntityManagerFactory entityManagerFactory,
+                                     final ObjectMapper objectMapper) {
+        log.info("Index advisor enabled: {}", properties.isEnabled());
+        final var readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        return new IndexAdvisor(properties, jdbcTemplate, readOnlyTransactionTemplate, entityManagerFactory, objectMapper);
+    }
+
+    @Bean
+    public IndexAdvisorScheduler indexAdvisorScheduler(final IndexAdvisor indexAdvisor) {
+        return new IndexAdvisorScheduler(indexAdvisor);
+    }
+}
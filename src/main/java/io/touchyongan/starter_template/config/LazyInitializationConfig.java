@@ -0,0 +1,25 @@
+package io.touchyongan.starter_template.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Beans which are never requested by another bean must stay eager when lazy initialization is enabled (fast-startup profile):
+ * - SmartInitializingSingleton, callback only runs for beans created during startup
+ * - beans with Scheduled method, the schedule is only registered once the bean is created
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> SmartInitializingSingleton.class.isAssignableFrom(beanType)
+                || !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.config.properties.QueryInspectionProperties;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import io.touchyongan.starter_template.infrastructure.query.QueryInspectionListener;
+import io.touchyongan.starter_template.infrastructure.query.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Statement inspection: Hibernate StatementInspector records statement shapes (N+1 detection),
+ * JDBC proxy of data source (see DataSourceConfig) times every execution (slow query log, statement count).
+ * Beans are always registered and query.inspection.enabled is checked when they are used, ConditionalOnProperty
+ * is fixed at build time when Spring AOT is used.
+ */
+@Configuration
+public class QueryInspectionConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(final QueryInspectionProperties queryInspectionProperties) {
+        return properties -> {
+            if (queryInspectionProperties.isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            }
+        };
+    }
+
+    @Bean
+    public QueryInspectionListener queryInspectionListener(final ObjectProvider<StageMetrics> stageMetrics,
+                                                           final ObjectProvider<QueryInspectionProperties> properties) {
+        return new QueryInspectionListener(stageMetrics::getObject, properties::getObject);
+    }
+}
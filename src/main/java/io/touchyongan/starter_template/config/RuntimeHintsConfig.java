@@ -0,0 +1,10 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.infrastructure.aot.ApplicationRuntimeHints;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
+public class RuntimeHintsConfig {
+}
@@ -4,14 +4,21 @@ import io.touchyongan.starter_template.config.custom.CustomAccessDenyException;
 import io.touchyongan.starter_template.config.custom.CustomAuthenticationEntryPoint;
 import io.touchyongan.starter_template.config.custom.OAuth2ClientAuthenticationSuccessHandler;
 import io.touchyongan.starter_template.config.properties.CrossOriginProperties;
+import io.touchyongan.starter_template.config.properties.MetricsScrapeProperties;
 import io.touchyongan.starter_template.infrastructure.filter.JwtRequestFilter;
 import io.touchyongan.starter_template.infrastructure.filter.OAuth2TempTokenFilter;
 import io.touchyongan.starter_template.infrastructure.permission.CustomMethodSecurityExpressionHandler;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,7 +28,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -33,14 +42,16 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class SecurityConfig {
     // Define all endpoints, you need to access without login here
-    public static final Set<String> GET_ANONYMOUS_PATH = Set.of("/error", "/auth/oauth2-clients", "/health");
-    public static final Set<String> POST_ANONYMOUS_PATH = Set.of("/auth/token", "/auth/refresh");
+    public static final Set<String> GET_ANONYMOUS_PATH = Set.of("/error", "/auth/oauth2-clients", "/health", "/.well-known/jwks.json");
+    public static final String METRICS_SCRAPE_PATH = "/actuator/prometheus";
+    public static final Set<String> POST_ANONYMOUS_PATH = Set.of("/auth/token", "/auth/refresh", "/auth/logout");
 
     private final JwtRequestFilter jwtRequestFilter;
     private final OAuth2TempTokenFilter oAuth2TempTokenFilter;
     private final CustomAccessDenyException customAccessDenyException;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final OAuth2ClientAuthenticationSuccessHandler oAuth2ClientAuthenticationSuccessHandler;
+    private final MetricsScrapeProperties metricsScrapeProperties;
 
     @Bean
     public SecurityFilterChain securityFilterChain(final HttpSecurity http) throws Exception {
@@ -48,10 +59,15 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(c -> c.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(req -> {
+                    // Async dispatch only completes a request already authorized, e.g. streaming response
+                    req.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                            .permitAll();
                     req.requestMatchers(HttpMethod.GET, GET_ANONYMOUS_PATH.toArray(new String[0]))
                             .permitAll();
                     req.requestMatchers(HttpMethod.POST, POST_ANONYMOUS_PATH.toArray(new String[0]))
                             .permitAll();
+                    req.requestMatchers(HttpMethod.GET, METRICS_SCRAPE_PATH)
+                            .access(AuthorizationManagers.anyOf(AuthenticatedAuthorizationManager.authenticated(), scrapeAddressAuthorizationManager()));
                     // Comment code below for restrict user access other endpoint
                     //req.anyRequest().permitAll();
                     // Uncomment code below to protect all other endpoints required login
@@ -68,6 +84,16 @@ public class SecurityConfig {
                 .build();
     }
 
+    /**
+     * Metrics expose route names, query counts and pool state, so only listed scraper addresses skip login.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAddressAuthorizationManager() {
+        final var matchers = metricsScrapeProperties.getAllowedAddresses().stream()
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(matchers.stream().anyMatch(m -> m.matches(context.getRequest())));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -79,8 +105,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public static CustomMethodSecurityExpressionHandler customMethodExpressionHandler() {
-        return new CustomMethodSecurityExpressionHandler();
+    public static CustomMethodSecurityExpressionHandler customMethodExpressionHandler(final EntityActionRegistry entityActionRegistry) {
+        return new CustomMethodSecurityExpressionHandler(entityActionRegistry);
     }
 
     @Bean
@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.config;
+
+import io.touchyongan.starter_template.infrastructure.datasource.ConnectionOwnerInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final ConnectionOwnerInterceptor connectionOwnerInterceptor;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(connectionOwnerInterceptor);
+    }
+}
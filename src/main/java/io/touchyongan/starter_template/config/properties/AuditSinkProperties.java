@@ -0,0 +1,42 @@
+package io.touchyongan.starter_template.config.properties;
+
+import io.touchyongan.starter_template.feature.audit.sink.AuditSinkType;
+import io.touchyongan.starter_template.feature.audit.sink.segment.FsyncPolicy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "audit.sink")
+@Getter
+@RequiredArgsConstructor
+public class AuditSinkProperties {
+    private final AuditSinkType type;
+    // Drain queue of batch sink, fsync and roll expired segment of file sink
+    private final Duration flushInterval;
+    private final Batch batch;
+    private final File file;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Batch {
+        private final int queueCapacity;
+        private final int batchSize;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class File {
+        private final Path directory;
+        private final DataSize maxSegmentSize;
+        private final Duration maxSegmentAge;
+        private final FsyncPolicy fsync;
+        // False when segments are only loaded by AuditSegmentReplayTool, e.g. database is reachable from another host only
+        private final boolean shipEnabled;
+        private final Duration shipInterval;
+        private final int shipBatchSize;
+    }
+}
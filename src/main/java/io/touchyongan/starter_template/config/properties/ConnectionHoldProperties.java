@@ -0,0 +1,21 @@
+package io.touchyongan.starter_template.config.properties;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "datasource.hold")
+@Getter
+@RequiredArgsConstructor
+public class ConnectionHoldProperties {
+    // Connection held longer than this is reported by the periodic leak report
+    private final Duration leakThreshold;
+    private final Duration leakReportInterval;
+    // Request shorter than this is never reported as holding connection for whole request
+    private final Duration requestMinDuration;
+    // Reported when one connection is held for this fraction of request duration
+    private final double requestHoldRatio;
+    private final Duration sampleInterval;
+}
@@ -0,0 +1,25 @@
+package io.touchyongan.starter_template.config.properties;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "index.advisor")
+@Getter
+@RequiredArgsConstructor
+public class IndexAdvisorProperties {
+    private final boolean enabled;
+    // Shapes tracked at most, further shapes are not recorded
+    private final int maxShapes;
+    private final Duration sampleInterval;
+    // A shape is analyzed once executed this many times
+    private final int minExecutions;
+    // Sample plans faster than this are not worth an index
+    private final Duration minExecutionTime;
+    private final Duration statementTimeout;
+    private final int maxIncludeColumns;
+    private final Path draftDirectory;
+}
@@ -0,0 +1,35 @@
+package io.touchyongan.starter_template.config.properties;
+
+import io.touchyongan.starter_template.infrastructure.jwt.SigningAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "auth.jwt.signing")
+@Getter
+@RequiredArgsConstructor
+public class JwtSigningProperties {
+    // HS256 signs with auth.jwt.secret_key, ES256 and EdDSA sign with keys, see JwtKeyRing
+    private final SigningAlgorithm algorithm;
+    private final Duration refreshInterval;
+    private final Duration jwksMaxAge;
+    // Null when none configured
+    private final List<Key> keys;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Key {
+        private final String kid;
+        // PEM, PKCS#8 private key, left out for a key only verified, e.g. retiring key whose private key is destroyed
+        private final Resource privateKey;
+        // PEM, X.509 public key
+        private final Resource publicKey;
+        // Signs from then on, until a later key activates. Published and verified before, so it can be added ahead of time
+        private final Instant activateAt;
+    }
+}
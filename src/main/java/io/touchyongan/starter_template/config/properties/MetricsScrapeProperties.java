@@ -0,0 +1,17 @@
+package io.touchyongan.starter_template.config.properties;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Addresses (ip or cidr) allowed to scrape /actuator/prometheus without login, other callers need a valid token.
+ */
+@ConfigurationProperties(prefix = "security.metrics-scrape")
+@Getter
+@RequiredArgsConstructor
+public class MetricsScrapeProperties {
+    private final List<String> allowedAddresses;
+}
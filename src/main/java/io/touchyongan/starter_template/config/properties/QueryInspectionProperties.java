@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.config.properties;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "query.inspection")
+@Getter
+@RequiredArgsConstructor
+public class QueryInspectionProperties {
+    private final boolean enabled;
+    private final Duration slowThreshold;
+    // Same statement executed this many times in one request is reported as possible N+1
+    private final int repeatedThreshold;
+    private final int maxStatementsPerRequest;
+}
@@ -0,0 +1,20 @@
+package io.touchyongan.starter_template.config.properties;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "auth.revocation")
+@Getter
+@RequiredArgsConstructor
+public class TokenRevocationProperties {
+    private final Duration syncInterval;
+    // Revocations of lower id committed after a higher one was read are still picked up within lookback
+    private final Duration syncLookback;
+    // Digests expiring within the same bucket share a Bloom filter, dropped as a whole once it has expired
+    private final Duration bucketWidth;
+    private final int expectedPerBucket;
+    private final double falsePositiveRate;
+}
@@ -0,0 +1,11 @@
+package io.touchyongan.starter_template.feature.audit.aop;
+
+/**
+ * What AuditLogAspect does for one controller method, computed on first call and cached.
+ * Not audited: request, context and save stages are all skipped, the handler is only invoked.
+ * Audited: every stage runs, entity and action are recorded as is.
+ */
+record AuditDescriptor(boolean audited, String entity, String action) {
+    static final AuditDescriptor NOT_AUDITED = new AuditDescriptor(false, null, null);
+    static final AuditDescriptor AUDITED_WITHOUT_ACTION = new AuditDescriptor(true, null, null);
+}
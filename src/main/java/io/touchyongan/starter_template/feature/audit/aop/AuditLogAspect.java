@@ -1,13 +1,16 @@
 package io.touchyongan.starter_template.feature.audit.aop;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.common.data.RawJson;
 import io.touchyongan.starter_template.common.util.AuthUtil;
+import io.touchyongan.starter_template.common.util.MaskUtil;
 import io.touchyongan.starter_template.common.util.RequestContextUtil;
 import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
 import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
 import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
-import io.touchyongan.starter_template.infrastructure.permission.CustomPreAuthorize;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
 import io.touchyongan.starter_template.config.properties.MaskPIIInfoProperties;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,11 +29,13 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.touchyongan.starter_template.common.util.RequestContextUtil.*;
 
@@ -39,29 +44,51 @@ import static io.touchyongan.starter_template.common.util.RequestContextUtil.*;
 @Slf4j
 @RequiredArgsConstructor
 public class AuditLogAspect {
-    private static final Set<String> UNWANTED_AUDIT_PATH = Set.of("/v3/api-docs");
+    private static final List<String> UNWANTED_AUDIT_PATH = List.of("/v3/api-docs");
+    // Stage of metrics: read/mask request, collect old/new value after handler, save audit trail
+    private static final String STAGE_PREPARE = "prepare";
+    private static final String STAGE_CONTEXT = "context";
+    private static final String STAGE_SAVE = "save";
 
     private final MaskPIIInfoProperties maskPIIInfoProperties;
     private final ObjectMapper objectMapper;
     private final AuditTrailService auditTrailService;
+    private final StageMetrics stageMetrics;
+    private final EntityActionRegistry entityActionRegistry;
+    private final Map<Method, AuditDescriptor> descriptors = new ConcurrentHashMap<>();
 
     @Around(value = "within(@org.springframework.web.bind.annotation.RestController *)")
     public Object logAround(final ProceedingJoinPoint joinPoint) throws Throwable {
         final var servletAttribute = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         Assert.notNull(servletAttribute, "servletAttribute is null");
         final var request = servletAttribute.getRequest();
+        final var descriptor = descriptors.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::describe);
+        if (!descriptor.audited() || isIgnoreUnwantedAuditPath(request)) {
+            // Nothing is saved, so nothing is captured. Context values put by the handler must still be cleared.
+            try {
+                return joinPoint.proceed();
+            } finally {
+                RequestContextUtil.clear();
+            }
+        }
+
         final var auditTrail = new AuditTrail();
         auditTrail.setStatus(ActionStatus.SUCCESS);
+        auditTrail.setEntity(descriptor.entity());
+        auditTrail.setAction(descriptor.action());
         try {
             // Gather information before process request for log
+            var start = System.nanoTime();
             populateValueFromRequest(request, auditTrail);
-            populateValueFromAnnotation(joinPoint, auditTrail);
+            recordStage(auditTrail, STAGE_PREPARE, start);
 
             // Process request
             final var result = joinPoint.proceed();
 
             // gather information what effect in system
+            start = System.nanoTime();
             populateValueFromContext(auditTrail);
+            recordStage(auditTrail, STAGE_CONTEXT, start);
 
             return result;
         } catch (final Exception e) {
@@ -71,27 +98,43 @@ public class AuditLogAspect {
         } finally {
             final var traceId = MDC.get("UUID");
             auditTrail.setTraceId(traceId);
-            if (!isIgnoreSave(joinPoint, request)) {
-                auditTrailService.saveAuditLogAsync(auditTrail);
-            }
+            final var start = System.nanoTime();
+            auditTrailService.saveAuditLogAsync(auditTrail);
+            recordStage(auditTrail, STAGE_SAVE, start);
             RequestContextUtil.clear();
         }
     }
 
-    private boolean isIgnoreSave(final ProceedingJoinPoint joinPoint,
-                                 final HttpServletRequest request) {
-        final var methodSignature = (MethodSignature) joinPoint.getSignature();
-        final var targetMethod = methodSignature.getMethod();
-        final var ignoreSaveAuditTrail = targetMethod.getAnnotation(IgnoreSaveAuditTrail.class);
-        final var getMapping = targetMethod.getAnnotation(GetMapping.class);
-        return Objects.nonNull(getMapping) ||
-                Objects.nonNull(ignoreSaveAuditTrail) ||
-                isIgnoreUnwantedAuditPath(request);
+    private void recordStage(final AuditTrail auditTrail,
+                             final String stage,
+                             final long start) {
+        stageMetrics.record(StageMetrics.AUDIT_ASPECT, System.nanoTime() - start,
+                "stage", stage,
+                "entity", Objects.requireNonNullElse(auditTrail.getEntity(), StageMetrics.UNKNOWN),
+                "action", Objects.requireNonNullElse(auditTrail.getAction(), StageMetrics.UNKNOWN));
+    }
+
+    /**
+     * Computed once per controller method: GetMapping and IgnoreSaveAuditTrail are never saved,
+     * entity and action come from the registry generated at compile time.
+     */
+    private AuditDescriptor describe(final Method method) {
+        if (method.isAnnotationPresent(GetMapping.class) || method.isAnnotationPresent(IgnoreSaveAuditTrail.class)) {
+            return AuditDescriptor.NOT_AUDITED;
+        }
+        return entityActionRegistry.find(method)
+                .map(action -> new AuditDescriptor(true, action.entity(), action.action()))
+                .orElse(AuditDescriptor.AUDITED_WITHOUT_ACTION);
     }
 
     private boolean isIgnoreUnwantedAuditPath(final HttpServletRequest request) {
-        return UNWANTED_AUDIT_PATH.stream()
-                .anyMatch(ignorePath -> request.getRequestURI().startsWith(ignorePath));
+        final var requestUri = request.getRequestURI();
+        for (final var ignorePath : UNWANTED_AUDIT_PATH) {
+            if (requestUri.startsWith(ignorePath)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void populateValueFromRequest(final HttpServletRequest request,
@@ -100,14 +143,8 @@ public class AuditLogAspect {
         final var requestUrl = request.getRequestURI();
         final var requestBody = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
         if (StringUtils.hasText(requestBody)) {
-            final var map = objectMapper.readValue(requestBody, new TypeReference<Map<String, Object>>() {
-            });
-            for (final var maskField : maskPIIInfoProperties.getRequestBodyFields()) {
-                if (map.containsKey(maskField)) {
-                    map.put(maskField, "******");
-                }
-            }
-            auditTrail.setRequestBody(map);
+            final var maskedBody = MaskUtil.maskJsonBody(objectMapper, requestBody, maskPIIInfoProperties.getRequestBodyFields());
+            auditTrail.setRequestBody(RawJson.ofUntrusted(maskedBody));
         }
 
         auditTrail.setHttpMethod(request.getMethod());
@@ -116,25 +153,8 @@ public class AuditLogAspect {
         auditTrail.setRequestParams(params);
     }
 
-    private void populateValueFromAnnotation(final ProceedingJoinPoint joinPoint,
-                                             final AuditTrail auditTrail) {
-        final var methodSignature = (MethodSignature) joinPoint.getSignature();
-        final var targetMethod = methodSignature.getMethod();
-        final var customPreAuthorize = targetMethod.getAnnotation(CustomPreAuthorize.class);
-        if (Objects.nonNull(customPreAuthorize)) {
-            auditTrail.setAction(customPreAuthorize.action().toUpperCase());
-            auditTrail.setEntity(customPreAuthorize.entity().toUpperCase());
-        } else {
-            final var logActionAnonymous = targetMethod.getAnnotation(LogActionAnonymous.class);
-            if (Objects.nonNull(logActionAnonymous)) {
-                auditTrail.setAction(logActionAnonymous.action().toUpperCase());
-                auditTrail.setEntity(logActionAnonymous.entity().toUpperCase());
-            }
-        }
-    }
-
     @SuppressWarnings("unchecked")
-    private void populateValueFromContext(final AuditTrail auditTrail) {
+    private void populateValueFromContext(final AuditTrail auditTrail) throws JsonProcessingException {
         final var currentUser = AuthUtil.getCurrentUser();
         final var newValue = (Map<String, Object>) Optional.ofNullable(RequestContextUtil.get(KEY_NEW_VALUE)).orElse(Map.of());
         final var oldValue = (Map<String, Object>) Optional.ofNullable(RequestContextUtil.get(KEY_OLD_VALUE)).orElse(Map.of());
@@ -145,11 +165,18 @@ public class AuditLogAspect {
             auditTrail.setUserId(currentUser.getId());
             auditTrail.setUsername(AuthUtil.getCurrentUsername());
         }
-        auditTrail.setOldValue(oldValue);
-        auditTrail.setNewValue(newValue);
+        auditTrail.setOldValue(toRawJson(oldValue));
+        auditTrail.setNewValue(toRawJson(newValue));
         auditTrail.setResourceId(resourceId);
     }
 
+    private RawJson toRawJson(final Map<String, Object> value) throws JsonProcessingException {
+        if (value.isEmpty()) {
+            return RawJson.EMPTY_OBJECT;
+        }
+        return RawJson.of(objectMapper.writeValueAsString(value));
+    }
+
     private String getParameters(final HttpServletRequest request) {
         final var params = new StringBuilder();
         if (isMultiPartContent(request)) {
@@ -174,7 +201,7 @@ public class AuditLogAspect {
             final var paramName = parameterNames.nextElement();
             final String[] paramValues;
             if (maskPIIInfoProperties.getRequestBodyFields().contains(paramName)) {
-                paramValues = new String[] { "masked" };
+                paramValues = new String[] { MaskUtil.MASKED_PARAM_VALUE };
             } else {
                 paramValues = request.getParameterValues(paramName);
             }
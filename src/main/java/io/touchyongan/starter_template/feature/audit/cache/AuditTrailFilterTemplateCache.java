@@ -0,0 +1,201 @@
+package io.touchyongan.starter_template.feature.audit.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilterTemplate;
+import io.touchyongan.starter_template.feature.audit.data.EntityAction;
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import io.touchyongan.starter_template.feature.user.data.UsernameChangeData;
+import io.touchyongan.starter_template.feature.user.repository.AppUserUsernameRepository;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keep audit filter template in memory.
+ * - Entity/action and status never change at runtime, so the template and its version are built once.
+ * - Usernames are kept current by applying users changed since the last seen change time, and served as paginated prefix search.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditTrailFilterTemplateCache {
+    private static final Duration DELTA_OVERLAP = Duration.ofMinutes(1);
+    private static final Duration FULL_RELOAD_INTERVAL = Duration.ofMinutes(10);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AppUserUsernameRepository appUserUsernameRepository;
+    private final EntityActionRegistry entityActionRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final Object usernameLock = new Object();
+    private volatile UsernameSnapshot usernameSnapshot;
+    private volatile AuditTrailFilterTemplate template;
+    private volatile String templateVersion;
+
+    public AuditTrailFilterTemplate getTemplate() {
+        if (Objects.isNull(template)) {
+            buildTemplate();
+        }
+        return template;
+    }
+
+    public String getTemplateVersion() {
+        if (Objects.isNull(templateVersion)) {
+            buildTemplate();
+        }
+        return templateVersion;
+    }
+
+    /**
+     * Serve usernames loaded by the last {@link #refreshUsernames()}, the version resolver of the request refreshes first,
+     * so the search itself reads nothing from database.
+     */
+    public CustomPage<String> searchUsernames(final String query,
+                                              final Pageable pageable) {
+        if (Objects.isNull(usernameSnapshot)) {
+            refreshUsernames();
+        }
+        final var usernames = usernameSnapshot.usernames;
+        final NavigableMap<String, String> matches;
+        if (StringUtils.hasText(query)) {
+            final var prefix = query.trim().toLowerCase(Locale.ROOT);
+            matches = usernames.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        } else {
+            matches = usernames;
+        }
+        final var content = matches.values()
+                .stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new CustomPage<>(content, pageable, matches.size());
+    }
+
+    /**
+     * Apply users changed since the watermark and return the version of the result.
+     * Rows are read from slightly before the watermark, so a row committed late with an older timestamp, or written
+     * by a replica with a clock behind, is still seen. Re-applying a row is a no-op.
+     * Hard deletes never come from the app (AppUser is soft deleted), those done by hand are dropped by the periodic full reload.
+     */
+    public String refreshUsernames() {
+        synchronized (usernameLock) {
+            final var current = usernameSnapshot;
+            if (Objects.isNull(current) || current.loadedAt.plus(FULL_RELOAD_INTERVAL).isBefore(Instant.now())) {
+                usernameSnapshot = loadUsernames();
+            } else {
+                final var changes = appUserUsernameRepository.findChangedSince(current.watermark.minus(DELTA_OVERLAP));
+                changes.forEach(current::apply);
+            }
+            return usernameSnapshot.version;
+        }
+    }
+
+    private synchronized void buildTemplate() {
+        if (Objects.nonNull(template)) {
+            return;
+        }
+        final var statuses = Arrays.stream(ActionStatus.values())
+                .filter(s -> s != ActionStatus.UNKNOWN)
+                .map(ActionStatus::getStatus)
+                .toList();
+        final var newTemplate = new AuditTrailFilterTemplate()
+                .setEntityActions(entityActions())
+                .setStatus(statuses);
+        try {
+            templateVersion = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(newTemplate));
+        } catch (final JsonProcessingException e) {
+            log.warn("Error compute version of audit filter template", e);
+            templateVersion = String.valueOf(System.currentTimeMillis());
+        }
+        template = newTemplate;
+    }
+
+    private List<EntityAction> entityActions() {
+        return entityActionRegistry.getActionsByEntity()
+                .entrySet()
+                .stream()
+                .map(entry -> {
+                    final var entityAction = new EntityAction();
+                    entityAction.setEntity(entry.getKey());
+                    entry.getValue().forEach(entityAction::addAction);
+                    return entityAction;
+                })
+                .toList();
+    }
+
+    private UsernameSnapshot loadUsernames() {
+        final var start = System.currentTimeMillis();
+        final var snapshot = new UsernameSnapshot();
+        appUserUsernameRepository.findAll().forEach(snapshot::apply);
+        log.info("Loaded {} usernames for audit filter template in {} ms", snapshot.byId.size(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * Sort and search case-insensitive, exact username after the separator keeps names differ only in case apart.
+     */
+    private static String sortKey(final String username) {
+        return username.toLowerCase(Locale.ROOT) + '\0' + username;
+    }
+
+    /**
+     * Version is the count and an order independent hash of (id, username) pairs, it only depends on content,
+     * so replicas holding the same usernames answer the same ETag. Mutated under usernameLock only,
+     * a search running meanwhile may see a newer content than the version it was tagged with, never an older one.
+     */
+    private static final class UsernameSnapshot {
+        private final Map<Long, String> byId = new HashMap<>();
+        private final NavigableMap<String, String> usernames = new ConcurrentSkipListMap<>();
+        private final Instant loadedAt = Instant.now();
+        private LocalDateTime watermark = EPOCH;
+        private long hash;
+        private volatile String version = "0-0";
+
+        private void apply(final UsernameChangeData change) {
+            if (Objects.nonNull(change.changedAt()) && change.changedAt().isAfter(watermark)) {
+                watermark = change.changedAt();
+            }
+            final var username = change.deleted() || !StringUtils.hasText(change.username()) ? null : change.username();
+            final var previous = byId.get(change.id());
+            if (Objects.equals(previous, username)) {
+                return;
+            }
+            if (Objects.nonNull(previous)) {
+                byId.remove(change.id());
+                usernames.remove(sortKey(previous));
+                hash -= entryHash(change.id(), previous);
+            }
+            if (Objects.nonNull(username)) {
+                byId.put(change.id(), username);
+                usernames.put(sortKey(username), username);
+                hash += entryHash(change.id(), username);
+            }
+            version = byId.size() + "-" + Long.toHexString(hash);
+        }
+
+        private static long entryHash(final Long id,
+                                      final String username) {
+            var h = id * 0x9E3779B97F4A7C15L ^ username.hashCode();
+            h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+            return h ^ (h >>> 33);
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package io.touchyongan.starter_template.feature.audit.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.touchyongan.starter_template.common.data.ApiResponse;
 import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.common.data.StreamingCustomPage;
 import io.touchyongan.starter_template.common.specification.PaginationRequest;
+import io.touchyongan.starter_template.common.exception.custom.BaseApiException;
+import io.touchyongan.starter_template.common.exception.custom.impl.GeneralError;
+import io.touchyongan.starter_template.feature.audit.data.AuditIpStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailConstant;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailData;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilterTemplate;
+import io.touchyongan.starter_template.feature.audit.data.AuditTrailLookupRequest;
 import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
+import io.touchyongan.starter_template.feature.audit.version.AuditTrailByIdVersionResolver;
+import io.touchyongan.starter_template.feature.audit.version.AuditTrailFilterTemplateVersionResolver;
+import io.touchyongan.starter_template.feature.audit.version.AuditTrailUsernameVersionResolver;
+import io.touchyongan.starter_template.infrastructure.conditional.ConditionalGet;
 import io.touchyongan.starter_template.infrastructure.permission.CustomPreAuthorize;
 import lombok.AllArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,17 +36,32 @@ import java.util.Optional;
 @AllArgsConstructor
 public class AuditTrailController {
     private final AuditTrailService auditTrailService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(value = "/template", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ConditionalGet(resolver = AuditTrailFilterTemplateVersionResolver.class)
     public ResponseEntity<ApiResponse<AuditTrailFilterTemplate>> getFilterTemplate() {
         final var result = auditTrailService.getFilterTemplate();
         final var response = new ApiResponse<>(result);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/template/usernames", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ConditionalGet(resolver = AuditTrailUsernameVersionResolver.class)
+    public ResponseEntity<ApiResponse<CustomPage<String>>> searchUsernames(
+            @RequestParam(value = "query", required = false) final String query,
+            @RequestParam(value = "page", defaultValue = "0") final int page,
+            @RequestParam(value = "size", defaultValue = "20") final int size
+    ) {
+        final var pageRequest = PaginationRequest.newPaginationRequest(page, size, null, null);
+        final var result = auditTrailService.searchUsernames(query, pageRequest.getPageable());
+        final var response = new ApiResponse<>(result);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @CustomPreAuthorize(action = AuditTrailConstant.READ, entity = AuditTrailConstant.ENTITY)
-    public ResponseEntity<ApiResponse<CustomPage<AuditTrailData>>> getAllAuditTrails(
+    public ResponseEntity<StreamingResponseBody> getAllAuditTrails(
             @RequestParam(name = "action", required = false) final String action,
             @RequestParam(value = "entity", required = false) final String entity,
             @RequestParam(value = "resourceId", required = false) final List<Long> resourceId,
@@ -60,13 +88,78 @@ public class AuditTrailController {
         filter.setStatus(status);
         filter.setStartDate(startDate);
         filter.setEndDate(endDate);
-        final var result = auditTrailService.getAllAuditTrails(filter);
-        final var response = new ApiResponse<>(result);
+        final var total = auditTrailService.countAuditTrails(filter);
+        final var ids = auditTrailService.findAuditTrailIds(filter);
+        final var body = new StreamingCustomPage<>(objectMapper, filter.getPageable(), total, ids, auditTrailService::getAuditTrailsByIds);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Counts per hour or day (interval=hour|day) or over the whole range (interval=total), optionally grouped by
+     * entity, action, status and username, e.g. failures per user: interval=total&groupBy=username&status=Failure.
+     * Answered from rollups, which lag behind audit_trail by up to two audit.rollup.interval.
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CustomPreAuthorize(action = AuditTrailConstant.READ, entity = AuditTrailConstant.ENTITY)
+    public ResponseEntity<ApiResponse<List<AuditStatsData>>> getStats(
+            @RequestParam(value = "interval", defaultValue = "day") final String interval,
+            @RequestParam(value = "groupBy", required = false) final List<String> groupBy,
+            @RequestParam(value = "action", required = false) final String action,
+            @RequestParam(value = "entity", required = false) final String entity,
+            @RequestParam(value = "username", required = false) final String username,
+            @RequestParam(value = "status", required = false) final String status,
+            @RequestParam(value = "startDate", required = false) final LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) final LocalDateTime endDate,
+            @RequestParam(value = "limit", defaultValue = "1000") final int limit
+    ) {
+        AuditTrailFilter.validateStatus(status);
+        final var filter = AuditStatsFilter.of(interval, groupBy, startDate, endDate, limit);
+        filter.setEntity(entity);
+        filter.setAction(action);
+        filter.setUsername(username);
+        filter.setStatus(status);
+        final var response = new ApiResponse<>(auditTrailService.getStats(filter));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Top IPs by requests (sort=total) or failed requests (sort=failures) over daily buckets.
+     */
+    @GetMapping(value = "/stats/ips", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CustomPreAuthorize(action = AuditTrailConstant.READ, entity = AuditTrailConstant.ENTITY)
+    public ResponseEntity<ApiResponse<List<AuditIpStatsData>>> getTopIps(
+            @RequestParam(value = "startDate", required = false) final LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) final LocalDateTime endDate,
+            @RequestParam(value = "sort", defaultValue = "total") final String sort,
+            @RequestParam(value = "limit", defaultValue = "20") final int limit
+    ) {
+        if (!"total".equals(sort) && !"failures".equals(sort)) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "sort", sort, "Allowed values: [total,failures].");
+        }
+        final var filter = AuditStatsFilter.of("total", null, startDate, endDate, limit);
+        final var result = auditTrailService.getTopIps(filter.getStartDate(), filter.getEndDate(), "failures".equals(sort), limit);
+        return ResponseEntity.ok(new ApiResponse<>(result));
+    }
+
+    /**
+     * Audit trails of the given ids in the same order, unknown ids are left out.
+     */
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @CustomPreAuthorize(action = AuditTrailConstant.READ, entity = AuditTrailConstant.ENTITY)
+    public ResponseEntity<ApiResponse<List<AuditTrailData>>> lookupAuditTrails(@RequestBody final AuditTrailLookupRequest request) {
+        final var ids = Optional.ofNullable(request.getIds()).orElse(List.of());
+        if (ids.size() > AuditTrailLookupRequest.MAX_IDS) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "ids", ids.size() + " ids",
+                    "At most %d ids.".formatted(AuditTrailLookupRequest.MAX_IDS));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(auditTrailService.getAuditTrailsByIds(ids)));
+    }
+
     @GetMapping(value = "{auditTrailId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @CustomPreAuthorize(action = AuditTrailConstant.READ, entity = AuditTrailConstant.ENTITY)
+    @ConditionalGet(resolver = AuditTrailByIdVersionResolver.class)
     public ResponseEntity<ApiResponse<AuditTrailData>> getAuditTrailByDetails(@PathVariable("auditTrailId") final Long auditTrailId) {
         final var result = auditTrailService.getAuditTrailById(auditTrailId);
         final var response = new ApiResponse<>(result);
@@ -0,0 +1,7 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+/**
+ * Requests of one IP within the range of /audit-trails/stats/ips.
+ */
+public record AuditIpStatsData(String ip, long total, long failures) {
+}
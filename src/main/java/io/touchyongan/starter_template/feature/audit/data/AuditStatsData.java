@@ -0,0 +1,29 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * One bucket of /audit-trails/stats, dimensions not grouped by are left out.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditStatsData {
+    private LocalDateTime bucket;
+    private String entity;
+    private String action;
+    private String status;
+    private String username;
+    private long total;
+
+    public String getBucket() {
+        return Optional.ofNullable(bucket)
+                .map(LocalDateTime::toString)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,15 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum AuditStatsDimension {
+    ENTITY("entity"),
+    ACTION("\"action\""),
+    STATUS("status"),
+    USERNAME("username");
+
+    private final String column;
+}
@@ -0,0 +1,66 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import io.touchyongan.starter_template.common.exception.custom.BaseApiException;
+import io.touchyongan.starter_template.common.exception.custom.impl.GeneralError;
+import io.touchyongan.starter_template.common.util.AppUtil;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Setter
+public class AuditStatsFilter {
+    public static final int MAX_LIMIT = 10_000;
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+
+    private AuditStatsInterval interval;
+    private List<AuditStatsDimension> groupBy;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String entity;
+    private String action;
+    private String status;
+    private String username;
+    private int limit;
+
+    /**
+     * Default range is the last 24 hours for HOUR, the last 30 days otherwise.
+     */
+    public static AuditStatsFilter of(final String interval,
+                                      final List<String> groupBy,
+                                      final LocalDateTime startDate,
+                                      final LocalDateTime endDate,
+                                      final int limit) {
+        final var filter = new AuditStatsFilter();
+        filter.setInterval(AppUtil.parseEnumParameter(AuditStatsInterval.class, "interval", interval));
+        final var dimensions = new ArrayList<AuditStatsDimension>();
+        for (final var dimension : Objects.requireNonNullElse(groupBy, List.<String>of())) {
+            final var parsed = AppUtil.parseEnumParameter(AuditStatsDimension.class, "groupBy", dimension);
+            if (!dimensions.contains(parsed)) {
+                dimensions.add(parsed);
+            }
+        }
+        filter.setGroupBy(dimensions);
+        final var end = Objects.requireNonNullElseGet(endDate, LocalDateTime::now);
+        final var start = Objects.requireNonNullElseGet(startDate,
+                () -> filter.getInterval() == AuditStatsInterval.HOUR ? end.minusHours(24) : end.minusDays(30));
+        if (!start.isBefore(end)) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "startDate", start, "Must be before endDate.");
+        }
+        if (filter.getInterval() == AuditStatsInterval.HOUR && Duration.between(start, end).compareTo(MAX_HOURLY_RANGE) > 0) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "startDate", start, "Hourly range is at most 31 days.");
+        }
+        filter.setStartDate(start);
+        filter.setEndDate(end);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "limit", limit, "Must be between 1 and %d.".formatted(MAX_LIMIT));
+        }
+        filter.setLimit(limit);
+        return filter;
+    }
+}
@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bucket of /audit-trails/stats, TOTAL sums the whole range from daily rollups.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AuditStatsInterval {
+    HOUR("audit_trail_rollup_hourly", "hour"),
+    DAY("audit_trail_rollup_daily", "day"),
+    TOTAL("audit_trail_rollup_daily", "day");
+
+    private final String table;
+    private final String unit;
+}
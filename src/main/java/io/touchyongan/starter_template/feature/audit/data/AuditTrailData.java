@@ -1,12 +1,12 @@
 package io.touchyongan.starter_template.feature.audit.data;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import io.touchyongan.starter_template.common.data.RawJson;
 import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Optional;
 
 @Getter
@@ -20,13 +20,13 @@ public class AuditTrailData {
     private String httpMethod;
     private String requestUrl;
     private String requestParams;
-    private Map<String, Object> requestBody;
+    private RawJson requestBody;
     private String ip;
     private Long userId;
     private String username;
     private ActionStatus status;
-    private Map<String, Object> newValue;
-    private Map<String, Object> oldValue;
+    private RawJson newValue;
+    private RawJson oldValue;
     private String errorMessage;
     private LocalDateTime createdAt;
 
@@ -54,8 +54,8 @@ public class AuditTrailFilter extends BaseFilterWithPagination<AuditTrail> {
         searchCriteriaList.add(filterStartDate());
         searchCriteriaList.add(filterEndDate());
 
-        // Add defaults filter to exclude audit log of view audit trail
-        searchCriteriaList.add(SearchCriteria.newSearchCriteria("entity", SearchOperator.NOT_EQUAL, AuditTrailConstant.ENTITY));
+        // Add defaults filter to exclude audit log of view audit trail, it is the condition of partial indexes of audit_trail
+        searchCriteriaList.add(SearchCriteria.newFixedSearchCriteria("entity", SearchOperator.NOT_EQUAL, AuditTrailConstant.ENTITY));
     }
 
     private SearchCriteria filterResourceIds() {
@@ -11,6 +11,5 @@ import java.util.List;
 @Accessors(chain = true)
 public class AuditTrailFilterTemplate {
     private List<EntityAction> entityActions;
-    private List<String> username;
     private List<String> status;
 }
@@ -0,0 +1,14 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AuditTrailLookupRequest {
+    public static final int MAX_IDS = 50_000;
+
+    private List<Long> ids;
+}
@@ -1,19 +1,19 @@
 package io.touchyongan.starter_template.feature.audit.entity;
 
 import io.touchyongan.starter_template.common.base.CustomPersistable;
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.infrastructure.jpa.RawJsonType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Entity
 @Table(name = "audit_trail")
@@ -44,8 +44,8 @@ public class AuditTrail extends CustomPersistable {
     private String traceId;
 
     @Column(name = "request_body")
-    @JdbcTypeCode(SqlTypes.JSON)
-    private Map<String, Object> requestBody;
+    @Type(RawJsonType.class)
+    private RawJson requestBody;
 
     // Answer who is performed action on system
     @Column(name = "ip")
@@ -62,12 +62,12 @@ public class AuditTrail extends CustomPersistable {
     private ActionStatus status;
 
     @Column(name = "new_value")
-    @JdbcTypeCode(SqlTypes.JSON)
-    private Map<String, Object> newValue;
+    @Type(RawJsonType.class)
+    private RawJson newValue;
 
     @Column(name = "old_value")
-    @JdbcTypeCode(SqlTypes.JSON)
-    private Map<String, Object> oldValue;
+    @Type(RawJsonType.class)
+    private RawJson oldValue;
 
     @Column(name = "error_message")
     private String errorMessage;
@@ -0,0 +1,113 @@
+package io.touchyongan.starter_template.feature.audit.repository;
+
+import io.touchyongan.starter_template.feature.audit.data.AuditIpStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsDimension;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsFilter;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsInterval;
+import io.touchyongan.starter_template.feature.audit.data.AuditTrailConstant;
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aggregates of audit trail answered from rollup tables, see AuditRollupFolder. Columns and tables come from enums only,
+ * values are bound as parameters. Buckets are aligned to the interval: start date is truncated to its hour or day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditStatsRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<AuditStatsData> findStats(final AuditStatsFilter filter) {
+        final var interval = filter.getInterval();
+        final var bucketed = interval != AuditStatsInterval.TOTAL;
+        final var groupColumns = new ArrayList<String>();
+        if (bucketed) {
+            groupColumns.add("bucket");
+        }
+        filter.getGroupBy().forEach(dimension -> groupColumns.add(dimension.getColumn()));
+
+        final var params = new MapSqlParameterSource()
+                .addValue("unit", interval.getUnit())
+                .addValue("startDate", filter.getStartDate())
+                .addValue("endDate", filter.getEndDate())
+                .addValue("excludedEntity", AuditTrailConstant.ENTITY)
+                .addValue("limit", filter.getLimit());
+        final var sql = new StringBuilder("SELECT ");
+        groupColumns.forEach(column -> sql.append(column).append(", "));
+        sql.append("coalesce(sum(total), 0) AS total FROM ").append(interval.getTable())
+                .append(" WHERE bucket >= date_trunc(:unit, CAST(:startDate AS timestamp)) AND bucket < :endDate")
+                // Same default as audit trail list, reads of audit trails are not counted
+                .append(" AND entity <> :excludedEntity");
+        appendEqual(sql, params, AuditStatsDimension.ENTITY, filter.getEntity());
+        appendEqual(sql, params, AuditStatsDimension.ACTION, filter.getAction());
+        appendEqual(sql, params, AuditStatsDimension.STATUS,
+                StringUtils.hasText(filter.getStatus()) ? ActionStatus.from(filter.getStatus()).getStatus() : null);
+        appendEqual(sql, params, AuditStatsDimension.USERNAME, filter.getUsername());
+        if (!groupColumns.isEmpty()) {
+            sql.append(" GROUP BY ").append(String.join(", ", groupColumns));
+        }
+        sql.append(bucketed ? " ORDER BY bucket, total DESC" : " ORDER BY total DESC").append(" LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            final var data = new AuditStatsData();
+            if (bucketed) {
+                data.setBucket(rs.getObject("bucket", LocalDateTime.class));
+            }
+            for (final var dimension : filter.getGroupBy()) {
+                final var value = rs.getString(dimension.name().toLowerCase(Locale.ROOT));
+                switch (dimension) {
+                    case ENTITY -> data.setEntity(value);
+                    case ACTION -> data.setAction(value);
+                    case STATUS -> data.setStatus(value);
+                    case USERNAME -> data.setUsername(value);
+                }
+            }
+            data.setTotal(rs.getLong("total"));
+            return data;
+        });
+    }
+
+    /**
+     * @param orderByFailures order by failed requests instead of all requests
+     */
+    public List<AuditIpStatsData> findTopIps(final LocalDateTime startDate,
+                                             final LocalDateTime endDate,
+                                             final boolean orderByFailures,
+                                             final int limit) {
+        final var params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("limit", limit);
+        final var order = orderByFailures ? "failures DESC, total DESC" : "total DESC, failures DESC";
+        return jdbcTemplate.query("""
+                SELECT ip, sum(total) AS total, sum(failures) AS failures
+                FROM audit_trail_rollup_ip_daily
+                WHERE bucket >= date_trunc('day', CAST(:startDate AS timestamp)) AND bucket < :endDate
+                GROUP BY ip
+                ORDER BY %s
+                LIMIT :limit
+                """.formatted(order), params, (rs, rowNum) -> new AuditIpStatsData(rs.getString("ip"), rs.getLong("total"), rs.getLong("failures")));
+    }
+
+    private static void appendEqual(final StringBuilder sql,
+                                    final MapSqlParameterSource params,
+                                    final AuditStatsDimension dimension,
+                                    final String value) {
+        if (!StringUtils.hasText(value)) {
+            return;
+        }
+        final var param = dimension.name().toLowerCase(Locale.ROOT);
+        sql.append(" AND ").append(dimension.getColumn()).append(" = :").append(param);
+        params.addValue(param, value);
+    }
+}
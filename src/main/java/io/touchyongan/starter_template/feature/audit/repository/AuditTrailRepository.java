@@ -3,6 +3,12 @@ package io.touchyongan.starter_template.feature.audit.repository;
 import io.touchyongan.starter_template.common.base.BaseRepository;
 import io.touchyongan.starter_template.common.specification.BaseProjectionRepository;
 import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AuditTrailRepository extends BaseRepository<AuditTrail>, BaseProjectionRepository<AuditTrail> {
+
+    // xmin is the id of the transaction which wrote the current row version, it changes on every update of the row
+    @Query(value = "SELECT CAST(xmin AS text) FROM audit_trail WHERE id = :id", nativeQuery = true)
+    String findRowVersion(@Param("id") Long id);
 }
@@ -0,0 +1,54 @@
+package io.touchyongan.starter_template.feature.audit.rollup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Rebuild audit trail rollups from all rows of audit_trail, e.g. after importing historical audit rows with lower ids.
+ * Safe while the application is running, its scheduled fold waits for each chunk and then continues from there.
+ * Usage: DB_PASSWORD=... gradle auditRollupBackfill -Paudit.rollup.url=jdbc:postgresql://localhost:5432/sample -Paudit.rollup.username=...
+ * [-Paudit.rollup.chunkSize=100000]
+ * Connection has no default, url, username and password come from audit.rollup.* or DB_URL, DB_USERNAME, DB_PASSWORD
+ * like the application.
+ */
+@Slf4j
+public final class AuditRollupBackfillTool {
+
+    private AuditRollupBackfillTool() {
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final var dataSource = new DriverManagerDataSource(
+                requiredSetting("audit.rollup.url", "DB_URL"),
+                requiredSetting("audit.rollup.username", "DB_USERNAME"),
+                requiredSetting("audit.rollup.password", "DB_PASSWORD"));
+        final var chunkSize = Long.getLong("audit.rollup.chunkSize", 100_000);
+        final var folder = new AuditRollupFolder(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), chunkSize);
+
+        final var start = System.currentTimeMillis();
+        folder.reset();
+        // foldAll stops early while audit inserts older than the ceiling are still running
+        var folded = folder.foldAll();
+        while (!folder.isCaughtUp()) {
+            Thread.sleep(1000);
+            folded += folder.foldAll();
+        }
+        log.info("Backfilled audit trail rollups from {} ids in {} ms", folded, System.currentTimeMillis() - start);
+    }
+
+    private static String requiredSetting(final String property,
+                                          final String environmentVariable) {
+        final var value = Optional.ofNullable(System.getProperty(property)).orElseGet(() -> System.getenv(environmentVariable));
+        if (Objects.isNull(value) || value.isBlank()) {
+            throw new IllegalArgumentException("Set -P%s or %s".formatted(property, environmentVariable));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package io.touchyongan.starter_template.feature.audit.rollup;
+
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Fold audit_trail rows into hourly, daily and daily-IP rollups, a chunk of ids per transaction.
+ * The state row is locked for the whole transaction, so several instances or the backfill tool can run at the same time.
+ * Rows are folded up to the max(id) seen by a previous call (ceiling_id), but only once every transaction that was
+ * in progress when the ceiling was taken has ended (snapshot xmin reached ceiling_xmax). An insert still running then
+ * may hold ids below the ceiling, however long it takes, e.g. a segment shipped in one transaction.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AuditRollupFolder {
+    static final String STATE_NAME = "audit_trail";
+    private static final String LOCK_STATE_SQL = """
+            SELECT last_id, ceiling_id, ceiling_xmax, pg_snapshot_xmin(pg_current_snapshot())::text::int8
+            FROM audit_trail_rollup_state WHERE name = ? FOR UPDATE
+            """;
+    private static final String MOVE_CEILING_SQL = """
+            UPDATE audit_trail_rollup_state
+            SET ceiling_id = greatest(last_id, (SELECT coalesce(max(id), 0) FROM audit_trail)),
+                ceiling_xmax = pg_snapshot_xmax(pg_current_snapshot())::text::int8, updated_at = now()
+            WHERE name = ?
+            """;
+    // Source rows are read once, hourly groups are rolled into daily ones
+    private static final String FOLD_SQL = """
+            WITH hourly AS (
+                SELECT date_trunc('hour', created_at) AS bucket, coalesce(entity, '') AS entity, coalesce("action", '') AS "action",
+                       coalesce(status, '') AS status, coalesce(username, '') AS username, count(*) AS total
+                FROM audit_trail
+                WHERE id > ? AND id <= ? AND created_at IS NOT NULL
+                GROUP BY 1, 2, 3, 4, 5
+            ), upsert_hourly AS (
+                INSERT INTO audit_trail_rollup_hourly AS r (bucket, entity, "action", status, username, total)
+                SELECT bucket, entity, "action", status, username, total FROM hourly
+                ON CONFLICT (bucket, entity, "action", status, username) DO UPDATE SET total = r.total + EXCLUDED.total
+            )
+            INSERT INTO audit_trail_rollup_daily AS r (bucket, entity, "action", status, username, total)
+            SELECT date_trunc('day', bucket), entity, "action", status, username, sum(total) FROM hourly
+            GROUP BY 1, 2, 3, 4, 5
+            ON CONFLICT (bucket, entity, "action", status, username) DO UPDATE SET total = r.total + EXCLUDED.total
+            """;
+    private static final String FOLD_IP_SQL = """
+            INSERT INTO audit_trail_rollup_ip_daily AS r (bucket, ip, total, failures)
+            SELECT date_trunc('day', created_at), coalesce(ip, ''), count(*), count(*) FILTER (WHERE status = ?)
+            FROM audit_trail
+            WHERE id > ? AND id <= ? AND created_at IS NOT NULL
+            GROUP BY 1, 2
+            ON CONFLICT (bucket, ip) DO UPDATE SET total = r.total + EXCLUDED.total, failures = r.failures + EXCLUDED.failures
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long chunkSize;
+
+    /**
+     * Fold next chunk of ids, or move the ceiling to current max(id) when the previous one is reached.
+     *
+     * @return number of ids folded, 0 when caught up or still waiting for transactions older than the ceiling
+     */
+    public long foldNext() {
+        return Objects.requireNonNull(transactionTemplate.execute(status -> {
+            final var state = lockState();
+            if (state.lastId() >= state.ceilingId()) {
+                jdbcTemplate.update(MOVE_CEILING_SQL, STATE_NAME);
+                return 0L;
+            }
+            if (state.snapshotXmin() < state.ceilingXmax()) {
+                return 0L;
+            }
+            final var lastId = state.lastId();
+            final var toId = Math.min(state.ceilingId(), lastId + chunkSize);
+            jdbcTemplate.update(FOLD_SQL, lastId, toId);
+            jdbcTemplate.update(FOLD_IP_SQL, ActionStatus.FAILURE.getStatus(), lastId, toId);
+            jdbcTemplate.update("UPDATE audit_trail_rollup_state SET last_id = ?, updated_at = now() WHERE name = ?", toId, STATE_NAME);
+            return toId - lastId;
+        }));
+    }
+
+    /**
+     * Fold until caught up with the ceiling.
+     *
+     * @return number of ids folded
+     */
+    public long foldAll() {
+        var folded = 0L;
+        long chunk;
+        while ((chunk = foldNext()) > 0) {
+            folded += chunk;
+        }
+        return folded;
+    }
+
+    /**
+     * @return true when every id below the current ceiling is folded
+     */
+    public boolean isCaughtUp() {
+        final var state = Objects.requireNonNull(transactionTemplate.execute(status -> lockState()));
+        return state.lastId() >= state.ceilingId();
+    }
+
+    /**
+     * Drop all rollups and start again from the first audit row, folded by next calls of foldNext.
+     */
+    public void reset() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lockState();
+            jdbcTemplate.execute("TRUNCATE audit_trail_rollup_hourly, audit_trail_rollup_daily, audit_trail_rollup_ip_daily");
+            jdbcTemplate.update("UPDATE audit_trail_rollup_state SET last_id = 0 WHERE name = ?", STATE_NAME);
+            jdbcTemplate.update(MOVE_CEILING_SQL, STATE_NAME);
+        });
+    }
+
+    private State lockState() {
+        return jdbcTemplate.queryForObject(LOCK_STATE_SQL, (rs, rowNum) -> new State(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                STATE_NAME);
+    }
+
+    private record State(long lastId,
+                         long ceilingId,
+                         long ceilingXmax,
+                         long snapshotXmin) {
+    }
+}
@@ -0,0 +1,35 @@
+package io.touchyongan.starter_template.feature.audit.rollup;
+
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditRollupScheduler {
+    private final AuditRollupFolder auditRollupFolder;
+
+    @Value("${audit.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(fixedDelayString = "${audit.rollup.interval}")
+    @UsePool(PoolName.AUDIT)
+    public void fold() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            final var folded = auditRollupFolder.foldAll();
+            if (folded > 0) {
+                log.debug("Folded {} audit trail ids into rollups", folded);
+            }
+        } catch (final RuntimeException e) {
+            log.warn("Error fold audit trail rollups, retry on next run", e);
+        }
+    }
+}
@@ -1,18 +1,49 @@
 package io.touchyongan.starter_template.feature.audit.service;
 
 import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.feature.audit.data.AuditIpStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailData;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilterTemplate;
 import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AuditTrailService {
 
     AuditTrailFilterTemplate getFilterTemplate();
 
+    String getFilterTemplateVersion();
+
+    /**
+     * Search usernames as of the last {@link #refreshUsernames()}, without reading database.
+     */
+    CustomPage<String> searchUsernames(final String query, final Pageable pageable);
+
+    /**
+     * Apply users changed since the last refresh and return the version of usernames, called once per request.
+     */
+    String refreshUsernames();
+
     CustomPage<AuditTrailData> getAllAuditTrails(final AuditTrailFilter filter);
 
+    long countAuditTrails(final AuditTrailFilter filter);
+
+    List<Long> findAuditTrailIds(final AuditTrailFilter filter);
+
     AuditTrailData getAuditTrailById(final Long auditTrailId);
 
+    List<AuditTrailData> getAuditTrailsByIds(final List<Long> auditTrailIds);
+
+    String getAuditTrailVersion(final Long auditTrailId);
+
     void saveAuditLogAsync(final AuditTrail auditTrail);
+
+    List<AuditStatsData> getStats(final AuditStatsFilter filter);
+
+    List<AuditIpStatsData> getTopIps(final LocalDateTime startDate, final LocalDateTime endDate, final boolean orderByFailures, final int limit);
 }
@@ -1,48 +1,59 @@
 package io.touchyongan.starter_template.feature.audit.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.touchyongan.starter_template.common.data.CustomPage;
-import io.touchyongan.starter_template.feature.audit.annotation.RegisterEntityAction;
+import io.touchyongan.starter_template.feature.audit.cache.AuditTrailFilterTemplateCache;
+import io.touchyongan.starter_template.feature.audit.data.AuditIpStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsData;
+import io.touchyongan.starter_template.feature.audit.data.AuditStatsFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailData;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilter;
 import io.touchyongan.starter_template.feature.audit.data.AuditTrailFilterTemplate;
-import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
 import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.repository.AuditStatsRepository;
 import io.touchyongan.starter_template.feature.audit.repository.AuditTrailRepository;
 import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
-import io.touchyongan.starter_template.feature.user.entity.AppUser;
-import io.touchyongan.starter_template.feature.user.repository.AppUserRepository;
+import io.touchyongan.starter_template.feature.audit.sink.AuditSink;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class AuditTrailServiceImpl implements AuditTrailService {
     private final AuditTrailRepository auditTrailRepository;
-    private final AppUserRepository appUserRepository;
-    private final ObjectMapper objectMapper;
-    private final RegisterEntityAction registerEntityAction;
+    private final AuditStatsRepository auditStatsRepository;
+    private final AuditSink auditSink;
+    private final AuditTrailFilterTemplateCache auditTrailFilterTemplateCache;
 
-    @Transactional(readOnly = true)
+    @Override
     public AuditTrailFilterTemplate getFilterTemplate() {
-        final var statuses = Arrays.stream(ActionStatus.values())
-                .filter(s -> s != ActionStatus.UNKNOWN)
-                .map(ActionStatus::getStatus)
-                .toList();
-        final var usernames = appUserRepository
-                .findBySpecificationWithListOfSingleFieldProjection(null, String.class, AppUser.class, "username", Sort.Direction.ASC);
-        return new AuditTrailFilterTemplate()
-                .setEntityActions(registerEntityAction.getEntityAction())
-                .setStatus(statuses)
-                .setUsername(usernames);
+        return auditTrailFilterTemplateCache.getTemplate();
+    }
+
+    @Override
+    public String getFilterTemplateVersion() {
+        return auditTrailFilterTemplateCache.getTemplateVersion();
+    }
+
+    @Override
+    public CustomPage<String> searchUsernames(final String query,
+                                              final Pageable pageable) {
+        return auditTrailFilterTemplateCache.searchUsernames(query, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String refreshUsernames() {
+        return auditTrailFilterTemplateCache.refreshUsernames();
     }
 
     @Transactional(readOnly = true)
@@ -52,25 +63,57 @@ public class AuditTrailServiceImpl implements AuditTrailService {
         return auditTrailRepository.findAllWithSpecification(spec, pageable, AuditTrailData.class, AuditTrail.class);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long countAuditTrails(final AuditTrailFilter filter) {
+        return auditTrailRepository.countWithSpecification(filter.getSpecification(), AuditTrail.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findAuditTrailIds(final AuditTrailFilter filter) {
+        return auditTrailRepository.findIdsWithSpecification(filter.getSpecification(), filter.getPageable(), AuditTrail.class);
+    }
+
     @Transactional(readOnly = true)
     public AuditTrailData getAuditTrailById(final Long auditTrailId) {
         return auditTrailRepository.findByIdWithProjection(auditTrailId, AuditTrailData.class, AuditTrail.class);
     }
 
+    /**
+     * No transaction, chunks of large lookups are fetched in parallel on their own connections.
+     */
+    @Override
+    public List<AuditTrailData> getAuditTrailsByIds(final List<Long> auditTrailIds) {
+        return auditTrailRepository.findAllByIdWithProjection(auditTrailIds, AuditTrailData.class, AuditTrail.class,
+                AuditTrailData::getId, true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAuditTrailVersion(final Long auditTrailId) {
+        return auditTrailRepository.findRowVersion(auditTrailId);
+    }
+
     @Async
+    @UsePool(PoolName.AUDIT)
     @Override
     public void saveAuditLogAsync(final AuditTrail auditTrail) {
-        try {
-            auditTrailRepository.save(auditTrail);
-        } catch (final Exception e) {
-            var logJson = "";
-            try {
-                logJson = objectMapper.writeValueAsString(auditTrail);
-            } catch (final JsonProcessingException ex) {
-                log.warn("Error convert audit trail to json: ", e);
-                throw new RuntimeException(ex);
-            }
-            log.warn("Error save audit trail: {}", logJson, e);
-        }
+        auditSink.write(auditTrail);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditStatsData> getStats(final AuditStatsFilter filter) {
+        return auditStatsRepository.findStats(filter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditIpStatsData> getTopIps(final LocalDateTime startDate,
+                                            final LocalDateTime endDate,
+                                            final boolean orderByFailures,
+                                            final int limit) {
+        return auditStatsRepository.findTopIps(startDate, endDate, orderByFailures, limit);
     }
 }
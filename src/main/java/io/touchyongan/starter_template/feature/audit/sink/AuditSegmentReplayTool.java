@@ -0,0 +1,59 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.touchyongan.starter_template.feature.audit.sink.segment.SegmentWriter;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Offline load of audit segments left on disk, e.g. volume of a lost node or file sink with shipping disabled.
+ * The application writing to the directory must be stopped, the active segment is recovered and closed first.
+ * Usage: DB_PASSWORD=... gradle auditReplay -Paudit.replay.directory=data/audit -Paudit.replay.url=jdbc:postgresql://localhost:5432/sample
+ * -Paudit.replay.username=... -Paudit.replay.noCopy=true loads with batch insert instead of COPY.
+ * Connection has no default, url, username and password come from audit.replay.* or DB_URL, DB_USERNAME, DB_PASSWORD
+ * like the application. Prefer the environment variable for the password, a -P value is visible in the process list.
+ */
+@Slf4j
+public final class AuditSegmentReplayTool {
+
+    private AuditSegmentReplayTool() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var directory = Path.of(System.getProperty("audit.replay.directory", "data/audit"));
+        final var dataSource = new DriverManagerDataSource(
+                requiredSetting("audit.replay.url", "DB_URL"),
+                requiredSetting("audit.replay.username", "DB_USERNAME"),
+                requiredSetting("audit.replay.password", "DB_PASSWORD"));
+        final var batchSize = Integer.getInteger("audit.replay.batchSize", 1000);
+
+        SegmentWriter.recover(directory);
+        final var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        final var bulkIngester = new BulkIngester(new JdbcTemplate(dataSource), transactionTemplate, new StageMetrics(new SimpleMeterRegistry()),
+                !Boolean.getBoolean("audit.replay.noCopy"), 64 * 1024);
+        final var shipper = new AuditSegmentShipper(directory, bulkIngester, transactionTemplate,
+                new ObjectMapper().registerModule(new JavaTimeModule()), batchSize);
+        final var shipped = shipper.shipClosedSegments();
+        log.info("Replayed {} audit segments of {}", shipped, directory.toAbsolutePath());
+    }
+
+    private static String requiredSetting(final String property,
+                                          final String environmentVariable) {
+        final var value = Optional.ofNullable(System.getProperty(property)).orElseGet(() -> System.getenv(environmentVariable));
+        if (Objects.isNull(value) || value.isBlank()) {
+            throw new IllegalArgumentException("Set -P%s or %s".formatted(property, environmentVariable));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,95 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.sink.segment.AuditRecordCodec;
+import io.touchyongan.starter_template.feature.audit.sink.segment.SegmentReader;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bulk-load (COPY) closed segments of FileAuditSink into audit_trail in write order, one transaction per segment,
+ * segment is deleted once committed. Delivery is at least once: crash between commit and delete loads the segment again.
+ * A segment with corrupt frame is loaded up to that frame and renamed to .corrupt for inspection.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AuditSegmentShipper {
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    private final Path directory;
+    private final BulkIngester bulkIngester;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    /**
+     * Stop at first failure, e.g. database unavailable, remaining segments are retried on next call.
+     *
+     * @return number of segments shipped
+     */
+    public int shipClosedSegments() {
+        var shipped = 0;
+        try {
+            for (final var segment : SegmentReader.closedSegments(directory)) {
+                ship(segment);
+                shipped++;
+            }
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Error ship audit segments of {}, {} shipped, retry later", directory, shipped, e);
+        }
+        return shipped;
+    }
+
+    public long ship(final Path segment) throws IOException {
+        final var start = System.nanoTime();
+        final var result = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            final var batch = new ArrayList<AuditTrail>(batchSize);
+            try {
+                final var read = SegmentReader.read(segment, payload -> {
+                    batch.add(AuditRecordCodec.decode(payload));
+                    if (batch.size() == batchSize) {
+                        ingest(batch);
+                    }
+                });
+                if (!batch.isEmpty()) {
+                    ingest(batch);
+                }
+                return read;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        if (result.complete()) {
+            Files.delete(segment);
+        } else {
+            final var corrupt = segment.resolveSibling(segment.getFileName() + CORRUPT_SUFFIX);
+            Files.move(segment, corrupt);
+            log.error("Audit segment {} is corrupt after {} records at byte {}, kept as {}",
+                    segment, result.records(), result.validBytes(), corrupt.getFileName());
+        }
+        log.info("Shipped audit segment {}: {} records in {} ms", segment.getFileName(), result.records(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result.records();
+    }
+
+    /**
+     * Rows rejected by the database would fail the segment on every retry, they are logged as lost instead.
+     */
+    private void ingest(final List<AuditTrail> batch) {
+        bulkIngester.ingest(AuditTrailBulkTable.INSTANCE, batch)
+                .failed()
+                .forEach(auditTrail -> AuditSinks.logLost(objectMapper, auditTrail, null));
+        batch.clear();
+    }
+}
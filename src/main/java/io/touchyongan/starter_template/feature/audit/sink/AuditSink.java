@@ -0,0 +1,25 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+
+/**
+ * Destination of captured audit trails, selected by audit.sink.type, see AuditSinkConfig.
+ * write is called from the async audit executor, never from request thread. Implementations must not throw,
+ * a record which cannot be written is logged instead.
+ */
+public interface AuditSink {
+
+    void write(AuditTrail auditTrail);
+
+    /**
+     * Periodic housekeeping every audit.sink.flush-interval on the audit pool: drain queue, fsync, roll segment.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Called on shutdown, pending records must be written.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,33 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import io.touchyongan.starter_template.config.properties.AuditSinkProperties;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodic work of audit sink, database access goes to the audit pool.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditSinkScheduler {
+    private final AuditSink auditSink;
+    private final AuditSegmentShipper auditSegmentShipper;
+    private final AuditSinkProperties auditSinkProperties;
+
+    @Scheduled(fixedDelayString = "${audit.sink.flush-interval}")
+    @UsePool(PoolName.AUDIT)
+    public void flush() {
+        auditSink.flush();
+    }
+
+    @Scheduled(fixedDelayString = "${audit.sink.file.ship-interval}")
+    @UsePool(PoolName.AUDIT)
+    public void ship() {
+        if (auditSinkProperties.getType() == AuditSinkType.FILE && auditSinkProperties.getFile().isShipEnabled()) {
+            auditSegmentShipper.shipClosedSegments();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+public enum AuditSinkType {
+    // One INSERT per record through AuditTrailRepository
+    JPA,
+    // Queued and written by JDBC batch insert every flush interval
+    BATCH,
+    // Append-only segment log on local disk, shipped to database by AuditSegmentShipper
+    FILE
+}
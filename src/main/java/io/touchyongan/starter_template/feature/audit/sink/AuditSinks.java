@@ -0,0 +1,26 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+final class AuditSinks {
+
+    private AuditSinks() {
+    }
+
+    /**
+     * Last resort of every sink: the record goes to application log as JSON, so it can still be recovered from there.
+     */
+    static void logLost(final ObjectMapper objectMapper,
+                        final AuditTrail auditTrail,
+                        final Exception cause) {
+        try {
+            log.warn("Error save audit trail: {}", objectMapper.writeValueAsString(auditTrail), cause);
+        } catch (final JsonProcessingException e) {
+            log.warn("Error convert audit trail to json: ", cause);
+        }
+    }
+}
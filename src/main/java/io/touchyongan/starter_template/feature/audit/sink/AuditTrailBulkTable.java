@@ -0,0 +1,89 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkTable;
+import io.touchyongan.starter_template.infrastructure.bulk.PgBinaryCopyWriter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * audit_trail rows of BatchAuditSink, AuditSegmentShipper and AuditSegmentReplayTool.
+ */
+public class AuditTrailBulkTable implements BulkTable<AuditTrail> {
+    public static final AuditTrailBulkTable INSTANCE = new AuditTrailBulkTable();
+
+    private static final List<String> COLUMNS = List.of("entity", "action", "resource_id", "ip", "status", "http_method", "request_url",
+            "request_params", "request_body", "user_id", "username", "new_value", "old_value", "error_message", "created_at", "trace_id");
+    private static final List<String> PLACEHOLDERS = List.of("?", "?", "?", "?", "?", "?", "?",
+            "?", "?::jsonb", "?", "?", "?::jsonb", "?::jsonb", "?", "?", "?");
+
+    private AuditTrailBulkTable() {
+    }
+
+    @Override
+    public String getTable() {
+        return "audit_trail";
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public List<String> getPlaceholders() {
+        return PLACEHOLDERS;
+    }
+
+    @Override
+    public void encode(final AuditTrail auditTrail,
+                       final PgBinaryCopyWriter writer) throws SQLException {
+        writer.startRow(COLUMNS.size())
+                .putText(auditTrail.getEntity())
+                .putText(auditTrail.getAction())
+                .putInt8(auditTrail.getResourceId())
+                .putText(auditTrail.getIp())
+                .putText(status(auditTrail))
+                .putText(auditTrail.getHttpMethod())
+                .putText(auditTrail.getRequestUrl())
+                .putText(auditTrail.getRequestParams())
+                .putJsonb(Objects.toString(auditTrail.getRequestBody(), null))
+                .putInt8(auditTrail.getUserId())
+                .putText(auditTrail.getUsername())
+                .putJsonb(Objects.toString(auditTrail.getNewValue(), null))
+                .putJsonb(Objects.toString(auditTrail.getOldValue(), null))
+                .putText(auditTrail.getErrorMessage())
+                .putTimestamp(auditTrail.getCreatedAt())
+                .putText(auditTrail.getTraceId());
+    }
+
+    @Override
+    public void bind(final PreparedStatement statement,
+                     final AuditTrail auditTrail) throws SQLException {
+        statement.setString(1, auditTrail.getEntity());
+        statement.setString(2, auditTrail.getAction());
+        statement.setObject(3, auditTrail.getResourceId(), Types.BIGINT);
+        statement.setString(4, auditTrail.getIp());
+        statement.setString(5, status(auditTrail));
+        statement.setString(6, auditTrail.getHttpMethod());
+        statement.setString(7, auditTrail.getRequestUrl());
+        statement.setString(8, auditTrail.getRequestParams());
+        statement.setString(9, Objects.toString(auditTrail.getRequestBody(), null));
+        statement.setObject(10, auditTrail.getUserId(), Types.BIGINT);
+        statement.setString(11, auditTrail.getUsername());
+        statement.setString(12, Objects.toString(auditTrail.getNewValue(), null));
+        statement.setString(13, Objects.toString(auditTrail.getOldValue(), null));
+        statement.setString(14, auditTrail.getErrorMessage());
+        statement.setTimestamp(15, Objects.isNull(auditTrail.getCreatedAt()) ? null : Timestamp.valueOf(auditTrail.getCreatedAt()));
+        statement.setString(16, auditTrail.getTraceId());
+    }
+
+    private static String status(final AuditTrail auditTrail) {
+        return Objects.isNull(auditTrail.getStatus()) ? null : auditTrail.getStatus().getStatus();
+    }
+}
@@ -0,0 +1,69 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Audit trails are queued and written every flush interval by BulkIngester (COPY), one transaction per batch.
+ * When the queue is full the writing thread (audit executor) flushes itself, so bursts slow down audit writes
+ * instead of growing memory.
+ */
+@Slf4j
+public class BatchAuditSink implements AuditSink {
+    private final BulkIngester bulkIngester;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditTrail> queue;
+    private final int batchSize;
+
+    public BatchAuditSink(final BulkIngester bulkIngester,
+                          final ObjectMapper objectMapper,
+                          final int queueCapacity,
+                          final int batchSize) {
+        this.bulkIngester = bulkIngester;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(final AuditTrail auditTrail) {
+        if (Objects.isNull(auditTrail.getCreatedAt())) {
+            auditTrail.setCreatedAt(LocalDateTime.now());
+        }
+        while (!queue.offer(auditTrail)) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        final var batch = new ArrayList<AuditTrail>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                final var result = bulkIngester.ingest(AuditTrailBulkTable.INSTANCE, batch);
+                result.failed().forEach(auditTrail -> AuditSinks.logLost(objectMapper, auditTrail, null));
+            } catch (final Exception e) {
+                log.warn("Error write batch of {} audit trails", batch.size(), e);
+                batch.forEach(auditTrail -> AuditSinks.logLost(objectMapper, auditTrail, e));
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
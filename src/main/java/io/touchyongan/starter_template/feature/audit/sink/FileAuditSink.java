@@ -0,0 +1,57 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.sink.segment.AuditRecordCodec;
+import io.touchyongan.starter_template.feature.audit.sink.segment.SegmentWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Audit trails are appended to local segment log at disk speed, database is not touched on write path.
+ * Closed segments are shipped to database by AuditSegmentShipper, so a slow or unavailable database only delays them.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FileAuditSink implements AuditSink {
+    private final SegmentWriter segmentWriter;
+    private final ObjectMapper objectMapper;
+    private ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+
+    @Override
+    public synchronized void write(final AuditTrail auditTrail) {
+        if (Objects.isNull(auditTrail.getCreatedAt())) {
+            auditTrail.setCreatedAt(LocalDateTime.now());
+        }
+        try {
+            buffer = AuditRecordCodec.encode(auditTrail, buffer);
+            segmentWriter.append(buffer);
+        } catch (final IOException | RuntimeException e) {
+            AuditSinks.logLost(objectMapper, auditTrail, e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            segmentWriter.sync();
+            segmentWriter.rollIfExpired();
+        } catch (final IOException e) {
+            log.warn("Error flush audit segment", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            segmentWriter.close();
+        } catch (final IOException e) {
+            log.warn("Error close audit segment", e);
+        }
+    }
+}
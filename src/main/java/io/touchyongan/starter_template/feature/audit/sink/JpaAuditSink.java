@@ -0,0 +1,26 @@
+package io.touchyongan.starter_template.feature.audit.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.repository.AuditTrailRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One INSERT per audit trail through JPA.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JpaAuditSink implements AuditSink {
+    private final AuditTrailRepository auditTrailRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void write(final AuditTrail auditTrail) {
+        try {
+            auditTrailRepository.save(auditTrail);
+        } catch (final Exception e) {
+            AuditSinks.logLost(objectMapper, auditTrail, e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.touchyongan.starter_template.feature.audit.sink.segment;
+
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Binary encoding of one audit trail in a segment: format version, then every column in fixed order.
+ * String is int length (-1 for null) followed by UTF-8 bytes, nullable long is a presence byte followed by the value.
+ * Id is not written, it is assigned by database when the record is shipped.
+ */
+public final class AuditRecordCodec {
+    private static final byte FORMAT_VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+
+    private AuditRecordCodec() {
+    }
+
+    /**
+     * @param buffer reused when large enough, cleared before use
+     * @return buffer holding the record ready to be read, a larger one when given buffer is too small
+     */
+    public static ByteBuffer encode(final AuditTrail auditTrail,
+                                    final ByteBuffer buffer) {
+        var target = buffer;
+        while (true) {
+            try {
+                target.clear();
+                write(auditTrail, target);
+                return target.flip();
+            } catch (final BufferOverflowException e) {
+                target = ByteBuffer.allocate(target.capacity() * 2);
+            }
+        }
+    }
+
+    public static AuditTrail decode(final ByteBuffer buffer) {
+        final var version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported audit record format " + version);
+        }
+        final var auditTrail = new AuditTrail();
+        final var createdAt = getLong(buffer);
+        auditTrail.setCreatedAt(Objects.isNull(createdAt) ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(createdAt, 1_000_000),
+                (int) Math.floorMod(createdAt, 1_000_000) * 1_000, ZoneOffset.UTC));
+        final var status = getString(buffer);
+        auditTrail.setStatus(Objects.isNull(status) ? null : ActionStatus.from(status));
+        auditTrail.setEntity(getString(buffer));
+        auditTrail.setAction(getString(buffer));
+        auditTrail.setResourceId(getLong(buffer));
+        auditTrail.setHttpMethod(getString(buffer));
+        auditTrail.setRequestUrl(getString(buffer));
+        auditTrail.setRequestParams(getString(buffer));
+        auditTrail.setRequestBody(RawJson.of(getString(buffer)));
+        auditTrail.setIp(getString(buffer));
+        auditTrail.setUserId(getLong(buffer));
+        auditTrail.setUsername(getString(buffer));
+        auditTrail.setNewValue(RawJson.of(getString(buffer)));
+        auditTrail.setOldValue(RawJson.of(getString(buffer)));
+        auditTrail.setErrorMessage(getString(buffer));
+        auditTrail.setTraceId(getString(buffer));
+        return auditTrail;
+    }
+
+    private static void write(final AuditTrail auditTrail,
+                              final ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        final var createdAt = auditTrail.getCreatedAt();
+        // Microseconds since epoch, same precision as Postgres timestamp
+        putLong(buffer, Objects.isNull(createdAt) ? null
+                : createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000);
+        putString(buffer, Objects.isNull(auditTrail.getStatus()) ? null : auditTrail.getStatus().getStatus());
+        putString(buffer, auditTrail.getEntity());
+        putString(buffer, auditTrail.getAction());
+        putLong(buffer, auditTrail.getResourceId());
+        putString(buffer, auditTrail.getHttpMethod());
+        putString(buffer, auditTrail.getRequestUrl());
+        putString(buffer, auditTrail.getRequestParams());
+        putString(buffer, Objects.toString(auditTrail.getRequestBody(), null));
+        putString(buffer, auditTrail.getIp());
+        putLong(buffer, auditTrail.getUserId());
+        putString(buffer, auditTrail.getUsername());
+        putString(buffer, Objects.toString(auditTrail.getNewValue(), null));
+        putString(buffer, Objects.toString(auditTrail.getOldValue(), null));
+        putString(buffer, auditTrail.getErrorMessage());
+        putString(buffer, auditTrail.getTraceId());
+    }
+
+    private static void putString(final ByteBuffer buffer,
+                                  final String value) {
+        if (Objects.isNull(value)) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putLong(final ByteBuffer buffer,
+                                final Long value) {
+        buffer.put((byte) (Objects.isNull(value) ? 0 : 1));
+        if (Objects.nonNull(value)) {
+            buffer.putLong(value);
+        }
+    }
+
+    private static Long getLong(final ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getLong();
+    }
+}
@@ -0,0 +1,13 @@
+package io.touchyongan.starter_template.feature.audit.sink.segment;
+
+/**
+ * When appended records are forced to disk. Segment is always forced when it is rolled or closed.
+ */
+public enum FsyncPolicy {
+    // Every record, nothing is lost on power failure, slowest
+    ALWAYS,
+    // Every audit.sink.flush-interval, at most one interval is lost on power failure
+    INTERVAL,
+    // Left to operating system, survives process crash but not power failure
+    NEVER
+}
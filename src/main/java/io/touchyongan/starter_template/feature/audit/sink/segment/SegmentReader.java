@@ -0,0 +1,81 @@
+package io.touchyongan.starter_template.feature.audit.sink.segment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Read frames of a segment written by SegmentWriter. The segment is memory-mapped, payloads are passed as slices of it.
+ */
+public final class SegmentReader {
+
+    private SegmentReader() {
+    }
+
+    /**
+     * Pass payload of each valid frame in order, stop at the end or at the first frame which is torn or fails CRC.
+     * Payload buffer is only valid during the call.
+     */
+    public static ReadResult read(final Path segment,
+                                  final Consumer<ByteBuffer> consumer) throws IOException {
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size < SegmentWriter.SEGMENT_HEADER_BYTES) {
+                return new ReadResult(0, 0, false);
+            }
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != SegmentWriter.MAGIC || buffer.getInt() != SegmentWriter.FORMAT_VERSION) {
+                throw new IOException("Not an audit segment of supported format: " + segment);
+            }
+            final var crc = new CRC32C();
+            var records = 0L;
+            while (buffer.remaining() >= SegmentWriter.FRAME_HEADER_BYTES) {
+                final var frameStart = buffer.position();
+                final var length = buffer.getInt();
+                final var expectedCrc = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    buffer.position(frameStart);
+                    break;
+                }
+                final var payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    buffer.position(frameStart);
+                    break;
+                }
+                consumer.accept(payload);
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+            return new ReadResult(records, buffer.position(), buffer.position() == size);
+        }
+    }
+
+    /**
+     * @return closed segments of directory in write order
+     */
+    public static List<Path> closedSegments(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (final var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SegmentWriter.CLOSED_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * @param validBytes length of segment up to the end of last valid frame
+     * @param complete   false when reading stopped before the end of segment
+     */
+    public record ReadResult(long records, long validBytes, boolean complete) {
+    }
+}
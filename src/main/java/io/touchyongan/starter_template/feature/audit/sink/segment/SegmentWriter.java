@@ -0,0 +1,230 @@
+package io.touchyongan.starter_template.feature.audit.sink.segment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only segment log in one directory. Records go to the active segment {id}.active, which is renamed to {id}.seg
+ * once rolled by size or age. Only closed segments are read by AuditSegmentShipper.
+ * Segment layout: magic and format version, then frames of payload length (int), CRC32C of payload (int), payload.
+ * A torn frame left by crash at the end of an active segment is truncated when the directory is opened again.
+ * A frame torn by a failed append is truncated right away, so records appended afterwards are not hidden behind it.
+ */
+@Slf4j
+public final class SegmentWriter implements Closeable {
+    static final int MAGIC = 0x41554453;
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int FRAME_HEADER_BYTES = 8;
+    static final String ACTIVE_SUFFIX = ".active";
+    static final String CLOSED_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final long maxSegmentAgeNanos;
+    private final FsyncPolicy fsyncPolicy;
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private Path activeSegment;
+    private long segmentBytes;
+    private long openedAtNanos;
+    private long lastSegmentId;
+    private boolean dirty;
+
+    private SegmentWriter(final Path directory,
+                          final long maxSegmentBytes,
+                          final Duration maxSegmentAge,
+                          final FsyncPolicy fsyncPolicy,
+                          final long lastSegmentId) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegmentAgeNanos = maxSegmentAge.toNanos();
+        this.fsyncPolicy = fsyncPolicy;
+        this.lastSegmentId = lastSegmentId;
+    }
+
+    public static SegmentWriter open(final Path directory,
+                                     final long maxSegmentBytes,
+                                     final Duration maxSegmentAge,
+                                     final FsyncPolicy fsyncPolicy) throws IOException {
+        recover(directory);
+        final var lastSegmentId = SegmentReader.closedSegments(directory)
+                .stream()
+                .mapToLong(SegmentWriter::segmentId)
+                .max()
+                .orElse(0);
+        return new SegmentWriter(directory, maxSegmentBytes, maxSegmentAge, fsyncPolicy, lastSegmentId);
+    }
+
+    /**
+     * Close active segments left by previous process: valid frames are kept, a torn or corrupt tail is truncated.
+     */
+    public static void recover(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (final var files = Files.list(directory)) {
+            for (final var active : files.filter(file -> file.getFileName().toString().endsWith(ACTIVE_SUFFIX)).sorted().toList()) {
+                final var result = SegmentReader.read(active, payload -> {
+                });
+                if (result.records() == 0) {
+                    Files.delete(active);
+                    continue;
+                }
+                try (final var file = FileChannel.open(active, StandardOpenOption.WRITE)) {
+                    file.truncate(result.validBytes());
+                    file.force(true);
+                }
+                Files.move(active, closedPath(active), StandardCopyOption.ATOMIC_MOVE);
+                log.info("Recovered audit segment {} with {} records{}", active.getFileName(), result.records(),
+                        result.complete() ? "" : ", torn tail truncated");
+            }
+        }
+    }
+
+    public synchronized void append(final ByteBuffer payload) throws IOException {
+        final var frameBytes = FRAME_HEADER_BYTES + payload.remaining();
+        if (Objects.nonNull(channel) && (segmentBytes + frameBytes > maxSegmentBytes || isExpired())) {
+            roll();
+        }
+        if (Objects.isNull(channel)) {
+            openSegment();
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        frameHeader.clear()
+                .putInt(payload.remaining())
+                .putInt((int) crc.getValue())
+                .flip();
+        final var buffers = new ByteBuffer[]{frameHeader, payload};
+        try {
+            while (payload.hasRemaining()) {
+                channel.write(buffers);
+            }
+        } catch (final IOException e) {
+            discardTornFrame();
+            throw e;
+        }
+        segmentBytes += frameBytes;
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            channel.force(false);
+        } else {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Force appended records to disk when fsync policy is INTERVAL.
+     */
+    public synchronized void sync() throws IOException {
+        if (Objects.nonNull(channel) && dirty && fsyncPolicy == FsyncPolicy.INTERVAL) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Close active segment older than max segment age, so records of a quiet period are shipped too.
+     */
+    public synchronized void rollIfExpired() throws IOException {
+        if (Objects.nonNull(channel) && isExpired()) {
+            roll();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        roll();
+    }
+
+    /**
+     * Cut the segment back to its last complete frame. An interrupted write closes the channel,
+     * then the segment is truncated through RandomAccessFile, which ignores the interrupt, and closed.
+     * The next append opens a new segment.
+     */
+    private void discardTornFrame() {
+        try {
+            if (channel.isOpen()) {
+                channel.truncate(segmentBytes);
+                channel.position(segmentBytes);
+                return;
+            }
+            channel = null;
+            try (final var file = new RandomAccessFile(activeSegment.toFile(), "rw")) {
+                file.setLength(segmentBytes);
+                file.getFD().sync();
+            }
+            Files.move(activeSegment, closedPath(activeSegment), StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            // Left to recover() of the next open, which truncates the torn tail
+            log.error("Could not truncate torn frame of audit segment {}", activeSegment.getFileName(), e);
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        if (Objects.isNull(channel)) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            log.warn("Could not close audit segment {}", activeSegment.getFileName(), e);
+        }
+        channel = null;
+    }
+
+    private boolean isExpired() {
+        return System.nanoTime() - openedAtNanos >= maxSegmentAgeNanos;
+    }
+
+    private void openSegment() throws IOException {
+        // Ids only grow, so name order is write order even when clock goes back
+        lastSegmentId = Math.max(System.currentTimeMillis(), lastSegmentId + 1);
+        activeSegment = directory.resolve("audit-%020d%s".formatted(lastSegmentId, ACTIVE_SUFFIX));
+        channel = FileChannel.open(activeSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        final var header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentBytes = SEGMENT_HEADER_BYTES;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void roll() throws IOException {
+        if (Objects.isNull(channel)) {
+            return;
+        }
+        channel.force(true);
+        channel.close();
+        channel = null;
+        dirty = false;
+        final var closed = closedPath(activeSegment);
+        Files.move(activeSegment, closed, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Rolled audit segment {}, {} bytes", closed.getFileName(), segmentBytes);
+    }
+
+    private static Path closedPath(final Path active) {
+        final var name = active.getFileName().toString();
+        return active.resolveSibling(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + CLOSED_SUFFIX);
+    }
+
+    private static long segmentId(final Path segment) {
+        final var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("audit-".length(), name.indexOf('.')));
+    }
+}
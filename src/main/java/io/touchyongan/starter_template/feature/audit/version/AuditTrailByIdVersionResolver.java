@@ -0,0 +1,25 @@
+package io.touchyongan.starter_template.feature.audit.version;
+
+import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersion;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersionResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Row version of the audit trail rather than its id, so an update of the row changes the ETag.
+ * Missing row skips the check, so the handler answers not found.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditTrailByIdVersionResolver implements ResourceVersionResolver {
+    private final AuditTrailService auditTrailService;
+
+    @Override
+    public ResourceVersion resolve(final Object[] args) {
+        final var version = auditTrailService.getAuditTrailVersion((Long) args[0]);
+        return Objects.isNull(version) ? null : ResourceVersion.of(args[0] + "-" + version);
+    }
+}
@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.feature.audit.version;
+
+import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersion;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersionResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AuditTrailFilterTemplateVersionResolver implements ResourceVersionResolver {
+    private final AuditTrailService auditTrailService;
+
+    @Override
+    public ResourceVersion resolve(final Object[] args) {
+        return ResourceVersion.of(auditTrailService.getFilterTemplateVersion());
+    }
+}
@@ -0,0 +1,21 @@
+package io.touchyongan.starter_template.feature.audit.version;
+
+import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersion;
+import io.touchyongan.starter_template.infrastructure.conditional.ResourceVersionResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * The only read of app_users of a typeahead request, the handler then searches what this refresh loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditTrailUsernameVersionResolver implements ResourceVersionResolver {
+    private final AuditTrailService auditTrailService;
+
+    @Override
+    public ResourceVersion resolve(final Object[] args) {
+        return ResourceVersion.of(auditTrailService.refreshUsernames());
+    }
+}
@@ -68,4 +68,11 @@ public class AuthController {
         final var result = authenticationService.refreshToken(request);
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping(value = "/logout", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @LogActionAnonymous(entity = AppUserConstant.ENTITY, action = AppUserConstant.LOGOUT)
+    public ResponseEntity<Void> logout(@Validated @RequestBody final RefreshTokenRequest request) {
+        authenticationService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,44 @@
+package io.touchyongan.starter_template.feature.auth.controller;
+
+import io.touchyongan.starter_template.common.data.ApiResponse;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginConstant;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsData;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsFilter;
+import io.touchyongan.starter_template.feature.auth.service.FailedLoginAttemptService;
+import io.touchyongan.starter_template.infrastructure.permission.CustomPreAuthorize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("failed-logins")
+public class FailedLoginController {
+    private final FailedLoginAttemptService failedLoginAttemptService;
+
+    /**
+     * Attempts, distinct usernames and IPs, first and last failure per hour or day (interval=hour|day) or over the whole
+     * range (interval=total), optionally grouped by username and ip, e.g. accounts under attack:
+     * interval=total&groupBy=username&minAttempts=10. Groups with most attempts first.
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @CustomPreAuthorize(action = FailedLoginConstant.READ, entity = FailedLoginConstant.ENTITY)
+    public ResponseEntity<ApiResponse<List<FailedLoginStatsData>>> getStats(
+            @RequestParam(value = "interval", defaultValue = "total") final String interval,
+            @RequestParam(value = "groupBy", required = false) final List<String> groupBy,
+            @RequestParam(value = "startDate", required = false) final LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) final LocalDateTime endDate,
+            @RequestParam(value = "minAttempts", defaultValue = "1") final long minAttempts,
+            @RequestParam(value = "limit", defaultValue = "100") final int limit
+    ) {
+        final var filter = FailedLoginStatsFilter.of(interval, groupBy, startDate, endDate, minAttempts, limit);
+        return ResponseEntity.ok(new ApiResponse<>(failedLoginAttemptService.getStats(filter)));
+    }
+}
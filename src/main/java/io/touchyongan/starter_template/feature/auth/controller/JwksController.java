@@ -0,0 +1,39 @@
+package io.touchyongan.starter_template.feature.auth.controller;
+
+import io.touchyongan.starter_template.config.properties.JwtSigningProperties;
+import io.touchyongan.starter_template.infrastructure.jwt.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Public keys verifying our tokens (RFC 7517), so other services verify them locally. The JSON is built when keys change
+ * only, see JwtKeyRing, and may be cached by clients for jwks-max-age.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtSigningProperties jwtSigningProperties;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks(final WebRequest webRequest) {
+        final var jwks = jwtKeyRing.jwks();
+        final var cacheControl = CacheControl.maxAge(jwtSigningProperties.getJwksMaxAge()).cachePublic();
+        // Weak and listed ETags of If-None-Match match too, ETag header is set by the check
+        if (webRequest.checkNotModified(jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(jwks.etag())
+                .cacheControl(cacheControl)
+                .body(jwks.json());
+    }
+}
@@ -0,0 +1,11 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import io.touchyongan.starter_template.common.base.BaseConstant;
+
+public class FailedLoginConstant extends BaseConstant {
+
+    private FailedLoginConstant() {
+    }
+
+    public static final String ENTITY = "FAILED_LOGINS";
+}
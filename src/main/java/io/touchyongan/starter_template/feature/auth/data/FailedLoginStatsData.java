@@ -0,0 +1,19 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * One group of /failed-logins/stats, bucket and dimensions not grouped by are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FailedLoginStatsData(LocalDateTime bucket,
+                                   String username,
+                                   String ip,
+                                   long attempts,
+                                   long usernames,
+                                   long ips,
+                                   LocalDateTime firstFailedAt,
+                                   LocalDateTime lastFailedAt) {
+}
@@ -0,0 +1,13 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum FailedLoginStatsDimension {
+    USERNAME("username"),
+    IP("ip");
+
+    private final String field;
+}
@@ -0,0 +1,67 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import io.touchyongan.starter_template.common.exception.custom.BaseApiException;
+import io.touchyongan.starter_template.common.exception.custom.impl.GeneralError;
+import io.touchyongan.starter_template.common.util.AppUtil;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Setter
+public class FailedLoginStatsFilter {
+    public static final int MAX_LIMIT = 1000;
+    private static final Duration MAX_RANGE = Duration.ofDays(31);
+
+    private FailedLoginStatsInterval interval;
+    private List<FailedLoginStatsDimension> groupBy;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private long minAttempts;
+    private int limit;
+
+    /**
+     * Default range is the last 24 hours. Range is at most 31 days, failed_login is read directly, there is no rollup.
+     */
+    public static FailedLoginStatsFilter of(final String interval,
+                                            final List<String> groupBy,
+                                            final LocalDateTime startDate,
+                                            final LocalDateTime endDate,
+                                            final long minAttempts,
+                                            final int limit) {
+        final var filter = new FailedLoginStatsFilter();
+        filter.setInterval(AppUtil.parseEnumParameter(FailedLoginStatsInterval.class, "interval", interval));
+        final var dimensions = new ArrayList<FailedLoginStatsDimension>();
+        for (final var dimension : Objects.requireNonNullElse(groupBy, List.<String>of())) {
+            final var parsed = AppUtil.parseEnumParameter(FailedLoginStatsDimension.class, "groupBy", dimension);
+            if (!dimensions.contains(parsed)) {
+                dimensions.add(parsed);
+            }
+        }
+        filter.setGroupBy(dimensions);
+        final var end = Objects.requireNonNullElseGet(endDate, LocalDateTime::now);
+        final var start = Objects.requireNonNullElseGet(startDate, () -> end.minusHours(24));
+        if (!start.isBefore(end)) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "startDate", start, "Must be before endDate.");
+        }
+        if (Duration.between(start, end).compareTo(MAX_RANGE) > 0) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "startDate", start, "Range is at most 31 days.");
+        }
+        filter.setStartDate(start);
+        filter.setEndDate(end);
+        if (minAttempts < 1) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "minAttempts", minAttempts, "Must be at least 1.");
+        }
+        filter.setMinAttempts(minAttempts);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BaseApiException(GeneralError.INVALID_PARAMETER, "limit", limit, "Must be between 1 and %d.".formatted(MAX_LIMIT));
+        }
+        filter.setLimit(limit);
+        return filter;
+    }
+}
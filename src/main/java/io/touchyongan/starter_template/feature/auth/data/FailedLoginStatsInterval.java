@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import io.touchyongan.starter_template.common.specification.DateBucket;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bucket of /failed-logins/stats, TOTAL has no bucket and aggregates the whole range.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FailedLoginStatsInterval {
+    HOUR(DateBucket.HOUR),
+    DAY(DateBucket.DAY),
+    TOTAL(null);
+
+    private final DateBucket bucket;
+}
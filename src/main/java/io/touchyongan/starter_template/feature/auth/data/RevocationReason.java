@@ -0,0 +1,7 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+public enum RevocationReason {
+    // Replaced refresh token presented again, it was stolen or the client is broken
+    REUSED,
+    LOGOUT
+}
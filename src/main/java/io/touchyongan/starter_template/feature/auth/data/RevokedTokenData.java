@@ -0,0 +1,8 @@
+package io.touchyongan.starter_template.feature.auth.data;
+
+import java.time.Instant;
+
+public record RevokedTokenData(long id,
+                               String digest,
+                               Instant expiresAt) {
+}
@@ -0,0 +1,60 @@
+package io.touchyongan.starter_template.feature.auth.repository;
+
+import io.touchyongan.starter_template.feature.auth.entity.FailedLogin;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkTable;
+import io.touchyongan.starter_template.infrastructure.bulk.PgBinaryCopyWriter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * failed_login rows of FailedLoginBuffer.
+ */
+public class FailedLoginBulkTable implements BulkTable<FailedLogin> {
+    public static final FailedLoginBulkTable INSTANCE = new FailedLoginBulkTable();
+
+    private static final List<String> COLUMNS = List.of("username", "ip", "failed_at", "error_msg", "is_still_in_attempt");
+    private static final List<String> PLACEHOLDERS = List.of("?", "?", "?", "?", "?");
+
+    private FailedLoginBulkTable() {
+    }
+
+    @Override
+    public String getTable() {
+        return "failed_login";
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public List<String> getPlaceholders() {
+        return PLACEHOLDERS;
+    }
+
+    @Override
+    public void encode(final FailedLogin failedLogin,
+                       final PgBinaryCopyWriter writer) throws SQLException {
+        writer.startRow(COLUMNS.size())
+                .putText(failedLogin.getUsername())
+                .putText(failedLogin.getIp())
+                .putTimestamp(failedLogin.getFailedAt())
+                .putText(failedLogin.getErrorMsg())
+                .putBool(failedLogin.isStillInAttempt());
+    }
+
+    @Override
+    public void bind(final PreparedStatement statement,
+                     final FailedLogin failedLogin) throws SQLException {
+        statement.setString(1, failedLogin.getUsername());
+        statement.setString(2, failedLogin.getIp());
+        statement.setTimestamp(3, Objects.isNull(failedLogin.getFailedAt()) ? null : Timestamp.valueOf(failedLogin.getFailedAt()));
+        statement.setString(4, failedLogin.getErrorMsg());
+        statement.setBoolean(5, failedLogin.isStillInAttempt());
+    }
+}
@@ -5,6 +5,9 @@ import io.touchyongan.starter_template.common.specification.BaseProjectionReposi
 import io.touchyongan.starter_template.feature.auth.entity.FailedLogin;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 public interface FailedLoginRepository extends BaseRepository<FailedLogin>, BaseProjectionRepository<FailedLogin> {
 
@@ -12,4 +15,13 @@ public interface FailedLoginRepository extends BaseRepository<FailedLogin>, Base
     @Query(value = "UPDATE failed_login SET is_still_in_attempt = false WHERE username = :username and is_still_in_attempt = true",
             nativeQuery = true)
     void clearFailedLoginAttempt(String username);
+
+    // Buffered attempts committed after the successful login that cleared them, see FailedLoginBuffer
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE failed_login SET is_still_in_attempt = false
+            WHERE username = :username AND is_still_in_attempt = true AND failed_at <= :before
+            """, nativeQuery = true)
+    void clearFailedLoginAttemptBefore(String username, LocalDateTime before);
 }
@@ -0,0 +1,134 @@
+package io.touchyongan.starter_template.feature.auth.repository;
+
+import io.touchyongan.starter_template.feature.auth.data.RevocationReason;
+import io.touchyongan.starter_template.feature.auth.data.RevokedTokenData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh token families, see V20261019090000__refresh_token_families.sql. Each operation is one statement,
+ * so concurrent refreshes of the same token are decided by the row lock of the family instead of a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenFamilyRepository {
+    private static final String CREATE = """
+            WITH family AS (
+                INSERT INTO refresh_token_families(id, user_id, current_digest, expires_at)
+                VALUES (:familyId, :userId, :refreshDigest, :refreshExpiresAt)
+                RETURNING id
+            )
+            INSERT INTO refresh_token_family_access_tokens(digest, family_id, expires_at)
+            SELECT :accessDigest, id, :accessExpiresAt FROM family
+            """;
+    private static final String ROTATE = """
+            WITH rotated AS (
+                UPDATE refresh_token_families
+                SET previous_digest = current_digest, current_digest = :refreshDigest, rotated_at = now(), expires_at = :refreshExpiresAt
+                WHERE id = :familyId AND current_digest = :presentedDigest AND revoked_at IS NULL AND expires_at > now()
+                RETURNING id
+            )
+            INSERT INTO refresh_token_family_access_tokens(digest, family_id, expires_at)
+            SELECT :accessDigest, id, :accessExpiresAt FROM rotated
+            """;
+    private static final String REPLACED_WITHIN = """
+            SELECT count(*) FROM refresh_token_families
+            WHERE id = :familyId AND previous_digest = :presentedDigest AND revoked_at IS NULL
+              AND rotated_at > now() - make_interval(secs => :seconds)
+            """;
+    // Access tokens are revoked until they expire, the refresh token itself is rejected by revoked_at of its family
+    private static final String REVOKE = """
+            WITH family AS (
+                UPDATE refresh_token_families SET revoked_at = now()
+                WHERE id = :familyId AND revoked_at IS NULL
+                RETURNING id
+            )
+            INSERT INTO revoked_tokens(digest, family_id, reason, expires_at)
+            SELECT a.digest, a.family_id, :reason, a.expires_at
+            FROM refresh_token_family_access_tokens a
+            JOIN family f ON f.id = a.family_id
+            WHERE a.expires_at > now()
+            ON CONFLICT (digest) DO NOTHING
+            RETURNING id, digest, expires_at
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void create(final UUID familyId,
+                       final Long userId,
+                       final IssuedDigests issued) {
+        jdbcTemplate.update(CREATE, issued.params()
+                .addValue("familyId", familyId)
+                .addValue("userId", userId));
+    }
+
+    /**
+     * Replace presentedDigest by the refresh token of issued, when it is the current token of a live family.
+     *
+     * @return false when presentedDigest is not current anymore, or the family is revoked or expired
+     */
+    public boolean rotate(final UUID familyId,
+                          final String presentedDigest,
+                          final IssuedDigests issued) {
+        return jdbcTemplate.update(ROTATE, issued.params()
+                .addValue("familyId", familyId)
+                .addValue("presentedDigest", presentedDigest)) > 0;
+    }
+
+    /**
+     * Whether presentedDigest was replaced less than interval ago, e.g. a client retrying a refresh whose response it lost.
+     */
+    public boolean isReplacedWithin(final UUID familyId,
+                                    final String presentedDigest,
+                                    final Duration interval) {
+        final var params = new MapSqlParameterSource()
+                .addValue("familyId", familyId)
+                .addValue("presentedDigest", presentedDigest)
+                .addValue("seconds", interval.toMillis() / 1000.0);
+        final var count = jdbcTemplate.queryForObject(REPLACED_WITHIN, params, Long.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * @return access tokens of the family revoked by this call, empty when it was revoked already
+     */
+    public List<RevokedTokenData> revoke(final UUID familyId,
+                                         final RevocationReason reason) {
+        final var params = new MapSqlParameterSource()
+                .addValue("familyId", familyId)
+                .addValue("reason", reason.name());
+        return jdbcTemplate.query(REVOKE, params, (rs, rowNum) ->
+                new RevokedTokenData(rs.getLong("id"), rs.getString("digest"), rs.getTimestamp("expires_at").toInstant()));
+    }
+
+    /**
+     * Delete expired families with their access tokens, and expired access tokens of live families.
+     */
+    public int deleteExpired() {
+        final var params = new MapSqlParameterSource();
+        return jdbcTemplate.update("DELETE FROM refresh_token_families WHERE expires_at <= now()", params)
+                + jdbcTemplate.update("DELETE FROM refresh_token_family_access_tokens WHERE expires_at <= now()", params);
+    }
+
+    public record IssuedDigests(String accessDigest,
+                                Instant accessExpiresAt,
+                                String refreshDigest,
+                                Instant refreshExpiresAt) {
+
+        private MapSqlParameterSource params() {
+            return new MapSqlParameterSource()
+                    .addValue("accessDigest", accessDigest)
+                    .addValue("accessExpiresAt", Timestamp.from(accessExpiresAt))
+                    .addValue("refreshDigest", refreshDigest)
+                    .addValue("refreshExpiresAt", Timestamp.from(refreshExpiresAt));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.touchyongan.starter_template.feature.auth.repository;
+
+import io.touchyongan.starter_template.feature.auth.data.RevokedTokenData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenRepository {
+    // Ids are assigned before commit, a row of lower id may become visible after a higher one was read:
+    // rows revoked within lookback are read again, adding a digest to a Bloom filter twice is harmless
+    private static final String FIND_SINCE = """
+            SELECT id, digest, expires_at FROM revoked_tokens
+            WHERE (id > :afterId OR revoked_at > now() - make_interval(secs => :lookbackSeconds)) AND expires_at > now()
+            ORDER BY id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream live revocations of id above afterId, or revoked within lookback.
+     */
+    public void forEachSince(final long afterId,
+                             final Duration lookback,
+                             final Consumer<RevokedTokenData> consumer) {
+        final var params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("lookbackSeconds", lookback.toMillis() / 1000.0);
+        jdbcTemplate.query(FIND_SINCE, params, rs -> {
+            consumer.accept(new RevokedTokenData(rs.getLong("id"), rs.getString("digest"), rs.getTimestamp("expires_at").toInstant()));
+        });
+    }
+
+    public boolean isRevoked(final String digest) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM revoked_tokens WHERE digest = :digest AND expires_at > now())",
+                new MapSqlParameterSource("digest", digest), Boolean.class));
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= now()", new MapSqlParameterSource());
+    }
+}
@@ -9,4 +9,6 @@ public interface AuthenticationService {
     AuthResponseData login(LoginRequest loginRequest);
 
     AuthResponseData refreshToken(RefreshTokenRequest refreshTokenRequest);
+
+    void logout(RefreshTokenRequest refreshTokenRequest);
 }
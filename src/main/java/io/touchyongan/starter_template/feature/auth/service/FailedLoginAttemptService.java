@@ -1,7 +1,11 @@
 package io.touchyongan.starter_template.feature.auth.service;
 
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsData;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsFilter;
 import org.springframework.security.core.AuthenticationException;
 
+import java.util.List;
+
 public interface FailedLoginAttemptService {
 
     void applyDelay(String username);
@@ -10,4 +14,6 @@ public interface FailedLoginAttemptService {
                      AuthenticationException authException);
 
     void loginSucceed(String username);
+
+    List<FailedLoginStatsData> getStats(FailedLoginStatsFilter filter);
 }
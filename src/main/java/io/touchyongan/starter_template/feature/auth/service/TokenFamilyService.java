@@ -0,0 +1,22 @@
+package io.touchyongan.starter_template.feature.auth.service;
+
+import io.touchyongan.starter_template.feature.auth.data.AuthResponseData;
+
+public interface TokenFamilyService {
+
+    /**
+     * Access and refresh token of a new family, one per login.
+     */
+    AuthResponseData issue(Long userId, String username);
+
+    /**
+     * Replace refreshToken by new tokens of its family. A refresh token is accepted once only, presenting a replaced one
+     * revokes its family.
+     */
+    AuthResponseData rotate(String refreshToken);
+
+    /**
+     * Revoke the family of refreshToken with its access tokens.
+     */
+    void revoke(String refreshToken);
+}
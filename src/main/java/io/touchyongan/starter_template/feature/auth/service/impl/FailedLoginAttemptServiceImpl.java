@@ -1,13 +1,20 @@
 package io.touchyongan.starter_template.feature.auth.service.impl;
 
 import io.touchyongan.starter_template.common.specification.AggregateFunction;
+import io.touchyongan.starter_template.common.specification.AggregateQuery;
+import io.touchyongan.starter_template.common.specification.SearchOperator;
 import io.touchyongan.starter_template.common.util.RequestContextUtil;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsData;
+import io.touchyongan.starter_template.feature.auth.data.FailedLoginStatsFilter;
 import io.touchyongan.starter_template.feature.auth.entity.FailedLogin;
 import io.touchyongan.starter_template.feature.auth.repository.FailedLoginRepository;
 import io.touchyongan.starter_template.feature.auth.service.FailedLoginAttemptService;
+import io.touchyongan.starter_template.infrastructure.datasource.ConnectionHoldTracker;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
@@ -18,6 +25,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -28,6 +37,9 @@ public class FailedLoginAttemptServiceImpl implements FailedLoginAttemptService
     private static final long ATTEMPT_TIME_WINDOW = 30; // 30 minutes
 
     private final FailedLoginRepository failedLoginRepository;
+    private final StageMetrics stageMetrics;
+    private final ConnectionHoldTracker connectionHoldTracker;
+    private final FailedLoginBuffer failedLoginBuffer;
 
     @Override
     public void applyDelay(final String username) {
@@ -35,11 +47,14 @@ public class FailedLoginAttemptServiceImpl implements FailedLoginAttemptService
         if (delayTime == 0) {
             return;
         }
+        connectionHoldTracker.checkBeforeBlocking("login delay");
+        final var start = System.nanoTime();
         try {
             TimeUnit.SECONDS.sleep(delayTime);
         } catch (final InterruptedException e) {
             log.info("Interrupt when delay failed attempt to login");
         }
+        stageMetrics.record(StageMetrics.LOGIN_DELAY, System.nanoTime() - start);
     }
 
     private long calculateTimeDelay(final String username) {
@@ -62,7 +77,11 @@ public class FailedLoginAttemptServiceImpl implements FailedLoginAttemptService
             predicates.add(attemptDateCondition);
             return builder.and(predicates.toArray(new Predicate[0]));
         };
-        return failedLoginRepository.aggregateByField(spec, Long.class, FailedLogin.class, "username", AggregateFunction.COUNT);
+        final var stored = failedLoginRepository.aggregateByField(spec, Long.class, FailedLogin.class, "username", AggregateFunction.COUNT);
+        if (!failedLoginBuffer.isEnabled()) {
+            return stored;
+        }
+        return stored + failedLoginBuffer.countPending(username, LocalDateTime.now().minusMinutes(ATTEMPT_TIME_WINDOW));
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -79,12 +98,48 @@ public class FailedLoginAttemptServiceImpl implements FailedLoginAttemptService
         final var request = servletAttribute.getRequest();
         final var ip = RequestContextUtil.getIPAddress(request);
         failedLogin.setIp(ip);
+        if (failedLoginBuffer.isEnabled()) {
+            failedLoginBuffer.add(failedLogin);
+            return;
+        }
         failedLoginRepository.save(failedLogin);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void loginSucceed(final String username) {
+        if (failedLoginBuffer.isEnabled()) {
+            failedLoginBuffer.clear(username);
+        }
         failedLoginRepository.clearFailedLoginAttempt(username);
     }
+
+    /**
+     * One statement for every group, attempts still in the buffer of FailedLoginBuffer are not counted.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<FailedLoginStatsData> getStats(final FailedLoginStatsFilter filter) {
+        final Specification<FailedLogin> spec = (root, query, builder) -> builder.and(
+                builder.greaterThanOrEqualTo(root.get("failedAt"), filter.getStartDate()),
+                builder.lessThan(root.get("failedAt"), filter.getEndDate()));
+        final var query = AggregateQuery.from(FailedLogin.class).where(spec);
+        final var bucket = filter.getInterval().getBucket();
+        if (Objects.nonNull(bucket)) {
+            query.groupByBucket("failedAt", bucket, "bucket");
+        }
+        filter.getGroupBy().forEach(dimension -> query.groupBy(dimension.getField()));
+        query.aggregate(AggregateFunction.COUNT, "id", "attempts")
+                .aggregate(AggregateFunction.COUNT_DISTINCT, "username", "usernames")
+                .aggregate(AggregateFunction.COUNT_DISTINCT, "ip", "ips")
+                .aggregate(AggregateFunction.MIN, "failedAt", "firstFailedAt")
+                .aggregate(AggregateFunction.MAX, "failedAt", "lastFailedAt")
+                .having("attempts", SearchOperator.GREATER_THAN_OR_EQUAL, filter.getMinAttempts());
+        if (Objects.nonNull(bucket)) {
+            query.orderBy("bucket", Sort.Direction.ASC);
+        }
+        query.orderBy("attempts", Sort.Direction.DESC)
+                .limit(filter.getLimit());
+        return failedLoginRepository.aggregate(query, FailedLoginStatsData.class);
+    }
 }
@@ -0,0 +1,153 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.feature.auth.entity.FailedLogin;
+import io.touchyongan.starter_template.feature.auth.repository.FailedLoginBulkTable;
+import io.touchyongan.starter_template.feature.auth.repository.FailedLoginRepository;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Failed logins kept in memory and written by COPY every flush interval when auth.failed-login.buffered is true,
+ * so a password spraying burst does not cost one insert per attempt. Attempts not committed yet, queued or in the
+ * batch being written, still count for login delay of this instance; other instances see them after the next flush.
+ * The queue is bounded, attempts over its capacity are dropped and logged on the next flush.
+ */
+@Slf4j
+@Component
+public class FailedLoginBuffer {
+    private final BulkIngester bulkIngester;
+    private final FailedLoginRepository failedLoginRepository;
+    private final boolean enabled;
+    private final BlockingQueue<FailedLogin> pending;
+    // Queued and in-flight attempts by username, removed once their batch is committed or given up
+    private final Map<String, Queue<FailedLogin>> uncommitted = new ConcurrentHashMap<>();
+    // Time of a successful login that cleared attempts not committed yet
+    private final Map<String, LocalDateTime> clearedAt = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public FailedLoginBuffer(final BulkIngester bulkIngester,
+                             final FailedLoginRepository failedLoginRepository,
+                             @Value("${auth.failed-login.buffered:false}") final boolean enabled,
+                             @Value("${auth.failed-login.buffer-capacity:10000}") final int capacity) {
+        this.bulkIngester = bulkIngester;
+        this.failedLoginRepository = failedLoginRepository;
+        this.enabled = enabled;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indexed before queued, so a flush never commits an attempt which is indexed afterwards and never forgotten.
+     */
+    public void add(final FailedLogin failedLogin) {
+        uncommitted.compute(failedLogin.getUsername(), (ignored, attempts) -> {
+            final var queue = Objects.isNull(attempts) ? new ConcurrentLinkedQueue<FailedLogin>() : attempts;
+            queue.add(failedLogin);
+            return queue;
+        });
+        if (!pending.offer(failedLogin)) {
+            dropped.incrementAndGet();
+            forget(List.of(failedLogin));
+        }
+    }
+
+    public long countPending(final String username,
+                             final LocalDateTime since) {
+        final var attempts = uncommitted.get(username);
+        if (Objects.isNull(attempts)) {
+            return 0;
+        }
+        return attempts.stream()
+                .filter(failedLogin -> !failedLogin.getFailedAt().isBefore(since))
+                .count();
+    }
+
+    /**
+     * Successful login clears attempts not committed yet. Queued ones are written as cleared, one already encoded
+     * into the batch being written is cleared by an update once that batch is committed.
+     */
+    public void clear(final String username) {
+        final var attempts = uncommitted.remove(username);
+        if (Objects.isNull(attempts)) {
+            return;
+        }
+        clearedAt.put(username, LocalDateTime.now());
+        attempts.forEach(failedLogin -> failedLogin.setStillInAttempt(false));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.failed-login.flush-interval:1s}")
+    @UsePool(PoolName.AUDIT)
+    public void flush() {
+        final var droppedCount = dropped.getAndSet(0);
+        if (droppedCount > 0) {
+            log.warn("Dropped {} failed logins, buffer of {} is full", droppedCount, pending.size() + pending.remainingCapacity());
+        }
+        final var batch = new ArrayList<FailedLogin>();
+        pending.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            final var failed = bulkIngester.ingest(FailedLoginBulkTable.INSTANCE, batch).failed();
+            failed.forEach(rejected -> log.warn("Error save failed login of {} at {}", rejected.getUsername(), rejected.getFailedAt()));
+        } catch (final RuntimeException e) {
+            // Database unavailable, keep what still fits for the next flush
+            final var droppedBatch = batch.stream().filter(failedLogin -> !pending.offer(failedLogin)).toList();
+            log.warn("Error write {} failed logins, {} dropped, the rest kept for next flush", batch.size(), droppedBatch.size(), e);
+            forget(droppedBatch);
+            return;
+        }
+        clearCommitted(batch);
+        forget(batch);
+    }
+
+    /**
+     * Attempts of a user cleared while the batch was written may have been encoded before, still in attempt.
+     * A clear coming after this check also comes after the commit, the update of that successful login sees the rows.
+     */
+    private void clearCommitted(final List<FailedLogin> batch) {
+        batch.stream().map(FailedLogin::getUsername).distinct().forEach(username -> {
+            final var cleared = clearedAt.remove(username);
+            if (Objects.isNull(cleared)) {
+                return;
+            }
+            try {
+                failedLoginRepository.clearFailedLoginAttemptBefore(username, cleared);
+            } catch (final RuntimeException e) {
+                log.warn("Error clear failed logins of {} written after its successful login", username, e);
+            }
+        });
+    }
+
+    private void forget(final List<FailedLogin> done) {
+        final var byUsername = done.stream().collect(Collectors.groupingBy(FailedLogin::getUsername,
+                Collectors.toCollection(() -> Collections.newSetFromMap(new IdentityHashMap<>()))));
+        byUsername.forEach((username, attempts) -> uncommitted.computeIfPresent(username, (ignored, queue) -> {
+            queue.removeIf(attempts::contains);
+            return queue.isEmpty() ? null : queue;
+        }));
+    }
+}
@@ -0,0 +1,84 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opaque single use tokens handed to the UI after OAuth2 login, each one bound to the user being provisioned,
+ * so exchange neither parses a JWT nor reloads the user. Kept in memory of the instance which handled the login:
+ * the exchange must reach the same instance, as the OAuth2 authorization request kept in its session already requires.
+ * With several instances the load balancer must route the login flow with session affinity,
+ * see "Running Several Instances" in OAuth2Client.md, otherwise the exchange fails with 401.
+ */
+@Component
+public class OAuth2HandoffStore {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final Duration ttl;
+    private final int maxPending;
+    private final Map<String, Handoff> handoffs = new ConcurrentHashMap<>();
+
+    public OAuth2HandoffStore(@Value("${oauth2.handoff.ttl:45s}") final Duration ttl,
+                              @Value("${oauth2.handoff.max-pending:10000}") final int maxPending) {
+        this.ttl = ttl;
+        this.maxPending = maxPending;
+    }
+
+    public String issue(final CompletableFuture<ProvisionedUserData> user) {
+        if (handoffs.size() >= maxPending) {
+            evictExpired();
+            if (handoffs.size() >= maxPending) {
+                throw new IllegalStateException("Too many pending OAuth2 handoffs");
+            }
+        }
+        final var randomBytes = new byte[32];
+        SECURE_RANDOM.nextBytes(randomBytes);
+        final var token = ENCODER.encodeToString(randomBytes);
+        handoffs.put(token, new Handoff(user, System.nanoTime() + ttl.toNanos()));
+        return token;
+    }
+
+    /**
+     * Remove the handoff of token, a token is accepted once only.
+     *
+     * @return user being provisioned, empty when token is unknown, used or expired
+     */
+    public Optional<CompletableFuture<ProvisionedUserData>> consume(final String token) {
+        if (Objects.isNull(token)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(handoffs.remove(token))
+                .filter(handoff -> !handoff.isExpired(System.nanoTime()))
+                .map(Handoff::user);
+    }
+
+    public int pending() {
+        return handoffs.size();
+    }
+
+    @Scheduled(fixedDelayString = "${oauth2.handoff.ttl:45s}")
+    public void evictExpired() {
+        final var now = System.nanoTime();
+        handoffs.values().removeIf(handoff -> handoff.isExpired(now));
+    }
+
+    private record Handoff(CompletableFuture<ProvisionedUserData> user,
+                           long expiresAt) {
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package io.touchyongan.starter_template.feature.auth.service.impl;
 
-import io.touchyongan.starter_template.common.util.JwtUtil;
 import io.touchyongan.starter_template.feature.auth.service.OAuth2UserService;
-import io.touchyongan.starter_template.feature.user.entity.AppUser;
-import io.touchyongan.starter_template.feature.user.entity.UserInfo;
-import io.touchyongan.starter_template.feature.user.repository.AppUserRepository;
+import io.touchyongan.starter_template.feature.user.service.AppUserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -18,10 +15,8 @@ import java.io.IOException;
 @Service
 @RequiredArgsConstructor
 public class OAuth2UserServiceImpl implements OAuth2UserService {
-    private final static long TEMP_TOKEN_TIME = 45_000L;
-
-    private final AppUserRepository appUserRepository;
-    private final JwtUtil jwtUtil;
+    private final AppUserService appUserService;
+    private final OAuth2HandoffStore oAuth2HandoffStore;
 
     @Value("${oauth2.client.ui-redirect-url}")
     private String uiRedirectUrl;
@@ -35,25 +30,13 @@ public class OAuth2UserServiceImpl implements OAuth2UserService {
         final var attributes = oauth2User.getAttributes();
 
         final var email = (String) attributes.get("email");
-        final var isExist = appUserRepository.isExist(email);
-        if (!isExist) {
-            final var firstName = (String) attributes.get("given_name");
-            final var lastName = (String) attributes.get("family_name");
-
-            final var userinfo = new UserInfo();
-            userinfo.setFirstname(firstName);
-            userinfo.setLastname(lastName);
-
-            final var appuser = new AppUser();
-            appuser.setEmail(email);
-            appuser.setUsername(email);
-            appuser.setUserInfo(userinfo);
-            appuser.setEnabled(true);
-            // If you want to set a default role, you can set it here
-            appUserRepository.save(appuser);
-        }
+        final var firstName = (String) attributes.get("given_name");
+        final var lastName = (String) attributes.get("family_name");
+        // Redirect does not wait for provisioning, the UI exchanges the token once it has loaded
+        // If you want to set a default role, insert it in AppUserProvisioningRepository
+        final var user = appUserService.provisionAsync(email, firstName, lastName);
 
-        final var token = jwtUtil.generateTempToken(email, TEMP_TOKEN_TIME);
+        final var token = oAuth2HandoffStore.issue(user);
         final var redirectUrl = uiRedirectUrl + "?token=" + token;
         response.sendRedirect(redirectUrl);
     }
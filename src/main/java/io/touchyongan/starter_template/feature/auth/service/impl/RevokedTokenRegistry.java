@@ -0,0 +1,103 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.config.properties.TokenRevocationProperties;
+import io.touchyongan.starter_template.feature.auth.data.RevokedTokenData;
+import io.touchyongan.starter_template.feature.auth.repository.RefreshTokenFamilyRepository;
+import io.touchyongan.starter_template.feature.auth.repository.RevokedTokenRepository;
+import io.touchyongan.starter_template.infrastructure.bloom.ExpiringBloomFilter;
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Revoked access tokens checked on every request without a database round trip: digests of revoked_tokens are kept
+ * in a Bloom filter, only a hit, i.e. a revoked token or a false positive, is confirmed by the database.
+ * Each instance reads revocations of other instances every sync interval, a token revoked elsewhere is accepted
+ * here until then. Until the first sync succeeds, e.g. database down at startup, every token is checked by the database.
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry implements SmartInitializingSingleton {
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    private final TokenRevocationProperties properties;
+    private final ExpiringBloomFilter filter;
+    private volatile long lastId;
+    private volatile boolean initialized;
+
+    public RevokedTokenRegistry(final RevokedTokenRepository revokedTokenRepository,
+                                final RefreshTokenFamilyRepository refreshTokenFamilyRepository,
+                                final TokenRevocationProperties properties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenFamilyRepository = refreshTokenFamilyRepository;
+        this.properties = properties;
+        this.filter = new ExpiringBloomFilter(properties.getBucketWidth(), properties.getExpectedPerBucket(),
+                properties.getFalsePositiveRate());
+    }
+
+    /**
+     * @param digest JwtUtil.tokenDigestBytes of the token, encoded only when the database is queried
+     */
+    public boolean isRevoked(final byte[] digest) {
+        if (!initialized) {
+            return revokedTokenRepository.isRevoked(JwtUtil.encodeDigest(digest));
+        }
+        return filter.mightContain(digest, Instant.now()) && revokedTokenRepository.isRevoked(JwtUtil.encodeDigest(digest));
+    }
+
+    /**
+     * Revocations of this instance, visible here before the next sync.
+     */
+    public void add(final Collection<RevokedTokenData> revoked) {
+        revoked.forEach(this::put);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            sync();
+        } catch (final RuntimeException e) {
+            log.warn("Error load revoked tokens, tokens are checked by database until next sync", e);
+        }
+    }
+
+    /**
+     * Runs on request pool, the same pool as the database check of each request, so a backlog of audit writes
+     * on audit pool cannot delay revocations of other instances.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:1s}", initialDelayString = "${auth.revocation.sync-interval:1s}")
+    public void sync() {
+        revokedTokenRepository.forEachSince(lastId, properties.getSyncLookback(), this::put);
+        initialized = true;
+    }
+
+    /**
+     * Bulk delete of expired rows is background work, kept on audit pool off the connections serving requests.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.bucket-width:15m}", initialDelayString = "${auth.revocation.bucket-width:15m}")
+    @UsePool(PoolName.AUDIT)
+    public void prune() {
+        filter.prune(Instant.now());
+        final var deleted = revokedTokenRepository.deleteExpired() + refreshTokenFamilyRepository.deleteExpired();
+        log.debug("Pruned {} expired revocations and token families", deleted);
+    }
+
+    private void put(final RevokedTokenData revoked) {
+        filter.put(DECODER.decode(revoked.digest()), revoked.expiresAt());
+        if (revoked.id() > lastId) {
+            synchronized (this) {
+                lastId = Math.max(lastId, revoked.id());
+            }
+        }
+    }
+}
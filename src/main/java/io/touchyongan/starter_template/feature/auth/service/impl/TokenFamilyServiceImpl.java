@@ -0,0 +1,127 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.IncorrectClaimException;
+import io.jsonwebtoken.MissingClaimException;
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.feature.auth.data.AuthResponseData;
+import io.touchyongan.starter_template.feature.auth.data.RevocationReason;
+import io.touchyongan.starter_template.feature.auth.repository.RefreshTokenFamilyRepository;
+import io.touchyongan.starter_template.feature.auth.service.TokenFamilyService;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TokenFamilyServiceImpl implements TokenFamilyService {
+    private static final String REFRESH_TOKEN_TYPE = "refreshToken";
+    private static final String FAMILY_CLAIM = "fam";
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final Duration reuseInterval;
+
+    public TokenFamilyServiceImpl(final JwtUtil jwtUtil,
+                                  final UserDetailsService userDetailsService,
+                                  final RefreshTokenFamilyRepository refreshTokenFamilyRepository,
+                                  final RevokedTokenRegistry revokedTokenRegistry,
+                                  @Value("${auth.refresh.reuse-interval:10s}") final Duration reuseInterval) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenFamilyRepository = refreshTokenFamilyRepository;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.reuseInterval = reuseInterval;
+    }
+
+    @Override
+    public AuthResponseData issue(final Long userId,
+                                  final String username) {
+        final var familyId = UUID.randomUUID();
+        final var tokens = newTokens(familyId, userId, username);
+        refreshTokenFamilyRepository.create(familyId, userId, tokens.digests());
+        return tokens.response();
+    }
+
+    @Override
+    public AuthResponseData rotate(final String refreshToken) {
+        final var claims = refreshClaims(refreshToken);
+        final var familyId = familyOf(claims);
+        final var user = (AppUser) userDetailsService.loadUserByUsername(claims.getSubject());
+        final var tokens = newTokens(familyId, user.getId(), user.getUsername());
+        final var presentedDigest = jwtUtil.tokenDigest(refreshToken);
+        if (refreshTokenFamilyRepository.rotate(familyId, presentedDigest, tokens.digests())) {
+            return tokens.response();
+        }
+        // Concurrent refreshes of the same token, or a retry of a refresh whose response was lost
+        if (refreshTokenFamilyRepository.isReplacedWithin(familyId, presentedDigest, reuseInterval)) {
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        final var revoked = refreshTokenFamilyRepository.revoke(familyId, RevocationReason.REUSED);
+        revokedTokenRegistry.add(revoked);
+        if (!revoked.isEmpty()) {
+            log.warn("Replaced refresh token of {} presented again, revoked its family {}", user.getUsername(), familyId);
+        }
+        throw new BadCredentialsException("Refresh token revoked or already used");
+    }
+
+    @Override
+    public void revoke(final String refreshToken) {
+        final var familyId = familyOf(refreshClaims(refreshToken));
+        revokedTokenRegistry.add(refreshTokenFamilyRepository.revoke(familyId, RevocationReason.LOGOUT));
+    }
+
+    private Claims refreshClaims(final String refreshToken) {
+        try {
+            return jwtUtil.extractAllClaims(refreshToken, REFRESH_TOKEN_TYPE);
+        } catch (final MissingClaimException | IncorrectClaimException e) {
+            throw new BadCredentialsException("Not a refresh token", e);
+        }
+    }
+
+    private UUID familyOf(final Claims claims) {
+        final var familyId = claims.get(FAMILY_CLAIM, String.class);
+        if (Objects.isNull(familyId)) {
+            // Issued before token families
+            throw new BadCredentialsException("Refresh token has no family");
+        }
+        try {
+            return UUID.fromString(familyId);
+        } catch (final IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid refresh token family", e);
+        }
+    }
+
+    private IssuedTokens newTokens(final UUID familyId,
+                                   final Long userId,
+                                   final String username) {
+        final var accessToken = jwtUtil.generateToken(userId, username);
+        final var refreshToken = jwtUtil.generateRefreshToken(
+                Map.of("typ", REFRESH_TOKEN_TYPE, FAMILY_CLAIM, familyId.toString()), username);
+        // Taken after signing, so never before expiration of the tokens
+        final var now = Instant.now();
+        final var digests = new RefreshTokenFamilyRepository.IssuedDigests(
+                jwtUtil.tokenDigest(accessToken), now.plusMillis(jwtUtil.getExpiration()),
+                jwtUtil.tokenDigest(refreshToken), now.plusMillis(jwtUtil.getRefreshExpiration()));
+        final var response = new AuthResponseData()
+                .setUserId(userId)
+                .setAccessToken(accessToken)
+                .setRefreshToken(refreshToken);
+        return new IssuedTokens(response, digests);
+    }
+
+    private record IssuedTokens(AuthResponseData response,
+                                RefreshTokenFamilyRepository.IssuedDigests digests) {
+    }
+}
@@ -0,0 +1,48 @@
+package io.touchyongan.starter_template.feature.user.controller;
+
+import io.touchyongan.starter_template.common.data.ApiResponse;
+import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.common.specification.PaginationRequest;
+import io.touchyongan.starter_template.feature.user.data.AppUserConstant;
+import io.touchyongan.starter_template.feature.user.data.AppUserData;
+import io.touchyongan.starter_template.feature.user.data.AppUserFilter;
+import io.touchyongan.starter_template.feature.user.service.AppUserService;
+import io.touchyongan.starter_template.infrastructure.permission.CustomPreAuthorize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("users")
+public class AppUserController {
+    private final AppUserService appUserService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @CustomPreAuthorize(action = AppUserConstant.READ, entity = AppUserConstant.ENTITY)
+    public ResponseEntity<ApiResponse<CustomPage<AppUserData>>> getAllUsers(
+            @RequestParam(value = "query", required = false) final String query,
+            @RequestParam(value = "enabled", required = false) final Boolean enabled,
+            @RequestParam(value = "sortFields", required = false) List<String> sortFields,
+            @RequestParam(value = "sortDirections", required = false) List<String> sortDirections,
+            @RequestParam(value = "page", defaultValue = "0") final int page,
+            @RequestParam(value = "size", defaultValue = "10") final int size
+    ) {
+        sortFields = Optional.ofNullable(sortFields).orElse(List.of("id"));
+        sortDirections = Optional.ofNullable(sortDirections).orElse(List.of("ASC"));
+        final var pageRequest = PaginationRequest.newPaginationRequest(page, size, sortFields, sortDirections);
+        PaginationRequest.validateValidFields(AppUserFilter.SUPPORTED_FIELDS, sortFields);
+        final var filter = new AppUserFilter();
+        filter.setPaginationRequest(pageRequest);
+        filter.setQuery(query);
+        filter.setEnabled(enabled);
+        return ResponseEntity.ok(new ApiResponse<>(appUserService.getAllUsers(filter)));
+    }
+}
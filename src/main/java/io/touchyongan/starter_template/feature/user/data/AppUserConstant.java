@@ -10,4 +10,5 @@ public final class AppUserConstant extends BaseConstant {
     public static final String ENTITY = "APP_USER";
     public static final String LOGIN = "LOGIN";
     public static final String REFRESH_TOKEN = "REFRESH_TOKEN";
+    public static final String LOGOUT = "LOGOUT";
 }
@@ -0,0 +1,41 @@
+package io.touchyongan.starter_template.feature.user.data;
+
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.feature.user.entity.Role;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Setter
+public class AppUserData {
+    private Long id;
+    private String username;
+    private String email;
+    private boolean enabled;
+    private String firstname;
+    private String lastname;
+    private List<String> roles;
+    private LocalDateTime createdAt;
+
+    public static AppUserData from(final AppUser appUser) {
+        final var data = new AppUserData();
+        data.setId(appUser.getId());
+        data.setUsername(appUser.getUsername());
+        data.setEmail(appUser.getEmail());
+        data.setEnabled(appUser.isEnabled());
+        data.setCreatedAt(appUser.getCreatedAt());
+        if (Objects.nonNull(appUser.getUserInfo())) {
+            data.setFirstname(appUser.getUserInfo().getFirstname());
+            data.setLastname(appUser.getUserInfo().getLastname());
+        }
+        data.setRoles(appUser.getRoles()
+                .stream()
+                .map(Role::getName)
+                .toList());
+        return data;
+    }
+}
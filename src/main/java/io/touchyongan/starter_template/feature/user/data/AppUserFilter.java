@@ -0,0 +1,38 @@
+package io.touchyongan.starter_template.feature.user.data;
+
+import io.touchyongan.starter_template.common.specification.BaseFilterWithPagination;
+import io.touchyongan.starter_template.common.specification.FetchPlan;
+import io.touchyongan.starter_template.common.specification.SearchCriteria;
+import io.touchyongan.starter_template.common.specification.SearchOperator;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+
+@Getter
+@Setter
+public class AppUserFilter extends BaseFilterWithPagination<AppUser> {
+    public static final Set<String> SUPPORTED_FIELDS = Set.of("id", "username", "email", "createdAt");
+    private static final FetchPlan FETCH_PLAN = FetchPlan.of("userInfo", "roles");
+
+    private String query;
+    private Boolean enabled;
+
+    @Override
+    public void initialSearchCriteriaList() {
+        if (StringUtils.hasText(query)) {
+            searchCriteriaList.add(SearchCriteria.multiFieldsSearch(query, "username", "email"));
+        }
+        searchCriteriaList.add(SearchCriteria.newSearchCriteria("enabled", SearchOperator.EQUAL, enabled));
+    }
+
+    /**
+     * AppUserData shows user info and role names, without the plan each user costs two more statements.
+     */
+    @Override
+    public FetchPlan getFetchPlan() {
+        return FETCH_PLAN;
+    }
+}
@@ -0,0 +1,11 @@
+package io.touchyongan.starter_template.feature.user.data;
+
+/**
+ * User found or created by provisioning of an external login.
+ *
+ * @param created true when this call inserted the user
+ */
+public record ProvisionedUserData(Long id,
+                                  String username,
+                                  boolean created) {
+}
@@ -0,0 +1,14 @@
+package io.touchyongan.starter_template.feature.user.data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Username of an app user as of its last create, update or soft delete.
+ *
+ * @param changedAt newest of created_at, updated_at and deleted_at
+ */
+public record UsernameChangeData(Long id,
+                                 String username,
+                                 boolean deleted,
+                                 LocalDateTime changedAt) {
+}
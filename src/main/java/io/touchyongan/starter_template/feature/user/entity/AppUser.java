@@ -4,6 +4,7 @@ import io.touchyongan.starter_template.common.base.CustomPersistable;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
@@ -75,6 +76,7 @@ public class AppUser extends CustomPersistable implements UserDetails {
     private UserInfo userInfo;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 64)
     @JoinTable(
             name = "app_user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
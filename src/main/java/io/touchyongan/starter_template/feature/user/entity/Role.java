@@ -4,6 +4,7 @@ import io.touchyongan.starter_template.common.base.CustomPersistable;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -33,7 +34,9 @@ public class Role extends CustomPersistable implements Serializable {
     @Column(name = "is_system")
     private boolean system;
 
+    // Lazy permissions of several roles are loaded with one query, e.g. authorities of a user with many roles
     @ManyToMany
+    @BatchSize(size = 64)
     @JoinTable(name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "permission_id"))
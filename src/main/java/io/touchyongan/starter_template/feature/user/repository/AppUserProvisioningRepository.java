@@ -0,0 +1,61 @@
+package io.touchyongan.starter_template.feature.user.repository;
+
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Idempotent provisioning of users of external logins, one statement instead of exists check then insert, so concurrent
+ * first logins of the same user neither race nor fail. Conflict target is left out so both lowercase unique indexes
+ * are covered, username of a provisioned user is its email.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppUserProvisioningRepository {
+    private static final String PROVISION = """
+            WITH inserted AS (
+                INSERT INTO app_users(username, email, is_enabled, is_credentials_non_expired, is_account_non_expired,
+                                      is_account_non_locked, is_deleted, is_not_allowed_update, is_system)
+                VALUES (:email, :email, true, true, true, true, false, false, false)
+                ON CONFLICT DO NOTHING
+                RETURNING id, username
+            ), info AS (
+                INSERT INTO user_info(firstname, lastname, app_user_id)
+                SELECT :firstname, :lastname, id FROM inserted
+            )
+            SELECT id, username, true AS created FROM inserted
+            UNION ALL
+            SELECT id, username, false FROM app_users
+            WHERE is_deleted = false AND (lower(email) = lower(:email) OR lower(username) = lower(:email))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Rows inserted by this statement are not visible to its own select, and conflicting rows are, so exactly one row
+     * is returned, except when the conflicting row was committed after the statement started.
+     * Running the statement again sees that row.
+     */
+    public ProvisionedUserData provision(final String email,
+                                         final String firstname,
+                                         final String lastname) {
+        final var params = new MapSqlParameterSource()
+                .addValue("email", email)
+                .addValue("firstname", firstname)
+                .addValue("lastname", lastname);
+        return tryProvision(params)
+                .or(() -> tryProvision(params))
+                .orElseThrow(() -> new IllegalStateException("Could not provision user of email " + email));
+    }
+
+    private Optional<ProvisionedUserData> tryProvision(final MapSqlParameterSource params) {
+        return jdbcTemplate.query(PROVISION, params, (rs, rowNum) ->
+                        new ProvisionedUserData(rs.getLong("id"), rs.getString("username"), rs.getBoolean("created")))
+                .stream()
+                .findFirst();
+    }
+}
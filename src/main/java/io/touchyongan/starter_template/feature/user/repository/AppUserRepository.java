@@ -10,7 +10,8 @@ import java.util.Optional;
 
 public interface AppUserRepository extends BaseRepository<AppUser>, BaseProjectionRepository<AppUser> {
 
-    @Query("SELECT u FROM AppUser u LEFT JOIN FETCH u.roles WHERE LOWER(u.username) = :username OR LOWER(u.email) = :username" )
+    // Inverse side of one-to-one cannot be lazy, without fetch join user info costs one more statement per lookup
+    @Query("SELECT u FROM AppUser u LEFT JOIN FETCH u.userInfo LEFT JOIN FETCH u.roles WHERE LOWER(u.username) = :username OR LOWER(u.email) = :username" )
     Optional<AppUser> findByUsernameJoinFetch(String username);
 
     default boolean isExist(final String username) {
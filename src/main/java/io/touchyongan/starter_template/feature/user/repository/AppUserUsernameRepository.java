@@ -0,0 +1,46 @@
+package io.touchyongan.starter_template.feature.user.repository;
+
+import io.touchyongan.starter_template.feature.user.data.UsernameChangeData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Usernames of live users, or changed after a point in time with soft deleted rows included so a reader can drop them.
+ * Range is served by idx_app_users_changed_at, so a poll with nothing changed reads no row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppUserUsernameRepository {
+    private static final RowMapper<UsernameChangeData> USERNAME_CHANGE = (rs, rowNum) -> new UsernameChangeData(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getBoolean("is_deleted"),
+            rs.getObject("changed_at", LocalDateTime.class));
+
+    private static final String ALL = """
+            SELECT id, username, is_deleted, GREATEST(created_at, updated_at, deleted_at) AS changed_at
+            FROM app_users
+            WHERE is_deleted = false
+            """;
+    private static final String CHANGED_SINCE = """
+            SELECT id, username, is_deleted, GREATEST(created_at, updated_at, deleted_at) AS changed_at
+            FROM app_users
+            WHERE GREATEST(created_at, updated_at, deleted_at) > :since
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<UsernameChangeData> findAll() {
+        return jdbcTemplate.query(ALL, USERNAME_CHANGE);
+    }
+
+    public List<UsernameChangeData> findChangedSince(final LocalDateTime since) {
+        return jdbcTemplate.query(CHANGED_SINCE, new MapSqlParameterSource("since", since), USERNAME_CHANGE);
+    }
+}
@@ -0,0 +1,20 @@
+package io.touchyongan.starter_template.feature.user.service;
+
+import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.feature.user.data.AppUserData;
+import io.touchyongan.starter_template.feature.user.data.AppUserFilter;
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AppUserService {
+
+    CustomPage<AppUserData> getAllUsers(final AppUserFilter filter);
+
+    /**
+     * Find or create enabled user of an external login on the async executor, the caller does not wait for the database.
+     */
+    CompletableFuture<ProvisionedUserData> provisionAsync(final String email,
+                                                          final String firstname,
+                                                          final String lastname);
+}
@@ -15,13 +15,11 @@ import java.util.Optional;
 public class CustomUserDetailService implements UserDetailsService {
     private final AppUserRepository appUserRepository;
 
+    // Authorities are loaded as well, login authenticates outside of transaction
+    @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
-        final var lower = Optional.ofNullable(username)
-                .map(String::toLowerCase)
-                .orElseThrow(() -> usernameNotFoundException(username));
-        return appUserRepository.findByUsernameJoinFetch(lower)
-                .orElseThrow(() -> usernameNotFoundException(username));
+        return loadUserByUsernameWithPermission(username);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,38 @@
+package io.touchyongan.starter_template.feature.user.service.impl;
+
+import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.feature.user.data.AppUserData;
+import io.touchyongan.starter_template.feature.user.data.AppUserFilter;
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.feature.user.repository.AppUserProvisioningRepository;
+import io.touchyongan.starter_template.feature.user.repository.AppUserRepository;
+import io.touchyongan.starter_template.feature.user.service.AppUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class AppUserServiceImpl implements AppUserService {
+    private final AppUserRepository appUserRepository;
+    private final AppUserProvisioningRepository appUserProvisioningRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomPage<AppUserData> getAllUsers(final AppUserFilter filter) {
+        return appUserRepository.findAllWithFetchPlan(filter.getSpecification(), filter.getPageable(), filter.getFetchPlan(), AppUser.class)
+                .map(AppUserData::from);
+    }
+
+    @Async
+    @Override
+    public CompletableFuture<ProvisionedUserData> provisionAsync(final String email,
+                                                                 final String firstname,
+                                                                 final String lastname) {
+        return CompletableFuture.completedFuture(appUserProvisioningRepository.provision(email, firstname, lastname));
+    }
+}
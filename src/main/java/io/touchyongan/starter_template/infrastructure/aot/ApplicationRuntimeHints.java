@@ -0,0 +1,101 @@
+package io.touchyongan.starter_template.infrastructure.aot;
+
+import io.touchyongan.starter_template.common.data.ApiResponse;
+import io.touchyongan.starter_template.common.data.CustomPage;
+import io.touchyongan.starter_template.common.data.PageData;
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.infrastructure.jpa.ArrayFunctionContributor;
+import io.touchyongan.starter_template.infrastructure.jpa.RawJsonType;
+import io.touchyongan.starter_template.infrastructure.permission.CustomSecurityExpressionRoot;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reflection and resources which Spring AOT cannot infer, required by native image.
+ * - entity and data classes: fields are read by AuditDiffPlan, GenericResultTransformer and BaseProjectionRepositoryImpl,
+ * data classes are created by AliasToBeanResultTransformer of GenericResultTransformer and by AggregateResultMapper,
+ * through their constructor (records: canonical one) then a setter or field per alias, and written by ObjectMapper
+ * outside of controller return types
+ * - types created by name: RawJsonType and ArrayFunctionContributor by Hibernate, RawJson deserializer by Jackson, JJWT implementations by Jwts/Jwks/Keys
+ * - CustomPreAuthorize expression root, its methods are invoked by SpEL
+ * - controller methods and parameter types of EntityActionIndex, resolved by name in EntityActionRegistry
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String FEATURE_PACKAGE = "io.touchyongan.starter_template.feature";
+    private static final Pattern ENTITY_OR_DATA_CLASS = Pattern.compile(".*\\.(entity|data)\\.[^.]+");
+    private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(final RuntimeHints hints,
+                              final ClassLoader classLoader) {
+        final var reflection = hints.reflection();
+        final var bindingRegistrar = new BindingReflectionHintsRegistrar();
+        for (final var type : findEntityAndDataClasses(classLoader)) {
+            reflection.registerType(type, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+            bindingRegistrar.registerReflectionHints(reflection, type);
+        }
+        bindingRegistrar.registerReflectionHints(reflection, ApiResponse.class, CustomPage.class, PageData.class);
+
+        reflection.registerType(RawJsonType.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        reflection.registerType(TypeReference.of(RawJson.class.getName() + "$RawJsonDeserializer"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        reflection.registerType(CustomSecurityExpressionRoot.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        for (final var descriptor : EntityActionRegistry.index()) {
+            reflection.registerType(TypeReference.of(descriptor.declaringClass()), MemberCategory.INTROSPECT_DECLARED_METHODS);
+            descriptor.parameterTypes()
+                    .stream()
+                    .filter(parameterType -> parameterType.contains("."))
+                    .forEach(parameterType -> reflection.registerType(TypeReference.of(parameterType)));
+        }
+        JJWT_IMPLEMENTATIONS.forEach(name -> reflection.registerTypeIfPresent(classLoader, name,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+
+        reflection.registerType(ArrayFunctionContributor.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("META-INF/services/org.hibernate.boot.model.FunctionContributor");
+        hints.resources().registerPattern("i18n/errors/*.properties");
+        hints.resources().registerPattern("serverkey/*");
+    }
+
+    private static List<Class<?>> findEntityAndDataClasses(final ClassLoader classLoader) {
+        final var provider = new ClassPathScanningCandidateComponentProvider(false);
+        provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+        provider.addIncludeFilter(new RegexPatternTypeFilter(ENTITY_OR_DATA_CLASS));
+        return provider.findCandidateComponents(FEATURE_PACKAGE)
+                .stream()
+                .<Class<?>>map(definition -> ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader))
+                .toList();
+    }
+}
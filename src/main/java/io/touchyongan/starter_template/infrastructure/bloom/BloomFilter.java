@@ -0,0 +1,77 @@
+package io.touchyongan.starter_template.infrastructure.bloom;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of cryptographic digests, e.g. SHA-256 of a token. A digest is already uniformly distributed, so bit
+ * indexes are derived from its first 16 bytes by double hashing instead of hashing it again. Bits are set by CAS,
+ * put and mightContain need no lock.
+ */
+public final class BloomFilter {
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final int MIN_DIGEST_LENGTH = 16;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions   insertions at which the false positive rate is reached, more insertions raise it
+     * @param falsePositiveRate    probability that mightContain is true for a digest never put
+     */
+    public BloomFilter(final int expectedInsertions,
+                       final double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate between 0 and 1");
+        }
+        final var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(final byte[] digest) {
+        final var h1 = h1(digest);
+        final var h2 = h2(digest);
+        for (var i = 0; i < hashCount; i++) {
+            final var index = Math.floorMod(h1 + i * h2, bitCount);
+            final var word = (int) (index >>> 6);
+            final var mask = 1L << index;
+            var current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(final byte[] digest) {
+        final var h1 = h1(digest);
+        final var h2 = h2(digest);
+        for (var i = 0; i < hashCount; i++) {
+            final var index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (index >>> 6)) & 1L << index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private static long h1(final byte[] digest) {
+        if (digest.length < MIN_DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Digest must have at least %d bytes".formatted(MIN_DIGEST_LENGTH));
+        }
+        return (long) LONG_VIEW.get(digest, 0);
+    }
+
+    // Odd, so successive indexes never repeat before covering the table
+    private static long h2(final byte[] digest) {
+        return (long) LONG_VIEW.get(digest, Long.BYTES) | 1;
+    }
+}
@@ -0,0 +1,61 @@
+package io.touchyongan.starter_template.infrastructure.bloom;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Bloom filters of digests grouped by expiry time, one filter per bucket of bucketWidth. Bits cannot be removed from
+ * a Bloom filter, instead a bucket is dropped as a whole once every digest in it has expired, and is not checked anymore
+ * from then on, even before prune drops it.
+ */
+public final class ExpiringBloomFilter {
+    private final long bucketMillis;
+    private final int expectedPerBucket;
+    private final double falsePositiveRate;
+    // Key is the end of the bucket in epoch millis, digests in it expire before
+    private final ConcurrentNavigableMap<Long, BloomFilter> buckets = new ConcurrentSkipListMap<>();
+
+    public ExpiringBloomFilter(final Duration bucketWidth,
+                               final int expectedPerBucket,
+                               final double falsePositiveRate) {
+        if (bucketWidth.toMillis() < 1) {
+            throw new IllegalArgumentException("bucketWidth must be at least 1 ms");
+        }
+        this.bucketMillis = bucketWidth.toMillis();
+        this.expectedPerBucket = expectedPerBucket;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void put(final byte[] digest,
+                    final Instant expiresAt) {
+        final var bucketEnd = (Math.floorDiv(expiresAt.toEpochMilli(), bucketMillis) + 1) * bucketMillis;
+        buckets.computeIfAbsent(bucketEnd, ignored -> new BloomFilter(expectedPerBucket, falsePositiveRate))
+                .put(digest);
+    }
+
+    /**
+     * @return false when digest was never put or has expired, true when it was put or for a false positive
+     */
+    public boolean mightContain(final byte[] digest,
+                                final Instant now) {
+        for (final var bucket : buckets.tailMap(now.toEpochMilli(), false).values()) {
+            if (bucket.mightContain(digest)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop buckets whose digests have all expired.
+     */
+    public void prune(final Instant now) {
+        buckets.headMap(now.toEpochMilli(), true).clear();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+}
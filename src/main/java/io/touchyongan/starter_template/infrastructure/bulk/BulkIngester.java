@@ -0,0 +1,133 @@
+package io.touchyongan.starter_template.infrastructure.bulk;
+
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Load rows with COPY FROM STDIN (FORMAT binary), falling back to row inserts when COPY fails.
+ * COPY is all or nothing, so on failure the rows are inserted again as one JDBC batch and, if that fails too,
+ * one by one, each step under a savepoint: a single bad row is reported in IngestResult.failed instead of losing the others.
+ * Joins the transaction of caller, if any. Throughput is recorded as app.bulk.ingest (time) and app.bulk.ingest.rows (rows).
+ */
+@Slf4j
+public class BulkIngester {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StageMetrics stageMetrics;
+    private final boolean copyEnabled;
+    private final int bufferSize;
+
+    public BulkIngester(final JdbcTemplate jdbcTemplate,
+                        final TransactionTemplate transactionTemplate,
+                        final StageMetrics stageMetrics,
+                        final boolean copyEnabled,
+                        final int bufferSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stageMetrics = stageMetrics;
+        this.copyEnabled = copyEnabled;
+        this.bufferSize = bufferSize;
+    }
+
+    public <T> IngestResult<T> ingest(final BulkTable<T> table,
+                                      final List<T> rows) {
+        if (rows.isEmpty()) {
+            return new IngestResult<>(IngestResult.IngestMode.COPY, 0, List.of(), 0);
+        }
+        final var start = System.nanoTime();
+        final var result = Objects.requireNonNull(transactionTemplate.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<IngestResult<T>>) connection -> ingest(connection, table, rows, start))));
+        final var mode = result.mode().name();
+        stageMetrics.record(StageMetrics.BULK_INGEST, result.elapsedNanos(), "table", table.getTable(), "mode", mode);
+        stageMetrics.recordAmount(StageMetrics.BULK_INGEST_ROWS, result.rows(), "table", table.getTable(), "mode", mode);
+        log.debug("Ingested {} rows into {} by {} in {} ms, {} rows/s", result.rows(), table.getTable(), mode,
+                result.elapsedNanos() / 1_000_000, Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private <T> IngestResult<T> ingest(final Connection connection,
+                                       final BulkTable<T> table,
+                                       final List<T> rows,
+                                       final long start) throws SQLException {
+        if (copyEnabled && connection.isWrapperFor(PGConnection.class)) {
+            final var savepoint = connection.setSavepoint();
+            try {
+                final var copied = copy(connection, table, rows);
+                connection.releaseSavepoint(savepoint);
+                return new IngestResult<>(IngestResult.IngestMode.COPY, copied, List.of(), System.nanoTime() - start);
+            } catch (final SQLException | RuntimeException e) {
+                connection.rollback(savepoint);
+                log.warn("COPY of {} rows into {} failed, fall back to row inserts", rows.size(), table.getTable(), e);
+            }
+        }
+        final var failed = insert(connection, table, rows);
+        return new IngestResult<>(IngestResult.IngestMode.INSERT, rows.size() - failed.size(), failed, System.nanoTime() - start);
+    }
+
+    private <T> long copy(final Connection connection,
+                          final BulkTable<T> table,
+                          final List<T> rows) throws SQLException {
+        final var copyIn = connection.unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn(table.copySql());
+        try {
+            final var writer = new PgBinaryCopyWriter(copyIn, bufferSize);
+            for (final var row : rows) {
+                table.encode(row, writer);
+            }
+            return writer.finish();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * @return rows rejected one by one
+     */
+    private <T> List<T> insert(final Connection connection,
+                               final BulkTable<T> table,
+                               final List<T> rows) throws SQLException {
+        try (final var statement = connection.prepareStatement(table.insertSql())) {
+            final var batchSavepoint = connection.setSavepoint();
+            try {
+                for (final var row : rows) {
+                    table.bind(statement, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.releaseSavepoint(batchSavepoint);
+                return List.of();
+            } catch (final SQLException e) {
+                connection.rollback(batchSavepoint);
+                statement.clearBatch();
+                log.warn("Batch insert of {} rows into {} failed, insert one by one", rows.size(), table.getTable(), e);
+            }
+            final var failed = new ArrayList<T>();
+            for (final var row : rows) {
+                final var rowSavepoint = connection.setSavepoint();
+                try {
+                    table.bind(statement, row);
+                    statement.executeUpdate();
+                    connection.releaseSavepoint(rowSavepoint);
+                } catch (final SQLException e) {
+                    connection.rollback(rowSavepoint);
+                    log.warn("Insert into {} rejected: {}", table.getTable(), e.getMessage());
+                    failed.add(row);
+                }
+            }
+            return failed;
+        }
+    }
+}
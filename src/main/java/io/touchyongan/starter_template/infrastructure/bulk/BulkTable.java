@@ -0,0 +1,39 @@
+package io.touchyongan.starter_template.infrastructure.bulk;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Row mapping of a table loaded by BulkIngester: binary COPY encoding and the same row as INSERT parameters for fallback.
+ *
+ * @param <T> row type
+ */
+public interface BulkTable<T> {
+
+    String getTable();
+
+    /**
+     * Columns in the order fields are written by encode and bound by bind.
+     */
+    List<String> getColumns();
+
+    /**
+     * Placeholder of each column in INSERT, e.g. ?::jsonb, same order as columns.
+     */
+    List<String> getPlaceholders();
+
+    void encode(T row,
+                PgBinaryCopyWriter writer) throws SQLException;
+
+    void bind(PreparedStatement statement,
+              T row) throws SQLException;
+
+    default String copySql() {
+        return "COPY %s(%s) FROM STDIN (FORMAT binary)".formatted(getTable(), String.join(", ", getColumns()));
+    }
+
+    default String insertSql() {
+        return "INSERT INTO %s(%s) VALUES (%s)".formatted(getTable(), String.join(", ", getColumns()), String.join(", ", getPlaceholders()));
+    }
+}
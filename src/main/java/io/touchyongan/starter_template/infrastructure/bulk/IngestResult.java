@@ -0,0 +1,21 @@
+package io.touchyongan.starter_template.infrastructure.bulk;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @param rows   rows written
+ * @param failed rows rejected by the database even one by one, e.g. constraint violation
+ * @param <T>    row type
+ */
+public record IngestResult<T>(IngestMode mode, long rows, List<T> failed, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public enum IngestMode {
+        COPY,
+        INSERT
+    }
+}
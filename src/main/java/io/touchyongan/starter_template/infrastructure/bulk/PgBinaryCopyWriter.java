@@ -0,0 +1,161 @@
+package io.touchyongan.starter_template.infrastructure.bulk;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Encode rows in PostgreSQL binary COPY format straight into a reused buffer, handed to CopyIn whenever it is full.
+ * Strings are encoded to UTF-8 in place, no intermediate String or byte[] per field. An unpaired surrogate is replaced by '?'
+ * like String.getBytes does, so the row is written the same as through JDBC text parameters.
+ * Fields of a row must be written in the column order of the COPY statement.
+ */
+public final class PgBinaryCopyWriter {
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final int HEADER_BYTES = SIGNATURE.length + 2 * Integer.BYTES;
+    private static final int NULL_LENGTH = -1;
+    private static final short TRAILER = -1;
+    private static final byte JSONB_VERSION = 1;
+    private static final int MAX_BYTES_PER_CHAR = 3;
+    // Postgres timestamps count microseconds from 2000-01-01
+    private static final long PG_EPOCH_SECONDS = LocalDateTime.of(2000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final CopyIn copyIn;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer buffer;
+    private long rows;
+
+    public PgBinaryCopyWriter(final CopyIn copyIn,
+                              final int bufferSize) throws SQLException {
+        this.copyIn = copyIn;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, HEADER_BYTES));
+        buffer.put(SIGNATURE)
+                .putInt(0)  // flags
+                .putInt(0); // header extension length
+    }
+
+    public PgBinaryCopyWriter startRow(final int fields) throws SQLException {
+        ensure(Short.BYTES);
+        buffer.putShort((short) fields);
+        rows++;
+        return this;
+    }
+
+    public PgBinaryCopyWriter putText(final String value) throws SQLException {
+        if (Objects.isNull(value)) {
+            return putNull();
+        }
+        putUtf8(value, false);
+        return this;
+    }
+
+    public PgBinaryCopyWriter putJsonb(final String value) throws SQLException {
+        if (Objects.isNull(value)) {
+            return putNull();
+        }
+        putUtf8(value, true);
+        return this;
+    }
+
+    public PgBinaryCopyWriter putInt8(final Long value) throws SQLException {
+        if (Objects.isNull(value)) {
+            return putNull();
+        }
+        ensure(Integer.BYTES + Long.BYTES);
+        buffer.putInt(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    public PgBinaryCopyWriter putBool(final Boolean value) throws SQLException {
+        if (Objects.isNull(value)) {
+            return putNull();
+        }
+        ensure(Integer.BYTES + 1);
+        buffer.putInt(1).put((byte) (value ? 1 : 0));
+        return this;
+    }
+
+    /**
+     * timestamp without time zone, microsecond precision as Postgres keeps it.
+     */
+    public PgBinaryCopyWriter putTimestamp(final LocalDateTime value) throws SQLException {
+        if (Objects.isNull(value)) {
+            return putNull();
+        }
+        ensure(Integer.BYTES + Long.BYTES);
+        final var micros = (value.toEpochSecond(ZoneOffset.UTC) - PG_EPOCH_SECONDS) * 1_000_000 + value.getNano() / 1_000;
+        buffer.putInt(Long.BYTES).putLong(micros);
+        return this;
+    }
+
+    public PgBinaryCopyWriter putNull() throws SQLException {
+        ensure(Integer.BYTES);
+        buffer.putInt(NULL_LENGTH);
+        return this;
+    }
+
+    /**
+     * Write trailer and complete the COPY.
+     *
+     * @return number of rows reported by the server
+     */
+    public long finish() throws SQLException {
+        ensure(Short.BYTES);
+        buffer.putShort(TRAILER);
+        flushBuffer();
+        return copyIn.endCopy();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    private void putUtf8(final String value,
+                         final boolean jsonb) throws SQLException {
+        final var prefix = jsonb ? 1 : 0;
+        ensure(Integer.BYTES + prefix + value.length() * MAX_BYTES_PER_CHAR);
+        final var lengthPosition = buffer.position();
+        buffer.position(lengthPosition + Integer.BYTES);
+        if (jsonb) {
+            buffer.put(JSONB_VERSION);
+        }
+        // Buffer is large enough for the worst case, a field cut short must still never reach the server
+        checkEncoded(encoder.reset().encode(CharBuffer.wrap(value), buffer, true));
+        checkEncoded(encoder.flush(buffer));
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+    }
+
+    private static void checkEncoded(final CoderResult result) throws SQLException {
+        if (result.isError() || result.isOverflow()) {
+            throw new SQLException("Could not encode field to UTF-8: " + result);
+        }
+    }
+
+    private void ensure(final int bytes) throws SQLException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        flushBuffer();
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+        }
+    }
+
+    private void flushBuffer() throws SQLException {
+        if (buffer.position() > 0) {
+            copyIn.writeToCopy(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.touchyongan.starter_template.infrastructure.conditional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Answer If-None-Match/If-Modified-Since with 304 before executing the handler.
+ * resolver refers to a bean which compute cheap version of the resource from handler arguments.
+ * Handler must return ResponseEntity. Authorization (CustomPreAuthorize) still run before the check.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = ElementType.METHOD)
+public @interface ConditionalGet {
+    Class<? extends ResourceVersionResolver> resolver();
+
+    /**
+     * Version of the response body format, bump it when the returned data changes shape,
+     * so clients do not revalidate a cached body of the previous format.
+     */
+    int representation() default 1;
+}
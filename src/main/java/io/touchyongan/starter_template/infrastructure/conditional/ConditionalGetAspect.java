@@ -0,0 +1,85 @@
+package io.touchyongan.starter_template.infrastructure.conditional;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Lowest precedence keeps this aspect inside method security interceptor,
+ * so the short-circuit never leaks a resource to unauthorized user.
+ * ETag is bound to the caller and its authorities too, a response rendered for one user is never validated for another.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConditionalGetAspect {
+    private final ApplicationContext applicationContext;
+
+    @Around(value = "@annotation(conditionalGet)")
+    public Object checkNotModified(final ProceedingJoinPoint joinPoint,
+                                   final ConditionalGet conditionalGet) throws Throwable {
+        final var servletAttribute = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        Assert.notNull(servletAttribute, "servletAttribute is null");
+        final var resolver = applicationContext.getBean(conditionalGet.resolver());
+        final var version = resolver.resolve(joinPoint.getArgs());
+        if (Objects.isNull(version)) {
+            return joinPoint.proceed();
+        }
+
+        final var request = servletAttribute.getRequest();
+        final var webRequest = new ServletWebRequest(request, servletAttribute.getResponse());
+        final var etag = buildETag(request, conditionalGet.representation(), version.key());
+        servletAttribute.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        final var notModified = Objects.isNull(version.lastModified())
+                ? webRequest.checkNotModified(etag)
+                : webRequest.checkNotModified(etag, version.lastModified().toEpochMilli());
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return joinPoint.proceed();
+    }
+
+    private String buildETag(final HttpServletRequest request,
+                             final int representation,
+                             final String key) {
+        // Same version may serve different page/filter, so bind ETag to the full request target
+        final var target = "%s?%s#%s#%d#%s".formatted(request.getRequestURI(), request.getQueryString(), caller(), representation, key);
+        return "\"" + DigestUtils.md5DigestAsHex(target.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Username and sorted authorities, so a change of role or permission also changes the ETag.
+     */
+    private String caller() {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (Objects.isNull(authentication)) {
+            return "";
+        }
+        final var authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toCollection(TreeSet::new));
+        return authentication.getName() + "|" + String.join(",", authorities);
+    }
+}
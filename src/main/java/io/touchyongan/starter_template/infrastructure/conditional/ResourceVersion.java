@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.infrastructure.conditional;
+
+import java.time.Instant;
+
+/**
+ * key is used to build ETag, lastModified is optional and used for If-Modified-Since.
+ */
+public record ResourceVersion(String key, Instant lastModified) {
+
+    public static ResourceVersion of(final Object key) {
+        return new ResourceVersion(String.valueOf(key), null);
+    }
+
+    public static ResourceVersion of(final Object key,
+                                     final Instant lastModified) {
+        return new ResourceVersion(String.valueOf(key), lastModified);
+    }
+}
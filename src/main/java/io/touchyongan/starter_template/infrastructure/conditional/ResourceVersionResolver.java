@@ -0,0 +1,10 @@
+package io.touchyongan.starter_template.infrastructure.conditional;
+
+/**
+ * Resolve version of a resource without loading it, e.g. updated_at, max id or content hash.
+ * Return null to skip conditional check.
+ */
+public interface ResourceVersionResolver {
+
+    ResourceVersion resolve(final Object[] args);
+}
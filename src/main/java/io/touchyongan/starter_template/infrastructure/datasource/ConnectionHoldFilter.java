@@ -0,0 +1,37 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Bind ConnectionOwner to request thread, so every connection taken by the request can be attributed to it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@RequiredArgsConstructor
+public class ConnectionHoldFilter extends OncePerRequestFilter {
+    private final ConnectionHoldTracker connectionHoldTracker;
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var start = System.nanoTime();
+        final var owner = ConnectionOwner.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConnectionOwner.end();
+            connectionHoldTracker.checkRequestEnd(owner, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import io.touchyongan.starter_template.config.properties.ConnectionHoldProperties;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Track every connection from checkout to close, registered as method listener of the proxy data source.
+ * Reports:
+ * - connection held by a thread that is about to block, e.g. sleep of login delay
+ * - connection held for most of the request, usually an open transaction around slow non database work
+ * - connection still held at the end of request or held longer than leak threshold, with its owner
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionHoldTracker implements MethodExecutionListener {
+    private static final String KIND_BLOCKING = "blocking";
+    private static final String KIND_REQUEST = "request";
+    private static final String KIND_UNRELEASED = "unreleased";
+    private static final String KIND_LEAK = "leak";
+
+    private final ConnectionHoldProperties properties;
+    private final StageMetrics stageMetrics;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeMethod(final MethodExecutionContext executionContext) {
+        // Only completed checkout and close matter
+    }
+
+    @Override
+    public void afterMethod(final MethodExecutionContext executionContext) {
+        final var methodName = executionContext.getMethod().getName();
+        final var connectionInfo = executionContext.getConnectionInfo();
+        if (Objects.isNull(connectionInfo) || Objects.nonNull(executionContext.getThrown())) {
+            return;
+        }
+        if ("getConnection".equals(methodName) && executionContext.getTarget() instanceof DataSource) {
+            holds.put(connectionInfo.getConnectionId(), new Hold(PoolRoutingDataSource.currentPool(), Thread.currentThread(),
+                    System.nanoTime(), ConnectionOwner.current()));
+        } else if ("close".equals(methodName) && executionContext.getTarget() instanceof Connection) {
+            final var hold = holds.remove(connectionInfo.getConnectionId());
+            if (Objects.nonNull(hold) && Objects.nonNull(hold.owner())) {
+                hold.owner().onReleased(System.nanoTime() - hold.acquiredAt());
+            }
+        }
+    }
+
+    /**
+     * Call before a blocking operation which does not need database, it must not run while holding a connection.
+     */
+    public void checkBeforeBlocking(final String operation) {
+        final var thread = Thread.currentThread();
+        holds.forEach((id, hold) -> {
+            if (hold.thread() == thread) {
+                stageMetrics.increment(StageMetrics.POOL_HOLD_VIOLATION, "kind", KIND_BLOCKING, "pool", hold.pool().getKey());
+                log.warn("Connection {} of pool {} is held across blocking {} by {}", id, hold.pool().getKey(), operation, hold.owner());
+            }
+        });
+    }
+
+    void checkRequestEnd(final ConnectionOwner owner,
+                         final long requestNanos) {
+        holds.forEach((id, hold) -> {
+            if (hold.owner() == owner) {
+                stageMetrics.increment(StageMetrics.POOL_HOLD_VIOLATION, "kind", KIND_UNRELEASED, "pool", hold.pool().getKey());
+                log.warn("Connection {} of pool {} is not released at the end of request by {}", id, hold.pool().getKey(), owner);
+            }
+        });
+        if (requestNanos < properties.getRequestMinDuration().toNanos()) {
+            return;
+        }
+        final var longestHold = owner.getLongestHoldNanos();
+        if (longestHold >= requestNanos * properties.getRequestHoldRatio()) {
+            stageMetrics.increment(StageMetrics.POOL_HOLD_VIOLATION, "kind", KIND_REQUEST, "pool", PoolName.REQUEST.getKey());
+            log.warn("Connection held {} ms of {} ms request by {}, check for transaction around non database work",
+                    TimeUnit.NANOSECONDS.toMillis(longestHold), TimeUnit.NANOSECONDS.toMillis(requestNanos), owner);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.hold.leak-report-interval}")
+    public void reportLeaks() {
+        final var now = System.nanoTime();
+        final var threshold = properties.getLeakThreshold().toNanos();
+        holds.forEach((id, hold) -> {
+            final var held = now - hold.acquiredAt();
+            if (held >= threshold) {
+                stageMetrics.increment(StageMetrics.POOL_HOLD_VIOLATION, "kind", KIND_LEAK, "pool", hold.pool().getKey());
+                log.warn("Possible connection leak: {} of pool {} held {} ms by thread {}, owner {}", id, hold.pool().getKey(),
+                        TimeUnit.NANOSECONDS.toMillis(held), hold.thread().getName(),
+                        Objects.nonNull(hold.owner()) ? hold.owner() : "none");
+            }
+        });
+    }
+
+    private record Hold(PoolName pool, Thread thread, long acquiredAt, ConnectionOwner owner) {
+    }
+}
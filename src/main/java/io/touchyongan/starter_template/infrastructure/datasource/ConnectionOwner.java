@@ -0,0 +1,58 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import java.util.Objects;
+
+/**
+ * Who holds a connection: request line, then controller method and CustomPreAuthorize entity/action once handler is resolved.
+ * Bound to request thread by ConnectionHoldFilter.
+ */
+public final class ConnectionOwner {
+    private static final ThreadLocal<ConnectionOwner> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private volatile String handler;
+    private volatile String permission;
+    private long longestHoldNanos;
+
+    private ConnectionOwner(final String request) {
+        this.request = request;
+    }
+
+    static ConnectionOwner begin(final String request) {
+        final var owner = new ConnectionOwner(request);
+        CURRENT.set(owner);
+        return owner;
+    }
+
+    static ConnectionOwner current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void setHandler(final String handler,
+                    final String permission) {
+        this.handler = handler;
+        this.permission = permission;
+    }
+
+    void onReleased(final long holdNanos) {
+        longestHoldNanos = Math.max(longestHoldNanos, holdNanos);
+    }
+
+    long getLongestHoldNanos() {
+        return longestHoldNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (Objects.isNull(handler)) {
+            return request;
+        }
+        return Objects.isNull(permission)
+                ? "%s (%s)".formatted(handler, request)
+                : "%s [%s] (%s)".formatted(handler, permission, request);
+    }
+}
@@ -0,0 +1,37 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import io.touchyongan.starter_template.infrastructure.permission.ActionDescriptor;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Objects;
+
+/**
+ * Attribute connections of current request to controller method and its CustomPreAuthorize entity/action.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionOwnerInterceptor implements HandlerInterceptor {
+    private final EntityActionRegistry entityActionRegistry;
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler) {
+        final var owner = ConnectionOwner.current();
+        if (Objects.nonNull(owner) && handler instanceof HandlerMethod handlerMethod) {
+            final var permission = entityActionRegistry.find(handlerMethod.getMethod())
+                    .filter(descriptor -> !descriptor.anonymous())
+                    .map(ActionDescriptor::permissionCodes)
+                    .map(codes -> String.join("|", codes))
+                    .orElse(null);
+            owner.setHandler(handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName(), permission);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Sample active connections and wait queue of each pool into histograms, Hikari only exposes them as gauges.
+ * Acquisition time histogram is hikaricp.connections.acquire, see SLO buckets in application.properties.
+ */
+@Component
+public class PoolMetricsSampler {
+    private final StageMetrics stageMetrics;
+    private final PoolRoutingDataSource routingDataSource;
+
+    public PoolMetricsSampler(final StageMetrics stageMetrics,
+                              final DataSource dataSource) throws SQLException {
+        this.stageMetrics = stageMetrics;
+        this.routingDataSource = dataSource.isWrapperFor(PoolRoutingDataSource.class)
+                ? dataSource.unwrap(PoolRoutingDataSource.class)
+                : null;
+    }
+
+    @Scheduled(fixedRateString = "${datasource.hold.sample-interval}")
+    public void sample() {
+        if (Objects.isNull(routingDataSource)) {
+            return;
+        }
+        routingDataSource.getPools().forEach((name, pool) -> {
+            final var mxBean = pool.getHikariPoolMXBean();
+            if (Objects.isNull(mxBean)) {
+                return;
+            }
+            stageMetrics.recordAmount(StageMetrics.POOL_WAIT_QUEUE, mxBean.getThreadsAwaitingConnection(), "pool", name.getKey());
+            stageMetrics.recordAmount(StageMetrics.POOL_ACTIVE, mxBean.getActiveConnections(), "pool", name.getKey());
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Connection pools, each one is configured by datasource.pools.{key}.* with HikariConfig properties.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PoolName {
+    REQUEST("request"),
+    AUDIT("audit"),
+    EXPORT("export");
+
+    private final String key;
+}
@@ -0,0 +1,77 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Route getConnection to the pool selected by UsePool on current thread, request pool by default.
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final ThreadLocal<PoolName> CURRENT_POOL = new ThreadLocal<>();
+
+    private final Map<PoolName, HikariDataSource> pools;
+
+    public PoolRoutingDataSource(final Map<PoolName, HikariDataSource> pools) {
+        this.pools = Map.copyOf(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(PoolName.REQUEST));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static PoolName currentPool() {
+        return Objects.requireNonNullElse(CURRENT_POOL.get(), PoolName.REQUEST);
+    }
+
+    /**
+     * @return previous pool of current thread, must be passed back to restore
+     */
+    static PoolName use(final PoolName pool) {
+        final var previous = CURRENT_POOL.get();
+        CURRENT_POOL.set(pool);
+        return previous;
+    }
+
+    static void restore(final PoolName previous) {
+        if (Objects.isNull(previous)) {
+            CURRENT_POOL.remove();
+        } else {
+            CURRENT_POOL.set(previous);
+        }
+    }
+
+    /**
+     * Task running on another thread with the pool of current thread, e.g. chunks of a batch fetch.
+     */
+    public static <T> Callable<T> propagate(final Callable<T> task) {
+        final var pool = currentPool();
+        return () -> {
+            final var previous = use(pool);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public Map<PoolName, HikariDataSource> getPools() {
+        return pools;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentPool();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
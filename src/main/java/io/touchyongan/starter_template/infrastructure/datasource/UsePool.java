@@ -0,0 +1,16 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Take connection of annotated method from given pool instead of request pool.
+ * It only applies when the method opens the connection, a method joining an existing transaction keeps its connection.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = ElementType.METHOD)
+public @interface UsePool {
+    PoolName value();
+}
@@ -0,0 +1,40 @@
+package io.touchyongan.starter_template.infrastructure.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Highest precedence keeps this aspect outside transaction interceptor, so the pool is selected before
+ * transaction takes its connection.
+ * Annotation is looked up instead of bound, binding is not available when Async moves the call to another thread.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UsePoolAspect {
+
+    @Around(value = "@annotation(io.touchyongan.starter_template.infrastructure.datasource.UsePool)")
+    public Object usePool(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final var method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                joinPoint.getTarget().getClass());
+        final var usePool = AnnotatedElementUtils.findMergedAnnotation(method, UsePool.class);
+        if (Objects.isNull(usePool)) {
+            return joinPoint.proceed();
+        }
+        final var previous = PoolRoutingDataSource.use(usePool.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PoolRoutingDataSource.restore(previous);
+        }
+    }
+}
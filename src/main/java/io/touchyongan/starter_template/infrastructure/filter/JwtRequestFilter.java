@@ -1,7 +1,9 @@
 package io.touchyongan.starter_template.infrastructure.filter;
 
 import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.feature.auth.service.impl.RevokedTokenRegistry;
 import io.touchyongan.starter_template.feature.user.service.CustomUserDetailService;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,39 +22,65 @@ import java.util.Objects;
 @Component
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
+    private static final String OUTCOME_ANONYMOUS = "anonymous";
+    private static final String OUTCOME_AUTHENTICATED = "authenticated";
+    private static final String OUTCOME_INVALID = "invalid";
+    private static final String OUTCOME_REVOKED = "revoked";
+    private static final String OUTCOME_ERROR = "error";
+
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtUtil jwtUtil;
     private final CustomUserDetailService userDetailsService;
+    private final StageMetrics stageMetrics;
+    private final RevokedTokenRegistry revokedTokenRegistry;
 
     @Override
     protected void doFilterInternal(final HttpServletRequest request,
                                     final HttpServletResponse response,
                                     final FilterChain filterChain) throws ServletException, IOException {
+        final var start = System.nanoTime();
+        final String outcome;
         try {
-            final var authHeader = request.getHeader("Authorization");
-
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            final var token = authHeader.substring(7);
-            final var username = jwtUtil.extractUsername(token, "Bearer");
-
-            if (Objects.nonNull(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                final var userDetails = userDetailsService.loadUserByUsernameWithPermission(username);
-                if (jwtUtil.isTokenValid(token, userDetails)) {
-                    final var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            }
+            outcome = authenticate(request);
         } catch (final Exception ex) {
+            stageMetrics.record(StageMetrics.JWT_FILTER, System.nanoTime() - start,
+                    "route", StageMetrics.UNKNOWN, "outcome", OUTCOME_ERROR);
             handlerExceptionResolver.resolveException(request, response, null, ex);
             return;
         }
-        filterChain.doFilter(request, response);
+        final var elapsed = System.nanoTime() - start;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stageMetrics.record(StageMetrics.JWT_FILTER, elapsed, "route", StageMetrics.routeOf(request), "outcome", outcome);
+        }
+    }
+
+    private String authenticate(final HttpServletRequest request) {
+        final var authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return OUTCOME_ANONYMOUS;
+        }
+
+        final var token = authHeader.substring(7);
+        final var username = jwtUtil.extractUsername(token, "Bearer");
+        // Bloom filter lookup, the database is queried only when the token might be revoked
+        if (revokedTokenRegistry.isRevoked(jwtUtil.tokenDigestBytes(token))) {
+            return OUTCOME_REVOKED;
+        }
+
+        if (Objects.nonNull(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            final var userDetails = userDetailsService.loadUserByUsernameWithPermission(username);
+            if (jwtUtil.isTokenValid(token, userDetails)) {
+                final var authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                return OUTCOME_AUTHENTICATED;
+            }
+            return OUTCOME_INVALID;
+        }
+        return Objects.isNull(username) ? OUTCOME_INVALID : OUTCOME_AUTHENTICATED;
     }
 
 }
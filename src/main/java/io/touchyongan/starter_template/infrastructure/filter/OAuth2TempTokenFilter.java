@@ -1,64 +1,81 @@
 package io.touchyongan.starter_template.infrastructure.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.touchyongan.starter_template.common.util.JwtUtil;
-import io.touchyongan.starter_template.feature.auth.data.AuthResponseData;
-import io.touchyongan.starter_template.feature.user.entity.AppUser;
-import io.touchyongan.starter_template.feature.user.service.CustomUserDetailService;
+import io.touchyongan.starter_template.feature.auth.service.TokenFamilyService;
+import io.touchyongan.starter_template.feature.auth.service.impl.OAuth2HandoffStore;
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Exchange the handoff token of OAuth2 login for access and refresh tokens, see OAuth2HandoffStore.
+ */
 @Component
-@RequiredArgsConstructor
 public class OAuth2TempTokenFilter extends OncePerRequestFilter {
     private static final String OAUTH2_CLIENT_EXCHANGE_JWT_TOKEN = "/oauth2/exchange";
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailService userDetailsService;
+    private final TokenFamilyService tokenFamilyService;
+    private final OAuth2HandoffStore oAuth2HandoffStore;
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final ObjectMapper objectMapper;
+    private final Duration provisionTimeout;
+
+    public OAuth2TempTokenFilter(final TokenFamilyService tokenFamilyService,
+                                 final OAuth2HandoffStore oAuth2HandoffStore,
+                                 final HandlerExceptionResolver handlerExceptionResolver,
+                                 final ObjectMapper objectMapper,
+                                 @Value("${oauth2.handoff.provision-timeout:5s}") final Duration provisionTimeout) {
+        this.tokenFamilyService = tokenFamilyService;
+        this.oAuth2HandoffStore = oAuth2HandoffStore;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.objectMapper = objectMapper;
+        this.provisionTimeout = provisionTimeout;
+    }
 
     @Override
     protected void doFilterInternal(final HttpServletRequest request,
                                     final HttpServletResponse response,
                                     final FilterChain filterChain) throws ServletException, IOException {
         try {
-            final var token = request.getParameter("token");
-            final var username = jwtUtil.extractUsername(token, "Bearer");
-            final var tokenType = (String) jwtUtil.extractSpecificClaim(token, "Bearer", c -> c.get("tokenType"));
+            final var user = oAuth2HandoffStore.consume(request.getParameter("token"))
+                    .orElseThrow(() -> new BadCredentialsException("Invalid or expired OAuth2 exchange token"));
+            final var provisioned = await(user);
+            final var auth = tokenFamilyService.issue(provisioned.id(), provisioned.username());
 
-            if (Objects.nonNull(username) && Objects.equals("OAuth2User", tokenType)) {
-                final var userDetails = (AppUser) userDetailsService.loadUserByUsername(username);
-                final var accessToken = jwtUtil.generateToken(userDetails);
-                final var refreshToken = jwtUtil.generateRefreshToken(Map.of("typ", "refreshToken"), userDetails);
-                final var auth = new AuthResponseData();
-                auth.setUserId(userDetails.getId());
-                auth.setAccessToken(accessToken);
-                auth.setRefreshToken(refreshToken);
-
-                response.setStatus(200);
-                response.setHeader("Content-Type", "application/json");
-                response.getWriter()
-                        .write(objectMapper.writeValueAsString(auth));
-                return;
-            }
+            response.setStatus(200);
+            response.setHeader("Content-Type", "application/json");
+            response.getWriter()
+                    .write(objectMapper.writeValueAsString(auth));
         } catch (final Exception ex) {
             handlerExceptionResolver.resolveException(request, response, null, ex);
-            return;
         }
-        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Provisioning started on login is usually done by the time the UI exchanges its token.
+     */
+    private ProvisionedUserData await(final CompletableFuture<ProvisionedUserData> user) throws InterruptedException {
+        try {
+            return user.get(provisionTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException | TimeoutException e) {
+            throw new BadCredentialsException("OAuth2 user could not be provisioned", e);
+        }
     }
 
     @Override
@@ -1,11 +1,13 @@
 package io.touchyongan.starter_template.infrastructure.filter;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.common.util.MaskUtil;
 import io.touchyongan.starter_template.config.properties.MaskPIIInfoProperties;
+import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.core.Ordered;
@@ -14,7 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.AbstractRequestLoggingFilter;
 
-import java.util.Map;
+import java.io.IOException;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -25,6 +27,8 @@ import java.util.UUID;
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @Slf4j
 public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
+    private static final String ATTR_UUID = RequestLoggingFilter.class.getName() + ".UUID";
+    private static final String ATTR_START = RequestLoggingFilter.class.getName() + ".START";
 
     private final ObjectMapper objectMapper;
     private final MaskPIIInfoProperties maskPIIInfoProperties;
@@ -46,19 +50,39 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
         setHeaderPredicate(header -> !maskPIIInfoProperties.getMaskHeaders().contains(header));
     }
 
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        try {
+            super.doFilterInternal(request, response, filterChain);
+        } finally {
+            // Streaming response finish on async dispatch, which may run on another thread
+            if (isAsyncStarted(request)) {
+                MDC.clear();
+            }
+        }
+    }
+
     @Override
     protected void beforeRequest(final HttpServletRequest request,
                                  final String message) {
-        MDC.put("UUID", UUID.randomUUID().toString());
-        MDC.put("start", String.valueOf(System.currentTimeMillis()));
+        final var uuid = UUID.randomUUID().toString();
+        request.setAttribute(ATTR_UUID, uuid);
+        request.setAttribute(ATTR_START, System.currentTimeMillis());
+        MDC.put("UUID", uuid);
+        MDC.put("start", String.valueOf(request.getAttribute(ATTR_START)));
         log.info(message);
     }
 
     @Override
     protected void afterRequest(final HttpServletRequest request,
                                 final String message) {
-        final var finished = System.currentTimeMillis() - Long.parseLong(MDC.get("start"));
-        MDC.put("finishedRequest", finished + " ms");
+        final var start = (Long) request.getAttribute(ATTR_START);
+        if (Objects.nonNull(start)) {
+            MDC.put("UUID", (String) request.getAttribute(ATTR_UUID));
+            MDC.put("finishedRequest", System.currentTimeMillis() - start + " ms");
+        }
         log.info(message);
         MDC.clear();
     }
@@ -68,15 +92,7 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
         final var payload = super.getMessagePayload(request);
         if (StringUtils.hasText(payload)) {
             try {
-                final var maskBodies = maskPIIInfoProperties.getRequestBodyFields();
-                final var body = objectMapper.readValue(payload, new TypeReference<Map<String, Object>>() {
-                });
-                for (final var maskField : maskBodies) {
-                    if (body.containsKey(maskField)) {
-                        body.put(maskField, "******");
-                    }
-                }
-                return objectMapper.writeValueAsString(body);
+                return MaskUtil.maskJsonBody(objectMapper, payload, maskPIIInfoProperties.getRequestBodyFields());
             } catch (final JsonProcessingException e) {
                 log.warn("Error convert request body", e);
             }
@@ -88,16 +104,10 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
     protected String createMessage(final HttpServletRequest request,
                                    final String prefix,
                                    final String suffix) {
-        var message = super.createMessage(request, prefix, suffix);
+        final var message = super.createMessage(request, prefix, suffix);
         if (Objects.isNull(request.getQueryString())) {
             return message;
         }
-        int index = 0;
-        for (final var maskParamPattern : maskPIIInfoProperties.getMaskParamsPattern()) {
-            final var matcher = maskParamPattern.matcher(message);
-            message = matcher.replaceAll(maskPIIInfoProperties.getRequestBodyFields().get(index) + "=masked");
-            index = index + 1;
-        }
-        return message;
+        return MaskUtil.maskQueryParams(message, maskPIIInfoProperties.getMaskParamsPattern(), maskPIIInfoProperties.getRequestBodyFields());
     }
 }
@@ -0,0 +1,239 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.touchyongan.starter_template.config.properties.IndexAdvisorProperties;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Record query shapes of paged repository queries with a sample statement of each one, then explain the samples
+ * and suggest an index for shapes whose plan scans the table or sorts its rows. Suggestions not covered by an
+ * existing index are written as draft Flyway migrations, they are never applied.
+ * Samples are executed again by EXPLAIN ANALYZE, in a read-only transaction which is rolled back.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IndexAdvisor {
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final IndexAdvisorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final Map<QueryShape, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Set<String> drafted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * index.advisor.enabled is read at runtime, a disabled advisor records nothing and has nothing to analyze.
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Run the query of shape, capturing its statement when the shape is due for a new sample.
+     */
+    public <R> R observe(final QueryShape shape,
+                         final Supplier<R> execution) {
+        if (!isEnabled()) {
+            return execution.get();
+        }
+        var stats = shapes.get(shape);
+        if (Objects.isNull(stats)) {
+            if (shapes.size() >= properties.getMaxShapes()) {
+                return execution.get();
+            }
+            stats = shapes.computeIfAbsent(shape, ignored -> new ShapeStats());
+        }
+        stats.executions.increment();
+        if (!stats.claimSample(System.nanoTime(), properties.getSampleInterval().toNanos())) {
+            return execution.get();
+        }
+        final var capture = SqlSampleCapture.begin();
+        try {
+            return execution.get();
+        } finally {
+            capture.end();
+            if (Objects.nonNull(capture.getSample())) {
+                stats.sample = capture.getSample();
+            }
+        }
+    }
+
+    /**
+     * Explain the sample of every shape executed often enough and suggest indexes, at most one per shape.
+     */
+    public List<Advice> analyze() {
+        final var advices = new ArrayList<Advice>();
+        final var indexDefinitions = new LinkedHashMap<String, List<String>>();
+        for (final var entry : shapes.entrySet()) {
+            final var shape = entry.getKey();
+            final var stats = entry.getValue();
+            final var executions = stats.executions.sum();
+            final var sample = stats.sample;
+            if (executions < properties.getMinExecutions() || Objects.isNull(sample)) {
+                continue;
+            }
+            final var persister = persisterOf(shape.entityClass());
+            final var table = persister.getTableName();
+            final var plan = explain(sample);
+            if (plan.executionMillis() < properties.getMinExecutionTime().toNanos() / 1_000_000.0 || !plan.isIndexCandidate(table)) {
+                continue;
+            }
+            IndexSuggestion.of(table, shape, field -> columnOf(persister, field), IndexSuggestion.selectedColumns(sample.sql()),
+                            properties.getMaxIncludeColumns())
+                    .filter(suggestion -> !suggestion.isCoveredBy(indexDefinitions.computeIfAbsent(table, this::indexDefinitions)))
+                    .ifPresent(suggestion -> advices.add(new Advice(suggestion, shape, executions, plan)));
+        }
+        return advices;
+    }
+
+    /**
+     * Write advices not drafted yet into one migration of the draft directory.
+     *
+     * @return the draft, empty when every advice was drafted before
+     */
+    public Optional<Path> writeDraft(final List<Advice> advices) {
+        final var pending = advices.stream()
+                .filter(advice -> !drafted.contains(advice.suggestion().toDdl()))
+                .collect(Collectors.toMap(advice -> advice.suggestion().toDdl(), advice -> advice, (a, b) -> a, LinkedHashMap::new));
+        if (pending.isEmpty()) {
+            return Optional.empty();
+        }
+        final var content = new StringBuilder("""
+                -- Draft of IndexAdvisor, review it and move it to db/migration together with its .sql.conf to apply it
+                -- Indexes are built CONCURRENTLY so writes are not blocked, which cannot run in a transaction
+                """);
+        for (final var advice : pending.values()) {
+            content.append('\n')
+                    .append("-- Shape: ").append(describe(advice.shape())).append(", executed ").append(advice.executions()).append(" times\n")
+                    .append("-- Plan: ").append(advice.plan().describe()).append('\n')
+                    .append(advice.suggestion().toDdl()).append('\n');
+        }
+        final var draft = properties.getDraftDirectory()
+                .resolve("V%s__index_advisor_draft.sql".formatted(LocalDateTime.now().format(VERSION_FORMAT)));
+        try {
+            Files.createDirectories(properties.getDraftDirectory());
+            Files.writeString(draft, content);
+            Files.writeString(draft.resolveSibling(draft.getFileName() + ".conf"), "executeInTransaction=false\n");
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not write index advisor draft " + draft, e);
+        }
+        drafted.addAll(pending.keySet());
+        return Optional.of(draft);
+    }
+
+    private PlanSummary explain(final SqlSample sample) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + properties.getStatementTimeout().toMillis());
+            final var json = jdbcTemplate.query("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sample.sql(),
+                    ps -> bind(ps, sample.parameters()),
+                    rs -> rs.next() ? rs.getString(1) : "[]");
+            try {
+                return PlanSummary.parse(objectMapper.readTree(json));
+            } catch (final JsonProcessingException e) {
+                throw new IllegalStateException("Could not parse plan of " + sample.sql(), e);
+            }
+        });
+    }
+
+    private static void bind(final PreparedStatement ps,
+                             final List<Object> parameters) throws SQLException {
+        for (var i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i) instanceof SqlSample.ArrayValue array) {
+                ps.setArray(i + 1, ps.getConnection().createArrayOf(array.baseTypeName(), array.elements()));
+            } else {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+        }
+    }
+
+    private List<String> indexDefinitions(final String table) {
+        return jdbcTemplate.queryForList("SELECT indexdef FROM pg_indexes WHERE tablename = ?", String.class, table);
+    }
+
+    private AbstractEntityPersister persisterOf(final Class<?> entityClass) {
+        return (AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityClass);
+    }
+
+    /**
+     * Single column of a field of the entity itself, null for fields of associations, embeddables or unknown ones.
+     */
+    private static String columnOf(final AbstractEntityPersister persister,
+                                   final String field) {
+        if (field.equals(persister.getIdentifierPropertyName())) {
+            return persister.getIdentifierColumnNames()[0];
+        }
+        if (field.contains(".") || field.contains(",")) {
+            return null;
+        }
+        try {
+            final var columns = persister.getPropertyColumnNames(field);
+            return columns.length == 1 ? columns[0] : null;
+        } catch (final MappingException e) {
+            return null;
+        }
+    }
+
+    private static String describe(final QueryShape shape) {
+        final var conditions = shape.conditions().stream()
+                .map(condition -> condition.field() + " " + condition.operator()
+                        + (Objects.isNull(condition.fixedValue()) ? "" : " " + condition.fixedValue()))
+                .toList();
+        final var sortKeys = shape.sortKeys().stream()
+                .map(sortKey -> sortKey.field() + " " + sortKey.direction())
+                .toList();
+        return "%s where %s order by %s".formatted(shape.entityClass().getSimpleName(), conditions, sortKeys);
+    }
+
+    public record Advice(IndexSuggestion suggestion,
+                         QueryShape shape,
+                         long executions,
+                         PlanSummary plan) {
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder executions = new LongAdder();
+        // System.nanoTime when the shape may be sampled again, 0 before the first sample
+        private final AtomicLong nextSampleAt = new AtomicLong();
+        private volatile SqlSample sample;
+
+        private boolean claimSample(final long now,
+                                    final long interval) {
+            final var next = nextSampleAt.get();
+            return (next == 0 || now - next >= 0) && nextSampleAt.compareAndSet(next, now + interval);
+        }
+    }
+}
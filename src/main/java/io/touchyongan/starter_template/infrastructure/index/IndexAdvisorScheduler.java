@@ -0,0 +1,32 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import io.touchyongan.starter_template.infrastructure.datasource.PoolName;
+import io.touchyongan.starter_template.infrastructure.datasource.UsePool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Slf4j
+@RequiredArgsConstructor
+public class IndexAdvisorScheduler {
+    private final IndexAdvisor indexAdvisor;
+
+    /**
+     * Samples are explained on export pool, a slow plan must not take connections of request traffic.
+     */
+    @Scheduled(initialDelayString = "${index.advisor.analyze-interval}", fixedDelayString = "${index.advisor.analyze-interval}")
+    @UsePool(PoolName.EXPORT)
+    public void analyze() {
+        if (!indexAdvisor.isEnabled()) {
+            return;
+        }
+        try {
+            final var advices = indexAdvisor.analyze();
+            advices.forEach(advice -> log.info("Index advice {}", advice.suggestion().toDdl()));
+            indexAdvisor.writeDraft(advices)
+                    .ifPresent(draft -> log.info("Wrote index advisor draft {}", draft));
+        } catch (final RuntimeException e) {
+            log.warn("Error analyze query shapes for index advice, retry on next run", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * B-tree index for a query shape. Key columns follow equality, sort, range: equality conditions first, then sort keys
+ * so rows are read in order, then the first range condition. Fixed conditions and null checks become the partial
+ * index predicate. Selected columns of the root table are included when few enough, so the page is read from the
+ * index only. LIKE, NOT_IN, non fixed NOT_EQUAL and conditions on joined entities are not indexable and left out.
+ */
+public record IndexSuggestion(String table,
+                              List<String> keyColumns,
+                              List<String> includeColumns,
+                              List<String> predicates) {
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+    private static final Pattern SELECT_LIST = Pattern.compile("^select\\s+(.+?)\\s+from\\s+\\S+\\s+(\\w+)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern COLUMN = Pattern.compile("\\w+");
+
+    /**
+     * @param columnOf column of a field of the root entity, null when it has none, e.g. field of a joined entity
+     */
+    public static Optional<IndexSuggestion> of(final String table,
+                                               final QueryShape shape,
+                                               final Function<String, String> columnOf,
+                                               final List<String> selectedColumns,
+                                               final int maxIncludeColumns) {
+        final var equalities = new LinkedHashSet<String>();
+        final var predicates = new ArrayList<String>();
+        String range = null;
+        for (final var condition : shape.conditions()) {
+            final var column = columnOf.apply(condition.field());
+            if (Objects.isNull(column)) {
+                continue;
+            }
+            final var quoted = quote(column);
+            if (Objects.nonNull(condition.fixedValue())) {
+                final var operator = switch (condition.operator()) {
+                    case EQUAL -> " = ";
+                    case NOT_EQUAL -> " <> ";
+                    default -> null;
+                };
+                final var literal = literal(condition.fixedValue());
+                if (Objects.nonNull(operator) && Objects.nonNull(literal)) {
+                    predicates.add(quoted + operator + literal);
+                }
+                continue;
+            }
+            switch (condition.operator()) {
+                case EQUAL, IN -> equalities.add(quoted);
+                case STR_EQUAL_IGNORE_CASE -> equalities.add("lower(" + quoted + ")");
+                case GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL, BETWEEN -> range = Objects.isNull(range) ? quoted : range;
+                case IS_NULL -> predicates.add(quoted + " IS NULL");
+                case NOT_NULL -> predicates.add(quoted + " IS NOT NULL");
+                default -> {
+                }
+            }
+        }
+
+        final var keys = new ArrayList<>(equalities);
+        final var sortKeys = new ArrayList<String>();
+        for (final var sortKey : shape.sortKeys()) {
+            final var column = columnOf.apply(sortKey.field());
+            if (Objects.isNull(column)) {
+                // Rows cannot be read in order of the index, sort keys after it are useless too
+                sortKeys.clear();
+                break;
+            }
+            sortKeys.add(quote(column) + (sortKey.direction() == Sort.Direction.DESC ? " DESC" : ""));
+        }
+        keys.addAll(sortKeys);
+        final var rangeKey = range;
+        if (Objects.nonNull(rangeKey) && keys.stream().noneMatch(key -> bareColumn(key).equals(bareColumn(rangeKey)))) {
+            keys.add(rangeKey);
+        }
+        if (keys.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final var keyColumns = keys.stream().map(IndexSuggestion::bareColumn).toList();
+        final var includes = selectedColumns.stream()
+                .filter(column -> !keyColumns.contains(column))
+                .map(IndexSuggestion::quote)
+                .toList();
+        final var includeColumns = includes.size() <= maxIncludeColumns ? includes : List.<String>of();
+        return Optional.of(new IndexSuggestion(table, List.copyOf(keys), includeColumns, List.copyOf(predicates)));
+    }
+
+    /**
+     * Columns of the root alias in the select list of a statement generated by Hibernate, empty when any selected item
+     * is not a plain column of the root, e.g. a column of a joined table.
+     */
+    public static List<String> selectedColumns(final String sql) {
+        final var matcher = SELECT_LIST.matcher(sql.trim());
+        if (!matcher.find()) {
+            return List.of();
+        }
+        final var alias = matcher.group(2) + ".";
+        final var columns = new ArrayList<String>();
+        for (final var item : matcher.group(1).split(",")) {
+            final var trimmed = item.trim();
+            if (!trimmed.startsWith(alias) || !COLUMN.matcher(trimmed.substring(alias.length())).matches()) {
+                return List.of();
+            }
+            columns.add(trimmed.substring(alias.length()));
+        }
+        return columns;
+    }
+
+    public String name() {
+        final var name = "idx_%s_%s_advised".formatted(table, String.join("_", keyColumns.stream().map(IndexSuggestion::bareColumn).toList()));
+        return name.length() <= MAX_IDENTIFIER_LENGTH ? name : name.substring(0, MAX_IDENTIFIER_LENGTH);
+    }
+
+    public String toDdl() {
+        final var ddl = new StringBuilder("CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON %s USING btree (%s)".formatted(
+                name(), quote(table), String.join(", ", keyColumns)));
+        if (!includeColumns.isEmpty()) {
+            ddl.append(" INCLUDE (").append(String.join(", ", includeColumns)).append(')');
+        }
+        if (!predicates.isEmpty()) {
+            ddl.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        return ddl.append(';').toString();
+    }
+
+    /**
+     * An existing index of the table, as returned by pg_indexes.indexdef, starts with the same key columns.
+     * Partial predicates and includes are not compared.
+     */
+    public boolean isCoveredBy(final List<String> indexDefinitions) {
+        final var keys = "btree(" + normalize(String.join(",", keyColumns));
+        return indexDefinitions.stream()
+                .map(IndexSuggestion::normalize)
+                .anyMatch(definition -> definition.contains(keys + ")") || definition.contains(keys + ","));
+    }
+
+    private static String normalize(final String sql) {
+        return sql.replaceAll("[\\s\"]", "").toLowerCase();
+    }
+
+    private static String bareColumn(final String key) {
+        return key.replaceAll("^lower\\(|\\)$| DESC$|\"", "");
+    }
+
+    private static String quote(final String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String literal(final Object value) {
+        if (value instanceof String string) {
+            return "'" + string.replace("'", "''") + "'";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return null;
+    }
+}
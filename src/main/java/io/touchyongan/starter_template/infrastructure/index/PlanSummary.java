@@ -0,0 +1,72 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What IndexAdvisor needs from the output of EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON): scans, sorts and their cost.
+ */
+public record PlanSummary(double executionMillis,
+                          long sharedHitBlocks,
+                          long sharedReadBlocks,
+                          long rowsRemovedByFilter,
+                          Set<String> seqScannedTables,
+                          Set<String> usedIndexes,
+                          boolean sorted) {
+
+    public static PlanSummary parse(final JsonNode explain) {
+        final var root = explain.isArray() ? explain.path(0) : explain;
+        final var plan = root.path("Plan");
+        final var nodes = new ArrayList<JsonNode>();
+        collect(plan, nodes);
+        final var seqScannedTables = new LinkedHashSet<String>();
+        final var usedIndexes = new LinkedHashSet<String>();
+        var rowsRemovedByFilter = 0L;
+        var sorted = false;
+        for (final var node : nodes) {
+            final var type = node.path("Node Type").asText();
+            if ("Seq Scan".equals(type)) {
+                seqScannedTables.add(node.path("Relation Name").asText());
+            } else if (type.endsWith("Sort")) {
+                sorted = true;
+            }
+            if (node.has("Index Name")) {
+                usedIndexes.add(node.path("Index Name").asText());
+            }
+            rowsRemovedByFilter += node.path("Rows Removed by Filter").asLong();
+        }
+        // Buffers of the top node include those of its children
+        return new PlanSummary(root.path("Execution Time").asDouble(),
+                plan.path("Shared Hit Blocks").asLong(),
+                plan.path("Shared Read Blocks").asLong(),
+                rowsRemovedByFilter,
+                seqScannedTables,
+                usedIndexes,
+                sorted);
+    }
+
+    private static void collect(final JsonNode node,
+                                final List<JsonNode> nodes) {
+        if (node.isMissingNode()) {
+            return;
+        }
+        nodes.add(node);
+        node.path("Plans").forEach(child -> collect(child, nodes));
+    }
+
+    /**
+     * The table is read without index or the rows are sorted after they are read, which an index on the shape avoids.
+     */
+    public boolean isIndexCandidate(final String table) {
+        return seqScannedTables.contains(table) || sorted;
+    }
+
+    public String describe() {
+        return "%.3f ms, buffers hit %d read %d, rows removed by filter %d, seq scan %s, indexes %s, sort %s".formatted(
+                executionMillis, sharedHitBlocks, sharedReadBlocks, rowsRemovedByFilter, seqScannedTables, usedIndexes, sorted);
+    }
+}
@@ -0,0 +1,68 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import io.touchyongan.starter_template.common.specification.SearchCriteria;
+import io.touchyongan.starter_template.common.specification.SearchOperator;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fields and operators of the criteria applied to a query, with its sort keys. Values are not part of the shape,
+ * except values of fixed criteria which are constants of the query. Conditions are sorted, so filters adding the same
+ * criteria in a different order have the same shape.
+ */
+public record QueryShape(Class<?> entityClass,
+                         List<Condition> conditions,
+                         List<SortKey> sortKeys) {
+
+    public static QueryShape of(final Class<?> entityClass,
+                                final List<SearchCriteria> criteriaList,
+                                final Sort sort) {
+        final var conditions = criteriaList.stream()
+                .filter(Objects::nonNull)
+                .filter(QueryShape::isApplied)
+                .map(Condition::of)
+                .distinct()
+                .sorted(Comparator.comparing(Condition::field).thenComparing(Condition::operator))
+                .toList();
+        final var sortKeys = sort.stream()
+                .map(order -> new SortKey(order.getProperty(), order.getDirection()))
+                .toList();
+        return new QueryShape(entityClass, conditions, sortKeys);
+    }
+
+    /**
+     * Same rule as GenericSpecification, criteria without value add no predicate.
+     */
+    private static boolean isApplied(final SearchCriteria criteria) {
+        if (criteria.getOperator() == SearchOperator.MULTI_FIELDS_SEARCH) {
+            return true;
+        }
+        if (Objects.nonNull(criteria.getValue())) {
+            return StringUtils.hasText(criteria.getValue().toString());
+        }
+        return !criteria.getValues().isEmpty();
+    }
+
+    /**
+     * @param fixedValue value of fixed criteria, null otherwise
+     */
+    public record Condition(String field,
+                            SearchOperator operator,
+                            Object fixedValue) {
+
+        static Condition of(final SearchCriteria criteria) {
+            if (criteria.getOperator() == SearchOperator.MULTI_FIELDS_SEARCH) {
+                return new Condition(String.join(",", criteria.getKeys()), criteria.getOperator(), null);
+            }
+            return new Condition(criteria.getKey(), criteria.getOperator(), criteria.isFixed() ? criteria.getValue() : null);
+        }
+    }
+
+    public record SortKey(String field,
+                          Sort.Direction direction) {
+    }
+}
@@ -0,0 +1,15 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import java.util.List;
+
+/**
+ * Statement of a query shape with the values it was executed with, kept in memory only, to be explained by IndexAdvisor.
+ * Array values are copied as ArrayValue since the driver array is bound to the connection that read it.
+ */
+public record SqlSample(String sql,
+                        List<Object> parameters) {
+
+    public record ArrayValue(String baseTypeName,
+                             Object[] elements) {
+    }
+}
@@ -0,0 +1,87 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keep the first SELECT executed by the current thread while the capture is open, offered by QueryInspectionListener.
+ */
+public final class SqlSampleCapture {
+    private static final ThreadLocal<SqlSampleCapture> CURRENT = new ThreadLocal<>();
+
+    private final SqlSampleCapture previous;
+    private SqlSample sample;
+
+    private SqlSampleCapture(final SqlSampleCapture previous) {
+        this.previous = previous;
+    }
+
+    public static SqlSampleCapture begin() {
+        final var capture = new SqlSampleCapture(CURRENT.get());
+        CURRENT.set(capture);
+        return capture;
+    }
+
+    public void end() {
+        if (Objects.isNull(previous)) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public SqlSample getSample() {
+        return sample;
+    }
+
+    public static void offer(final List<QueryInfo> queryInfoList) {
+        final var capture = CURRENT.get();
+        if (Objects.isNull(capture) || Objects.nonNull(capture.sample) || queryInfoList.size() != 1) {
+            return;
+        }
+        final var queryInfo = queryInfoList.getFirst();
+        if (QueryUtils.getQueryType(queryInfo.getQuery()) != QueryType.SELECT || queryInfo.getParametersList().size() > 1) {
+            return;
+        }
+        final var operations = queryInfo.getParametersList().isEmpty()
+                ? List.<ParameterSetOperation>of()
+                : queryInfo.getParametersList().getFirst();
+        final var parameters = new ArrayList<>();
+        for (final var operation : operations.stream().sorted(Comparator.comparingInt(SqlSampleCapture::indexOf)).toList()) {
+            if (indexOf(operation) != parameters.size() + 1) {
+                // Named or out parameters, the statement cannot be replayed
+                return;
+            }
+            parameters.add(valueOf(operation));
+        }
+        capture.sample = new SqlSample(queryInfo.getQuery(), parameters);
+    }
+
+    private static int indexOf(final ParameterSetOperation operation) {
+        return operation.getArgs()[0] instanceof Integer index ? index : -1;
+    }
+
+    private static Object valueOf(final ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || operation.getArgs().length < 2) {
+            return null;
+        }
+        final var value = operation.getArgs()[1];
+        if (value instanceof Array array) {
+            try {
+                return new SqlSample.ArrayValue(array.getBaseTypeName(), (Object[]) array.getArray());
+            } catch (final SQLException e) {
+                throw new IllegalStateException("Could not copy array parameter", e);
+            }
+        }
+        return value;
+    }
+}
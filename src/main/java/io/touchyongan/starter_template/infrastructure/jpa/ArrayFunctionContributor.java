@@ -0,0 +1,27 @@
+package io.touchyongan.starter_template.infrastructure.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * SQL functions of Postgres arrays not covered by Hibernate, registered by META-INF/services.
+ * eq_any(column, :array) renders column = any(:array): one bind parameter for any number of values and the same
+ * plan whatever the count, it still uses the index of column. Hibernate array_contains renders array_position or @>,
+ * which cannot use it.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+    public static final String EQ_ANY = "eq_any";
+
+    @Override
+    public void contributeFunctions(final FunctionContributions functionContributions) {
+        final var booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(EQ_ANY, "(?1 = any(?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(booleanType)
+                .register();
+    }
+}
@@ -0,0 +1,99 @@
+package io.touchyongan.starter_template.infrastructure.jpa;
+
+import io.touchyongan.starter_template.infrastructure.datasource.PoolRoutingDataSource;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Split ids of a batch fetch into chunks of at most chunkSize and fetch them one after another or, when parallel,
+ * at most parallelism at a time. Each parallel chunk takes a connection of the caller's pool, so parallelism must stay
+ * well below the pool size. At most queueCapacity chunks wait for a thread, further chunks are fetched on the caller's thread,
+ * so a burst of lookups slows its callers down instead of piling up chunks in memory.
+ */
+public class BatchFetchExecutor implements AutoCloseable {
+    @Getter
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public BatchFetchExecutor(final int chunkSize,
+                              final int parallelism,
+                              final int queueCapacity) {
+        if (chunkSize < 1 || parallelism < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("chunkSize, parallelism and queueCapacity must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform()
+                        .name("batch-fetch-", 0)
+                        .daemon(true)
+                        .factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Distinct non-null ids in input order, chunked.
+     */
+    public List<List<Long>> chunks(final Collection<Long> ids) {
+        final var distinct = new ArrayList<Long>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        final var chunks = new ArrayList<List<Long>>();
+        for (var from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(distinct.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    /**
+     * @return result of each chunk, in order of chunks
+     */
+    public <R> List<List<R>> fetch(final List<List<Long>> chunks,
+                                   final Function<List<Long>, List<R>> fetchChunk,
+                                   final boolean parallel) {
+        if (!parallel || parallelism == 1 || chunks.size() < 2) {
+            return chunks.stream()
+                    .map(fetchChunk)
+                    .toList();
+        }
+        final var futures = new ArrayList<Future<List<R>>>(chunks.size());
+        try {
+            for (final var chunk : chunks) {
+                futures.add(executor.submit(PoolRoutingDataSource.propagate(() -> fetchChunk.apply(chunk))));
+            }
+            final var results = new ArrayList<List<R>>(chunks.size());
+            for (final var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch fetch", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Batch fetch failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
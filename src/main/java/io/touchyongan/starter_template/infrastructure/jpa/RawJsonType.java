@@ -0,0 +1,82 @@
+package io.touchyongan.starter_template.infrastructure.jpa;
+
+import io.touchyongan.starter_template.common.data.RawJson;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Map jsonb column to RawJson, the text is passed to/from JDBC driver unchanged.
+ */
+public class RawJsonType implements UserType<RawJson> {
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.JSON;
+    }
+
+    @Override
+    public Class<RawJson> returnedClass() {
+        return RawJson.class;
+    }
+
+    @Override
+    public boolean equals(final RawJson x,
+                          final RawJson y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(final RawJson x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public RawJson nullSafeGet(final ResultSet rs,
+                               final int position,
+                               final SharedSessionContractImplementor session,
+                               final Object owner) throws SQLException {
+        return RawJson.of(rs.getString(position));
+    }
+
+    @Override
+    public void nullSafeSet(final PreparedStatement st,
+                            final RawJson value,
+                            final int index,
+                            final SharedSessionContractImplementor session) throws SQLException {
+        if (Objects.isNull(value)) {
+            st.setNull(index, Types.OTHER);
+        } else {
+            // Types.OTHER let Postgres cast the text to jsonb
+            st.setObject(index, value.toString(), Types.OTHER);
+        }
+    }
+
+    @Override
+    public RawJson deepCopy(final RawJson value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(final RawJson value) {
+        return value;
+    }
+
+    @Override
+    public RawJson assemble(final Serializable cached,
+                            final Object owner) {
+        return (RawJson) cached;
+    }
+}
@@ -0,0 +1,176 @@
+package io.touchyongan.starter_template.infrastructure.jwt;
+
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureException;
+import io.touchyongan.starter_template.common.util.DigestUtil;
+import io.touchyongan.starter_template.config.properties.JwtSigningProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Keys signing and verifying JWTs, selected by kid header. The signing key is the latest one activated, earlier keys are
+ * still verified and published until tokens they signed have expired, i.e. maxTokenLifetime after a later key activated.
+ * Keys activating later are verified and published already, so verifiers caching JWKS know them before they are used.
+ * Lookups read an immutable snapshot rebuilt every refresh interval, so a rotation takes effect within that interval.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+    private final List<JwtSigningKey> keys;
+    private final Duration maxTokenLifetime;
+    // Tokens without kid, issued before key ring, verified by the secret key while it signs
+    private final boolean acceptWithoutKid;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JwtKeyRing(final JwtSigningProperties properties,
+                      @Value("${auth.jwt.secret_key}") final String secretKey,
+                      @Value("${auth.jwt.refresh_expiration}") final long refreshExpiration) {
+        this(loadKeys(properties, secretKey), Duration.ofMillis(refreshExpiration));
+    }
+
+    public JwtKeyRing(final List<JwtSigningKey> keys,
+                      final Duration maxTokenLifetime) {
+        this.keys = keys.stream().sorted(Comparator.comparing(JwtSigningKey::activateAt)).toList();
+        this.maxTokenLifetime = maxTokenLifetime;
+        this.acceptWithoutKid = keys.stream().allMatch(key -> key.algorithm() == SigningAlgorithm.HS256);
+        refresh();
+    }
+
+    public JwtSigningKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    /**
+     * JWK set of published public keys, with an ETag of its content.
+     */
+    public JwkSetJson jwks() {
+        return snapshot.jwks();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.jwt.signing.refresh-interval:1m}", initialDelayString = "${auth.jwt.signing.refresh-interval:1m}")
+    public void refresh() {
+        final var previous = snapshot;
+        snapshot = snapshotAt(Instant.now());
+        if (Objects.nonNull(previous) && !previous.signingKey().kid().equals(snapshot.signingKey().kid())) {
+            log.info("JWT signing key rotated from {} to {}", previous.signingKey().kid(), snapshot.signingKey().kid());
+        }
+    }
+
+    @Override
+    protected Key locate(final ProtectedHeader header) {
+        final var current = snapshot;
+        final var kid = header.getKeyId();
+        final Key key;
+        if (Objects.nonNull(kid)) {
+            key = current.verificationKeys().get(kid);
+        } else {
+            key = acceptWithoutKid ? current.signingKey().verificationKey() : null;
+        }
+        if (Objects.isNull(key)) {
+            throw new SignatureException("Unknown or retired JWT signing key " + kid);
+        }
+        return key;
+    }
+
+    private Snapshot snapshotAt(final Instant now) {
+        JwtSigningKey signingKey = null;
+        for (final var key : keys) {
+            if (key.canSign() && !key.activateAt().isAfter(now)) {
+                signingKey = key;
+            }
+        }
+        if (Objects.isNull(signingKey)) {
+            throw new IllegalStateException("No JWT signing key active at " + now);
+        }
+        final var live = new ArrayList<JwtSigningKey>();
+        for (final var key : keys) {
+            if (!isRetired(key, now)) {
+                live.add(key);
+            }
+        }
+        final var verificationKeys = new HashMap<String, Key>();
+        live.forEach(key -> verificationKeys.put(key.kid(), key.verificationKey()));
+        return new Snapshot(signingKey, Map.copyOf(verificationKeys), toJwks(live));
+    }
+
+    // Retired once every token it signed has expired: a later key has been active for longer than tokens live
+    private boolean isRetired(final JwtSigningKey key,
+                              final Instant now) {
+        return keys.stream()
+                .anyMatch(later -> later.canSign() && later.activateAt().isAfter(key.activateAt())
+                        && !later.activateAt().plus(maxTokenLifetime).isAfter(now));
+    }
+
+    private static JwkSetJson toJwks(final List<JwtSigningKey> live) {
+        final var json = live.stream()
+                .filter(key -> Objects.nonNull(key.publicKey()))
+                .map(key -> Jwks.json(Jwks.builder()
+                        .key(key.publicKey())
+                        .id(key.kid())
+                        .algorithm(key.algorithm().getJwaName())
+                        .publicKeyUse("sig")
+                        .build()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        final var etag = "\"" + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(DigestUtil.sha256(json)).substring(0, 22) + "\"";
+        return new JwkSetJson(json, etag);
+    }
+
+    private static List<JwtSigningKey> loadKeys(final JwtSigningProperties properties,
+                                                final String secretKey) {
+        final var algorithm = properties.getAlgorithm();
+        if (algorithm == SigningAlgorithm.HS256) {
+            return List.of(JwtSigningKey.hmac(secretKey));
+        }
+        final var configured = Objects.requireNonNullElse(properties.getKeys(), List.<JwtSigningProperties.Key>of());
+        if (configured.isEmpty()) {
+            log.warn("No {} JWT key configured, generated one: tokens are invalid after restart and on other instances", algorithm);
+            return List.of(JwtSigningKey.generate(algorithm, Instant.EPOCH));
+        }
+        return configured.stream()
+                .map(key -> JwtSigningKey.fromPem(key.getKid(), algorithm, read(key.getPrivateKey()), read(key.getPublicKey()),
+                        Objects.requireNonNullElse(key.getActivateAt(), Instant.EPOCH)))
+                .toList();
+    }
+
+    private static String read(final Resource resource) {
+        if (Objects.isNull(resource)) {
+            return null;
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.US_ASCII);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot read JWT key " + resource, e);
+        }
+    }
+
+    public record JwkSetJson(String json,
+                       String etag) {
+    }
+
+    private record Snapshot(JwtSigningKey signingKey,
+                            Map<String, Key> verificationKeys,
+                            JwkSetJson jwks) {
+    }
+}
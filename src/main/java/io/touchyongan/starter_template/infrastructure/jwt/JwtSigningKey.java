@@ -0,0 +1,91 @@
+package io.touchyongan.starter_template.infrastructure.jwt;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.touchyongan.starter_template.common.util.DigestUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Key of JwtKeyRing.
+ *
+ * @param signingKey      private or secret key, null when the key only verifies
+ * @param verificationKey public or secret key
+ * @param publicKey       published in JWKS, null for HMAC
+ */
+public record JwtSigningKey(String kid,
+                            SigningAlgorithm algorithm,
+                            Key signingKey,
+                            Key verificationKey,
+                            PublicKey publicKey,
+                            Instant activateAt) {
+
+    public boolean canSign() {
+        return Objects.nonNull(signingKey);
+    }
+
+    /**
+     * Key of auth.jwt.secret_key, kid is derived from the secret so every instance gets the same one.
+     */
+    public static JwtSigningKey hmac(final String secret) {
+        final var key = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(secret));
+        final var kid = "hs-" + Base64.getUrlEncoder().withoutPadding().encodeToString(DigestUtil.sha256(key.getEncoded())).substring(0, 16);
+        return new JwtSigningKey(kid, SigningAlgorithm.HS256, key, key, null, Instant.EPOCH);
+    }
+
+    /**
+     * Key pair created in memory, lost on restart and unknown to other instances.
+     */
+    public static JwtSigningKey generate(final SigningAlgorithm algorithm,
+                                         final Instant activateAt) {
+        try {
+            final var generator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+            if (algorithm == SigningAlgorithm.ES256) {
+                generator.initialize(256);
+            }
+            final var keyPair = generator.generateKeyPair();
+            return new JwtSigningKey(UUID.randomUUID().toString(), algorithm, keyPair.getPrivate(), keyPair.getPublic(),
+                    keyPair.getPublic(), activateAt);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate %s key".formatted(algorithm), e);
+        }
+    }
+
+    /**
+     * @param privateKeyPem PKCS#8 PEM, or null for a key which only verifies
+     * @param publicKeyPem  X.509 PEM
+     */
+    public static JwtSigningKey fromPem(final String kid,
+                                        final SigningAlgorithm algorithm,
+                                        final String privateKeyPem,
+                                        final String publicKeyPem,
+                                        final Instant activateAt) {
+        try {
+            final var keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
+            final PrivateKey privateKey = Objects.isNull(privateKeyPem)
+                    ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemContent(privateKeyPem)));
+            final var publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pemContent(publicKeyPem)));
+            return new JwtSigningKey(kid, algorithm, privateKey, publicKey, publicKey, activateAt);
+        } catch (final GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid %s key %s".formatted(algorithm, kid), e);
+        }
+    }
+
+    private static byte[] pemContent(final String pem) {
+        final var base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64.getBytes(StandardCharsets.US_ASCII));
+    }
+}
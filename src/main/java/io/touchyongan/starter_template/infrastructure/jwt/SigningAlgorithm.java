@@ -0,0 +1,18 @@
+package io.touchyongan.starter_template.infrastructure.jwt;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum SigningAlgorithm {
+    // Symmetric, verifiers need the secret, nothing is published in JWKS
+    HS256("HS256", null),
+    ES256("ES256", "EC"),
+    EDDSA("EdDSA", "Ed25519");
+
+    // alg of JWS header and JWK
+    private final String jwaName;
+    // KeyFactory and KeyPairGenerator algorithm, null for HMAC
+    private final String keyAlgorithm;
+}
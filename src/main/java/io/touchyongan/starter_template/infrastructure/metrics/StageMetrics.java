@@ -0,0 +1,95 @@
+package io.touchyongan.starter_template.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers, summaries and counters of request processing stages. Tags must be low cardinality: route template, entity/action, stage name.
+ * Meters are cached by name and tags, so recording on hot path is a map lookup without building Meter.Id.
+ * SLO buckets are configured by management.metrics.distribution.slo.app in application.properties.
+ */
+@Component
+@RequiredArgsConstructor
+public class StageMetrics {
+    public static final String JWT_FILTER = "app.security.jwt.filter";
+    public static final String AUDIT_ASPECT = "app.audit.aspect";
+    public static final String LOGIN_DELAY = "app.auth.login.delay";
+    public static final String REPOSITORY_QUERY = "app.repository.query";
+    public static final String QUERY_EXECUTION = "app.query.execution";
+    public static final String QUERY_STATEMENTS = "app.query.statements";
+    public static final String QUERY_REPEATED = "app.query.repeated";
+    public static final String QUERY_SLOW = "app.query.slow";
+    public static final String POOL_WAIT_QUEUE = "app.pool.wait.queue";
+    public static final String POOL_ACTIVE = "app.pool.active";
+    public static final String POOL_HOLD_VIOLATION = "app.pool.hold.violation";
+    public static final String BULK_INGEST = "app.bulk.ingest";
+    public static final String BULK_INGEST_ROWS = "app.bulk.ingest.rows";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param tags key value pairs, e.g. "entity", "AUDIT_TRAILS", "action", "READ"
+     */
+    public void record(final String name,
+                       final long elapsedNanos,
+                       final String... tags) {
+        timers.computeIfAbsent(new MeterKey(name, tags), k -> Timer.builder(name)
+                        .tags(k.tags())
+                        .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAmount(final String name,
+                             final double amount,
+                             final String... tags) {
+        summaries.computeIfAbsent(new MeterKey(name, tags), k -> DistributionSummary.builder(name)
+                        .tags(k.tags())
+                        .register(meterRegistry))
+                .record(amount);
+    }
+
+    public void increment(final String name,
+                          final String... tags) {
+        counters.computeIfAbsent(new MeterKey(name, tags), k -> Counter.builder(name)
+                        .tags(k.tags())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Route template is only known once request has been mapped to handler, so call it after filter chain.
+     */
+    public static String routeOf(final HttpServletRequest request) {
+        final var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return Objects.isNull(pattern) ? UNKNOWN : pattern.toString();
+    }
+
+    private record MeterKey(String name, String[] tags) {
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof MeterKey other && name.equals(other.name) && Arrays.equals(tags, other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + Arrays.hashCode(tags);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.touchyongan.starter_template.infrastructure.permission;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controller method annotated with CustomPreAuthorize or LogActionAnonymous, generated into EntityActionIndex at compile time.
+ * Entity and action are upper case, permissionCodes (ENTITY:ACTION) is empty for LogActionAnonymous.
+ * httpMethod is taken from the mapping annotation, * when the method accepts any.
+ */
+public record ActionDescriptor(String declaringClass,
+                               String methodName,
+                               List<String> parameterTypes,
+                               String httpMethod,
+                               String entity,
+                               String action,
+                               Set<String> permissionCodes,
+                               boolean anonymous) {
+}
@@ -1,17 +1,41 @@
 package io.touchyongan.starter_template.infrastructure.permission;
 
 import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
 import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
 import org.springframework.security.core.Authentication;
 
+import java.util.function.Supplier;
+
 public class CustomMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+    private final EntityActionRegistry entityActionRegistry;
+
+    public CustomMethodSecurityExpressionHandler(final EntityActionRegistry entityActionRegistry) {
+        this.entityActionRegistry = entityActionRegistry;
+    }
+
+    /**
+     * PreAuthorizeAuthorizationManager creates context with Supplier of Authentication, which does not go through
+     * createSecurityExpressionRoot(Authentication, MethodInvocation), so the root must be replaced here.
+     */
+    @Override
+    public EvaluationContext createEvaluationContext(final Supplier<Authentication> authentication,
+                                                     final MethodInvocation invocation) {
+        final var context = (StandardEvaluationContext) super.createEvaluationContext(authentication, invocation);
+        context.setRootObject(initRoot(new CustomSecurityExpressionRoot(authentication, invocation, entityActionRegistry)));
+        return context;
+    }
 
     @Override
     protected MethodSecurityExpressionOperations createSecurityExpressionRoot(final Authentication authentication,
                                                                               final MethodInvocation invocation) {
-        final var root = new CustomSecurityExpressionRoot(authentication, invocation);
+        return initRoot(new CustomSecurityExpressionRoot(authentication, invocation, entityActionRegistry));
+    }
+
+    private CustomSecurityExpressionRoot initRoot(final CustomSecurityExpressionRoot root) {
         root.setPermissionEvaluator(getPermissionEvaluator());
         root.setTrustResolver(new AuthenticationTrustResolverImpl());
         root.setRoleHierarchy(getRoleHierarchy());
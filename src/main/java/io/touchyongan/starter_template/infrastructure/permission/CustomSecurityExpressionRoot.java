@@ -5,18 +5,30 @@ import org.springframework.security.access.expression.SecurityExpressionRoot;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
 import org.springframework.security.core.Authentication;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class CustomSecurityExpressionRoot extends SecurityExpressionRoot implements MethodSecurityExpressionOperations {
     private final MethodInvocation invocation;
+    private final EntityActionRegistry entityActionRegistry;
     private Object filterObject;
     private Object returnObject;
 
     public CustomSecurityExpressionRoot(final Authentication authentication,
-                                        final MethodInvocation invocation) {
+                                        final MethodInvocation invocation,
+                                        final EntityActionRegistry entityActionRegistry) {
         super(authentication);
         this.invocation = invocation;
+        this.entityActionRegistry = entityActionRegistry;
+    }
+
+    public CustomSecurityExpressionRoot(final Supplier<Authentication> authentication,
+                                        final MethodInvocation invocation,
+                                        final EntityActionRegistry entityActionRegistry) {
+        super(authentication);
+        this.invocation = invocation;
+        this.entityActionRegistry = entityActionRegistry;
     }
 
     public boolean customCheckPermission() {
@@ -25,9 +37,7 @@ public class CustomSecurityExpressionRoot extends SecurityExpressionRoot impleme
             return false;
         }
 
-        final var requiredPermissions = new HashSet<String>();
-        requiredPermissions.add(getPermissionCode());
-        requiredPermissions.addAll(getPermissionCodes());
+        final var requiredPermissions = getPermissionCodes();
         for (final var authority : authentication.getAuthorities()) {
             for (final var required : requiredPermissions) {
                 if (hasAnyPermission(authority.getAuthority(), required)) {
@@ -63,25 +73,11 @@ public class CustomSecurityExpressionRoot extends SecurityExpressionRoot impleme
         return "SPECIAL:ALL_WRITE_FUNCTIONS".equalsIgnoreCase(authority);
     }
 
-    private String getPermissionCode() {
-        final var method = invocation.getMethod();
-        final var customPreAuthorize = method.getAnnotation(CustomPreAuthorize.class);
-
-        return Optional.ofNullable(customPreAuthorize)
-                .map(ca -> "%s:%s".formatted(customPreAuthorize.entity().toUpperCase(), customPreAuthorize.action().toUpperCase()))
-                .orElse("");
-    }
-
+    /**
+     * ENTITY:ACTION of action and each of actions of CustomPreAuthorize, resolved at compile time
+     */
     private Set<String> getPermissionCodes() {
-        final var method = invocation.getMethod();
-        final var customPreAuthorize = method.getAnnotation(CustomPreAuthorize.class);
-
-        return Optional.ofNullable(customPreAuthorize)
-                .map(as -> Arrays.asList(as.actions()))
-                .stream()
-                .flatMap(Collection::stream)
-                .map(ca -> "%s:%s".formatted(customPreAuthorize.entity().toUpperCase(), customPreAuthorize.action().toUpperCase()))
-                .collect(Collectors.toSet());
+        return entityActionRegistry.findPermissionCodes(invocation.getMethod());
     }
 
     @Override
@@ -0,0 +1,127 @@
+package io.touchyongan.starter_template.infrastructure.permission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Entity and action of controller methods, generated by EntityActionProcessor at compile time instead of scanning
+ * controller beans at startup. Lookup by method is a single map get, no annotation is read per request.
+ */
+@Slf4j
+@Component
+public class EntityActionRegistry {
+    private final Map<Method, ActionDescriptor> descriptors;
+    private final Map<String, List<String>> actionsByEntity;
+    private final Set<String> permissionCodes;
+    private final Map<Method, Set<String>> unindexedPermissionCodes = new ConcurrentHashMap<>();
+
+    public EntityActionRegistry() {
+        this(EntityActionIndex.DESCRIPTORS);
+    }
+
+    EntityActionRegistry(final Collection<ActionDescriptor> index) {
+        final var byMethod = new HashMap<Method, ActionDescriptor>();
+        final var actions = new TreeMap<String, Set<String>>();
+        final var codes = new TreeSet<String>();
+        for (final var descriptor : index) {
+            byMethod.put(resolve(descriptor), descriptor);
+            actions.computeIfAbsent(descriptor.entity(), key -> new TreeSet<>()).add(descriptor.action());
+            codes.addAll(descriptor.permissionCodes());
+        }
+        final var sortedActions = new TreeMap<String, List<String>>();
+        actions.forEach((entity, entityActions) -> sortedActions.put(entity, List.copyOf(entityActions)));
+        this.descriptors = Map.copyOf(byMethod);
+        this.actionsByEntity = Collections.unmodifiableSortedMap(sortedActions);
+        this.permissionCodes = Collections.unmodifiableSortedSet(codes);
+        log.info("Registered {} controller methods of {} entities", descriptors.size(), actionsByEntity.size());
+    }
+
+    /**
+     * @return descriptors generated at compile time, for build-time processing such as runtime hints
+     */
+    public static List<ActionDescriptor> index() {
+        return EntityActionIndex.DESCRIPTORS;
+    }
+
+    /**
+     * @param method method declared by the controller class, as given by join point or method invocation
+     */
+    public Optional<ActionDescriptor> find(final Method method) {
+        return Optional.ofNullable(descriptors.get(method));
+    }
+
+    /**
+     * Permission codes required by CustomPreAuthorize of method. A method missing from the index, e.g. compiled
+     * without annotation processing, is read from its annotation once and logged, instead of denying everyone.
+     */
+    public Set<String> findPermissionCodes(final Method method) {
+        final var descriptor = descriptors.get(method);
+        if (Objects.nonNull(descriptor)) {
+            return descriptor.permissionCodes();
+        }
+        return unindexedPermissionCodes.computeIfAbsent(method, EntityActionRegistry::readPermissionCodes);
+    }
+
+    /**
+     * @return actions of each entity, both sorted
+     */
+    public Map<String, List<String>> getActionsByEntity() {
+        return actionsByEntity;
+    }
+
+    /**
+     * @return every permission code required by CustomPreAuthorize, sorted
+     */
+    public Set<String> getPermissionCodes() {
+        return permissionCodes;
+    }
+
+    private static Set<String> readPermissionCodes(final Method method) {
+        final var annotation = AnnotatedElementUtils.findMergedAnnotation(method, CustomPreAuthorize.class);
+        if (Objects.isNull(annotation)) {
+            log.warn("{} has no CustomPreAuthorize, access is denied", method);
+            return Set.of();
+        }
+        final var entity = annotation.entity().toUpperCase(Locale.ROOT);
+        final var codes = Stream.concat(Stream.of(annotation.action()), Arrays.stream(annotation.actions()))
+                .filter(StringUtils::hasText)
+                .map(action -> entity + ":" + action.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toCollection(TreeSet::new));
+        log.warn("{} is missing from EntityActionIndex, permission {} read from its CustomPreAuthorize, rebuild the project", method, codes);
+        return Collections.unmodifiableSortedSet(codes);
+    }
+
+    private static Method resolve(final ActionDescriptor descriptor) {
+        final var classLoader = EntityActionRegistry.class.getClassLoader();
+        try {
+            final var type = ClassUtils.forName(descriptor.declaringClass(), classLoader);
+            final var parameterTypes = new Class<?>[descriptor.parameterTypes().size()];
+            for (var i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = ClassUtils.forName(descriptor.parameterTypes().get(i), classLoader);
+            }
+            return type.getDeclaredMethod(descriptor.methodName(), parameterTypes);
+        } catch (final ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("EntityActionIndex does not match compiled classes, rebuild the project: " + descriptor, e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Statements of current unit of work (request or QueryCounter), bound to thread.
+ * Contexts can be nested, statement is recorded to current context and all its parents.
+ */
+public final class QueryContext {
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final QueryContext parent;
+    private final String traceId;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private int statementCount;
+    private long executionNanos;
+
+    private QueryContext(final QueryContext parent,
+                         final String traceId) {
+        this.parent = parent;
+        this.traceId = traceId;
+    }
+
+    public static QueryContext begin(final String traceId) {
+        final var context = new QueryContext(CURRENT.get(), traceId);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * End given context and restore its parent as current context.
+     */
+    public static void end(final QueryContext context) {
+        if (Objects.isNull(context.parent)) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context.parent);
+        }
+    }
+
+    void onStatementPrepared(final String shape) {
+        for (var context = this; Objects.nonNull(context); context = context.parent) {
+            context.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    void onStatementExecuted(final int count,
+                             final long nanos) {
+        for (var context = this; Objects.nonNull(context); context = context.parent) {
+            context.statementCount += count;
+            context.executionNanos += nanos;
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    /**
+     * Normalized statement with the number of times it was prepared, in order of first execution.
+     */
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+
+    /**
+     * Statements with the same shape prepared at least threshold times, the usual sign of N+1 select.
+     */
+    public Map<String, Integer> getRepeatedShapes(final int threshold) {
+        return shapes.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
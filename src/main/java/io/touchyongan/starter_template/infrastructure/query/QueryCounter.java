@@ -0,0 +1,57 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import java.util.stream.Collectors;
+
+/**
+ * Count statements executed by current thread, intended for integration test.
+ * Example:
+ * try (final var counter = QueryCounter.start()) {
+ *     service.getAuditTrailById(id);
+ *     counter.assertMaxQueries(2).assertNoRepeatedStatement(3);
+ * }
+ */
+public final class QueryCounter implements AutoCloseable {
+    private final QueryContext context;
+
+    private QueryCounter(final QueryContext context) {
+        this.context = context;
+    }
+
+    public static QueryCounter start() {
+        return new QueryCounter(QueryContext.begin(null));
+    }
+
+    public int getStatementCount() {
+        return context.getStatementCount();
+    }
+
+    public QueryCounter assertMaxQueries(final int max) {
+        if (context.getStatementCount() > max) {
+            throw new AssertionError("Expected at most %d statements, but %d were executed:%n%s"
+                    .formatted(max, context.getStatementCount(), describe()));
+        }
+        return this;
+    }
+
+    public QueryCounter assertNoRepeatedStatement(final int threshold) {
+        final var repeated = context.getRepeatedShapes(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Expected no statement repeated %d times, but found:%n%s"
+                    .formatted(threshold, repeated.entrySet().stream()
+                            .map(e -> e.getValue() + " x " + e.getKey())
+                            .collect(Collectors.joining(System.lineSeparator()))));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        QueryContext.end(context);
+    }
+
+    private String describe() {
+        return context.getShapes().entrySet().stream()
+                .map(e -> e.getValue() + " x " + e.getKey())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
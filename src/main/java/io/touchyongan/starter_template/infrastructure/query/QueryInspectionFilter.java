@@ -0,0 +1,70 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import io.touchyongan.starter_template.config.properties.QueryInspectionProperties;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open QueryContext per request, then report statement count and repeated statements (possible N+1) per route.
+ * Note: statements of streaming response run on async thread and are not counted to the request.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class QueryInspectionFilter extends OncePerRequestFilter {
+    private final QueryInspectionProperties properties;
+    private final StageMetrics stageMetrics;
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var context = QueryContext.begin(MDC.get("UUID"));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryContext.end(context);
+            report(request, context);
+        }
+    }
+
+    private void report(final HttpServletRequest request,
+                        final QueryContext context) {
+        final var route = StageMetrics.routeOf(request);
+        final var statementCount = context.getStatementCount();
+        stageMetrics.recordAmount(StageMetrics.QUERY_STATEMENTS, statementCount, "route", route);
+
+        final var repeated = context.getRepeatedShapes(properties.getRepeatedThreshold());
+        if (!repeated.isEmpty()) {
+            stageMetrics.increment(StageMetrics.QUERY_REPEATED, "route", route);
+            repeated.forEach((shape, count) -> log.warn("Possible N+1 on {} {}, trace {}: statement executed {} times: {}",
+                    request.getMethod(), route, context.getTraceId(), count, shape));
+        }
+        if (statementCount > properties.getMaxStatementsPerRequest()) {
+            log.warn("{} {} executed {} statements in {} ms, trace {}", request.getMethod(), route, statementCount,
+                    TimeUnit.NANOSECONDS.toMillis(context.getExecutionNanos()), context.getTraceId());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {} executed {} statements in {} ms", request.getMethod(), route, statementCount,
+                    TimeUnit.NANOSECONDS.toMillis(context.getExecutionNanos()));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import io.touchyongan.starter_template.config.properties.QueryInspectionProperties;
+import io.touchyongan.starter_template.infrastructure.index.SqlSampleCapture;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Time every JDBC execution, count it to current QueryContext and log slow statement with its bind parameter types,
+ * values are never logged since they can contain personal data. An open SqlSampleCapture gets the statement with its values.
+ * Dependencies are resolved lazily because data source is wrapped before the rest of context is ready.
+ */
+@Slf4j
+public class QueryInspectionListener implements QueryExecutionListener {
+    private static final String KEY_START = QueryInspectionListener.class.getName() + ".START";
+
+    private final Supplier<StageMetrics> stageMetrics;
+    private final Supplier<QueryInspectionProperties> properties;
+
+    public QueryInspectionListener(final Supplier<StageMetrics> stageMetrics,
+                                   final Supplier<QueryInspectionProperties> properties) {
+        this.stageMetrics = SingletonSupplier.of(stageMetrics);
+        this.properties = SingletonSupplier.of(properties);
+    }
+
+    @Override
+    public void beforeQuery(final ExecutionInfo execInfo,
+                            final List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(KEY_START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(final ExecutionInfo execInfo,
+                           final List<QueryInfo> queryInfoList) {
+        final var start = execInfo.getCustomValue(KEY_START, Long.class);
+        if (Objects.isNull(start) || queryInfoList.isEmpty()) {
+            return;
+        }
+        final var elapsed = System.nanoTime() - start;
+        final var type = queryTypeOf(queryInfoList);
+        final var context = QueryContext.current();
+        if (Objects.nonNull(context)) {
+            context.onStatementExecuted(queryInfoList.size(), elapsed);
+        }
+        SqlSampleCapture.offer(queryInfoList);
+        final var metrics = stageMetrics.get();
+        metrics.record(StageMetrics.QUERY_EXECUTION, elapsed, "type", type);
+
+        final var threshold = properties.get().getSlowThreshold();
+        if (elapsed >= threshold.toNanos()) {
+            metrics.increment(StageMetrics.QUERY_SLOW, "type", type);
+            log.warn("Slow query {} ms, trace {}, batch {}, parameters {}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    Objects.nonNull(context) ? context.getTraceId() : null,
+                    execInfo.getBatchSize(),
+                    parameterShapes(queryInfoList),
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+
+    private String queryTypeOf(final List<QueryInfo> queryInfoList) {
+        final var type = QueryUtils.getQueryType(queryInfoList.getFirst().getQuery());
+        return Objects.isNull(type) ? QueryType.OTHER.name() : type.name();
+    }
+
+    /**
+     * Types of bind parameters of the first parameter set, e.g. (Long, String, null)
+     */
+    private String parameterShapes(final List<QueryInfo> queryInfoList) {
+        final var parametersList = queryInfoList.getFirst().getParametersList();
+        if (parametersList.isEmpty()) {
+            return "()";
+        }
+        return parametersList.getFirst().stream()
+                .map(operation -> {
+                    final var args = operation.getArgs();
+                    final var value = args.length > 1 ? args[1] : null;
+                    return Objects.isNull(value) ? "null" : value.getClass().getSimpleName();
+                })
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,29 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Record shape of every statement prepared by Hibernate to current QueryContext, the statement itself is not changed.
+ * Hibernate already binds values as ?, only whitespace and IN list size are normalized.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    @Override
+    public String inspect(final String sql) {
+        final var context = QueryContext.current();
+        if (Objects.nonNull(context)) {
+            context.onStatementPrepared(shapeOf(sql));
+        }
+        return sql;
+    }
+
+    static String shapeOf(final String sql) {
+        final var compact = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(compact).replaceAll("?...");
+    }
+}
@@ -124,7 +124,7 @@ VALUES('SPECIAL:ALL_FUNCTIONS', 'SPECIAL:ALL_FUNCTIONS - Permission for all acti
       ('SPECIAL:ALL_WRITE_FUNCTIONS', 'SPECIAL:ALL_FUNCTIONS - Permission for all write actions only', 'SPECIAL', 'ALL_WRITE_FUNCTIONS', 'SPECIAL');
 
 INSERT INTO app_user_roles(user_id, role_id)
-VALUES ((SELECT id FROM app_users WHERE username = 'admin@emal.com'), (SELECT id FROM roles WHERE "name" = 'Super User'));
+VALUES ((SELECT id FROM app_users WHERE username = 'admin@email.com'), (SELECT id FROM roles WHERE "name" = 'Super User'));
 
 INSERT INTO role_permissions(role_id, permission_id)
 VALUES ((SELECT id FROM roles WHERE "name" = 'Super User'), (SELECT id FROM permissions WHERE "code" = 'SPECIAL:ALL_FUNCTIONS')),
@@ -0,0 +1,42 @@
+-- Read model of audit_trail: counts per hour and per day, folded incrementally by AuditRollupFolder.
+-- Dimensions are NOT NULL ('' for missing value) so they can be part of the primary key used by upsert.
+CREATE TABLE audit_trail_rollup_hourly (
+	bucket timestamp NOT NULL,
+	entity varchar(100) NOT NULL,
+	"action" varchar(100) NOT NULL,
+	status varchar(100) NOT NULL,
+	username varchar(200) NOT NULL,
+	total int8 NOT NULL,
+	CONSTRAINT audit_trail_rollup_hourly_pkey PRIMARY KEY (bucket, entity, "action", status, username)
+);
+
+CREATE TABLE audit_trail_rollup_daily (
+	bucket timestamp NOT NULL,
+	entity varchar(100) NOT NULL,
+	"action" varchar(100) NOT NULL,
+	status varchar(100) NOT NULL,
+	username varchar(200) NOT NULL,
+	total int8 NOT NULL,
+	CONSTRAINT audit_trail_rollup_daily_pkey PRIMARY KEY (bucket, entity, "action", status, username)
+);
+CREATE INDEX idx_audit_trail_rollup_daily_username ON audit_trail_rollup_daily USING btree (username, bucket);
+
+-- Top IPs, kept per day only, IP × username per hour would be as large as audit_trail itself
+CREATE TABLE audit_trail_rollup_ip_daily (
+	bucket timestamp NOT NULL,
+	ip text NOT NULL,
+	total int8 NOT NULL,
+	failures int8 NOT NULL,
+	CONSTRAINT audit_trail_rollup_ip_daily_pkey PRIMARY KEY (bucket, ip)
+);
+
+-- High-water-mark: rows with last_id < id <= ceiling_id are folded next, ceiling_id is max(id) seen by previous run,
+-- so a transaction still inserting lower ids when max(id) was read has committed by the time they are folded
+CREATE TABLE audit_trail_rollup_state (
+	name varchar(50) NOT NULL,
+	last_id int8 NOT NULL,
+	ceiling_id int8 NOT NULL,
+	updated_at timestamp NOT NULL,
+	CONSTRAINT audit_trail_rollup_state_pkey PRIMARY KEY (name)
+);
+INSERT INTO audit_trail_rollup_state(name, last_id, ceiling_id, updated_at) VALUES ('audit_trail', 0, 0, now());
@@ -0,0 +1,22 @@
+-- Indexes of the AuditTrailFilter query shape: optional equality filters, entity <> 'AUDIT_TRAILS' inlined as literal
+-- and ORDER BY id DESC. They are partial on the exclusion, so views of audit trails, which grow with every listing,
+-- are not indexed, and end with id so a page is read in index order and stops after LIMIT rows without a sort.
+-- Built and dropped CONCURRENTLY so audit writes are not blocked, which cannot run in a transaction
+-- (executeInTransaction=false in .sql.conf). A failed CONCURRENTLY build leaves an invalid index behind, so each one
+-- is dropped first: a retry after flyway repair rebuilds it instead of skipping it.
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trail_listing;
+CREATE INDEX CONCURRENTLY idx_audit_trail_listing ON audit_trail USING btree (id DESC) WHERE entity <> 'AUDIT_TRAILS';
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trail_listing_username;
+CREATE INDEX CONCURRENTLY idx_audit_trail_listing_username ON audit_trail USING btree (username, id DESC) WHERE entity <> 'AUDIT_TRAILS';
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trail_listing_action;
+CREATE INDEX CONCURRENTLY idx_audit_trail_listing_action ON audit_trail USING btree ("action", id DESC) WHERE entity <> 'AUDIT_TRAILS';
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trail_listing_entity;
+CREATE INDEX CONCURRENTLY idx_audit_trail_listing_entity ON audit_trail USING btree (entity, id DESC) WHERE entity <> 'AUDIT_TRAILS';
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trail_listing_status;
+CREATE INDEX CONCURRENTLY idx_audit_trail_listing_status ON audit_trail USING btree (status, id DESC) WHERE entity <> 'AUDIT_TRAILS';
+
+-- Superseded by the indexes above, no other query filters audit_trail by these columns alone
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trails_action;
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trails_entity;
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trails_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_audit_trails_username;
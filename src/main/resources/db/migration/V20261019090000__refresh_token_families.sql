@@ -0,0 +1,41 @@
+-- Refresh token rotation: one family per login, each refresh replaces current_digest, presenting a replaced token revokes the family.
+-- Digests are JwtUtil.tokenDigest of the token, tokens themselves are never stored.
+CREATE TABLE refresh_token_families (
+	id uuid NOT NULL,
+	user_id int8 NOT NULL,
+	current_digest varchar(64) NOT NULL,
+	previous_digest varchar(64) NULL,
+	created_at timestamp DEFAULT now() NOT NULL,
+	rotated_at timestamp DEFAULT now() NOT NULL,
+	expires_at timestamp NOT NULL,
+	revoked_at timestamp NULL,
+	CONSTRAINT refresh_token_families_pkey PRIMARY KEY (id),
+	CONSTRAINT refresh_token_families_user_id_fkey FOREIGN KEY (user_id) REFERENCES app_users(id)
+);
+CREATE INDEX idx_refresh_token_families_user_id ON refresh_token_families USING btree (user_id);
+CREATE INDEX idx_refresh_token_families_expires_at ON refresh_token_families USING btree (expires_at);
+
+-- Access tokens issued in a family, revoked with it
+CREATE TABLE refresh_token_family_access_tokens (
+	digest varchar(64) NOT NULL,
+	family_id uuid NOT NULL,
+	expires_at timestamp NOT NULL,
+	CONSTRAINT refresh_token_family_access_tokens_pkey PRIMARY KEY (digest),
+	CONSTRAINT refresh_token_family_access_tokens_family_id_fkey FOREIGN KEY (family_id) REFERENCES refresh_token_families(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_refresh_token_family_access_tokens_family_id ON refresh_token_family_access_tokens USING btree (family_id);
+CREATE INDEX idx_refresh_token_family_access_tokens_expires_at ON refresh_token_family_access_tokens USING btree (expires_at);
+
+-- Revoked access tokens until they expire, every instance keeps them in a Bloom filter synced by id, see RevokedTokenRegistry
+CREATE TABLE revoked_tokens (
+	id int8 GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+	digest varchar(64) NOT NULL,
+	family_id uuid NULL,
+	reason varchar(20) NOT NULL,
+	revoked_at timestamp DEFAULT now() NOT NULL,
+	expires_at timestamp NOT NULL,
+	CONSTRAINT revoked_tokens_pkey PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX revoked_tokens_digest_key ON revoked_tokens USING btree (digest);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens USING btree (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens USING btree (expires_at);
@@ -0,0 +1,3 @@
+-- Next transaction id when the ceiling was taken, rows up to ceiling_id are folded only after every transaction
+-- started before it has ended, so a long insert (e.g. segment shipper) holding lower ids is never skipped.
+ALTER TABLE audit_trail_rollup_state ADD COLUMN ceiling_xmax int8 NOT NULL DEFAULT 0;
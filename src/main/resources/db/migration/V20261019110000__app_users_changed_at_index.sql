@@ -0,0 +1,6 @@
+-- Username typeahead polls app_users for rows changed after its watermark on every request, the expression matches
+-- AppUserUsernameRepository so the poll is an index range scan instead of a scan of all users.
+-- Built CONCURRENTLY so logins and user writes are not blocked (executeInTransaction=false in .sql.conf),
+-- dropped first so a retry after a failed build does not keep an invalid index.
+DROP INDEX CONCURRENTLY IF EXISTS idx_app_users_changed_at;
+CREATE INDEX CONCURRENTLY idx_app_users_changed_at ON app_users USING btree ((GREATEST(created_at, updated_at, deleted_at)));
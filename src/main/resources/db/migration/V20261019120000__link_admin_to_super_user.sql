@@ -0,0 +1,8 @@
+-- V1 used to link Super User to 'admin@emal.com', a user that never exists. A database created from that script by hand
+-- and baselined at version 1 has the seeded admin without any role, link it here. No-op where V1 already linked it.
+INSERT INTO app_user_roles(user_id, role_id)
+SELECT u.id, r.id
+FROM app_users u
+JOIN roles r ON r."name" = 'Super User'
+WHERE u.username = 'admin@email.com'
+ON CONFLICT DO NOTHING;
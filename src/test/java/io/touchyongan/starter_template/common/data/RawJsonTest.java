@@ -0,0 +1,26 @@
+package io.touchyongan.starter_template.common.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawJsonTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void wellFormedJsonIsKeptAsItIs() {
+        assertThat(RawJson.ofUntrusted("{\"a\":[1,{\"b\":null}]}")).hasToString("{\"a\":[1,{\"b\":null}]}");
+        assertThat(RawJson.ofUntrusted("42")).hasToString("42");
+    }
+
+    @Test
+    void malformedJsonIsKeptAsJsonString() throws Exception {
+        for (final var text : new String[] {"{\"a\":", "{\"a\":1} trailing", "", "not json", "{\"a\":\"\\u0000\"}"}) {
+            final var stored = objectMapper.readTree(RawJson.ofUntrusted(text).toString());
+
+            assertThat(stored.isTextual()).as(text).isTrue();
+            assertThat(stored.asText()).isEqualTo(text);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.touchyongan.starter_template.common.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingCustomPageTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+
+    @Test
+    void rowsAreFetchedInChunksOfIds() throws Exception {
+        final var chunks = new ArrayList<Integer>();
+        final var page = new StreamingCustomPage<>(objectMapper, PageRequest.of(0, 250), 300, ids, chunk -> {
+            chunks.add(chunk.size());
+            return chunk;
+        });
+
+        final var json = objectMapper.readTree(write(page));
+
+        assertThat(chunks).containsExactly(100, 100, 50);
+        assertThat(json.path("data").path("content")).hasSize(250);
+        assertThat(json.path("data").path("page").path("totalElements").asLong()).isEqualTo(300);
+        assertThat(json.has("error")).isFalse();
+    }
+
+    @Test
+    void failedChunkClosesContentAndAddsError() throws Exception {
+        final var page = new StreamingCustomPage<>(objectMapper, PageRequest.of(0, 250), 250, ids, chunk -> {
+            if (chunk.getFirst() > 100) {
+                throw new IllegalStateException("connection lost");
+            }
+            return chunk;
+        });
+
+        final var json = objectMapper.readTree(write(page));
+
+        assertThat(json.path("data").path("content")).hasSize(100);
+        assertThat(json.path("error").path("status").asInt()).isEqualTo(500);
+    }
+
+    private static String write(final StreamingCustomPage<?> page) throws Exception {
+        final var out = new ByteArrayOutputStream();
+        page.writeTo(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package io.touchyongan.starter_template.common.specification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AggregateQueryTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Test
+    void collectsGroupsAggregatesHavingAndOrderByAlias() {
+        final var query = AggregateQuery.from(Object.class)
+                .groupByBucket("failedAt", DateBucket.DAY, "bucket")
+                .groupBy("role.name")
+                .aggregate(AggregateFunction.COUNT, "id", "total")
+                .having("total", SearchOperator.GREATER_THAN, 5L)
+                .orderBy("total", Sort.Direction.DESC)
+                .limit(10);
+
+        assertThat(query.getGroups()).extracting(AggregateQuery.Group::alias).containsExactly("bucket", "name");
+        assertThat(query.getAggregates()).extracting(AggregateQuery.Aggregate::alias).containsExactly("total");
+        assertThat(query.getHavings()).hasSize(1);
+        assertThat(query.getOrders()).extracting(AggregateQuery.AliasOrder::alias).containsExactly("total");
+        assertThat(query.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsDuplicateAndUnknownAliasAndUnsupportedHavingOperator() {
+        final var query = AggregateQuery.from(Object.class).aggregate(AggregateFunction.COUNT, "id", "total");
+
+        assertThatThrownBy(() -> query.aggregate(AggregateFunction.MAX, "id", "total")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.orderBy("missing", Sort.Direction.ASC)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.having("total", SearchOperator.LIKE, 1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.limit(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mapsRowByAliasIntoRecordAndBean() {
+        final var aliases = List.of("total", "bucket", "username");
+        final var row = new Object[]{3L, DAY, "user1"};
+
+        final var record = new AggregateResultMapper<>(Bucket.class, aliases).map(row);
+        assertThat(record).isEqualTo(new Bucket(DAY, "user1", 3L, null));
+
+        final var bean = new AggregateResultMapper<>(BucketBean.class, aliases).map(row);
+        assertThat(bean.getBucket()).isEqualTo(DAY);
+        assertThat(bean.getUsername()).isEqualTo("user1");
+        assertThat(bean.getTotal()).isEqualTo(3L);
+
+        assertThatThrownBy(() -> new AggregateResultMapper<>(BucketBean.class, List.of("total", "ip"))).isInstanceOf(RuntimeException.class);
+    }
+
+    record Bucket(LocalDateTime bucket, String username, long total, String ip) {
+    }
+
+    public static class BucketBean {
+        private LocalDateTime bucket;
+        private String username;
+        private Long total;
+
+        public LocalDateTime getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(final LocalDateTime bucket) {
+            this.bucket = bucket;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(final String username) {
+            this.username = username;
+        }
+
+        public Long getTotal() {
+            return total;
+        }
+
+        public void setTotal(final Long total) {
+            this.total = total;
+        }
+    }
+}
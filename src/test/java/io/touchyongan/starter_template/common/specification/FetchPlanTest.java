@@ -0,0 +1,28 @@
+package io.touchyongan.starter_template.common.specification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FetchPlanTest {
+
+    @Test
+    void keepsPathsInDeclaredOrder() {
+        final var plan = FetchPlan.of("userInfo", "roles", "roles.permissions");
+
+        assertThat(plan.getPaths()).containsExactly("userInfo", "roles", "roles.permissions");
+        assertThat(plan.isEmpty()).isFalse();
+        assertThat(FetchPlan.none().isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsChildBeforeParentAndDuplicates() {
+        assertThatThrownBy(() -> FetchPlan.of("roles.permissions", "roles"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FetchPlan.of("roles", "roles"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FetchPlan.of(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
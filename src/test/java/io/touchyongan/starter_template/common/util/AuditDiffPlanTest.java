@@ -0,0 +1,262 @@
+package io.touchyongan.starter_template.common.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AuditDiffPlan must produce the same diff and the same updated entity as the reflection based AuditUtil it replaced.
+ */
+class AuditDiffPlanTest {
+    private static final int ROUNDS = 2_000;
+    private static final List<String> STRINGS = new ArrayList<>(Arrays.asList(null, "", " ", "a", "b"));
+    private static final List<Double> DOUBLES = List.of(0.0, -0.0, 1.5, Double.NaN);
+    private static final List<Float> FLOATS = List.of(0.0f, -0.0f, 1.5f, Float.NaN);
+    private static final List<Integer> INTEGERS = new ArrayList<>(Arrays.asList(null, 0, 1, -1));
+    private static final List<LocalDate> DATES = new ArrayList<>(Arrays.asList(null, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2)));
+    private static final List<List<String>> TAGS = List.of(List.of(), List.of("a"), List.of("a", "b"), List.of("b", "a"));
+
+    @Test
+    void diffAndUpdatedEntityMatchReflectionImplementation() {
+        final var random = new Random(42);
+        for (var round = 0; round < ROUNDS; round++) {
+            final var seed = random.nextLong();
+            final var dto = Dto.random(new Random(seed));
+            final var expectedEntity = Entity.random(new Random(~seed));
+            final var actualEntity = Entity.random(new Random(~seed));
+
+            final var expectedOld = new LinkedHashMap<String, Object>();
+            final var expectedNew = new LinkedHashMap<String, Object>();
+            legacyAuditAndUpdate(expectedEntity, dto, expectedOld, expectedNew, "");
+            final var actual = AuditUtil.auditAndUpdate(actualEntity, dto);
+
+            assertThat(List.copyOf(actual.getOldValueMap().entrySet())).as("old values of round %d", round)
+                    .isEqualTo(List.copyOf(expectedOld.entrySet()));
+            assertThat(List.copyOf(actual.getNewValueMap().entrySet())).as("new values of round %d", round)
+                    .isEqualTo(List.copyOf(expectedNew.entrySet()));
+            assertThat(actualEntity).as("entity of round %d", round)
+                    .usingRecursiveComparison()
+                    .withEqualsForType(Objects::equals, Double.class)
+                    .withEqualsForType(Objects::equals, Float.class)
+                    .isEqualTo(expectedEntity);
+        }
+    }
+
+    @Test
+    void primitiveValuesFollowBoxedEquality() {
+        final var entity = new Entity();
+        entity.ratio = Double.NaN;
+        entity.score = 0.0f;
+        final var dto = new Dto();
+        dto.ratio = Double.NaN;
+        dto.score = -0.0f;
+        dto.unboxedCount = 0;
+        dto.address = new AddressDto();
+        entity.address = new Address();
+
+        final var context = AuditUtil.auditAndUpdate(entity, dto);
+
+        assertThat(context.getOldValueMap()).containsOnlyKeys("score");
+        assertThat(context.getNewValueMap()).containsEntry("score", -0.0f);
+        assertThat(entity.score).isEqualTo(-0.0f);
+    }
+
+    /**
+     * AuditUtil before the diff plan, kept as reference.
+     */
+    private static void legacyAuditAndUpdate(final Object entity,
+                                             final Object dto,
+                                             final Map<String, Object> oldValueMap,
+                                             final Map<String, Object> newValueMap,
+                                             final String pathPrefix) {
+        for (final var dtoField : dto.getClass().getDeclaredFields()) {
+            final var auditChange = dtoField.getDeclaredAnnotation(AuditChange.class);
+            final var newValue = getFieldValue(dtoField, dto);
+            if (Objects.nonNull(auditChange) && auditChange.ignoreField()) {
+                continue;
+            }
+            if (Objects.nonNull(auditChange) && auditChange.ignoreUpdateNullValue()
+                    && (newValue instanceof String str ? AppUtil.isBlank(str) : Objects.isNull(newValue))) {
+                continue;
+            }
+            final var entityFieldName = Objects.nonNull(auditChange) && AppUtil.isNotBlank(auditChange.entityField())
+                    ? auditChange.entityField()
+                    : dtoField.getName();
+            final var entityField = ReflectionUtils.findField(entity.getClass(), entityFieldName);
+            if (Objects.isNull(entityField)) {
+                continue;
+            }
+            final var oldValue = getFieldValue(entityField, entity);
+            if (isSimpleType(dtoField.getType())) {
+                final var pathField = pathPrefix + dtoField.getName();
+                if (AppUtil.hasChanged(oldValue, newValue)) {
+                    oldValueMap.put(pathField, oldValue);
+                    newValueMap.put(pathField, newValue);
+                    ReflectionUtils.setField(entityField, entity, newValue);
+                }
+            } else {
+                legacyAuditAndUpdate(oldValue, newValue, oldValueMap, newValueMap, pathPrefix + entityFieldName + ".");
+            }
+        }
+    }
+
+    private static Object getFieldValue(final Field field,
+                                        final Object object) {
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, object);
+    }
+
+    private static boolean isSimpleType(final Class<?> type) {
+        return type.isPrimitive() ||
+                type.equals(String.class) ||
+                Number.class.isAssignableFrom(type) ||
+                Boolean.class.equals(type) ||
+                type.isEnum() ||
+                Temporal.class.isAssignableFrom(type) ||
+                Collection.class.isAssignableFrom(type);
+    }
+
+    private static <T> T pick(final Random random,
+                              final List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    enum Status {
+        ACTIVE, INACTIVE
+    }
+
+    static class Base {
+        private Long id;
+        private String createdBy;
+    }
+
+    static class Address {
+        private String city;
+        private int zip;
+    }
+
+    static class SubAddress extends Address {
+        private String unit;
+    }
+
+    static class Entity extends Base {
+        private int count;
+        private long total;
+        private boolean active;
+        private double ratio;
+        private short level;
+        private char grade;
+        private float score;
+        private byte flags;
+        private Integer boxedCount;
+        private int unboxedCount;
+        private String name;
+        private String nickname;
+        private Status status;
+        private LocalDate birthDate;
+        private List<String> tags;
+        private String legacyCode;
+        private String note;
+        private Address address;
+
+        static Entity random(final Random random) {
+            final var entity = new Entity();
+            ((Base) entity).id = (long) random.nextInt(3);
+            ((Base) entity).createdBy = pick(random, STRINGS);
+            entity.count = random.nextInt(3);
+            entity.total = random.nextInt(3);
+            entity.active = random.nextBoolean();
+            entity.ratio = pick(random, DOUBLES);
+            entity.level = (short) random.nextInt(3);
+            entity.grade = (char) ('a' + random.nextInt(3));
+            entity.score = pick(random, FLOATS);
+            entity.flags = (byte) random.nextInt(3);
+            entity.boxedCount = pick(random, INTEGERS);
+            entity.unboxedCount = random.nextInt(3);
+            entity.name = pick(random, STRINGS);
+            entity.nickname = pick(random, STRINGS);
+            entity.status = random.nextBoolean() ? Status.ACTIVE : Status.INACTIVE;
+            entity.birthDate = pick(random, DATES);
+            entity.tags = pick(random, TAGS);
+            entity.legacyCode = pick(random, STRINGS);
+            entity.note = pick(random, STRINGS);
+            entity.address = random.nextBoolean() ? new Address() : new SubAddress();
+            entity.address.city = pick(random, STRINGS);
+            entity.address.zip = random.nextInt(3);
+            return entity;
+        }
+    }
+
+    static class AddressDto {
+        private String city;
+        private int zip;
+        private String unit;
+    }
+
+    static class Dto {
+        private int count;
+        private long total;
+        private boolean active;
+        private double ratio;
+        private short level;
+        private char grade;
+        private float score;
+        private byte flags;
+        private Integer boxedCount;
+        private Integer unboxedCount;
+        private String name;
+        @AuditChange(ignoreUpdateNullValue = true)
+        private String nickname;
+        private Status status;
+        private LocalDate birthDate;
+        private List<String> tags;
+        @AuditChange(entityField = "legacyCode")
+        private String code;
+        @AuditChange(ignoreField = true)
+        private String note;
+        private String createdBy;
+        private String missing;
+        private AddressDto address;
+
+        static Dto random(final Random random) {
+            final var dto = new Dto();
+            dto.count = random.nextInt(3);
+            dto.total = random.nextInt(3);
+            dto.active = random.nextBoolean();
+            dto.ratio = pick(random, DOUBLES);
+            dto.level = (short) random.nextInt(3);
+            dto.grade = (char) ('a' + random.nextInt(3));
+            dto.score = pick(random, FLOATS);
+            dto.flags = (byte) random.nextInt(3);
+            dto.boxedCount = pick(random, INTEGERS);
+            dto.unboxedCount = random.nextInt(3);
+            dto.name = pick(random, STRINGS);
+            dto.nickname = pick(random, STRINGS);
+            dto.status = random.nextBoolean() ? Status.ACTIVE : null;
+            dto.birthDate = pick(random, DATES);
+            dto.tags = pick(random, TAGS);
+            dto.code = pick(random, STRINGS);
+            dto.note = pick(random, STRINGS);
+            dto.createdBy = pick(random, STRINGS);
+            dto.missing = pick(random, STRINGS);
+            dto.address = new AddressDto();
+            dto.address.city = pick(random, STRINGS);
+            dto.address.zip = random.nextInt(3);
+            dto.address.unit = pick(random, STRINGS);
+            return dto;
+        }
+    }
+}
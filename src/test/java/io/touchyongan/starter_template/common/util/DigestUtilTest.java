@@ -0,0 +1,74 @@
+package io.touchyongan.starter_template.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DigestUtilTest {
+    private static final int TASKS = 64;
+    private static final int DIGESTS_PER_TASK = 2_000;
+
+    @Test
+    void digestsOfTextBytesAndBufferMatchMessageDigest() throws NoSuchAlgorithmException {
+        final var ascii = "eyJhbGciOiJIUzI1NiJ9." + "a".repeat(1_000) + ".signature";
+        final var nonAscii = "token-é-日本-😀-" + "b".repeat(600);
+
+        for (final var text : new String[]{"", ascii, nonAscii}) {
+            final var bytes = text.getBytes(StandardCharsets.UTF_8);
+            final var expected = MessageDigest.getInstance("SHA-256").digest(bytes);
+            assertThat(DigestUtil.sha256(text)).isEqualTo(expected);
+            assertThat(DigestUtil.sha256(bytes)).isEqualTo(expected);
+            assertThat(DigestUtil.sha256(ByteBuffer.wrap(bytes))).isEqualTo(expected);
+            assertThat(DigestUtil.sha256(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip())).isEqualTo(expected);
+        }
+    }
+
+    // Platform threads are preempted within a digest, virtual threads share carriers and slots of the pool
+    @Test
+    void concurrentDigestsOfPlatformThreadsAreNotCorrupted() throws Exception {
+        try (final var executor = Executors.newFixedThreadPool(8)) {
+            assertNoMismatch(executor);
+        }
+    }
+
+    @Test
+    void concurrentDigestsOfVirtualThreadsAreNotCorrupted() throws Exception {
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertNoMismatch(executor);
+        }
+    }
+
+    private static void assertNoMismatch(final ExecutorService executor) throws Exception {
+        final var start = new CountDownLatch(1);
+        final var futures = new ArrayList<Future<Integer>>();
+        for (var t = 0; t < TASKS; t++) {
+            final var taskNo = t;
+            futures.add(executor.submit(() -> {
+                final var reference = MessageDigest.getInstance("SHA-256");
+                start.await();
+                var mismatches = 0;
+                for (var i = 0; i < DIGESTS_PER_TASK; i++) {
+                    final var token = "token-%d-%d".formatted(taskNo, i);
+                    if (!MessageDigest.isEqual(DigestUtil.sha256(token), reference.digest(token.getBytes(StandardCharsets.UTF_8)))) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        start.countDown();
+        for (final var future : futures) {
+            assertThat(future.get()).isZero();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.touchyongan.starter_template.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(AsyncConfig.class)
+            .withPropertyValues("spring.task.execution.pool.core-size=1", "spring.task.execution.pool.max-size=2",
+                    "spring.task.execution.pool.queue-capacity=3");
+
+    @Test
+    void executorOfAsyncIsBoundedAndRunsRejectedTaskOnCaller() {
+        contextRunner.run(context -> {
+            final var executor = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+            assertThat(executor.getQueueCapacity()).isEqualTo(3);
+            assertThat(executor.getThreadPoolExecutor().getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+        });
+    }
+}
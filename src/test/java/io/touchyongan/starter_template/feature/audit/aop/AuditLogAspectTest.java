@@ -0,0 +1,101 @@
+package io.touchyongan.starter_template.feature.audit.aop;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.touchyongan.starter_template.config.properties.MaskPIIInfoProperties;
+import io.touchyongan.starter_template.feature.audit.controller.AuditTrailController;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.audit.service.AuditTrailService;
+import io.touchyongan.starter_template.feature.auth.controller.AuthController;
+import io.touchyongan.starter_template.feature.auth.data.LoginRequest;
+import io.touchyongan.starter_template.infrastructure.metrics.StageMetrics;
+import io.touchyongan.starter_template.infrastructure.permission.EntityActionRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditLogAspectTest {
+    private final AuditTrailService auditTrailService = mock(AuditTrailService.class);
+    private final AuditLogAspect aspect = new AuditLogAspect(new MaskPIIInfoProperties(List.of(), List.of("password")), new ObjectMapper(),
+            auditTrailService, new StageMetrics(new SimpleMeterRegistry()), new EntityActionRegistry());
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void bindRequest() {
+        request = spy(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getMappingIsNotCapturedNorSaved() throws Throwable {
+        request.setMethod("GET");
+        request.setRequestURI("/audit-trails/1");
+
+        final var result = aspect.logAround(joinPoint(AuditTrailController.class.getDeclaredMethod("getAuditTrailByDetails", Long.class)));
+
+        assertThat(result).isEqualTo("result");
+        verify(request, never()).getInputStream();
+        verify(auditTrailService, never()).saveAuditLogAsync(any());
+    }
+
+    @Test
+    void auditedMethodRecordsEntityActionAndMaskedBody() throws Throwable {
+        request.setMethod("POST");
+        request.setRequestURI("/auth/token");
+        request.setContent("{\"username\":\"admin\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8));
+
+        aspect.logAround(joinPoint(AuthController.class.getDeclaredMethod("login", LoginRequest.class)));
+
+        final var saved = ArgumentCaptor.forClass(AuditTrail.class);
+        verify(auditTrailService).saveAuditLogAsync(saved.capture());
+        assertThat(saved.getValue().getEntity()).isEqualTo("APP_USER");
+        assertThat(saved.getValue().getAction()).isEqualTo("LOGIN");
+        assertThat(saved.getValue().getRequestUrl()).isEqualTo("/auth/token");
+        assertThat(saved.getValue().getRequestBody().toString()).doesNotContain("secret");
+    }
+
+    @Test
+    void malformedBodyIsRecordedAsJsonString() throws Throwable {
+        request.setMethod("POST");
+        request.setRequestURI("/auth/token");
+        request.setContent("{\"username\":\"admin\",".getBytes(StandardCharsets.UTF_8));
+
+        aspect.logAround(joinPoint(AuthController.class.getDeclaredMethod("login", LoginRequest.class)));
+
+        final var saved = ArgumentCaptor.forClass(AuditTrail.class);
+        verify(auditTrailService).saveAuditLogAsync(saved.capture());
+        assertThat(new ObjectMapper().readTree(saved.getValue().getRequestBody().toString()).asText()).isEqualTo("{\"username\":\"admin\",");
+    }
+
+    private static ProceedingJoinPoint joinPoint(final Method method) throws Throwable {
+        final var signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        final var joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn("result");
+        return joinPoint;
+    }
+}
@@ -0,0 +1,40 @@
+package io.touchyongan.starter_template.feature.audit.data;
+
+import io.touchyongan.starter_template.common.exception.custom.BaseApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditStatsFilterTest {
+    private static final LocalDateTime END = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Test
+    void parsesIntervalAndDistinctDimensionsIgnoringCase() {
+        final var filter = AuditStatsFilter.of("Hour", List.of("username", "STATUS", "username"), null, END, 100);
+
+        assertThat(filter.getInterval()).isEqualTo(AuditStatsInterval.HOUR);
+        assertThat(filter.getGroupBy()).containsExactly(AuditStatsDimension.USERNAME, AuditStatsDimension.STATUS);
+        assertThat(filter.getStartDate()).isEqualTo(END.minusHours(24));
+    }
+
+    @Test
+    void rejectsUnknownDimension() {
+        assertThatThrownBy(() -> AuditStatsFilter.of("day", List.of("ip"), null, END, 100))
+                .isInstanceOf(BaseApiException.class)
+                .extracting("errorCode")
+                .isEqualTo("GENERAL_VALIDATION_INVALID_PARAMETER");
+    }
+
+    @Test
+    void rejectsHourlyRangeLongerThanMonthAndEmptyRange() {
+        assertThatThrownBy(() -> AuditStatsFilter.of("hour", null, END.minusDays(40), END, 100))
+                .isInstanceOf(BaseApiException.class);
+        assertThatThrownBy(() -> AuditStatsFilter.of("day", null, END, END, 100))
+                .isInstanceOf(BaseApiException.class);
+        assertThat(AuditStatsFilter.of("day", null, END.minusDays(40), END, 100).getInterval()).isEqualTo(AuditStatsInterval.DAY);
+    }
+}
@@ -0,0 +1,143 @@
+package io.touchyongan.starter_template.feature.audit.sink.segment;
+
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.feature.audit.entity.ActionStatus;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordRoundTripsThroughCodec() {
+        final var auditTrail = auditTrail(1L);
+        auditTrail.setRequestBody(RawJson.of("{\"name\":\"ស្វាគមន៍\"}"));
+        auditTrail.setErrorMessage(null);
+
+        final var decoded = AuditRecordCodec.decode(AuditRecordCodec.encode(auditTrail, ByteBuffer.allocate(8)));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(auditTrail);
+    }
+
+    @Test
+    void segmentRollsBySizeAndReadsInWriteOrder() throws IOException {
+        try (final var writer = SegmentWriter.open(directory, 256, Duration.ofHours(1), FsyncPolicy.NEVER)) {
+            for (var i = 1L; i <= 5; i++) {
+                writer.append(AuditRecordCodec.encode(auditTrail(i), ByteBuffer.allocate(512)));
+            }
+        }
+
+        final var segments = SegmentReader.closedSegments(directory);
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(readResourceIds(segments)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void recoverTruncatesTornTailOfActiveSegment() throws IOException {
+        final var writer = SegmentWriter.open(directory, 1 << 20, Duration.ofHours(1), FsyncPolicy.ALWAYS);
+        writer.append(AuditRecordCodec.encode(auditTrail(1L), ByteBuffer.allocate(512)));
+        writer.append(AuditRecordCodec.encode(auditTrail(2L), ByteBuffer.allocate(512)));
+        // Process killed in the middle of third frame, writer is never closed
+        final var active = activeSegment();
+        final var validBytes = Files.size(active);
+        try (final var channel = FileChannel.open(active, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(7).flip());
+        }
+
+        SegmentWriter.recover(directory);
+
+        final var segments = SegmentReader.closedSegments(directory);
+        assertThat(segments).hasSize(1);
+        assertThat(Files.size(segments.getFirst())).isEqualTo(validBytes);
+        assertThat(readResourceIds(segments)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void appendAfterFailedAppendStartsFromLastCompleteFrame() throws IOException {
+        try (final var writer = SegmentWriter.open(directory, 1 << 20, Duration.ofHours(1), FsyncPolicy.NEVER)) {
+            writer.append(AuditRecordCodec.encode(auditTrail(1L), ByteBuffer.allocate(512)));
+            // Interrupted write closes the channel in the middle of the append
+            Thread.currentThread().interrupt();
+            final var payload = AuditRecordCodec.encode(auditTrail(2L), ByteBuffer.allocate(512));
+            assertThatThrownBy(() -> writer.append(payload)).isInstanceOf(ClosedByInterruptException.class);
+            assertThat(Thread.interrupted()).isTrue();
+            writer.append(AuditRecordCodec.encode(auditTrail(3L), ByteBuffer.allocate(512)));
+        }
+
+        assertThat(readResourceIds(SegmentReader.closedSegments(directory))).containsExactly(1L, 3L);
+        try (final var files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(SegmentWriter.ACTIVE_SUFFIX))).isEmpty();
+        }
+    }
+
+    @Test
+    void readStopsAtFrameFailingCrc() throws IOException {
+        try (final var writer = SegmentWriter.open(directory, 1 << 20, Duration.ofHours(1), FsyncPolicy.NEVER)) {
+            writer.append(AuditRecordCodec.encode(auditTrail(1L), ByteBuffer.allocate(512)));
+            writer.append(AuditRecordCodec.encode(auditTrail(2L), ByteBuffer.allocate(512)));
+        }
+        final var segment = SegmentReader.closedSegments(directory).getFirst();
+        final var size = Files.size(segment);
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), size - 1);
+        }
+
+        final var result = SegmentReader.read(segment, payload -> {
+        });
+
+        assertThat(result.records()).isEqualTo(1);
+        assertThat(result.complete()).isFalse();
+        assertThat(result.validBytes()).isLessThan(size);
+    }
+
+    private Path activeSegment() throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SegmentWriter.ACTIVE_SUFFIX))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private static List<Long> readResourceIds(final List<Path> segments) throws IOException {
+        final var resourceIds = new ArrayList<Long>();
+        for (final var segment : segments) {
+            SegmentReader.read(segment, payload -> resourceIds.add(AuditRecordCodec.decode(payload).getResourceId()));
+        }
+        return resourceIds;
+    }
+
+    private static AuditTrail auditTrail(final Long resourceId) {
+        final var auditTrail = new AuditTrail();
+        auditTrail.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000));
+        auditTrail.setStatus(ActionStatus.SUCCESS);
+        auditTrail.setEntity("USER");
+        auditTrail.setAction("UPDATE");
+        auditTrail.setResourceId(resourceId);
+        auditTrail.setHttpMethod("PUT");
+        auditTrail.setRequestUrl("/users/" + resourceId);
+        auditTrail.setIp("127.0.0.1");
+        auditTrail.setUserId(7L);
+        auditTrail.setUsername("admin");
+        auditTrail.setNewValue(RawJson.of("{\"id\":" + resourceId + "}"));
+        auditTrail.setErrorMessage("none");
+        auditTrail.setTraceId("trace-" + resourceId);
+        return auditTrail;
+    }
+}
@@ -0,0 +1,104 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.feature.auth.entity.FailedLogin;
+import io.touchyongan.starter_template.feature.auth.repository.FailedLoginBulkTable;
+import io.touchyongan.starter_template.feature.auth.repository.FailedLoginRepository;
+import io.touchyongan.starter_template.infrastructure.bulk.BulkIngester;
+import io.touchyongan.starter_template.infrastructure.bulk.IngestResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FailedLoginBufferTest {
+    private static final LocalDateTime SINCE = LocalDateTime.now().minusMinutes(5);
+
+    private final BulkIngester bulkIngester = mock(BulkIngester.class);
+    private final FailedLoginRepository failedLoginRepository = mock(FailedLoginRepository.class);
+    private final FailedLoginBuffer buffer = new FailedLoginBuffer(bulkIngester, failedLoginRepository, true, 2);
+
+    @Test
+    void attemptsOverCapacityAreDropped() {
+        when(bulkIngester.ingest(eq(FailedLoginBulkTable.INSTANCE), anyList())).thenReturn(written());
+        buffer.add(failedLogin("alice"));
+        buffer.add(failedLogin("alice"));
+        buffer.add(failedLogin("alice"));
+
+        assertThat(buffer.countPending("alice", SINCE)).isEqualTo(2);
+
+        buffer.flush();
+
+        assertThat(buffer.countPending("alice", SINCE)).isZero();
+    }
+
+    @Test
+    void attemptsInFlightCountUntilCommitted() {
+        final var countedInFlight = new AtomicLong(-1);
+        when(bulkIngester.ingest(eq(FailedLoginBulkTable.INSTANCE), anyList())).thenAnswer(invocation -> {
+            countedInFlight.set(buffer.countPending("alice", SINCE));
+            return written();
+        });
+        buffer.add(failedLogin("alice"));
+
+        buffer.flush();
+
+        assertThat(countedInFlight).hasValue(1);
+        assertThat(buffer.countPending("alice", SINCE)).isZero();
+    }
+
+    @Test
+    void attemptsClearedInFlightAreClearedOnceCommitted() {
+        final var failedLogin = failedLogin("alice");
+        when(bulkIngester.ingest(eq(FailedLoginBulkTable.INSTANCE), anyList())).thenAnswer(invocation -> {
+            buffer.clear("alice");
+            return written();
+        });
+        buffer.add(failedLogin);
+
+        buffer.flush();
+
+        assertThat(failedLogin.isStillInAttempt()).isFalse();
+        verify(failedLoginRepository).clearFailedLoginAttemptBefore(eq("alice"), any());
+        assertThat(buffer.countPending("alice", SINCE)).isZero();
+    }
+
+    @Test
+    void failedFlushKeepsAttemptsCounted() {
+        when(bulkIngester.ingest(eq(FailedLoginBulkTable.INSTANCE), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(written());
+        buffer.add(failedLogin("alice"));
+
+        buffer.flush();
+
+        assertThat(buffer.countPending("alice", SINCE)).isEqualTo(1);
+
+        buffer.flush();
+
+        assertThat(buffer.countPending("alice", SINCE)).isZero();
+        verify(failedLoginRepository, never()).clearFailedLoginAttemptBefore(any(), any());
+    }
+
+    private static FailedLogin failedLogin(final String username) {
+        final var failedLogin = new FailedLogin();
+        failedLogin.setUsername(username);
+        failedLogin.setFailedAt(LocalDateTime.now());
+        failedLogin.setStillInAttempt(true);
+        return failedLogin;
+    }
+
+    private static IngestResult<FailedLogin> written() {
+        return new IngestResult<>(IngestResult.IngestMode.COPY, 1, List.of(), 0);
+    }
+}
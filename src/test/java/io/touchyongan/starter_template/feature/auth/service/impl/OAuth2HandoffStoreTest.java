@@ -0,0 +1,46 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.feature.user.data.ProvisionedUserData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OAuth2HandoffStoreTest {
+    private static final CompletableFuture<ProvisionedUserData> USER =
+            CompletableFuture.completedFuture(new ProvisionedUserData(1L, "sso@example.com", true));
+
+    @Test
+    void tokenIsConsumedOnce() {
+        final var store = new OAuth2HandoffStore(Duration.ofMinutes(1), 10);
+        final var token = store.issue(USER);
+
+        assertThat(token).hasSize(43).doesNotContain("=", "+", "/");
+        assertThat(store.consume(token)).containsSame(USER);
+        assertThat(store.consume(token)).isEmpty();
+        assertThat(store.consume("unknown")).isEmpty();
+        assertThat(store.consume(null)).isEmpty();
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndEvicted() {
+        final var store = new OAuth2HandoffStore(Duration.ZERO, 10);
+        final var token = store.issue(USER);
+        store.issue(USER);
+
+        assertThat(store.consume(token)).isEmpty();
+        store.evictExpired();
+        assertThat(store.pending()).isZero();
+    }
+
+    @Test
+    void rejectsIssueWhenPendingHandoffsAreFull() {
+        final var store = new OAuth2HandoffStore(Duration.ofMinutes(1), 1);
+        store.issue(USER);
+
+        assertThatThrownBy(() -> store.issue(USER)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package io.touchyongan.starter_template.feature.auth.service.impl;
+
+import io.touchyongan.starter_template.common.util.JwtUtil;
+import io.touchyongan.starter_template.config.properties.TokenRevocationProperties;
+import io.touchyongan.starter_template.feature.auth.repository.RefreshTokenFamilyRepository;
+import io.touchyongan.starter_template.feature.auth.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevokedTokenRegistryTest {
+    private static final byte[] DIGEST = "01234567890123456789012345678901".getBytes(StandardCharsets.US_ASCII);
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final RevokedTokenRegistry registry = new RevokedTokenRegistry(revokedTokenRepository, mock(RefreshTokenFamilyRepository.class),
+            new TokenRevocationProperties(Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(15), 1000, 0.001));
+
+    @Test
+    void tokenIsCheckedByDatabaseUntilFirstSyncSucceeds() {
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(revokedTokenRepository).forEachSince(anyLong(), any(), any());
+        when(revokedTokenRepository.isRevoked(JwtUtil.encodeDigest(DIGEST))).thenReturn(true);
+
+        registry.afterSingletonsInstantiated();
+
+        assertThat(registry.isRevoked(DIGEST)).isTrue();
+    }
+
+    @Test
+    void tokenNotInFilterSkipsDatabaseAfterSync() {
+        registry.sync();
+
+        assertThat(registry.isRevoked(DIGEST)).isFalse();
+        verify(revokedTokenRepository, never()).isRevoked(any());
+    }
+}
@@ -0,0 +1,51 @@
+package io.touchyongan.starter_template.infrastructure.aot;
+
+import io.touchyongan.starter_template.common.data.RawJson;
+import io.touchyongan.starter_template.feature.audit.data.AuditTrailData;
+import io.touchyongan.starter_template.feature.audit.entity.AuditTrail;
+import io.touchyongan.starter_template.feature.user.entity.AppUser;
+import io.touchyongan.starter_template.infrastructure.jpa.RawJsonType;
+import io.touchyongan.starter_template.infrastructure.permission.CustomSecurityExpressionRoot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationRuntimeHintsTest {
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void registerHints() {
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void projectionAndAuditDiffClassesExposeFields() throws NoSuchFieldException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuditTrailData.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onField(AuditTrail.class.getDeclaredField("entity"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onField(AppUser.class.getDeclaredField("username"))).accepts(hints);
+    }
+
+    @Test
+    void typesCreatedByNameAreRegistered() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(RawJsonType.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(RawJson.class.getName() + "$RawJsonDeserializer"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(CustomSecurityExpressionRoot.class.getMethod("customCheckPermission"))).accepts(hints);
+    }
+
+    @Test
+    void resourcesLoadedOutsideOfSpringAreRegistered() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("i18n/errors/messages_errors_km.properties")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("serverkey/server-keystore.p12")).accepts(hints);
+    }
+}
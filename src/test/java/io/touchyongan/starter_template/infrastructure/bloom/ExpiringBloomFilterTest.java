@@ -0,0 +1,62 @@
+package io.touchyongan.starter_template.infrastructure.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringBloomFilterTest {
+    private static final Instant NOW = Instant.parse("2026-10-19T09:00:00Z");
+    private static final int EXPECTED = 10_000;
+
+    @Test
+    void putDigestsAreFoundUntilExpired() throws NoSuchAlgorithmException {
+        final var filter = new ExpiringBloomFilter(Duration.ofMinutes(15), EXPECTED, 0.001);
+        for (var i = 0; i < EXPECTED; i++) {
+            filter.put(digest("revoked-" + i), NOW.plusSeconds(i % 3600));
+        }
+
+        for (var i = 0; i < EXPECTED; i++) {
+            assertThat(filter.mightContain(digest("revoked-" + i), NOW)).isTrue();
+        }
+        assertThat(filter.mightContain(digest("revoked-1"), NOW.plus(Duration.ofHours(2)))).isFalse();
+    }
+
+    @Test
+    void falsePositiveRateIsNearTarget() throws NoSuchAlgorithmException {
+        final var filter = new ExpiringBloomFilter(Duration.ofHours(1), EXPECTED, 0.01);
+        for (var i = 0; i < EXPECTED; i++) {
+            filter.put(digest("revoked-" + i), NOW.plusSeconds(60));
+        }
+
+        var falsePositives = 0;
+        for (var i = 0; i < EXPECTED; i++) {
+            if (filter.mightContain(digest("valid-" + i), NOW)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(EXPECTED * 2 / 100);
+    }
+
+    @Test
+    void pruneDropsExpiredBuckets() throws NoSuchAlgorithmException {
+        final var filter = new ExpiringBloomFilter(Duration.ofMinutes(15), EXPECTED, 0.001);
+        filter.put(digest("short"), NOW.plus(Duration.ofMinutes(5)));
+        filter.put(digest("long"), NOW.plus(Duration.ofHours(1)));
+
+        filter.prune(NOW.plus(Duration.ofMinutes(30)));
+
+        assertThat(filter.bucketCount()).isEqualTo(1);
+        assertThat(filter.mightContain(digest("short"), NOW)).isFalse();
+        assertThat(filter.mightContain(digest("long"), NOW)).isTrue();
+    }
+
+    private static byte[] digest(final String token) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package io.touchyongan.starter_template.infrastructure.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PgBinaryCopyWriterTest {
+    private final ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    private final CopyIn copyIn = mock(CopyIn.class);
+
+    PgBinaryCopyWriterTest() throws SQLException {
+        doAnswer(invocation -> {
+            copied.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.endCopy()).thenReturn(1L);
+    }
+
+    @Test
+    void rowIsEncodedInBinaryCopyFormat() throws SQLException {
+        final var writer = new PgBinaryCopyWriter(copyIn, 16);
+        writer.startRow(6)
+                .putText("ក")
+                .putNull()
+                .putInt8(42L)
+                .putBool(true)
+                .putJsonb("{}")
+                .putTimestamp(LocalDateTime.of(2000, 1, 1, 0, 0, 1, 500_000));
+
+        assertThat(writer.finish()).isEqualTo(1);
+        final var buffer = ByteBuffer.wrap(copied.toByteArray());
+        final var signature = new byte[11];
+        buffer.get(signature);
+        assertThat(signature).isEqualTo(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0});
+        assertThat(buffer.getInt()).isZero();
+        assertThat(buffer.getInt()).isZero();
+        assertThat(buffer.getShort()).isEqualTo((short) 6);
+        assertThat(text(buffer)).isEqualTo("ក");
+        assertThat(buffer.getInt()).isEqualTo(-1);
+        assertThat(buffer.getInt()).isEqualTo(8);
+        assertThat(buffer.getLong()).isEqualTo(42L);
+        assertThat(buffer.getInt()).isEqualTo(1);
+        assertThat(buffer.get()).isEqualTo((byte) 1);
+        assertThat(buffer.getInt()).isEqualTo(3);
+        assertThat(buffer.get()).isEqualTo((byte) 1);
+        assertThat((char) buffer.get()).isEqualTo('{');
+        assertThat((char) buffer.get()).isEqualTo('}');
+        assertThat(buffer.getInt()).isEqualTo(8);
+        assertThat(buffer.getLong()).isEqualTo(1_000_500L);
+        assertThat(buffer.getShort()).isEqualTo((short) -1);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void fieldLargerThanBufferIsWrittenWhole() throws SQLException {
+        final var value = "x".repeat(1000);
+        final var writer = new PgBinaryCopyWriter(copyIn, 32);
+        writer.startRow(1).putText(value);
+        writer.finish();
+
+        final var buffer = ByteBuffer.wrap(copied.toByteArray());
+        buffer.position(11 + 4 + 4 + 2);
+        assertThat(text(buffer)).isEqualTo(value);
+        assertThat(buffer.getShort()).isEqualTo((short) -1);
+    }
+
+    @Test
+    void unpairedSurrogateIsReplacedLikeStringGetBytes() throws SQLException {
+        final var value = "a\uD800b\uDC00c😀";
+        final var writer = new PgBinaryCopyWriter(copyIn, 16);
+        writer.startRow(1).putText(value);
+        writer.finish();
+
+        final var buffer = ByteBuffer.wrap(copied.toByteArray());
+        buffer.position(11 + 4 + 4 + 2);
+        final var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        assertThat(bytes).isEqualTo(value.getBytes(StandardCharsets.UTF_8));
+        assertThat(buffer.getShort()).isEqualTo((short) -1);
+    }
+
+    private static String text(final ByteBuffer buffer) {
+        final var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
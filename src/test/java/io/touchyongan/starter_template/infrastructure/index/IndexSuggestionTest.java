@@ -0,0 +1,58 @@
+package io.touchyongan.starter_template.infrastructure.index;
+
+import io.touchyongan.starter_template.common.specification.SearchCriteria;
+import io.touchyongan.starter_template.common.specification.SearchOperator;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexSuggestionTest {
+    private static final Map<String, String> COLUMNS = Map.of("id", "id", "username", "username", "entity", "entity",
+            "createdAt", "created_at", "action", "action");
+
+    @Test
+    void shapeIgnoresValuesAndCriteriaOrderButKeepsFixedValues() {
+        final var first = QueryShape.of(Object.class, List.of(
+                SearchCriteria.newSearchCriteria("username", SearchOperator.EQUAL, "alice"),
+                SearchCriteria.newFixedSearchCriteria("entity", SearchOperator.NOT_EQUAL, "AUDIT_TRAILS"),
+                SearchCriteria.newSearchCriteria("action", SearchOperator.EQUAL, null)), Sort.by(Sort.Direction.DESC, "id"));
+        final var second = QueryShape.of(Object.class, List.of(
+                SearchCriteria.newFixedSearchCriteria("entity", SearchOperator.NOT_EQUAL, "AUDIT_TRAILS"),
+                SearchCriteria.newSearchCriteria("username", SearchOperator.EQUAL, "bob")), Sort.by(Sort.Direction.DESC, "id"));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.conditions()).extracting(QueryShape.Condition::fixedValue).containsExactly("AUDIT_TRAILS", null);
+    }
+
+    @Test
+    void keysFollowEqualitySortRangeWithFixedConditionAsPredicate() {
+        final var shape = QueryShape.of(Object.class, List.of(
+                SearchCriteria.newSearchCriteria("createdAt", SearchOperator.GREATER_THAN_OR_EQUAL, LocalDateTime.now()),
+                SearchCriteria.newSearchCriteria("username", SearchOperator.EQUAL, "alice"),
+                SearchCriteria.newSearchCriteria("action", SearchOperator.LIKE, "log"),
+                SearchCriteria.newFixedSearchCriteria("entity", SearchOperator.NOT_EQUAL, "AUDIT_TRAILS")), Sort.by(Sort.Direction.DESC, "id"));
+
+        final var suggestion = IndexSuggestion.of("audit_trail", shape, COLUMNS::get, List.of("id", "username", "action"), 4).orElseThrow();
+
+        assertThat(suggestion.toDdl()).isEqualTo("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_trail_username_id_created_at_advised "
+                + "ON \"audit_trail\" USING btree (\"username\", \"id\" DESC, \"created_at\") INCLUDE (\"action\") WHERE \"entity\" <> 'AUDIT_TRAILS';");
+    }
+
+    @Test
+    void existingIndexWithSameLeadingKeysCoversSuggestion() {
+        final var shape = QueryShape.of(Object.class, List.of(
+                SearchCriteria.newSearchCriteria("username", SearchOperator.EQUAL, "alice")), Sort.by(Sort.Direction.DESC, "id"));
+        final var suggestion = IndexSuggestion.of("audit_trail", shape, COLUMNS::get, List.of(), 4).orElseThrow();
+
+        assertThat(suggestion.isCoveredBy(List.of("CREATE INDEX a ON public.audit_trail USING btree (username, id DESC, created_at)"))).isTrue();
+        assertThat(suggestion.isCoveredBy(List.of("CREATE INDEX b ON public.audit_trail USING btree (username, id)"))).isFalse();
+        assertThat(IndexSuggestion.selectedColumns("select at1_0.id,at1_0.username from audit_trail at1_0 where at1_0.id=?"))
+                .containsExactly("id", "username");
+        assertThat(IndexSuggestion.selectedColumns("select au1_0.id,ui1_0.id from app_users au1_0 left join user_info ui1_0 on x")).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package io.touchyongan.starter_template.infrastructure.jpa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchFetchExecutorTest {
+
+    @Test
+    void chunksDistinctIdsInInputOrder() {
+        try (final var executor = new BatchFetchExecutor(2, 1, 1)) {
+            assertThat(executor.chunks(Arrays.asList(5L, 3L, null, 5L, 1L, 9L, 3L)))
+                    .containsExactly(List.of(5L, 3L), List.of(1L, 9L));
+        }
+    }
+
+    @Test
+    void parallelFetchKeepsOrderOfChunksAndRethrowsFailure() {
+        try (final var executor = new BatchFetchExecutor(1, 3, 8)) {
+            final var chunks = executor.chunks(List.of(4L, 2L, 7L, 1L));
+
+            final var results = executor.fetch(chunks, chunk -> List.of(chunk.getFirst() * 10), true);
+            assertThat(results).containsExactly(List.of(40L), List.of(20L), List.of(70L), List.of(10L));
+
+            assertThatThrownBy(() -> executor.fetch(chunks, chunk -> {
+                if (chunk.getFirst() == 7L) {
+                    throw new IllegalArgumentException("chunk 7");
+                }
+                return chunk;
+            }, true)).isInstanceOf(IllegalArgumentException.class).hasMessage("chunk 7");
+        }
+    }
+
+    @Test
+    void chunkBeyondQueueCapacityIsFetchedOnCallerThread() {
+        final var caller = Thread.currentThread();
+        final var callerFetched = new CountDownLatch(1);
+        final var fetchedBy = new ConcurrentHashMap<Long, Thread>();
+        try (final var executor = new BatchFetchExecutor(1, 2, 1)) {
+            final var chunks = executor.chunks(List.of(1L, 2L, 3L, 4L));
+
+            // Both threads wait until the caller had to fetch a chunk itself, so the queue of one is full
+            final var results = executor.fetch(chunks, chunk -> {
+                fetchedBy.put(chunk.getFirst(), Thread.currentThread());
+                if (Thread.currentThread() == caller) {
+                    callerFetched.countDown();
+                } else {
+                    await(callerFetched);
+                }
+                return chunk;
+            }, true);
+
+            assertThat(results).containsExactly(List.of(1L), List.of(2L), List.of(3L), List.of(4L));
+            assertThat(fetchedBy.get(4L)).isSameAs(caller);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
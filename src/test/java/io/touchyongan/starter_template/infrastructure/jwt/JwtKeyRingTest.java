@@ -0,0 +1,66 @@
+package io.touchyongan.starter_template.infrastructure.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+    private static final Duration TOKEN_LIFETIME = Duration.ofDays(1);
+
+    @Test
+    void latestActiveKeySignsAndNextKeyIsPublishedAhead() {
+        final var now = Instant.now();
+        final var previous = JwtSigningKey.generate(SigningAlgorithm.EDDSA, now.minus(Duration.ofDays(10)));
+        final var current = JwtSigningKey.generate(SigningAlgorithm.EDDSA, now.minus(Duration.ofHours(1)));
+        final var next = JwtSigningKey.generate(SigningAlgorithm.EDDSA, now.plus(Duration.ofDays(1)));
+
+        final var keyRing = new JwtKeyRing(List.of(next, previous, current), TOKEN_LIFETIME);
+
+        assertThat(keyRing.signingKey().kid()).isEqualTo(current.kid());
+        assertThat(keyRing.jwks().json()).contains(previous.kid(), current.kid(), next.kid());
+    }
+
+    @Test
+    void keyIsRetiredOnceTokensItSignedHaveExpired() {
+        final var now = Instant.now();
+        final var retired = JwtSigningKey.generate(SigningAlgorithm.ES256, now.minus(Duration.ofDays(10)));
+        final var current = JwtSigningKey.generate(SigningAlgorithm.ES256, now.minus(TOKEN_LIFETIME).minus(Duration.ofMinutes(1)));
+        final var keyRing = new JwtKeyRing(List.of(retired, current), TOKEN_LIFETIME);
+        final var token = Jwts.builder().header().keyId(retired.kid()).and().subject("user").signWith(retired.signingKey()).compact();
+
+        assertThat(keyRing.jwks().json()).doesNotContain(retired.kid()).contains(current.kid());
+        assertThatThrownBy(() -> Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void tokenIsVerifiedByKeyOfItsKid() {
+        final var now = Instant.now();
+        final var previous = JwtSigningKey.generate(SigningAlgorithm.ES256, now.minus(Duration.ofHours(2)));
+        final var current = JwtSigningKey.generate(SigningAlgorithm.ES256, now.minus(Duration.ofHours(1)));
+        final var keyRing = new JwtKeyRing(List.of(previous, current), TOKEN_LIFETIME);
+        final var token = Jwts.builder().header().keyId(previous.kid()).and().subject("user").signWith(previous.signingKey()).compact();
+        final var withoutKid = Jwts.builder().subject("user").signWith(current.signingKey()).compact();
+
+        assertThat(Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(token).getPayload().getSubject()).isEqualTo("user");
+        assertThatThrownBy(() -> Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(withoutKid))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void hmacKeyIsNotPublishedAndVerifiesTokensWithoutKid() {
+        final var hmac = JwtSigningKey.hmac("wLkD8Pq3XyV7zR9tB2mN6cF1gH4jK8pQsT5vWxYzA0bU3eS7rM");
+        final var keyRing = new JwtKeyRing(List.of(hmac), TOKEN_LIFETIME);
+        final var legacyToken = Jwts.builder().subject("user").signWith(hmac.signingKey()).compact();
+
+        assertThat(keyRing.jwks().json()).isEqualTo("{\"keys\":[]}");
+        assertThat(Jwts.parser().keyLocator(keyRing).build().parseSignedClaims(legacyToken).getPayload().getSubject()).isEqualTo("user");
+    }
+}
@@ -0,0 +1,69 @@
+package io.touchyongan.starter_template.infrastructure.permission;
+
+import io.touchyongan.starter_template.feature.audit.controller.AuditTrailController;
+import io.touchyongan.starter_template.feature.auth.controller.AuthController;
+import io.touchyongan.starter_template.feature.auth.data.LoginRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityActionRegistryTest {
+    private final EntityActionRegistry registry = new EntityActionRegistry();
+
+    @Test
+    void generatedIndexResolvesPermissionOfControllerMethod() throws NoSuchMethodException {
+        final var method = AuditTrailController.class.getDeclaredMethod("getAuditTrailByDetails", Long.class);
+
+        assertThat(registry.find(method)).hasValueSatisfying(descriptor -> {
+            assertThat(descriptor.entity()).isEqualTo("AUDIT_TRAILS");
+            assertThat(descriptor.action()).isEqualTo("READ");
+            assertThat(descriptor.httpMethod()).isEqualTo("GET");
+            assertThat(descriptor.permissionCodes()).containsExactly("AUDIT_TRAILS:READ");
+            assertThat(descriptor.anonymous()).isFalse();
+        });
+        assertThat(registry.getPermissionCodes()).contains("AUDIT_TRAILS:READ");
+    }
+
+    @Test
+    void anonymousActionHasNoPermissionCode() throws NoSuchMethodException {
+        final var method = AuthController.class.getDeclaredMethod("login", LoginRequest.class);
+
+        assertThat(registry.find(method)).hasValueSatisfying(descriptor -> {
+            assertThat(descriptor.action()).isEqualTo("LOGIN");
+            assertThat(descriptor.permissionCodes()).isEmpty();
+            assertThat(descriptor.anonymous()).isTrue();
+        });
+        assertThat(registry.getActionsByEntity().get("APP_USER")).containsExactly("LOGIN", "LOGOUT", "READ", "REFRESH_TOKEN");
+    }
+
+    @Test
+    void methodMissingFromIndexFallsBackToItsAnnotation() throws NoSuchMethodException {
+        final var method = AuditTrailController.class.getDeclaredMethod("getAuditTrailByDetails", Long.class);
+        final var emptyIndex = new EntityActionRegistry(List.of());
+
+        assertThat(emptyIndex.find(method)).isEmpty();
+        assertThat(emptyIndex.findPermissionCodes(method)).containsExactly("AUDIT_TRAILS:READ");
+        assertThat(emptyIndex.findPermissionCodes(method)).isSameAs(emptyIndex.findPermissionCodes(method));
+    }
+
+    @Test
+    void methodWithoutAnnotationRequiresNothingGrantable() throws NoSuchMethodException {
+        final var method = AuthController.class.getDeclaredMethod("login", LoginRequest.class);
+
+        assertThat(new EntityActionRegistry(List.of()).findPermissionCodes(method)).isEmpty();
+    }
+
+    @Test
+    void staleIndexFailsAtStartup() {
+        final var stale = new ActionDescriptor(AuditTrailController.class.getName(), "removedMethod", List.of("int"),
+                "GET", "AUDIT_TRAILS", "READ", Set.of("AUDIT_TRAILS:READ"), false);
+
+        assertThatThrownBy(() -> new EntityActionRegistry(List.of(stale)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("removedMethod");
+    }
+}
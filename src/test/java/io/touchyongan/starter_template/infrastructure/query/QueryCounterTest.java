@@ -0,0 +1,91 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryCounterTest {
+    private static final String BY_ID = "select u.id from app_users u where u.id=?";
+    private static final String ROLES = "select r.id from roles r where r.user_id=?";
+
+    @AfterEach
+    void noContextLeft() {
+        assertThat(QueryContext.current()).isNull();
+    }
+
+    @Test
+    void nestedContextRecordsToItsParents() {
+        final var request = QueryContext.begin("trace");
+        try {
+            execute(BY_ID);
+            try (final var counter = QueryCounter.start()) {
+                execute(ROLES);
+                execute(ROLES);
+
+                assertThat(counter.getStatementCount()).isEqualTo(2);
+            }
+            assertThat(QueryContext.current()).isSameAs(request);
+            execute(BY_ID);
+        } finally {
+            QueryContext.end(request);
+        }
+
+        assertThat(request.getStatementCount()).isEqualTo(4);
+        assertThat(request.getExecutionNanos()).isEqualTo(4_000);
+        assertThat(request.getShapes()).containsExactly(Map.entry(BY_ID, 2), Map.entry(ROLES, 2));
+    }
+
+    @Test
+    void shapeRepeatedUpToThresholdIsReported() {
+        try (final var counter = QueryCounter.start()) {
+            execute(BY_ID);
+            execute(ROLES);
+            execute(ROLES);
+            execute(ROLES);
+
+            final var context = QueryContext.current();
+            assertThat(context.getRepeatedShapes(3)).containsExactly(Map.entry(ROLES, 3));
+            assertThat(context.getRepeatedShapes(4)).isEmpty();
+            assertThat(counter.assertNoRepeatedStatement(4)).isSameAs(counter);
+        }
+    }
+
+    @Test
+    void assertMaxQueriesListsExecutedShapes() {
+        try (final var counter = QueryCounter.start()) {
+            execute(BY_ID);
+            execute(ROLES);
+            execute(ROLES);
+
+            assertThat(counter.assertMaxQueries(3)).isSameAs(counter);
+            assertThatThrownBy(() -> counter.assertMaxQueries(2))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessage("Expected at most 2 statements, but 3 were executed:%n1 x %s%n2 x %s".formatted(BY_ID, ROLES));
+        }
+    }
+
+    @Test
+    void assertNoRepeatedStatementListsRepeatedShapes() {
+        try (final var counter = QueryCounter.start()) {
+            execute(BY_ID);
+            execute(ROLES);
+            execute(ROLES);
+
+            assertThatThrownBy(() -> counter.assertNoRepeatedStatement(2))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessage("Expected no statement repeated 2 times, but found:%n2 x %s".formatted(ROLES));
+        }
+    }
+
+    /**
+     * Same calls as Hibernate (statement inspector) and JDBC proxy (QueryInspectionListener) make for one statement.
+     */
+    private static void execute(final String sql) {
+        new SqlStatementInspector().inspect(sql);
+        QueryContext.current().onStatementExecuted(1, 1_000);
+    }
+}
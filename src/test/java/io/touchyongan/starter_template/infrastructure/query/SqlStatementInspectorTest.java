@@ -0,0 +1,52 @@
+package io.touchyongan.starter_template.infrastructure.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementInspectorTest {
+
+    @Test
+    void inListsOfAnySizeHaveTheSameShape() {
+        final var two = SqlStatementInspector.shapeOf("select a.id from app_users a where a.id in (?,?)");
+        final var three = SqlStatementInspector.shapeOf("select a.id from app_users a where a.id in (? , ?,\n?)");
+
+        assertThat(two).isEqualTo("select a.id from app_users a where a.id in (?...)");
+        assertThat(three).isEqualTo(two);
+    }
+
+    @Test
+    void singleParameterIsNotAnInList() {
+        assertThat(SqlStatementInspector.shapeOf("select a.id from app_users a where a.id = ? and a.name = ?"))
+                .isEqualTo("select a.id from app_users a where a.id = ? and a.name = ?");
+    }
+
+    @Test
+    void whitespaceIsCollapsedAndTrimmed() {
+        assertThat(SqlStatementInspector.shapeOf("  select\n\ta.id\r\n  from   app_users a  "))
+                .isEqualTo("select a.id from app_users a");
+    }
+
+    @Test
+    void inspectRecordsShapeAndKeepsStatement() {
+        final var sql = "select a.id from app_users a where a.id in (?,?)";
+        final var context = QueryContext.begin("trace");
+        try {
+            assertThat(new SqlStatementInspector().inspect(sql)).isSameAs(sql);
+        } finally {
+            QueryContext.end(context);
+        }
+
+        assertThat(context.getShapes()).containsExactly(Map.entry("select a.id from app_users a where a.id in (?...)", 1));
+    }
+
+    @Test
+    void inspectWithoutContextRecordsNothing() {
+        final var sql = "select 1";
+
+        assertThat(new SqlStatementInspector().inspect(sql)).isSameAs(sql);
+        assertThat(QueryContext.current()).isNull();
+    }
+}